@@ -434,6 +434,26 @@ public interface KeyValueService extends AutoCloseable {
                                                 RangeRequest rangeRequest,
                                                 @QueryParam("timestamp") long timestamp);
 
+    /**
+     * Like {@link #getRange(TableReference, RangeRequest, long)}, but allows the key value service to read
+     * several parts of the range concurrently. Key value services that cannot do so read the range serially.
+     *
+     * Remember to close any {@link ClosableIterator}s you get in a finally block.
+     * @param rangeRequest the range to load.
+     * @param timestamp specifies the maximum timestamp (exclusive) at which to retrieve each rows's
+     * @param parallelism how many parts of the range may be read concurrently; key value services that shard
+     * data across hosts may apply this per host.
+     * @param ordered whether rows must be returned in the order of the range; if false, rows from different parts
+     * of the range may be interleaved.
+     */
+    default ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef,
+                                                                  RangeRequest rangeRequest,
+                                                                  long timestamp,
+                                                                  int parallelism,
+                                                                  boolean ordered) {
+        return getRange(tableRef, rangeRequest, timestamp);
+    }
+
     /**
      * Gets timestamp values from the key-value store. For each row, this returns all associated
      * timestamps &lt; given_ts.
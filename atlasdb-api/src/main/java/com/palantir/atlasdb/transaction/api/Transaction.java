@@ -19,6 +19,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
@@ -62,6 +63,32 @@ public interface Transaction {
     @Idempotent
     Map<Cell, byte[]> get(TableReference tableRef, Set<Cell> cells);
 
+    /**
+     * Starts the same read as {@link #getRows(TableReference, Iterable, ColumnSelection)} and returns a future
+     * for its result, so that reads from several tables can be in flight at once. The read sees the same snapshot
+     * and counts towards conflict checking in the same way as the blocking read.
+     *
+     * Commit waits for outstanding reads to finish. They must not be started once commit has begun. By default the
+     * read runs in the calling thread, and the returned future is already complete.
+     */
+    @Idempotent
+    default CompletableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection) {
+        return CompletableFuture.completedFuture(null).thenApply(ignored -> getRows(tableRef, rows, columnSelection));
+    }
+
+    /**
+     * Starts the same read as {@link #get(TableReference, Set)} and returns a future for its result.
+     *
+     * @see #getRowsAsync(TableReference, Iterable, ColumnSelection)
+     */
+    @Idempotent
+    default CompletableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells) {
+        return CompletableFuture.completedFuture(null).thenApply(ignored -> get(tableRef, cells));
+    }
+
     /**
      * Creates a visitable that scans the provided range.
      *
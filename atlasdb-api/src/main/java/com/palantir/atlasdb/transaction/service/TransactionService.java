@@ -48,4 +48,14 @@ public interface TransactionService {
      */
     void putUnlessExists(long startTimestamp, long commitTimestamp)
             throws KeyAlreadyExistsException;
+
+    /**
+     * Equivalent to calling {@link #putUnlessExists(long, long)} for each entry, but implementations may write all
+     * of them at once. This is not atomic: if an exception is thrown, any subset of the entries may have been set.
+     * @throws KeyAlreadyExistsException If any of the values was already set.
+     */
+    default void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp)
+            throws KeyAlreadyExistsException {
+        startTimestampToCommitTimestamp.forEach(this::putUnlessExists);
+    }
 }
@@ -17,8 +17,10 @@
 package com.palantir.atlasdb.keyvalue.cassandra;
 
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.RangeMap;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.common.base.FunctionCheckedException;
@@ -33,6 +35,7 @@ public interface CassandraClientPool {
             FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     <V, K extends Exception> V runWithRetry(FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     InetSocketAddress getRandomHostForKey(byte[] key);
+    RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap();
     Map<InetSocketAddress, CassandraClientPoolingContainer> getCurrentPools();
     <V> void markWritesForTable(Map<Cell, V> entries, TableReference tableRef);
     void shutdown();
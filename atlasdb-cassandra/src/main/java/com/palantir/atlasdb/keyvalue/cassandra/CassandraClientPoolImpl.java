@@ -252,8 +252,8 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         return cassandra.getTokenRangeWritesLogger();
     }
 
-    @VisibleForTesting
-    RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
+    @Override
+    public RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
         return cassandra.getTokenMap();
     }
 
@@ -29,6 +29,7 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -118,6 +119,8 @@ import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
 import com.palantir.common.base.FunctionCheckedException;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.exception.PalantirRuntimeException;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
@@ -203,6 +206,8 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     private final CassandraTableDropper cassandraTableDropper;
 
     private final CassandraTables cassandraTables;
+    private final ExecutorService rangeScanExecutor = PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("Atlas Cassandra KVS range scanner", true /* daemon */));
 
     private final InitializingWrapper wrapper = new InitializingWrapper();
 
@@ -1164,6 +1169,46 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         return getRangeWithPageCreator(tableRef, rangeRequest, timestamp, readConsistency, ValueExtractor::create);
     }
 
+    /**
+     * Like {@link #getRange(TableReference, RangeRequest, long)}, but splits the range at the token range
+     * boundaries of the ring and reads the shards concurrently from their owning replicas. Each shard buffers up to
+     * the range's batch hint of rows ahead of the caller.
+     * <p>
+     * The {@code parallelism} applies per host: in an unordered scan, at most {@code parallelism} shards are read
+     * from any host. An ordered scan may exceed this: a shard whose replicas are all busy is read without waiting,
+     * since the shards holding the host's permits may themselves be waiting for the caller to consume this shard.
+     * <p>
+     * Reverse ranges are read serially, as by {@link #getRange(TableReference, RangeRequest, long)}.
+     * <p>
+     * Remember to close any {@link ClosableIterator}s you get in a finally block.
+     *
+     * @param ordered whether rows must be returned in range order; if not, rows are returned as soon as any shard
+     * has read them.
+     */
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            boolean ordered) {
+        if (rangeRequest.isReverse()) {
+            return getRange(tableRef, rangeRequest, timestamp);
+        }
+        if (rangeRequest.isEmptyRange()) {
+            return ClosableIterators.wrap(ImmutableList.<RowResult<Value>>of().iterator());
+        }
+        SlicePredicate predicate = getSlicePredicate(rangeRequest, timestamp);
+        RowGetter rowGetter = new RowGetter(clientPool, queryRunner, readConsistency, tableRef);
+        int batchHint = rangeRequest.getBatchHint() == null ? 100 : rangeRequest.getBatchHint();
+        return new TokenAwareRangeScanner(clientPool, rangeScanExecutor, parallelism).scan(
+                rangeRequest,
+                batchHint,
+                ordered,
+                (host, shard) -> getRangeWithPageCreator(rowGetter.onHost(host), predicate, new ThriftColumnGetter(),
+                        shard, ValueExtractor::create, timestamp));
+    }
+
     /**
      * Gets timestamp values from the key-value store. For each row, this returns all associated
      * timestamps &lt; given_ts.
@@ -1233,21 +1278,23 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             long startTs,
             ConsistencyLevel consistency,
             Supplier<ResultsExtractor<T>> resultsExtractor) {
-        SlicePredicate predicate;
-        if (rangeRequest.getColumnNames().size() == 1) {
-            byte[] colName = rangeRequest.getColumnNames().iterator().next();
-            predicate = SlicePredicates.latestVersionForColumn(colName, startTs);
-        } else {
-            // TODO(nziebart): optimize fetching multiple columns by performing a parallel range request for
-            // each column. note that if no columns are specified, it's a special case that means all columns
-            predicate = SlicePredicates.create(Range.ALL, Limit.NO_LIMIT);
-        }
+        SlicePredicate predicate = getSlicePredicate(rangeRequest, startTs);
         RowGetter rowGetter = new RowGetter(clientPool, queryRunner, consistency, tableRef);
         ColumnGetter columnGetter = new ThriftColumnGetter();
 
         return getRangeWithPageCreator(rowGetter, predicate, columnGetter, rangeRequest, resultsExtractor, startTs);
     }
 
+    private static SlicePredicate getSlicePredicate(RangeRequest rangeRequest, long startTs) {
+        if (rangeRequest.getColumnNames().size() == 1) {
+            byte[] colName = rangeRequest.getColumnNames().iterator().next();
+            return SlicePredicates.latestVersionForColumn(colName, startTs);
+        }
+        // TODO(nziebart): optimize fetching multiple columns by performing a parallel range request for
+        // each column. note that if no columns are specified, it's a special case that means all columns
+        return SlicePredicates.create(Range.ALL, Limit.NO_LIMIT);
+    }
+
     private <T> ClosableIterator<RowResult<T>> getRangeWithPageCreator(
             RowGetter rowGetter,
             SlicePredicate slicePredicate,
@@ -1759,6 +1806,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
      */
     @Override
     public void close() {
+        rangeScanExecutor.shutdownNow();
         clientPool.shutdown();
         super.close();
     }
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.impl.ParallelRangeScanner;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ClosableIterators;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Scans a range of a Cassandra table as one shard per token range of the ring. Shards are read concurrently, each
+ * from one of the replicas that own it. In an unordered scan, at most {@code concurrencyPerHost} shards are read from
+ * any one host.
+ * <p>
+ * In an ordered scan, a shard whose replicas are all busy is read from a random owner anyway rather than waiting:
+ * the shards holding those permits may be ahead of the consumer and blocked on full buffers, waiting for this one.
+ * Ordered scans can therefore read more than {@code concurrencyPerHost} shards from a host at once.
+ * <p>
+ * Because Atlas tables use the byte ordered partitioner, token ranges are row ranges, so reading the shards in ring
+ * order returns rows in the same order as a serial scan.
+ */
+public class TokenAwareRangeScanner {
+    private final CassandraClientPool clientPool;
+    private final ExecutorService executor;
+    private final int concurrencyPerHost;
+    private final Map<InetSocketAddress, Semaphore> permitsByHost = Maps.newConcurrentMap();
+
+    public TokenAwareRangeScanner(CassandraClientPool clientPool, ExecutorService executor, int concurrencyPerHost) {
+        this.clientPool = clientPool;
+        this.executor = executor;
+        this.concurrencyPerHost = concurrencyPerHost;
+    }
+
+    /**
+     * Reads {@code rangeRequest} shard by shard with {@code shardReader}, which is given the host to read each shard
+     * from. At most {@code bufferedRowsPerShard} rows of each shard are buffered ahead of the consumer.
+     *
+     * @param ordered whether rows must be returned in range order; if not, rows are returned as soon as any shard
+     * has read them.
+     */
+    public <T> ClosableIterator<RowResult<T>> scan(
+            RangeRequest rangeRequest,
+            int bufferedRowsPerShard,
+            boolean ordered,
+            BiFunction<InetSocketAddress, RangeRequest, ClosableIterator<RowResult<T>>> shardReader) {
+        RangeMap<LightweightOppToken, List<InetSocketAddress>> tokenMap = clientPool.getTokenMap();
+        Map<RangeRequest, List<InetSocketAddress>> shards = getShards(rangeRequest, tokenMap);
+        Set<InetSocketAddress> hosts = tokenMap.asMapOfRanges().values().stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+        return ParallelRangeScanner.scanRanges(
+                executor,
+                ImmutableList.copyOf(shards.keySet()),
+                shard -> readShard(shard, shards.get(shard), !ordered, shardReader),
+                concurrencyPerHost * Math.max(hosts.size(), 1),
+                bufferedRowsPerShard,
+                ordered);
+    }
+
+    /**
+     * Splits a forward range at the token range boundaries of the ring, returning each shard with its replicas in
+     * ring order. Shards whose owners are unknown have no replicas.
+     */
+    @VisibleForTesting
+    static Map<RangeRequest, List<InetSocketAddress>> getShards(
+            RangeRequest rangeRequest,
+            RangeMap<LightweightOppToken, List<InetSocketAddress>> tokenMap) {
+        if (rangeRequest.isReverse()) {
+            throw new UnsupportedOperationException("Token aware range scans do not support reverse ranges");
+        }
+        ImmutableMap.Builder<RangeRequest, List<InetSocketAddress>> shards = ImmutableMap.builder();
+        byte[] start = rangeRequest.getStartInclusive();
+        byte[] end = rangeRequest.getEndExclusive();
+        for (Range<LightweightOppToken> tokenRange : tokenMap.asMapOfRanges().keySet()) {
+            if (!tokenRange.hasUpperBound() || RangeRequests.isLastRowName(tokenRange.upperEndpoint().bytes)) {
+                continue;
+            }
+            // Token ranges include their upper token, so the next range starts at the first row name after it.
+            byte[] boundary = RangeRequests.nextLexicographicName(tokenRange.upperEndpoint().bytes);
+            if (UnsignedBytes.lexicographicalComparator().compare(boundary, start) <= 0) {
+                continue;
+            }
+            if (end.length > 0 && UnsignedBytes.lexicographicalComparator().compare(boundary, end) >= 0) {
+                break;
+            }
+            shards.put(rangeRequest.getBuilder().startRowInclusive(start).endRowExclusive(boundary).build(),
+                    getReplicas(tokenMap, start));
+            start = boundary;
+        }
+        shards.put(rangeRequest.getBuilder().startRowInclusive(start).build(), getReplicas(tokenMap, start));
+        return shards.build();
+    }
+
+    private static List<InetSocketAddress> getReplicas(
+            RangeMap<LightweightOppToken, List<InetSocketAddress>> tokenMap,
+            byte[] row) {
+        List<InetSocketAddress> replicas = tokenMap.get(new LightweightOppToken(row));
+        return replicas == null ? ImmutableList.of() : replicas;
+    }
+
+    private <T> ClosableIterator<RowResult<T>> readShard(
+            RangeRequest shard,
+            List<InetSocketAddress> replicas,
+            boolean waitForPermit,
+            BiFunction<InetSocketAddress, RangeRequest, ClosableIterator<RowResult<T>>> shardReader) {
+        List<InetSocketAddress> candidates = Lists.newArrayList(replicas);
+        Collections.shuffle(candidates);
+        for (InetSocketAddress replica : candidates) {
+            Semaphore permits = permitsFor(replica);
+            if (permits.tryAcquire()) {
+                return readShardHoldingPermit(replica, shard, permits, shardReader);
+            }
+        }
+
+        InetSocketAddress host = clientPool.getRandomHostForKey(shard.getStartInclusive());
+        if (!waitForPermit) {
+            return shardReader.apply(host, shard);
+        }
+        Semaphore permits = permitsFor(host);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+        return readShardHoldingPermit(host, shard, permits, shardReader);
+    }
+
+    private static <T> ClosableIterator<RowResult<T>> readShardHoldingPermit(
+            InetSocketAddress host,
+            RangeRequest shard,
+            Semaphore permits,
+            BiFunction<InetSocketAddress, RangeRequest, ClosableIterator<RowResult<T>>> shardReader) {
+        try {
+            ClosableIterator<RowResult<T>> rows = shardReader.apply(host, shard);
+            return ClosableIterators.wrap(rows, () -> {
+                try {
+                    rows.close();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Semaphore permitsFor(InetSocketAddress host) {
+        return permitsByHost.computeIfAbsent(host, unused -> new Semaphore(concurrencyPerHost));
+    }
+}
@@ -17,6 +17,7 @@ package com.palantir.atlasdb.keyvalue.cassandra.paging;
 
 import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.KeyRange;
@@ -37,20 +38,39 @@ public class RowGetter {
     private TracingQueryRunner queryRunner;
     private ConsistencyLevel consistency;
     private TableReference tableRef;
+    private Optional<InetSocketAddress> pinnedHost;
 
     public RowGetter(
             CassandraClientPool clientPool,
             TracingQueryRunner queryRunner,
             ConsistencyLevel consistency,
             TableReference tableRef) {
+        this(clientPool, queryRunner, consistency, tableRef, Optional.empty());
+    }
+
+    private RowGetter(
+            CassandraClientPool clientPool,
+            TracingQueryRunner queryRunner,
+            ConsistencyLevel consistency,
+            TableReference tableRef,
+            Optional<InetSocketAddress> pinnedHost) {
         this.clientPool = clientPool;
         this.queryRunner = queryRunner;
         this.consistency = consistency;
         this.tableRef = tableRef;
+        this.pinnedHost = pinnedHost;
+    }
+
+    /**
+     * Returns a row getter that sends its first attempt at every request to {@code host}, rather than to a random
+     * owner of the requested start key.
+     */
+    public RowGetter onHost(InetSocketAddress host) {
+        return new RowGetter(clientPool, queryRunner, consistency, tableRef, Optional.of(host));
     }
 
     public List<KeySlice> getRows(String kvsMethodName, KeyRange keyRange, SlicePredicate slicePredicate) {
-        InetSocketAddress host = clientPool.getRandomHostForKey(keyRange.getStart_key());
+        InetSocketAddress host = pinnedHost.orElseGet(() -> clientPool.getRandomHostForKey(keyRange.getStart_key()));
         return clientPool.runWithRetryOnHost(
                 host,
                 new FunctionCheckedException<CassandraClient, List<KeySlice>, RuntimeException>() {
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.KeyRange;
+import org.apache.cassandra.thrift.KeySlice;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.paging.CassandraRangePagingIterable;
+import com.palantir.atlasdb.keyvalue.cassandra.paging.RowGetter;
+import com.palantir.atlasdb.keyvalue.cassandra.paging.ThriftColumnGetter;
+import com.palantir.atlasdb.keyvalue.cassandra.thrift.SlicePredicates;
+import com.palantir.atlasdb.keyvalue.impl.TracingPrefsConfig;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ClosableIterators;
+import com.palantir.common.base.FunctionCheckedException;
+
+public class TokenAwareRangeScannerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final byte[] COLUMN = PtBytes.toBytes("col");
+    private static final int NUM_ROWS = 30;
+    private static final long TIMESTAMP = 10L;
+
+    private static final InetSocketAddress HOST_A = InetSocketAddress.createUnresolved("a", 9160);
+    private static final InetSocketAddress HOST_B = InetSocketAddress.createUnresolved("b", 9160);
+    private static final InetSocketAddress HOST_C = InetSocketAddress.createUnresolved("c", 9160);
+    private static final RangeMap<LightweightOppToken, List<InetSocketAddress>> TOKEN_MAP =
+            ImmutableRangeMap.<LightweightOppToken, List<InetSocketAddress>>builder()
+                    .put(Range.atMost(token(9)), ImmutableList.of(HOST_A, HOST_B))
+                    .put(Range.openClosed(token(9), token(19)), ImmutableList.of(HOST_B, HOST_C))
+                    .put(Range.greaterThan(token(19)), ImmutableList.of(HOST_C, HOST_A))
+                    .build();
+
+    private final CassandraClientPool clientPool = mock(CassandraClientPool.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ConcurrentMap<InetSocketAddress, AtomicInteger> requestsInFlight = Maps.newConcurrentMap();
+    private final ConcurrentMap<InetSocketAddress, Integer> maxRequestsInFlight = Maps.newConcurrentMap();
+    private final Map<String, InetSocketAddress> hostsByStartRow = Maps.newConcurrentMap();
+
+    @Before
+    public void setUp() throws Exception {
+        when(clientPool.getTokenMap()).thenReturn(TOKEN_MAP);
+        when(clientPool.getRandomHostForKey(any())).thenReturn(HOST_A);
+        Map<InetSocketAddress, CassandraClient> clients = ImmutableList.of(HOST_A, HOST_B, HOST_C).stream()
+                .collect(Collectors.toMap(host -> host, this::mockClient));
+        when(clientPool.runWithRetryOnHost(any(), any())).thenAnswer(invocation -> {
+            InetSocketAddress host = (InetSocketAddress) invocation.getArguments()[0];
+            FunctionCheckedException<CassandraClient, ?, ?> fn =
+                    (FunctionCheckedException<CassandraClient, ?, ?>) invocation.getArguments()[1];
+            return fn.apply(clients.get(host));
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void rangeIsSplitAtTokenBoundaries() {
+        Map<RangeRequest, List<InetSocketAddress>> shards =
+                TokenAwareRangeScanner.getShards(RangeRequest.all(), TOKEN_MAP);
+
+        assertThat(shards.keySet()).extracting(RangeRequest::getStartInclusive)
+                .containsExactly(new byte[0], afterToken(9), afterToken(19));
+        assertThat(shards.keySet()).extracting(RangeRequest::getEndExclusive)
+                .containsExactly(afterToken(9), afterToken(19), new byte[0]);
+        assertThat(shards.values()).containsExactly(
+                ImmutableList.of(HOST_A, HOST_B), ImmutableList.of(HOST_B, HOST_C), ImmutableList.of(HOST_C, HOST_A));
+    }
+
+    @Test
+    public void boundedRangeOnlyIncludesOverlappingShards() {
+        RangeRequest range = RangeRequest.builder().startRowInclusive(row(12)).endRowExclusive(row(15)).build();
+
+        assertThat(TokenAwareRangeScanner.getShards(range, TOKEN_MAP)).containsOnlyKeys(range);
+    }
+
+    @Test
+    public void reverseRangeIsRejectedWithMessage() {
+        RangeRequest range = RangeRequest.reverseBuilder().build();
+
+        assertThatThrownBy(() -> TokenAwareRangeScanner.getShards(range, TOKEN_MAP))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("reverse ranges");
+    }
+
+    @Test
+    public void orderedScanReturnsRowsInOrder() {
+        assertThat(scan(2, true)).isEqualTo(IntStream.range(0, NUM_ROWS).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void unorderedScanReturnsEveryRowOnce() {
+        assertThat(scan(2, false)).doesNotHaveDuplicates().hasSize(NUM_ROWS);
+    }
+
+    @Test
+    public void shardsAreReadFromTheirReplicas() {
+        scan(1, false);
+
+        assertThat(TOKEN_MAP.get(token(0))).contains(hostsByStartRow.get(""));
+        assertThat(TOKEN_MAP.get(token(10))).contains(hostsByStartRow.get(PtBytes.toString(afterToken(9))));
+        assertThat(TOKEN_MAP.get(token(20))).contains(hostsByStartRow.get(PtBytes.toString(afterToken(19))));
+    }
+
+    @Test
+    public void unorderedScanRespectsConcurrencyPerHost() {
+        scan(1, false);
+
+        assertThat(maxRequestsInFlight.values()).containsOnly(1);
+    }
+
+    private List<Integer> scan(int concurrencyPerHost, boolean ordered) {
+        RowGetter rowGetter = new RowGetter(clientPool,
+                new TracingQueryRunner(LoggerFactory.getLogger(TokenAwareRangeScannerTest.class),
+                        new TracingPrefsConfig()),
+                ConsistencyLevel.LOCAL_QUORUM,
+                TABLE);
+        RangeRequest range = RangeRequest.builder().batchHint(3).build();
+        TokenAwareRangeScanner scanner = new TokenAwareRangeScanner(clientPool, executor, concurrencyPerHost);
+        try (ClosableIterator<RowResult<Value>> rows = scanner.scan(range, 3, ordered,
+                (host, shard) -> ClosableIterators.wrap(new CassandraRangePagingIterable<>(
+                        rowGetter.onHost(host),
+                        SlicePredicates.create(SlicePredicates.Range.ALL, SlicePredicates.Limit.NO_LIMIT),
+                        new ThriftColumnGetter(),
+                        shard,
+                        ValueExtractor::create,
+                        TIMESTAMP).iterator()))) {
+            return rows.stream()
+                    .map(row -> Ints.fromByteArray(row.getColumns().get(COLUMN).getContents()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private CassandraClient mockClient(InetSocketAddress host) {
+        CassandraClient client = mock(CassandraClient.class);
+        try {
+            when(client.get_range_slices(anyString(), any(), any(), any(), any())).thenAnswer(invocation -> {
+                KeyRange keyRange = (KeyRange) invocation.getArguments()[3];
+                hostsByStartRow.putIfAbsent(PtBytes.toString(keyRange.getStart_key()), host);
+                int inFlight = requestsInFlight.computeIfAbsent(host, unused -> new AtomicInteger()).incrementAndGet();
+                maxRequestsInFlight.merge(host, inFlight, Math::max);
+                Uninterruptibles.sleepUninterruptibly(5, TimeUnit.MILLISECONDS);
+                requestsInFlight.get(host).decrementAndGet();
+                return getRows(keyRange);
+            });
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return client;
+    }
+
+    private static List<KeySlice> getRows(KeyRange keyRange) {
+        byte[] start = keyRange.getStart_key();
+        byte[] endInclusive = keyRange.getEnd_key();
+        return IntStream.range(0, NUM_ROWS)
+                .filter(i -> UnsignedBytes.lexicographicalComparator().compare(row(i), start) >= 0)
+                .filter(i -> endInclusive.length == 0
+                        || UnsignedBytes.lexicographicalComparator().compare(row(i), endInclusive) <= 0)
+                .limit(keyRange.getCount())
+                .mapToObj(i -> {
+                    Column column = new Column(CassandraKeyValueServices.makeCompositeBuffer(COLUMN, TIMESTAMP - 1))
+                            .setValue(Ints.toByteArray(i))
+                            .setTimestamp(TIMESTAMP - 1);
+                    return new KeySlice(ByteBuffer.wrap(row(i)), ImmutableList.of(new ColumnOrSuperColumn()
+                            .setColumn(column)));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] row(int index) {
+        return PtBytes.toBytes(String.format("row%02d", index));
+    }
+
+    private static LightweightOppToken token(int index) {
+        return new LightweightOppToken(row(index));
+    }
+
+    private static byte[] afterToken(int index) {
+        return RangeRequests.nextLexicographicName(row(index));
+    }
+}
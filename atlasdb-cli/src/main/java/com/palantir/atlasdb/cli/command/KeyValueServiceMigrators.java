@@ -60,6 +60,8 @@ public final class KeyValueServiceMigrators {
                 toServices.getKeyValueService(),
                 Suppliers.ofInstance(migrationStartTimestamp),
                 migratorSpec.threads(),
+                migratorSpec.tableThreads(),
+                migratorSpec.writeThreads(),
                 migratorSpec.batchSize(),
                 ImmutableMap.of(),
                 (String message, KeyValueServiceMigrator.KvsMigrationMessageLevel level) ->
@@ -106,6 +108,16 @@ public final class KeyValueServiceMigrators {
             return 16;
         }
 
+        @Value.Default
+        public int tableThreads() {
+            return 4;
+        }
+
+        @Value.Default
+        public int writeThreads() {
+            return 16;
+        }
+
         @Value.Default
         public int batchSize() {
             return 100;
@@ -114,6 +126,8 @@ public final class KeyValueServiceMigrators {
         @Value.Check
         void check() {
             Preconditions.checkArgument(threads() > 0, "Threads used for migration should be positive.");
+            Preconditions.checkArgument(tableThreads() > 0, "Table threads used for migration should be positive.");
+            Preconditions.checkArgument(writeThreads() > 0, "Write threads used for migration should be positive.");
             Preconditions.checkArgument(batchSize() > 0, "Batch size used for migration should be positive.");
         }
     }
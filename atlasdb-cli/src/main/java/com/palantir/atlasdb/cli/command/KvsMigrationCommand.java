@@ -67,6 +67,20 @@ public class KvsMigrationCommand implements Callable<Integer> {
             arity = 1)
     private int threads = 16;
 
+    @Option(name = {"--table-threads"},
+            title = "TABLE THREADS",
+            description = "number of tables to migrate concurrently",
+            required = false,
+            arity = 1)
+    private int tableThreads = 4;
+
+    @Option(name = {"--write-threads"},
+            title = "WRITE THREADS",
+            description = "number of threads writing to the destination key value service",
+            required = false,
+            arity = 1)
+    private int writeThreads = 16;
+
     @Option(name = {"-b", "--batchSize"},
             title = "BATCH SIZE",
             description = "batch size of rows to read",
@@ -175,6 +189,8 @@ public class KvsMigrationCommand implements Callable<Integer> {
                 .fromServices(fromServices)
                 .toServices(toServices)
                 .threads(threads)
+                .tableThreads(tableThreads)
+                .writeThreads(writeThreads)
                 .batchSize(batchSize)
                 .build());
     }
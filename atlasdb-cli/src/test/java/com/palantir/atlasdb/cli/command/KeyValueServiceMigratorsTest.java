@@ -69,6 +69,20 @@ public class KeyValueServiceMigratorsTest {
                 .build()).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void throwsIfSpecifyingNonPositiveTableThreads() throws Exception {
+        assertThatThrownBy(() -> migratorSpecBuilder
+                .tableThreads(0)
+                .build()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void throwsIfSpecifyingNonPositiveWriteThreads() throws Exception {
+        assertThatThrownBy(() -> migratorSpecBuilder
+                .writeThreads(0)
+                .build()).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void throwsIfSpecifyingNegativeBatchSize() throws Exception {
         assertThatThrownBy(() -> migratorSpecBuilder
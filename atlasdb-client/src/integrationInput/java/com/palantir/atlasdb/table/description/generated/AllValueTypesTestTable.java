@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -310,17 +311,19 @@ public final class AllValueTypesTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] component0Bytes = EncodingUtils.encodeUnsignedVarLong(component0);
-            byte[] component1Bytes = EncodingUtils.encodeSignedVarLong(component1);
-            byte[] component2Bytes = PtBytes.toBytes(Long.MIN_VALUE ^ component2);
-            byte[] component3Bytes = EncodingUtils.encodeLittleEndian(component3);
-            byte[] component4Bytes = component4.getBytes();
-            byte[] component5Bytes = EncodingUtils.encodeVarString(component5);
-            byte[] component8Bytes = EncodingUtils.encodeSizedBytes(component8);
-            byte[] component9Bytes = EncodingUtils.encodeNullableFixedLong(component9);
-            byte[] component10Bytes = EncodingUtils.encodeUUID(component10);
-            byte[] blobComponentBytes = blobComponent;
-            return EncodingUtils.add(component0Bytes, component1Bytes, component2Bytes, component3Bytes, component4Bytes, component5Bytes, component8Bytes, component9Bytes, component10Bytes, blobComponentBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(component0) + EncodingUtils.sizeOfSignedVarLong(component1) + 8 + 8 + 32 + EncodingUtils.sizeOfVarString(component5) + EncodingUtils.sizeOfSizedBytes(component8) + 9 + 16 + blobComponent.length];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(component0, __output, __index);
+            __index = EncodingUtils.encodeSignedVarLong(component1, __output, __index);
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ component2, __output, __index);
+            __index = EncodingUtils.encodeLittleEndian(component3, __output, __index);
+            __index = EncodingUtils.encodeBytes(component4.getBytes(), __output, __index);
+            __index = EncodingUtils.encodeVarString(component5, __output, __index);
+            __index = EncodingUtils.encodeSizedBytes(component8, __output, __index);
+            __index = EncodingUtils.encodeNullableFixedLong(component9, __output, __index);
+            __index = EncodingUtils.encodeUUID(component10, __output, __index);
+            __index = EncodingUtils.encodeBytes(blobComponent, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<AllValueTypesTestRow> BYTES_HYDRATOR = new Hydrator<AllValueTypesTestRow>() {
@@ -2072,6 +2075,20 @@ public final class AllValueTypesTestTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<AllValueTypesTestRowResult>> getRowsAsync(Iterable<AllValueTypesTestRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<AllValueTypesTestRowResult>> getRowsAsync(Iterable<AllValueTypesTestRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<AllValueTypesTestRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(AllValueTypesTestRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<AllValueTypesTestNamedColumnValue<?>> getRowColumns(AllValueTypesTestRow row) {
         return getRowColumns(row, allColumns);
@@ -2198,6 +2215,7 @@ public final class AllValueTypesTestTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -2253,5 +2271,5 @@ public final class AllValueTypesTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "m62HNZyLfiSwGJe89IYpsg==";
+    static String __CLASS_HASH = "6dS0/30PLNrfiyv6nNyMOw==";
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -186,10 +187,12 @@ public final class HashComponentsTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashOfRowComponentsBytes = PtBytes.toBytes(Long.MIN_VALUE ^ hashOfRowComponents);
-            byte[] component1Bytes = EncodingUtils.encodeUnsignedVarLong(component1);
-            byte[] component2Bytes = EncodingUtils.encodeVarString(component2);
-            return EncodingUtils.add(hashOfRowComponentsBytes, component1Bytes, component2Bytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfUnsignedVarLong(component1) + EncodingUtils.sizeOfVarString(component2)];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ hashOfRowComponents, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(component1, __output, __index);
+            __index = EncodingUtils.encodeVarString(component2, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HashComponentsTestRow> BYTES_HYDRATOR = new Hydrator<HashComponentsTestRow>() {
@@ -545,6 +548,20 @@ public final class HashComponentsTestTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<HashComponentsTestRowResult>> getRowsAsync(Iterable<HashComponentsTestRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<HashComponentsTestRowResult>> getRowsAsync(Iterable<HashComponentsTestRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<HashComponentsTestRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(HashComponentsTestRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<HashComponentsTestNamedColumnValue<?>> getRowColumns(HashComponentsTestRow row) {
         return getRowColumns(row, allColumns);
@@ -720,6 +737,7 @@ public final class HashComponentsTestTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -775,5 +793,5 @@ public final class HashComponentsTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "N0r8rTta9qcxehzWbQu7MQ==";
+    static String __CLASS_HASH = "IE3286mIqG9eEt5LVW2toA==";
 }
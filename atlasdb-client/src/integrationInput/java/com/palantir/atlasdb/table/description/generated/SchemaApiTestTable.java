@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class SchemaApiTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] component1Bytes = PtBytes.toBytes(component1);
-            return EncodingUtils.add(component1Bytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(component1)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(component1, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<SchemaApiTestRow> BYTES_HYDRATOR = new Hydrator<SchemaApiTestRow>() {
@@ -641,6 +644,20 @@ public final class SchemaApiTestTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<SchemaApiTestRowResult>> getRowsAsync(Iterable<SchemaApiTestRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<SchemaApiTestRowResult>> getRowsAsync(Iterable<SchemaApiTestRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<SchemaApiTestRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(SchemaApiTestRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<SchemaApiTestNamedColumnValue<?>> getRowColumns(SchemaApiTestRow row) {
         return getRowColumns(row, allColumns);
@@ -816,6 +833,7 @@ public final class SchemaApiTestTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -871,5 +889,5 @@ public final class SchemaApiTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "5qdVJNmNbPw5F+15Dz/tGw==";
+    static String __CLASS_HASH = "qYyGt20pCfF/X6/p8/nGhA==";
 }
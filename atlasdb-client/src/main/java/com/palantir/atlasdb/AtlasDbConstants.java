@@ -39,6 +39,11 @@ public final class AtlasDbConstants {
     public static final TableReference TIMELOCK_TIMESTAMP_TABLE = TableReference.createWithEmptyNamespace("pt_metropolis_ts");
     public static final TableReference PERSISTED_LOCKS_TABLE = TableReference.createWithEmptyNamespace(
             "_persisted_locks");
+    public static final TableReference SWEEP_QUEUE_TABLE = TableReference.createWithEmptyNamespace("_sweep_queue");
+    public static final TableReference SWEEP_QUEUE_PROGRESS_TABLE = TableReference.createWithEmptyNamespace(
+            "_sweep_queue_progress");
+    public static final TableReference CACHED_TABLE_VERSIONS_TABLE = TableReference.createWithEmptyNamespace(
+            "_cached_table_versions");
 
     public static final TableReference DEFAULT_METADATA_TABLE = TableReference.createWithEmptyNamespace("_metadata");
     public static final TableReference DEFAULT_ORACLE_METADATA_TABLE = TableReference.createWithEmptyNamespace(
@@ -82,6 +87,7 @@ public final class AtlasDbConstants {
 
     public static final Set<TableReference> hiddenTables = ImmutableSet.of(
             TransactionConstants.TRANSACTION_TABLE,
+            TransactionConstants.TRANSACTIONS2_TABLE,
             PUNCH_TABLE,
             OLD_SCRUB_TABLE,
             SCRUB_TABLE,
@@ -89,6 +95,9 @@ public final class AtlasDbConstants {
             PARTITION_MAP_TABLE,
             PERSISTED_LOCKS_TABLE,
             SWEEP_PROGRESS_TABLE,
+            SWEEP_QUEUE_TABLE,
+            SWEEP_QUEUE_PROGRESS_TABLE,
+            CACHED_TABLE_VERSIONS_TABLE,
             DEFAULT_SCHEMA_METADATA_TABLE,
             SWEEP_PROGRESS_V2,
             SWEEP_PROGRESS_V1_5);
@@ -98,6 +107,7 @@ public final class AtlasDbConstants {
      */
     public static final Set<TableReference> ATOMIC_TABLES = ImmutableSet.of(
             TransactionConstants.TRANSACTION_TABLE,
+            TransactionConstants.TRANSACTIONS2_TABLE,
             NAMESPACE_TABLE,
             PERSISTED_LOCKS_TABLE);
 
@@ -120,6 +130,7 @@ public final class AtlasDbConstants {
     public static final boolean DEFAULT_ENABLE_SWEEP = true;
     public static final long DEFAULT_SWEEP_PAUSE_MILLIS = 5 * 1000;
     public static final long DEFAULT_SWEEP_PERSISTENT_LOCK_WAIT_MILLIS = 30_000L;
+    public static final int DEFAULT_SWEEP_THREADS = 1;
     public static final int DEFAULT_SWEEP_DELETE_BATCH_HINT = 128;
     public static final int DEFAULT_SWEEP_CANDIDATE_BATCH_HINT = 128;
     public static final int DEFAULT_SWEEP_READ_LIMIT = 128;
@@ -127,10 +138,19 @@ public final class AtlasDbConstants {
     public static final int DEFAULT_SWEEP_WRITE_THRESHOLD = 1 << 12;
     public static final long DEFAULT_SWEEP_WRITE_SIZE_THRESHOLD = 1 << 25;
 
+    public static final boolean DEFAULT_ENABLE_TARGETED_SWEEP = false;
+    public static final int DEFAULT_TARGETED_SWEEP_SHARDS = 16;
+    public static final int DEFAULT_TARGETED_SWEEP_BATCH_SIZE = 1000;
+
     public static final int DEFAULT_STREAM_IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
 
     public static final long DEFAULT_TIMESTAMP_CACHE_SIZE = 1_000_000;
 
+    public static final boolean DEFAULT_BATCH_TRANSACTION_STARTS = false;
+    public static final boolean DEFAULT_COALESCE_TRANSACTION_SERVICE_CALLS = false;
+    public static final boolean DEFAULT_PIPELINE_COMMITS = false;
+    public static final boolean DEFAULT_ENABLE_KVS_TABLE_METRICS = false;
+
     public static final int MAX_TABLE_PREFIX_LENGTH = 7;
     public static final int MAX_OVERFLOW_TABLE_PREFIX_LENGTH = 6;
 
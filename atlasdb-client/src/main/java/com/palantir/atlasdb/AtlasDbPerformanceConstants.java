@@ -27,4 +27,10 @@ public final class AtlasDbPerformanceConstants {
     public static final int MAX_BATCH_SIZE = 10000;
 
     public static final int MAX_BATCH_SIZE_BYTES = 10 * 1024 * 1024;
+
+    /**
+     * Once the size of a table's rows has been observed, range scans size their pages to return roughly this many
+     * bytes, rather than relying only on the caller's batch hint.
+     */
+    public static final long TARGET_PAGE_SIZE_BYTES = 4 * 1024 * 1024;
 }
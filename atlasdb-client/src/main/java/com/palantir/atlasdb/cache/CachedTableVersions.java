@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.transaction.api.Transaction;
+
+/**
+ * The versions of tables whose metadata is {@link TableMetadata#isCachedAcrossTransactions() cached across
+ * transactions}, kept in {@link AtlasDbConstants#CACHED_TABLE_VERSIONS_TABLE}.
+ *
+ * Every transaction that writes to such a table also writes its start timestamp to the table's version cell. Writers
+ * to the same table therefore conflict with each other, so the version read by a transaction identifies the last
+ * write to the table that committed before the transaction started: two transactions that read the same version see
+ * the same contents of the table.
+ */
+public final class CachedTableVersions {
+    public static final long NO_WRITES = -1;
+
+    private static final byte[] VERSION_COLUMN = PtBytes.toBytes("v");
+
+    private CachedTableVersions() {
+        // Utility class
+    }
+
+    public static void createTable(KeyValueService keyValueService) {
+        keyValueService.createTable(
+                AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+    }
+
+    public static Cell versionCell(TableReference table) {
+        return Cell.create(PtBytes.toBytes(table.getQualifiedName()), VERSION_COLUMN);
+    }
+
+    public static byte[] versionValue(long writerStartTimestamp) {
+        return PtBytes.toBytes(writerStartTimestamp);
+    }
+
+    /**
+     * Returns the version of the table as seen by the given transaction, or {@link #NO_WRITES} if no writes to the
+     * table have been recorded.
+     */
+    public static long getVersion(Transaction transaction, TableReference table) {
+        Cell cell = versionCell(table);
+        byte[] value = transaction.get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, ImmutableSet.of(cell)).get(cell);
+        return value == null ? NO_WRITES : PtBytes.toLong(value);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.util.Pair;
+
+/**
+ * A cache of cell values that is shared between transactions, for tables whose metadata is
+ * {@link TableMetadata#isCachedAcrossTransactions() cached across transactions}.
+ *
+ * Each value is stored with the {@link CachedTableVersions version} of its table seen by the transaction that read
+ * it, and is only served to transactions that see the same version. Every committed write to the table changes its
+ * version, whichever node or transaction manager made it, so a transaction is never served a value that differs from
+ * what it would have read from the key value service.
+ *
+ * The cache is bounded by the approximate number of bytes held in it.
+ */
+public class SharedCellCache {
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final Predicate<TableReference> isCachedTable;
+    private final ConcurrentMap<TableReference, Boolean> cachedTables = Maps.newConcurrentMap();
+    private final ConcurrentMap<TableReference, AtomicLong> latestVersions = Maps.newConcurrentMap();
+    private final Cache<Pair<TableReference, Cell>, CachedValue> values;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name distinguishes the metrics of this cache from those of other caches in the same process
+     */
+    public SharedCellCache(String name, KeyValueService keyValueService, long maxBytes) {
+        this(name, table -> isCachedAcrossTransactions(keyValueService, table), maxBytes);
+    }
+
+    /**
+     * Creates a cache holding values of the tables matching the given predicate, rather than those whose metadata
+     * opts in. Writers to these tables only record their writes if the metadata opts in.
+     */
+    public SharedCellCache(String name, Predicate<TableReference> isCachedTable, long maxBytes) {
+        this.isCachedTable = isCachedTable;
+        this.values = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Pair<TableReference, Cell>, CachedValue>weigher((key, value) -> weigh(key.getRhSide(), value))
+                .recordStats()
+                .build();
+        AtlasDbMetrics.registerGauges(
+                ImmutableMap.<String, Gauge<?>>builder()
+                        .put("hit.count", hits::sum)
+                        .put("miss.count", misses::sum)
+                        .put("hit.ratio", this::hitRatio)
+                        .put("eviction.count", () -> values.stats().evictionCount())
+                        .put("size", values::size)
+                        .build(),
+                MetricRegistry.name(SharedCellCache.class, name));
+    }
+
+    /**
+     * Whether values of the given table may be held in this cache. The table metadata is only read once.
+     */
+    public boolean isCached(TableReference table) {
+        return cachedTables.computeIfAbsent(table, isCachedTable::test);
+    }
+
+    /**
+     * Returns the value of the cell as seen by a transaction which read the given version of the table, an empty
+     * array if the cell has no value, or null if the cache cannot answer.
+     */
+    @Nullable
+    public byte[] get(TableReference table, Cell cell, long tableVersion) {
+        Pair<TableReference, Cell> key = Pair.create(table, cell);
+        CachedValue cached = values.getIfPresent(key);
+        if (cached == null || cached.tableVersion != tableVersion) {
+            if (cached != null && cached.tableVersion < tableVersion) {
+                // The value predates a write that every later transaction will see, so it is unlikely to be used.
+                values.asMap().remove(key, cached);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.value.clone();
+    }
+
+    /**
+     * Caches the value of the cell as read by a transaction which read the given version of the table, and which
+     * must not have written to the table itself. An empty value records that the cell had no value.
+     */
+    public void put(TableReference table, Cell cell, byte[] value, long tableVersion) {
+        long latestVersion = latestVersions.computeIfAbsent(table, unused -> new AtomicLong(tableVersion))
+                .accumulateAndGet(tableVersion, Math::max);
+        if (tableVersion < latestVersion) {
+            // Only transactions that started before the latest write could use this value.
+            return;
+        }
+        values.put(Pair.create(table, cell), new CachedValue(value.clone(), tableVersion));
+    }
+
+    private double hitRatio() {
+        long requests = hits.sum() + misses.sum();
+        return requests == 0 ? 0.0 : (double) hits.sum() / requests;
+    }
+
+    private static int weigh(Cell cell, CachedValue value) {
+        return Ints.saturatedCast(ENTRY_OVERHEAD_BYTES
+                + cell.getRowName().length
+                + cell.getColumnName().length
+                + value.value.length);
+    }
+
+    private static boolean isCachedAcrossTransactions(KeyValueService keyValueService, TableReference table) {
+        byte[] metadata = keyValueService.getMetadataForTable(table);
+        return metadata != null
+                && metadata.length > 0
+                && TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata).isCachedAcrossTransactions();
+    }
+
+    private static final class CachedValue {
+        private final byte[] value;
+        private final long tableVersion;
+
+        CachedValue(byte[] value, long tableVersion) {
+            this.value = value;
+            this.tableVersion = tableVersion;
+        }
+    }
+}
@@ -15,44 +15,77 @@
  */
 package com.palantir.atlasdb.cache;
 
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nullable;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
 
 /**
- * This class just here for readability and not directly leaking / tying us down to a Guava class in our API.
+ * A cache from transaction start timestamp to commit timestamp.
+ *
+ * Entries are stored unboxed in a set-associative table of primitive longs, so neither lookups nor insertions
+ * allocate. Reads are lock-free; each slot carries a version stamp so that a reader never observes a start timestamp
+ * paired with the commit timestamp of a different transaction. A put that collides with a concurrent put to the same
+ * slot is dropped, which is always safe for a cache.
+ *
+ * The table starts small and doubles once it is more than half full and entries start being evicted, up to the
+ * capacity given by the size supplier. The supplier is polled periodically, and the table is shrunk if the
+ * configured size decreases.
  */
 public class TimestampCache {
+    /**
+     * Returned by {@link #getAll(long[], long[])} for start timestamps that are not in the cache.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final int WAY_BITS = 2;
+    private static final int WAYS = 1 << WAY_BITS;
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final long SIZE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     private final Supplier<Long> size;
+    private final Lock resizeLock = new ReentrantLock();
 
-    private volatile Cache<Long, Long> startToCommitTimestampCache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
-    @VisibleForTesting
-    static Cache<Long, Long> createCache(long size) {
-        return CacheBuilder.newBuilder()
-                .maximumSize(size)
-                .recordStats()
-                .build();
-    }
+    private volatile Table table;
+    private volatile int maxCapacity;
+    private volatile long nextSizeCheckNanos;
 
     public TimestampCache(Supplier<Long> size) {
-        this.size = size;
-        startToCommitTimestampCache = createCache(size.get());
-        AtlasDbMetrics.registerCache(startToCommitTimestampCache,
-                MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
+        this(size, MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
     }
 
-    @VisibleForTesting
-    TimestampCache(Cache<Long, Long> cache) {
-        this.size = null;
-        this.startToCommitTimestampCache = cache;
+    public TimestampCache(Supplier<Long> size, String metricsPrefix) {
+        this.size = size;
+        this.maxCapacity = capacityFor(size.get());
+        this.table = new Table(initialCapacity());
+        this.nextSizeCheckNanos = System.nanoTime() + SIZE_CHECK_INTERVAL_NANOS;
+        AtlasDbMetrics.registerGauges(
+                ImmutableMap.<String, Gauge<?>>builder()
+                        .put("hit.count", hits::sum)
+                        .put("miss.count", misses::sum)
+                        .put("request.count", this::requestCount)
+                        .put("hit.ratio", () -> ratio(hits.sum(), 1.0))
+                        .put("miss.ratio", () -> ratio(misses.sum(), 0.0))
+                        .put("eviction.count", evictions::sum)
+                        .put("capacity", () -> table.capacity())
+                        .build(),
+                MetricRegistry.name(metricsPrefix, "cache"));
     }
 
     /**
@@ -63,7 +96,33 @@ public class TimestampCache {
      */
     @Nullable
     public Long getCommitTimestampIfPresent(Long startTimestamp) {
-        return startToCommitTimestampCache.getIfPresent(startTimestamp);
+        long commitTimestamp = get(startTimestamp);
+        return commitTimestamp == MISSING ? null : commitTimestamp;
+    }
+
+    /**
+     * Looks up the commit timestamps of a batch of transactions without allocating.
+     *
+     * @param startTimestamps transaction start timestamps
+     * @param commitTimestamps array of at least the same length, into which the commit timestamp of each start
+     * timestamp (or {@link #MISSING} if it is not in the cache) is written
+     * @return the number of start timestamps that were present in the cache
+     */
+    public int getAll(long[] startTimestamps, long[] commitTimestamps) {
+        Preconditions.checkArgument(commitTimestamps.length >= startTimestamps.length,
+                "Not enough space for the commit timestamps");
+        Table current = table;
+        int found = 0;
+        for (int i = 0; i < startTimestamps.length; i++) {
+            long commitTimestamp = current.get(startTimestamps[i]);
+            commitTimestamps[i] = commitTimestamp;
+            if (commitTimestamp != MISSING) {
+                found++;
+            }
+        }
+        hits.add(found);
+        misses.add(startTimestamps.length - found);
+        return found;
     }
 
     /**
@@ -74,21 +133,227 @@ public class TimestampCache {
      * @param commitTimestamp transaction commit timestamp
      */
     public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
-        startToCommitTimestampCache.put(startTimestamp, commitTimestamp);
+        put(startTimestamp, commitTimestamp);
+        maybeResize();
+    }
+
+    /**
+     * Bulk version of {@link #putAlreadyCommittedTransaction(Long, Long)}; the same caveats apply.
+     *
+     * @param startTimestamps transaction start timestamps
+     * @param commitTimestamps commit timestamps of the transactions, in the same order
+     */
+    public void putAll(long[] startTimestamps, long[] commitTimestamps) {
+        Preconditions.checkArgument(startTimestamps.length == commitTimestamps.length,
+                "Start and commit timestamps must have the same length");
+        for (int i = 0; i < startTimestamps.length; i++) {
+            put(startTimestamps[i], commitTimestamps[i]);
+        }
+        maybeResize();
     }
 
     /**
      * Clear all values from the cache.
      */
     public void clear() {
-        startToCommitTimestampCache.invalidateAll();
+        table = new Table(initialCapacity());
+    }
+
+    @VisibleForTesting
+    int capacity() {
+        return table.capacity();
+    }
+
+    private long get(long startTimestamp) {
+        long commitTimestamp = table.get(startTimestamp);
+        if (commitTimestamp == MISSING) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return commitTimestamp;
     }
 
-    // TODO(2565): create a background thread periodically polls the supplier to look for a change and
-    // resizes accordingly.
-    private void resize(long newSize) {
-        ConcurrentMap<Long, Long> existing = startToCommitTimestampCache.asMap();
-        startToCommitTimestampCache = createCache(newSize);
-        startToCommitTimestampCache.putAll(existing);
+    private void put(long startTimestamp, long commitTimestamp) {
+        Table current = table;
+        if (current.put(startTimestamp, commitTimestamp)) {
+            evictions.increment();
+            current.markEvicted();
+        }
+    }
+
+    private void maybeResize() {
+        long now = System.nanoTime();
+        if (now - nextSizeCheckNanos > 0) {
+            nextSizeCheckNanos = now + SIZE_CHECK_INTERVAL_NANOS;
+            maxCapacity = capacityFor(size.get());
+        }
+
+        Table current = table;
+        if (current.capacity() > maxCapacity) {
+            resize(current, maxCapacity);
+        } else if (current.capacity() < maxCapacity && current.hasEvicted() && current.isMostlyOccupied()) {
+            resize(current, current.capacity() * 2);
+        }
+    }
+
+    private void resize(Table current, int newCapacity) {
+        // Readers and writers carry on using the old table while it is copied; only one thread needs to resize.
+        if (!resizeLock.tryLock()) {
+            return;
+        }
+        try {
+            if (table != current) {
+                return;
+            }
+            Table resized = new Table(newCapacity);
+            current.copyInto(resized);
+            table = resized;
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private int initialCapacity() {
+        return Math.min(MIN_CAPACITY, maxCapacity);
+    }
+
+    private long requestCount() {
+        return hits.sum() + misses.sum();
+    }
+
+    private double ratio(long count, double valueIfNoRequests) {
+        long requests = requestCount();
+        return requests == 0 ? valueIfNoRequests : (double) count / requests;
+    }
+
+    private static int capacityFor(long size) {
+        long bounded = Math.max(WAYS, Math.min(MAX_CAPACITY, size));
+        return Integer.highestOneBit((int) bounded - 1) << 1;
+    }
+
+    /**
+     * A fixed-capacity table in which each start timestamp may live in one of {@link #WAYS} adjacent slots. Each
+     * slot is three longs: a stamp, the start timestamp and the commit timestamp. The stamp is zero for a slot that
+     * has never been written, odd while a write is in progress, and is incremented on every write, so a reader can
+     * detect that a slot changed underneath it.
+     */
+    private static final class Table {
+        private static final int STAMP = 0;
+        private static final int KEY = 1;
+        private static final int VALUE = 2;
+        private static final int SLOT_LONGS = 3;
+
+        private final AtomicLongArray slots;
+        private final int setMask;
+        private final LongAdder occupiedSlots = new LongAdder();
+        private volatile boolean evicted = false;
+
+        Table(int capacity) {
+            this.slots = new AtomicLongArray(capacity * SLOT_LONGS);
+            this.setMask = capacity / WAYS - 1;
+        }
+
+        int capacity() {
+            return slots.length() / SLOT_LONGS;
+        }
+
+        boolean hasEvicted() {
+            return evicted;
+        }
+
+        boolean isMostlyOccupied() {
+            return occupiedSlots.sum() * 2 > capacity();
+        }
+
+        void markEvicted() {
+            if (!evicted) {
+                evicted = true;
+            }
+        }
+
+        long get(long key) {
+            int firstSlot = firstSlot(mix(key));
+            for (int slot = firstSlot; slot < firstSlot + WAYS; slot++) {
+                int base = slot * SLOT_LONGS;
+                long stamp = slots.get(base + STAMP);
+                if (isWritten(stamp) && slots.get(base + KEY) == key) {
+                    long value = slots.get(base + VALUE);
+                    if (slots.get(base + STAMP) == stamp) {
+                        return value;
+                    }
+                }
+            }
+            return MISSING;
+        }
+
+        /**
+         * Returns true if an existing entry was evicted to make room.
+         */
+        boolean put(long key, long value) {
+            long hash = mix(key);
+            int firstSlot = firstSlot(hash);
+            int target = -1;
+            for (int slot = firstSlot; slot < firstSlot + WAYS; slot++) {
+                int base = slot * SLOT_LONGS;
+                long stamp = slots.get(base + STAMP);
+                if (stamp == 0) {
+                    if (target == -1) {
+                        target = slot;
+                    }
+                } else if (slots.get(base + KEY) == key) {
+                    // Commit timestamps never change once written, so there is nothing to update.
+                    return false;
+                }
+            }
+            if (target == -1) {
+                target = firstSlot + (int) (hash >>> (Long.SIZE - WAY_BITS));
+            }
+
+            int base = target * SLOT_LONGS;
+            long stamp = slots.get(base + STAMP);
+            if ((stamp & 1) != 0 || !slots.compareAndSet(base + STAMP, stamp, stamp + 1)) {
+                return false;
+            }
+            slots.set(base + KEY, key);
+            slots.set(base + VALUE, value);
+            slots.set(base + STAMP, stamp + 2);
+
+            if (stamp == 0) {
+                occupiedSlots.increment();
+                return false;
+            }
+            return true;
+        }
+
+        void copyInto(Table other) {
+            for (int slot = 0; slot < capacity(); slot++) {
+                int base = slot * SLOT_LONGS;
+                long stamp = slots.get(base + STAMP);
+                if (isWritten(stamp)) {
+                    long key = slots.get(base + KEY);
+                    long value = slots.get(base + VALUE);
+                    if (slots.get(base + STAMP) == stamp) {
+                        other.put(key, value);
+                    }
+                }
+            }
+        }
+
+        private int firstSlot(long hash) {
+            return ((int) hash & setMask) * WAYS;
+        }
+
+        private static boolean isWritten(long stamp) {
+            return stamp != 0 && (stamp & 1) == 0;
+        }
+
+        private static long mix(long key) {
+            long hash = key;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
     }
 }
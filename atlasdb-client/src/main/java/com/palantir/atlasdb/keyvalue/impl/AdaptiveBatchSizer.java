@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+import com.codahale.metrics.Histogram;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.palantir.atlasdb.AtlasDbPerformanceConstants;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+
+/**
+ * Learns, per table, how many bytes the items of a paged read take up, and suggests page sizes that keep each
+ * page close to a target number of bytes. Wide rows thus get small pages and narrow rows large ones, whatever
+ * batch hint the caller passed.
+ *
+ * The average item size is an exponentially weighted moving average over the pages recorded for the table, so
+ * that it follows changes in the data without being thrown off by a single unusual page. The page sizes handed
+ * out are reported as a histogram tagged with the table, named {@code AdaptiveBatchSizer.<name>.pageSize}.
+ */
+public final class AdaptiveBatchSizer {
+    /**
+     * Weight of the most recent page in the moving average of item sizes.
+     */
+    private static final double NEW_PAGE_WEIGHT = 0.2;
+
+    private final String name;
+    private final long targetBytesPerPage;
+    private final MetricsManager metricsManager;
+    private final ConcurrentMap<TableReference, Double> averageItemBytes = new ConcurrentHashMap<>();
+
+    public AdaptiveBatchSizer(String name, long targetBytesPerPage) {
+        this(name, targetBytesPerPage, new MetricsManager());
+    }
+
+    public AdaptiveBatchSizer(String name, long targetBytesPerPage, MetricsManager metricsManager) {
+        Preconditions.checkArgument(targetBytesPerPage > 0, "targetBytesPerPage must be positive");
+        this.name = name;
+        this.targetBytesPerPage = targetBytesPerPage;
+        this.metricsManager = metricsManager;
+    }
+
+    public static AdaptiveBatchSizer create(String name) {
+        return new AdaptiveBatchSizer(name, AtlasDbPerformanceConstants.TARGET_PAGE_SIZE_BYTES);
+    }
+
+    /**
+     * Returns the page size that fills the target number of bytes for this table, or the given page size if nothing
+     * has been recorded for the table yet.
+     */
+    public int getPageSize(TableReference tableRef, int defaultPageSize) {
+        return report(tableRef, getLearnedPageSize(tableRef).orElse(defaultPageSize));
+    }
+
+    /**
+     * Returns the given page size, reduced if pages of that size would exceed the target number of bytes for this
+     * table.
+     */
+    public int capPageSize(TableReference tableRef, int pageSize) {
+        OptionalInt learned = getLearnedPageSize(tableRef);
+        return report(tableRef, learned.isPresent() ? Math.min(pageSize, learned.getAsInt()) : pageSize);
+    }
+
+    public void recordPage(TableReference tableRef, int numItems, long numBytes) {
+        if (numItems == 0) {
+            return;
+        }
+        double observed = numBytes / (double) numItems;
+        averageItemBytes.merge(tableRef, observed,
+                (average, latest) -> average + NEW_PAGE_WEIGHT * (latest - average));
+    }
+
+    public <T> void recordPage(TableReference tableRef, List<T> page, ToLongFunction<T> sizeOf) {
+        long bytes = 0;
+        for (T item : page) {
+            bytes += sizeOf.applyAsLong(item);
+        }
+        recordPage(tableRef, page.size(), bytes);
+    }
+
+    @VisibleForTesting
+    OptionalInt getLearnedPageSize(TableReference tableRef) {
+        Double average = averageItemBytes.get(tableRef);
+        if (average == null) {
+            return OptionalInt.empty();
+        }
+        long pageSize = (long) (targetBytesPerPage / Math.max(average, 1.0));
+        return OptionalInt.of((int) Math.max(1, Math.min(pageSize, AtlasDbPerformanceConstants.MAX_BATCH_SIZE)));
+    }
+
+    private int report(TableReference tableRef, int pageSize) {
+        getPageSizeHistogram(tableRef).update(pageSize);
+        return pageSize;
+    }
+
+    @VisibleForTesting
+    Histogram getPageSizeHistogram(TableReference tableRef) {
+        return metricsManager.registerOrGetHistogramForTable(AdaptiveBatchSizer.class, name + ".pageSize", tableRef);
+    }
+}
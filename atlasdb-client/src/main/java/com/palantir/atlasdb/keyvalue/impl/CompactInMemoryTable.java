@@ -0,0 +1,557 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService.Key;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Stores a table in a few large byte arrays rather than as one object graph per cell version, so that tables with
+ * tens of millions of cells take little more heap than their encoded size and add next to nothing to GC work.
+ *
+ * Compacted entries are encoded back to back, in key order, into pages of up to {@link RecordsBuilder#PAGE_SIZE}
+ * bytes, and indexed by an array of record offsets that is binary searched for point lookups and range and prefix
+ * scans. Recent writes go to a small skip list, in which deletes of older entries are recorded as tombstones. Once the
+ * skip list grows past a fraction of the compacted entries, it is frozen and merged with the compacted entries into a
+ * new set of pages on a background thread, while new writes go to a fresh skip list; the merged pages then replace
+ * the old ones and the frozen skip list copy-on-write. Readers take a snapshot of all layers and never block, and
+ * writers are serialized on the table but never wait for a merge. If writes outpace merges, the recent skip list
+ * grows until the merge in progress completes.
+ */
+final class CompactInMemoryTable implements InMemoryTable {
+    @VisibleForTesting
+    static final int DEFAULT_MIN_COMPACTION_SIZE = 1 << 14;
+    private static final int COMPACTION_RATIO = 8;
+    private static final byte[] TOMBSTONE = new byte[0];
+    private static final NavigableMap<Key, byte[]> NO_MERGE = Collections.emptyNavigableMap();
+    private static final Executor MERGE_EXECUTOR =
+            PTExecutors.newCachedThreadPool(new NamedThreadFactory("in-memory-kvs-compaction", true));
+
+    private final int minCompactionSize;
+    private final Executor mergeExecutor;
+
+    private volatile State state = new State(Records.EMPTY, NO_MERGE);
+    @GuardedBy("this")
+    private int recentSize = 0;
+
+    CompactInMemoryTable() {
+        this(DEFAULT_MIN_COMPACTION_SIZE, MERGE_EXECUTOR);
+    }
+
+    @VisibleForTesting
+    CompactInMemoryTable(int minCompactionSize, Executor mergeExecutor) {
+        this.minCompactionSize = minCompactionSize;
+        this.mergeExecutor = mergeExecutor;
+    }
+
+    @Override
+    public byte[] get(Key key) {
+        return get(state, key);
+    }
+
+    @Override
+    public Iterator<Entry<Key, byte[]>> range(Key from, boolean fromInclusive, Key to, boolean toInclusive,
+            boolean reverse) {
+        State current = state;
+        Iterator<Entry<Key, byte[]>> recent = InMemoryTable.subMap(
+                current.recent, from, fromInclusive, to, toInclusive, reverse).entrySet().iterator();
+        Iterator<Entry<Key, byte[]>> merging = InMemoryTable.subMap(
+                current.merging, from, fromInclusive, to, toInclusive, reverse).entrySet().iterator();
+        Iterator<Entry<Key, byte[]>> compacted = current.records.range(from, fromInclusive, to, toInclusive, reverse);
+        return new MergingIterator(recent, new MergingIterator(merging, compacted, reverse), reverse);
+    }
+
+    @Override
+    public synchronized byte[] putIfAbsent(Key key, byte[] value) {
+        byte[] existing = get(key);
+        if (existing == null) {
+            putRecent(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public synchronized boolean replace(Key key, byte[] expected, byte[] value) {
+        byte[] current = get(key);
+        if (current == null || !Arrays.equals(current, expected)) {
+            return false;
+        }
+        putRecent(key, value);
+        return true;
+    }
+
+    @Override
+    public synchronized void put(Key key, byte[] value) {
+        putRecent(key, value);
+    }
+
+    @Override
+    public synchronized void remove(Key key) {
+        State current = state;
+        if (current.records.contains(key) || current.merging.containsKey(key)) {
+            putRecent(key, TOMBSTONE);
+        } else if (current.recent.remove(key) != null) {
+            recentSize--;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        state = new State(Records.EMPTY, NO_MERGE);
+        recentSize = 0;
+    }
+
+    @VisibleForTesting
+    int compactedSize() {
+        return state.records.size();
+    }
+
+    @GuardedBy("this")
+    private void putRecent(Key key, byte[] value) {
+        State current = state;
+        if (current.recent.put(key, value) == null) {
+            recentSize++;
+        }
+        if (current.merging == NO_MERGE
+                && recentSize >= Math.max(minCompactionSize, current.records.size() / COMPACTION_RATIO)) {
+            State merging = new State(current.records, current.recent);
+            state = merging;
+            recentSize = 0;
+            mergeExecutor.execute(() -> finishMerge(merging));
+        }
+    }
+
+    private void finishMerge(State merging) {
+        Records merged = merge(merging.records, merging.merging);
+        synchronized (this) {
+            State current = state;
+            // The table may have been cleared while we merged.
+            if (current.merging == merging.merging) {
+                state = new State(merged, NO_MERGE, current.recent);
+            }
+        }
+    }
+
+    private static byte[] get(State current, Key key) {
+        byte[] recent = current.recent.get(key);
+        if (recent == null) {
+            recent = current.merging.get(key);
+        }
+        if (recent != null) {
+            return recent == TOMBSTONE ? null : recent;
+        }
+        return current.records.get(key);
+    }
+
+    private static Records merge(Records records, NavigableMap<Key, byte[]> recent) {
+        RecordsBuilder builder = new RecordsBuilder(records.size() + recent.size());
+        PeekingIterator<Entry<Key, byte[]>> recentEntries = Iterators.peekingIterator(recent.entrySet().iterator());
+        for (int index = 0; index < records.size(); index++) {
+            while (recentEntries.hasNext() && records.compareAt(index, recentEntries.peek().getKey()) > 0) {
+                addUnlessTombstone(builder, recentEntries.next());
+            }
+            if (recentEntries.hasNext() && records.compareAt(index, recentEntries.peek().getKey()) == 0) {
+                addUnlessTombstone(builder, recentEntries.next());
+            } else {
+                records.copyTo(index, builder);
+            }
+        }
+        recentEntries.forEachRemaining(entry -> addUnlessTombstone(builder, entry));
+        return builder.build();
+    }
+
+    private static void addUnlessTombstone(RecordsBuilder builder, Entry<Key, byte[]> entry) {
+        if (entry.getValue() != TOMBSTONE) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * A snapshot of the table: the compacted entries, the recent entries that are being merged into them, if any,
+     * and the recent entries that are still being written.
+     */
+    private static final class State {
+        private final Records records;
+        private final NavigableMap<Key, byte[]> merging;
+        private final ConcurrentSkipListMap<Key, byte[]> recent;
+
+        State(Records records, NavigableMap<Key, byte[]> merging) {
+            this(records, merging, new ConcurrentSkipListMap<>());
+        }
+
+        State(Records records, NavigableMap<Key, byte[]> merging, ConcurrentSkipListMap<Key, byte[]> recent) {
+            this.records = records;
+            this.merging = merging;
+            this.recent = recent;
+        }
+    }
+
+    /**
+     * Merges a newer and an older layer of a snapshot; newer entries shadow older entries with the same key, and
+     * tombstones hide them.
+     */
+    private static final class MergingIterator extends AbstractIterator<Entry<Key, byte[]>> {
+        private final PeekingIterator<Entry<Key, byte[]>> recent;
+        private final PeekingIterator<Entry<Key, byte[]>> compacted;
+        private final boolean reverse;
+
+        MergingIterator(Iterator<Entry<Key, byte[]>> recent, Iterator<Entry<Key, byte[]>> compacted,
+                boolean reverse) {
+            this.recent = Iterators.peekingIterator(recent);
+            this.compacted = Iterators.peekingIterator(compacted);
+            this.reverse = reverse;
+        }
+
+        @Override
+        protected Entry<Key, byte[]> computeNext() {
+            while (recent.hasNext()) {
+                if (compacted.hasNext()) {
+                    int comparison = recent.peek().getKey().compareTo(compacted.peek().getKey());
+                    if (reverse ? comparison < 0 : comparison > 0) {
+                        return compacted.next();
+                    } else if (comparison == 0) {
+                        compacted.next();
+                    }
+                }
+                Entry<Key, byte[]> entry = recent.next();
+                if (entry.getValue() != TOMBSTONE) {
+                    return entry;
+                }
+            }
+            return compacted.hasNext() ? compacted.next() : endOfData();
+        }
+    }
+
+    /**
+     * An immutable, sorted run of entries. Each record is encoded as the varint length of the row, the row, the
+     * varint length of the column, the column, the timestamp as eight big-endian bytes, the varint length of the
+     * value and the value. Records never span pages, and a record's offset holds its page index in the upper and its
+     * position in the page in the lower 32 bits.
+     */
+    private static final class Records {
+        static final Records EMPTY = new Records(new byte[0][], new long[0]);
+
+        private final byte[][] pages;
+        private final long[] offsets;
+
+        Records(byte[][] pages, long[] offsets) {
+            this.pages = pages;
+            this.offsets = offsets;
+        }
+
+        int size() {
+            return offsets.length;
+        }
+
+        byte[] get(Key key) {
+            int index = search(key, false);
+            return index < size() && compareAt(index, key) == 0 ? valueAt(index) : null;
+        }
+
+        boolean contains(Key key) {
+            int index = search(key, false);
+            return index < size() && compareAt(index, key) == 0;
+        }
+
+        Iterator<Entry<Key, byte[]>> range(Key from, boolean fromInclusive, Key to, boolean toInclusive,
+                boolean reverse) {
+            int start = from == null ? 0 : search(from, !fromInclusive);
+            int end = to == null ? size() : search(to, toInclusive);
+            if (start >= end) {
+                return Collections.emptyIterator();
+            }
+            return new AbstractIterator<Entry<Key, byte[]>>() {
+                private int next = reverse ? end - 1 : start;
+
+                @Override
+                protected Entry<Key, byte[]> computeNext() {
+                    if (next < start || next >= end) {
+                        return endOfData();
+                    }
+                    Entry<Key, byte[]> entry = new RecordEntry(next);
+                    next += reverse ? -1 : 1;
+                    return entry;
+                }
+            };
+        }
+
+        /**
+         * Returns the index of the first record greater than the key, if {@code afterEqual}, or greater than or equal
+         * to the key otherwise.
+         */
+        int search(Key key, boolean afterEqual) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int comparison = compareAt(mid, key);
+                if (comparison < 0 || (afterEqual && comparison == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int compareAt(int index, Key key) {
+            byte[] page = page(index);
+            int position = position(index);
+
+            int rowLength = readVarInt(page, position);
+            position += varIntSize(rowLength);
+            int comparison = compareBytes(page, position, rowLength, key.row);
+            if (comparison != 0) {
+                return comparison;
+            }
+            position += rowLength;
+
+            int colLength = readVarInt(page, position);
+            position += varIntSize(colLength);
+            comparison = compareBytes(page, position, colLength, key.col);
+            if (comparison != 0) {
+                return comparison;
+            }
+            position += colLength;
+
+            return Long.compare(readLong(page, position), key.ts);
+        }
+
+        Key keyAt(int index) {
+            byte[] page = page(index);
+            int position = position(index);
+
+            int rowLength = readVarInt(page, position);
+            position += varIntSize(rowLength);
+            byte[] row = Arrays.copyOfRange(page, position, position + rowLength);
+            position += rowLength;
+
+            int colLength = readVarInt(page, position);
+            position += varIntSize(colLength);
+            byte[] col = Arrays.copyOfRange(page, position, position + colLength);
+            position += colLength;
+
+            return new Key(row, col, readLong(page, position));
+        }
+
+        byte[] valueAt(int index) {
+            byte[] page = page(index);
+            int position = valuePosition(page, position(index));
+            int valueLength = readVarInt(page, position);
+            position += varIntSize(valueLength);
+            return Arrays.copyOfRange(page, position, position + valueLength);
+        }
+
+        void copyTo(int index, RecordsBuilder builder) {
+            byte[] page = page(index);
+            int start = position(index);
+            int position = valuePosition(page, start);
+            int valueLength = readVarInt(page, position);
+            builder.addEncoded(page, start, position + varIntSize(valueLength) + valueLength - start);
+        }
+
+        private byte[] page(int index) {
+            return pages[(int) (offsets[index] >>> Integer.SIZE)];
+        }
+
+        private int position(int index) {
+            return (int) offsets[index];
+        }
+
+        private static int valuePosition(byte[] page, int recordPosition) {
+            int position = recordPosition;
+            int rowLength = readVarInt(page, position);
+            position += varIntSize(rowLength) + rowLength;
+            int colLength = readVarInt(page, position);
+            position += varIntSize(colLength) + colLength;
+            return position + Long.BYTES;
+        }
+
+        private final class RecordEntry implements Entry<Key, byte[]> {
+            private final int index;
+            private Key key;
+
+            RecordEntry(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public Key getKey() {
+                if (key == null) {
+                    key = keyAt(index);
+                }
+                return key;
+            }
+
+            @Override
+            public byte[] getValue() {
+                return valueAt(index);
+            }
+
+            @Override
+            public byte[] setValue(byte[] value) {
+                throw new UnsupportedOperationException("Compacted entries are immutable");
+            }
+        }
+    }
+
+    private static final class RecordsBuilder {
+        private static final int PAGE_SIZE = 1 << 24;
+        private static final int INITIAL_PAGE_SIZE = 1 << 10;
+
+        private final List<byte[]> pages = new ArrayList<>();
+        private byte[] page = new byte[INITIAL_PAGE_SIZE];
+        private int position = 0;
+        private long[] offsets;
+        private int size = 0;
+
+        RecordsBuilder(int expectedSize) {
+            this.offsets = new long[Math.max(expectedSize, 1)];
+        }
+
+        void add(Key key, byte[] value) {
+            int length = varIntSize(key.row.length) + key.row.length
+                    + varIntSize(key.col.length) + key.col.length
+                    + Long.BYTES
+                    + varIntSize(value.length) + value.length;
+            int start = reserve(length);
+            int pos = writeBytes(key.row, writeVarInt(key.row.length, start));
+            pos = writeBytes(key.col, writeVarInt(key.col.length, pos));
+            pos = writeLong(key.ts, pos);
+            writeBytes(value, writeVarInt(value.length, pos));
+        }
+
+        void addEncoded(byte[] source, int sourcePosition, int length) {
+            int start = reserve(length);
+            System.arraycopy(source, sourcePosition, page, start, length);
+        }
+
+        Records build() {
+            if (position > 0) {
+                pages.add(Arrays.copyOf(page, position));
+            }
+            return new Records(pages.toArray(new byte[0][]), Arrays.copyOf(offsets, size));
+        }
+
+        /**
+         * Makes room for a record of the given length, records its offset and returns its position in the current
+         * page.
+         */
+        private int reserve(int length) {
+            if (position + length > page.length) {
+                if (position + length <= PAGE_SIZE) {
+                    page = Arrays.copyOf(page, Math.min(PAGE_SIZE, Math.max(2 * page.length, position + length)));
+                } else {
+                    if (position > 0) {
+                        pages.add(Arrays.copyOf(page, position));
+                    }
+                    page = new byte[Math.max(INITIAL_PAGE_SIZE, length)];
+                    position = 0;
+                }
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, 2 * size);
+            }
+            offsets[size++] = ((long) pages.size() << Integer.SIZE) | position;
+            int start = position;
+            position += length;
+            return start;
+        }
+
+        private int writeVarInt(int value, int pos) {
+            int remaining = value;
+            int next = pos;
+            while ((remaining & ~0x7F) != 0) {
+                page[next++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            page[next++] = (byte) remaining;
+            return next;
+        }
+
+        private int writeBytes(byte[] bytes, int pos) {
+            System.arraycopy(bytes, 0, page, pos, bytes.length);
+            return pos + bytes.length;
+        }
+
+        private int writeLong(long value, int pos) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                page[pos + i] = (byte) (value >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+            }
+            return pos + Long.BYTES;
+        }
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        int remaining = value >>> 7;
+        while (remaining != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    private static int readVarInt(byte[] page, int position) {
+        int value = 0;
+        int shift = 0;
+        int pos = position;
+        byte next;
+        do {
+            next = page[pos++];
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    private static long readLong(byte[] page, int position) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << Byte.SIZE) | (page[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int compareBytes(byte[] page, int position, int length, byte[] other) {
+        int common = Math.min(length, other.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = (page[position + i] & 0xFF) - (other[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - other.length;
+    }
+}
@@ -154,6 +154,12 @@ public class DualWriteKeyValueService implements KeyValueService {
         return delegate1.getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp, int parallelism, boolean ordered) {
+        return delegate1.getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
+
     @Override
     public Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> getFirstBatchForRanges(
             TableReference tableRef,
@@ -132,6 +132,12 @@ public abstract class ForwardingKeyValueService extends ForwardingObject impleme
         return delegate().getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp, int parallelism, boolean ordered) {
+        return delegate().getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
                                                                        RangeRequest rangeRequest,
@@ -26,8 +26,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Nullable;
@@ -74,23 +72,62 @@ import com.palantir.util.paging.TokenBackedBasicResultsPage;
 /**
  * In-memory (non-durable) key-value store implementation.
  * <p>
- * Intended for testing use only.
+ * Intended for testing use, or as an embedded cache. For large data sets, use the {@link StorageEngine#COMPACT}
+ * storage engine.
  */
 @ThreadSafe
 public class InMemoryKeyValueService extends AbstractKeyValueService {
-    private final ConcurrentMap<TableReference, Table> tables = Maps.newConcurrentMap();
+    private final ConcurrentMap<TableReference, InMemoryTable> tables = Maps.newConcurrentMap();
     private final ConcurrentMap<TableReference, byte[]> tableMetadata = Maps.newConcurrentMap();
     private final boolean createTablesAutomatically;
+    private final StorageEngine storageEngine;
+
+    public enum StorageEngine {
+        /**
+         * Keeps each version of each cell as an entry of a concurrent skip list. Writes are fully concurrent, but
+         * every cell version costs several objects of heap.
+         */
+        SKIP_LIST {
+            @Override
+            InMemoryTable createTable() {
+                return new SkipListInMemoryTable();
+            }
+        },
+        /**
+         * Encodes cells into large sorted byte arrays, which takes far less heap and GC effort for large tables, at
+         * the cost of serializing writes to each table and of decoding cells on every read.
+         */
+        COMPACT {
+            @Override
+            InMemoryTable createTable() {
+                return new CompactInMemoryTable();
+            }
+        };
+
+        abstract InMemoryTable createTable();
+    }
 
     public InMemoryKeyValueService(boolean createTablesAutomatically) {
+        this(createTablesAutomatically, StorageEngine.SKIP_LIST);
+    }
+
+    public InMemoryKeyValueService(boolean createTablesAutomatically, StorageEngine storageEngine) {
         this(createTablesAutomatically,
-                PTExecutors.newFixedThreadPool(16, PTExecutors.newNamedThreadFactory(true)));
+                PTExecutors.newFixedThreadPool(16, PTExecutors.newNamedThreadFactory(true)),
+                storageEngine);
     }
 
     public InMemoryKeyValueService(boolean createTablesAutomatically,
                                    ExecutorService executor) {
+        this(createTablesAutomatically, executor, StorageEngine.SKIP_LIST);
+    }
+
+    public InMemoryKeyValueService(boolean createTablesAutomatically,
+                                   ExecutorService executor,
+                                   StorageEngine storageEngine) {
         super(executor);
         this.createTablesAutomatically = createTablesAutomatically;
+        this.storageEngine = storageEngine;
     }
 
     @Override
@@ -98,13 +135,13 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
     public Map<Cell, Value> getRows(TableReference tableRef, Iterable<byte[]> rows,
                                     ColumnSelection columnSelection, long timestamp) {
         Map<Cell, Value> result = Maps.newHashMap();
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
 
         for (byte[] row : rows) {
             Cell rowBegin = Cells.createSmallestCellForRow(row);
             Cell rowEnd = Cells.createLargestCellForRow(row);
-            PeekingIterator<Entry<Key, byte[]>> entries = Iterators.peekingIterator(table.subMap(
-                    new Key(rowBegin, Long.MIN_VALUE), new Key(rowEnd, timestamp)).entrySet().iterator());
+            PeekingIterator<Entry<Key, byte[]>> entries = Iterators.peekingIterator(table.range(
+                    new Key(rowBegin, Long.MIN_VALUE), new Key(rowEnd, timestamp)));
             while (entries.hasNext()) {
                 Entry<Key, byte[]> entry = entries.peek();
                 Key key = entry.getKey();
@@ -138,7 +175,7 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
 
     @Override
     public Map<Cell, Value> get(TableReference tableRef, Map<Cell, Long> timestampByCell) {
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
         Map<Cell, Value> result = Maps.newHashMap();
         for (Map.Entry<Cell, Long> e : timestampByCell.entrySet()) {
             Cell cell = e.getKey();
@@ -221,29 +258,26 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
     private <T> ClosableIterator<RowResult<T>> getRangeInternal(TableReference tableRef,
                                                                 final RangeRequest range,
                                                                 final ResultProducer<T> resultProducer) {
-        ConcurrentNavigableMap<Key, byte[]> tableMap = getTableMap(tableRef).entries;
-        if (range.isReverse()) {
-            tableMap = tableMap.descendingMap();
-        }
+        Key startKey = null;
         if (range.getStartInclusive().length != 0) {
             if (range.isReverse()) {
-                Cell startCell = Cells.createLargestCellForRow(range.getStartInclusive());
-                tableMap = tableMap.tailMap(new Key(startCell, Long.MIN_VALUE));
+                startKey = new Key(Cells.createLargestCellForRow(range.getStartInclusive()), Long.MIN_VALUE);
             } else {
-                Cell startCell = Cells.createSmallestCellForRow(range.getStartInclusive());
-                tableMap = tableMap.tailMap(new Key(startCell, Long.MIN_VALUE));
+                startKey = new Key(Cells.createSmallestCellForRow(range.getStartInclusive()), Long.MIN_VALUE);
             }
         }
+        Key endKey = null;
         if (range.getEndExclusive().length != 0) {
             if (range.isReverse()) {
-                Cell endCell = Cells.createLargestCellForRow(range.getEndExclusive());
-                tableMap = tableMap.headMap(new Key(endCell, Long.MAX_VALUE));
+                endKey = new Key(Cells.createLargestCellForRow(range.getEndExclusive()), Long.MAX_VALUE);
             } else {
-                Cell endCell = Cells.createSmallestCellForRow(range.getEndExclusive());
-                tableMap = tableMap.headMap(new Key(endCell, Long.MAX_VALUE));
+                endKey = new Key(Cells.createSmallestCellForRow(range.getEndExclusive()), Long.MAX_VALUE);
             }
         }
-        final PeekingIterator<Entry<Key, byte[]>> it = Iterators.peekingIterator(tableMap.entrySet().iterator());
+        InMemoryTable table = getTableMap(tableRef);
+        final PeekingIterator<Entry<Key, byte[]>> it = Iterators.peekingIterator(range.isReverse()
+                ? table.range(endKey, false, startKey, true, true)
+                : table.range(startKey, true, endKey, false, false));
         return ClosableIterators.wrap(new AbstractIterator<RowResult<T>>() {
             @Override
             protected RowResult<T> computeNext() {
@@ -299,7 +333,7 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
                                                                   BatchColumnRangeSelection batchColumnRangeSelection,
                                                                   long timestamp) {
         Map<byte[], RowColumnRangeIterator> result = Maps.newHashMap();
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
 
         ColumnRangeSelection columnRangeSelection = new ColumnRangeSelection(
                 batchColumnRangeSelection.getStartCol(),
@@ -317,14 +351,14 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
                                                      ColumnRangeSelection columnRangeSelection,
                                                      int cellBatchHint,
                                                      long timestamp) {
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
         Iterator<RowColumnRangeIterator> rowColumnRanges =
                 Iterators.transform(rows.iterator(),
                         row -> getColumnRangeForSingleRow(table, row, columnRangeSelection, timestamp));
         return new LocalRowColumnRangeIterator(Iterators.concat(rowColumnRanges));
     }
 
-    private RowColumnRangeIterator getColumnRangeForSingleRow(ConcurrentSkipListMap<Key, byte[]> table,
+    private RowColumnRangeIterator getColumnRangeForSingleRow(InMemoryTable table,
                                                               byte[] row,
                                                               ColumnRangeSelection columnRangeSelection,
                                                               long timestamp) {
@@ -341,8 +375,8 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
         } else {
             rowEnd = Cells.createLargestCellForRow(row);
         }
-        PeekingIterator<Entry<Key, byte[]>> entries = Iterators.peekingIterator(table.subMap(
-                new Key(rowBegin, Long.MIN_VALUE), new Key(rowEnd, timestamp)).entrySet().iterator());
+        PeekingIterator<Entry<Key, byte[]>> entries = Iterators.peekingIterator(table.range(
+                new Key(rowBegin, Long.MIN_VALUE), new Key(rowEnd, timestamp)));
         Map<Cell, Value> rowResults = new LinkedHashMap<>();
         while (entries.hasNext()) {
             Entry<Key, byte[]> entry = entries.peek();
@@ -397,12 +431,12 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
             TableReference tableRef,
             Collection<Map.Entry<Cell, Value>> values,
             boolean doNotOverwriteWithSameValue) {
-        Table table = getTableMap(tableRef);
+        InMemoryTable table = getTableMap(tableRef);
         for (Map.Entry<Cell, Value> e : values) {
             byte[] contents = e.getValue().getContents();
             long timestamp = e.getValue().getTimestamp();
 
-            Key key = getKey(table, e.getKey(), timestamp);
+            Key key = new Key(e.getKey(), timestamp);
             byte[] oldContents = putIfAbsent(table, key, contents);
             if (oldContents != null && (doNotOverwriteWithSameValue || !Arrays.equals(oldContents, contents))) {
                 throw new KeyAlreadyExistsException("We already have a value for this timestamp");
@@ -413,18 +447,16 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
     @Override
     public void checkAndSet(CheckAndSetRequest request) throws CheckAndSetException {
         TableReference tableRef = request.table();
-        Table table = getTableMap(tableRef);
+        InMemoryTable table = getTableMap(tableRef);
         Cell cell = request.cell();
         Optional<byte[]> oldValue = request.oldValue();
         byte[] contents = request.newValue();
 
-        Key key = getKey(table, cell, AtlasDbConstants.TRANSACTION_TS);
+        Key key = new Key(cell, AtlasDbConstants.TRANSACTION_TS);
         if (oldValue.isPresent()) {
-            byte[] storedValue = table.entries.get(key);
-            boolean succeeded = Arrays.equals(storedValue, oldValue.get())
-                    && table.entries.replace(key, storedValue, copyOf(contents));
+            boolean succeeded = table.replace(key, oldValue.get(), copyOf(contents));
             if (!succeeded) {
-                byte[] actual = table.entries.get(key); // Re-fetch, something may have happened between get and replace
+                byte[] actual = table.get(key); // Re-fetch, something may have happened since the replace
                 throwCheckAndSetException(cell, tableRef, oldValue.get(), actual);
             }
         } else {
@@ -436,20 +468,8 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
     }
 
     // Returns the existing contents, if any, and null otherwise
-    private byte[] putIfAbsent(Table table, Key key, final byte[] contents) {
-        return table.entries.putIfAbsent(key, copyOf(contents));
-    }
-
-    private Key getKey(Table table, Cell cell, long timestamp) {
-        byte[] row = cell.getRowName();
-        byte[] col = cell.getColumnName();
-
-        Key nextKey = table.entries.ceilingKey(new Key(row, ArrayUtils.EMPTY_BYTE_ARRAY, Long.MIN_VALUE));
-        if (nextKey != null && nextKey.matchesRow(row)) {
-            // Save memory by sharing rows.
-            row = nextKey.row;
-        }
-        return new Key(row, col, timestamp);
+    private byte[] putIfAbsent(InMemoryTable table, Key key, final byte[] contents) {
+        return table.putIfAbsent(key, copyOf(contents));
     }
 
     private void throwCheckAndSetException(Cell cell, TableReference tableRef, byte[] expected, byte[] actual) {
@@ -459,7 +479,7 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
 
     @Override
     public void delete(TableReference tableRef, Multimap<Cell, Long> keys) {
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
         for (Map.Entry<Cell, Long> e : keys.entries()) {
             table.remove(new Key(e.getKey(), e.getValue()));
         }
@@ -468,10 +488,11 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
     @Override
     public Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> cells, long ts) {
         Multimap<Cell, Long> multimap = HashMultimap.create();
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
         for (Cell key : cells) {
-            for (Key entry : table.subMap(new Key(key, Long.MIN_VALUE), new Key(key, ts)).keySet()) {
-                multimap.put(key, entry.ts);
+            Iterator<Entry<Key, byte[]>> entries = table.range(new Key(key, Long.MIN_VALUE), new Key(key, ts));
+            while (entries.hasNext()) {
+                multimap.put(key, entries.next().getKey().ts);
             }
         }
         return multimap;
@@ -485,9 +506,9 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
 
     @Override
     public void truncateTable(TableReference tableRef) {
-        Table table = tables.get(tableRef);
+        InMemoryTable table = tables.get(tableRef);
         if (table != null) {
-            table.entries.clear();
+            table.clear();
         } else {
             throw new IllegalStateException(
                     String.format("Truncate called on a table (%s) that did not exist", tableRef));
@@ -496,7 +517,7 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
 
     @Override
     public void createTable(TableReference tableRef, byte[] metadata) {
-        tables.putIfAbsent(tableRef, new Table());
+        tables.computeIfAbsent(tableRef, unused -> storageEngine.createTable());
         putMetadataForTable(tableRef, metadata);
     }
 
@@ -526,19 +547,11 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
         return Arrays.copyOf(contents, contents.length);
     }
 
-    static class Table {
-        final ConcurrentSkipListMap<Key, byte[]> entries;
-
-        Table() {
-            this.entries = new ConcurrentSkipListMap<>();
-        }
-    }
-
-    private Table getTableMap(TableReference tableRef) {
+    private InMemoryTable getTableMap(TableReference tableRef) {
         if (createTablesAutomatically && !tables.containsKey(tableRef)) {
             createTable(tableRef, AtlasDbConstants.EMPTY_TABLE_METADATA);
         }
-        Table table = tables.get(tableRef);
+        InMemoryTable table = tables.get(tableRef);
         if (table == null) {
             throw new IllegalArgumentException("table " + tableRef.getQualifiedName() + " does not exist");
         }
@@ -547,7 +560,7 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
 
     @Override
     public void addGarbageCollectionSentinelValues(TableReference tableRef, Iterable<Cell> cells) {
-        ConcurrentSkipListMap<Key, byte[]> table = getTableMap(tableRef).entries;
+        InMemoryTable table = getTableMap(tableRef);
         for (Cell cell : cells) {
             table.put(new Key(cell, Value.INVALID_VALUE_TIMESTAMP), ArrayUtils.EMPTY_BYTE_ARRAY);
         }
@@ -563,10 +576,10 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
         return ClusterAvailabilityStatus.ALL_AVAILABLE;
     }
 
-    private static class Key implements Comparable<Key> {
-        private final byte[] row;
-        private final byte[] col;
-        private final long ts;
+    static final class Key implements Comparable<Key> {
+        final byte[] row;
+        final byte[] col;
+        final long ts;
 
         Key(Cell cell, long ts) {
             this(cell.getRowName(), cell.getColumnName(), ts);
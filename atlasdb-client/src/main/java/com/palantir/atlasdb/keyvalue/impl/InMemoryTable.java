@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import javax.annotation.Nullable;
+
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService.Key;
+
+/**
+ * The storage of a single table of an {@link InMemoryKeyValueService}: a sorted map from (row, column, timestamp)
+ * to value. Values passed in are owned by the table afterwards, and values returned must not be modified.
+ */
+interface InMemoryTable {
+    @Nullable
+    byte[] get(Key key);
+
+    /**
+     * Returns the entries between the given bounds, in descending order if {@code reverse} is true. A null bound
+     * means the range is unbounded on that side. The iterator is weakly consistent with concurrent writes.
+     */
+    Iterator<Entry<Key, byte[]>> range(
+            @Nullable Key from, boolean fromInclusive, @Nullable Key to, boolean toInclusive, boolean reverse);
+
+    /**
+     * Returns the existing value, if any, and null otherwise.
+     */
+    @Nullable
+    byte[] putIfAbsent(Key key, byte[] value);
+
+    /**
+     * Replaces the value for the key only if its current contents equal {@code expected}.
+     */
+    boolean replace(Key key, byte[] expected, byte[] value);
+
+    void put(Key key, byte[] value);
+
+    void remove(Key key);
+
+    void clear();
+
+    default Iterator<Entry<Key, byte[]>> range(Key fromInclusive, Key toExclusive) {
+        return range(fromInclusive, true, toExclusive, false, false);
+    }
+
+    @Nullable
+    default Entry<Key, byte[]> lowerEntry(Key key) {
+        Iterator<Entry<Key, byte[]>> entries = range(null, false, key, false, true);
+        return entries.hasNext() ? entries.next() : null;
+    }
+
+    static <V> NavigableMap<Key, V> subMap(
+            NavigableMap<Key, V> map,
+            @Nullable Key from,
+            boolean fromInclusive,
+            @Nullable Key to,
+            boolean toInclusive,
+            boolean reverse) {
+        NavigableMap<Key, V> subMap;
+        if (from != null && to != null) {
+            subMap = map.subMap(from, fromInclusive, to, toInclusive);
+        } else if (from != null) {
+            subMap = map.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            subMap = map.headMap(to, toInclusive);
+        } else {
+            subMap = map;
+        }
+        return reverse ? subMap.descendingMap() : subMap;
+    }
+}
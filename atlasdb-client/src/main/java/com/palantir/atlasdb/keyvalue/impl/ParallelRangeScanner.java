@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Scans a range of a {@link KeyValueService} table as several disjoint sub-ranges read concurrently.
+ * <p>
+ * The range is split by sampling: the first and last rows of the range are read, evenly spaced keys are
+ * interpolated between them, and each of those is moved forward to the first row actually present in the table.
+ * This needs only a handful of single-row reads, so it works on any key value service whose range scans are
+ * backed by an ordered index.
+ */
+public final class ParallelRangeScanner {
+    // Number of bytes after the common prefix of the first and last rows that split points are interpolated over.
+    private static final int INTERPOLATED_BYTES = 7;
+
+    private ParallelRangeScanner() {
+        // Utility class
+    }
+
+    /**
+     * Returns the rows of {@code rangeRequest}, read as up to {@code parallelism} sub-ranges on {@code executor}.
+     * Each sub-range buffers at most {@code bufferedRowsPerRange} rows ahead of the consumer.
+     * <p>
+     * If {@code ordered}, rows are returned in the same order as {@link KeyValueService#getRange} would return
+     * them; otherwise they are returned as soon as any sub-range has read them. Reverse ranges are not split.
+     * <p>
+     * The returned iterator must be closed, which stops any sub-range reads still in progress.
+     */
+    public static ClosableIterator<RowResult<Value>> getRange(
+            KeyValueService kvs,
+            ExecutorService executor,
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            int bufferedRowsPerRange,
+            boolean ordered) {
+        List<RangeRequest> subRanges = splitRange(kvs, tableRef, rangeRequest, timestamp, parallelism);
+        return scanRanges(
+                executor,
+                subRanges,
+                subRange -> kvs.getRange(tableRef, subRange, timestamp),
+                subRanges.size(),
+                bufferedRowsPerRange,
+                ordered);
+    }
+
+    /**
+     * Reads each of the given disjoint, ascending sub-ranges with {@code rangeReader} on {@code executor}, with at
+     * most {@code maxConcurrentRanges} being read at a time. Sub-ranges are started in the order given, and each
+     * buffers at most {@code bufferedRowsPerRange} rows ahead of the consumer.
+     * <p>
+     * If {@code ordered}, the rows of each sub-range are returned before those of the next; otherwise they are
+     * returned as soon as any sub-range has read them. The returned iterator must be closed, which stops any
+     * sub-range reads still in progress.
+     */
+    public static <T> ClosableIterator<RowResult<T>> scanRanges(
+            ExecutorService executor,
+            List<RangeRequest> subRanges,
+            Function<RangeRequest, ClosableIterator<RowResult<T>>> rangeReader,
+            int maxConcurrentRanges,
+            int bufferedRowsPerRange,
+            boolean ordered) {
+        Preconditions.checkArgument(maxConcurrentRanges > 0, "maxConcurrentRanges must be positive");
+        Preconditions.checkArgument(bufferedRowsPerRange > 0, "bufferedRowsPerRange must be positive");
+        ParallelRangeIterator<T> iterator = new ParallelRangeIterator<>(
+                executor, subRanges, rangeReader, maxConcurrentRanges, bufferedRowsPerRange, ordered);
+        iterator.start();
+        return iterator;
+    }
+
+    /**
+     * Splits a forward range into at most {@code numSplits} contiguous sub-ranges, each starting at a row that is
+     * present in the table at {@code timestamp}. The sub-ranges together cover exactly the original range.
+     */
+    public static List<RangeRequest> splitRange(
+            KeyValueService kvs,
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int numSplits) {
+        Preconditions.checkArgument(numSplits > 0, "numSplits must be positive");
+        if (numSplits == 1 || rangeRequest.isReverse()) {
+            return ImmutableList.of(rangeRequest);
+        }
+        byte[] first = firstRowAtOrAfter(kvs, tableRef, rangeRequest, rangeRequest.getStartInclusive(), timestamp);
+        if (first == null) {
+            return ImmutableList.of(rangeRequest);
+        }
+        byte[] last = lastRow(kvs, tableRef, rangeRequest, timestamp);
+        if (last == null || UnsignedBytes.lexicographicalComparator().compare(first, last) >= 0) {
+            return ImmutableList.of(rangeRequest);
+        }
+
+        List<byte[]> boundaries = Lists.newArrayList();
+        byte[] previous = first;
+        for (byte[] candidate : interpolate(first, last, numSplits)) {
+            if (UnsignedBytes.lexicographicalComparator().compare(candidate, previous) <= 0) {
+                continue;
+            }
+            byte[] boundary = firstRowAtOrAfter(kvs, tableRef, rangeRequest, candidate, timestamp);
+            if (boundary == null) {
+                break;
+            }
+            if (UnsignedBytes.lexicographicalComparator().compare(boundary, previous) > 0) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+
+        ImmutableList.Builder<RangeRequest> subRanges = ImmutableList.builder();
+        byte[] start = rangeRequest.getStartInclusive();
+        for (byte[] boundary : boundaries) {
+            subRanges.add(rangeRequest.getBuilder().startRowInclusive(start).endRowExclusive(boundary).build());
+            start = boundary;
+        }
+        subRanges.add(rangeRequest.getBuilder().startRowInclusive(start).build());
+        return subRanges.build();
+    }
+
+    static List<byte[]> interpolate(byte[] first, byte[] last, int parts) {
+        int prefixLength = commonPrefixLength(first, last);
+        long low = readUnsigned(first, prefixLength);
+        long high = readUnsigned(last, prefixLength);
+        long step = (high - low) / parts;
+        if (step <= 0) {
+            return ImmutableList.of();
+        }
+        List<byte[]> points = Lists.newArrayListWithCapacity(parts - 1);
+        for (int i = 1; i < parts; i++) {
+            byte[] point = Arrays.copyOf(first, prefixLength + INTERPOLATED_BYTES);
+            long value = low + step * i;
+            for (int j = INTERPOLATED_BYTES - 1; j >= 0; j--) {
+                point[prefixLength + j] = (byte) value;
+                value >>>= 8;
+            }
+            points.add(point);
+        }
+        return points;
+    }
+
+    private static int commonPrefixLength(byte[] first, byte[] second) {
+        int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static long readUnsigned(byte[] name, int offset) {
+        long value = 0;
+        for (int i = 0; i < INTERPOLATED_BYTES; i++) {
+            int index = offset + i;
+            value = (value << 8) | (index < name.length ? name[index] & 0xff : 0);
+        }
+        return value;
+    }
+
+    private static byte[] firstRowAtOrAfter(
+            KeyValueService kvs,
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            byte[] startInclusive,
+            long timestamp) {
+        RangeRequest probe = rangeRequest.getBuilder().startRowInclusive(startInclusive).batchHint(1).build();
+        return firstRowName(kvs, tableRef, probe, timestamp);
+    }
+
+    private static byte[] lastRow(KeyValueService kvs, TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp) {
+        RangeRequest.Builder probe = RangeRequest.reverseBuilder()
+                .retainColumns(rangeRequest.getColumnNames())
+                .batchHint(1);
+        if (rangeRequest.getEndExclusive().length > 0) {
+            probe.startRowInclusive(RangeRequests.previousLexicographicName(rangeRequest.getEndExclusive()));
+        }
+        return firstRowName(kvs, tableRef, probe.build(), timestamp);
+    }
+
+    private static byte[] firstRowName(KeyValueService kvs, TableReference tableRef, RangeRequest probe,
+            long timestamp) {
+        try (ClosableIterator<RowResult<Value>> rows = kvs.getRange(tableRef, probe, timestamp)) {
+            return rows.hasNext() ? rows.next().getRowName() : null;
+        }
+    }
+
+    private static final class Element<T> {
+        private final RowResult<T> row;
+        private final Throwable failure;
+
+        private Element(RowResult<T> row, Throwable failure) {
+            this.row = row;
+            this.failure = failure;
+        }
+
+        private boolean isEndOfRange() {
+            return row == null && failure == null;
+        }
+    }
+
+    private static final class ParallelRangeIterator<T> extends AbstractIterator<RowResult<T>>
+            implements ClosableIterator<RowResult<T>> {
+        private final ExecutorService executor;
+        private final List<RangeRequest> subRanges;
+        private final Function<RangeRequest, ClosableIterator<RowResult<T>>> rangeReader;
+        private final int maxConcurrentRanges;
+        private final List<BlockingQueue<Element<T>>> queues;
+        private final boolean ordered;
+        private final Queue<Future<?>> futures = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger nextRangeToStart = new AtomicInteger();
+        private volatile boolean closed = false;
+        private int rangesRemaining;
+        private int currentQueue = 0;
+
+        ParallelRangeIterator(
+                ExecutorService executor,
+                List<RangeRequest> subRanges,
+                Function<RangeRequest, ClosableIterator<RowResult<T>>> rangeReader,
+                int maxConcurrentRanges,
+                int bufferedRowsPerRange,
+                boolean ordered) {
+            this.executor = executor;
+            this.subRanges = subRanges;
+            this.rangeReader = rangeReader;
+            this.maxConcurrentRanges = Math.min(maxConcurrentRanges, subRanges.size());
+            this.ordered = ordered;
+            this.rangesRemaining = subRanges.size();
+            if (ordered) {
+                this.queues = Lists.newArrayListWithCapacity(subRanges.size());
+                for (int i = 0; i < subRanges.size(); i++) {
+                    queues.add(new LinkedBlockingQueue<>(bufferedRowsPerRange));
+                }
+            } else {
+                this.queues = ImmutableList.of(new LinkedBlockingQueue<>(bufferedRowsPerRange * maxConcurrentRanges));
+            }
+        }
+
+        void start() {
+            for (int i = 0; i < maxConcurrentRanges; i++) {
+                startNextRange();
+            }
+        }
+
+        private void startNextRange() {
+            int range = nextRangeToStart.getAndIncrement();
+            if (range >= subRanges.size() || closed) {
+                return;
+            }
+            BlockingQueue<Element<T>> queue = ordered ? queues.get(range) : queues.get(0);
+            Future<?> future = executor.submit(() -> {
+                try {
+                    read(subRanges.get(range), queue);
+                } finally {
+                    startNextRange();
+                }
+                return null;
+            });
+            futures.add(future);
+            if (closed) {
+                future.cancel(true);
+            }
+        }
+
+        private void read(RangeRequest subRange, BlockingQueue<Element<T>> queue) throws InterruptedException {
+            try (ClosableIterator<RowResult<T>> rows = rangeReader.apply(subRange)) {
+                while (rows.hasNext()) {
+                    queue.put(new Element<>(rows.next(), null));
+                }
+            } catch (RuntimeException | Error e) {
+                queue.put(new Element<>(null, e));
+                return;
+            }
+            queue.put(new Element<>(null, null));
+        }
+
+        @Override
+        protected RowResult<T> computeNext() {
+            while (rangesRemaining > 0) {
+                Element<T> element = take(queues.get(currentQueue));
+                if (element.failure != null) {
+                    close();
+                    throw Throwables.rewrapAndThrowUncheckedException(element.failure);
+                }
+                if (!element.isEndOfRange()) {
+                    return element.row;
+                }
+                rangesRemaining--;
+                if (ordered) {
+                    currentQueue++;
+                }
+            }
+            return endOfData();
+        }
+
+        private Element<T> take(BlockingQueue<Element<T>> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                close();
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -241,6 +241,13 @@ public final class ProfilingKeyValueService implements KeyValueService {
                 logTimeAndTableRange("getRange", tableRef, rangeRequest));
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp, int parallelism, boolean ordered) {
+        return maybeLog(() -> delegate.getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered),
+                logTimeAndTableRange("getRangeInParallel", tableRef, rangeRequest));
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
             RangeRequest rangeRequest, long timestamp) {
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService.Key;
+
+/**
+ * Stores every version of every cell as its own entry of a {@link ConcurrentSkipListMap}. Fast and fully concurrent,
+ * but with a per-cell overhead of several objects.
+ */
+final class SkipListInMemoryTable implements InMemoryTable {
+    private final ConcurrentSkipListMap<Key, byte[]> entries = new ConcurrentSkipListMap<>();
+
+    @Override
+    public byte[] get(Key key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public Iterator<Entry<Key, byte[]>> range(Key from, boolean fromInclusive, Key to, boolean toInclusive,
+            boolean reverse) {
+        return InMemoryTable.subMap(entries, from, fromInclusive, to, toInclusive, reverse).entrySet().iterator();
+    }
+
+    @Override
+    public Entry<Key, byte[]> lowerEntry(Key key) {
+        return entries.lowerEntry(key);
+    }
+
+    @Override
+    public byte[] putIfAbsent(Key key, byte[] value) {
+        return entries.putIfAbsent(shareRow(key), value);
+    }
+
+    @Override
+    public boolean replace(Key key, byte[] expected, byte[] value) {
+        byte[] current = entries.get(key);
+        return Arrays.equals(current, expected) && entries.replace(key, current, value);
+    }
+
+    @Override
+    public void put(Key key, byte[] value) {
+        entries.put(key, value);
+    }
+
+    @Override
+    public void remove(Key key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    private Key shareRow(Key key) {
+        Key nextKey = entries.ceilingKey(new Key(key.row, ArrayUtils.EMPTY_BYTE_ARRAY, Long.MIN_VALUE));
+        if (nextKey != null && nextKey.matchesRow(key.row)) {
+            // Save memory by sharing rows.
+            return new Key(nextKey.row, key.col, key.ts);
+        }
+        return key;
+    }
+}
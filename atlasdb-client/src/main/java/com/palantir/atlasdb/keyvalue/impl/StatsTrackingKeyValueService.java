@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -157,10 +158,20 @@ public class StatsTrackingKeyValueService extends ForwardingKeyValueService {
     @Override
     public ClosableIterator<RowResult<Value>> getRange(final TableReference tableRef, RangeRequest range,
                                                        long timestamp) {
-        final TableStats s = getTableStats(tableRef);
+        return trackRange(getTableStats(tableRef), () -> super.getRange(tableRef, range, timestamp));
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef, RangeRequest range,
+            long timestamp, int parallelism, boolean ordered) {
+        return trackRange(getTableStats(tableRef),
+                () -> super.getRangeInParallel(tableRef, range, timestamp, parallelism, ordered));
+    }
 
+    private ClosableIterator<RowResult<Value>> trackRange(final TableStats s,
+            Supplier<ClosableIterator<RowResult<Value>>> range) {
         long start = System.currentTimeMillis();
-        final ClosableIterator<RowResult<Value>> it = super.getRange(tableRef, range, timestamp);
+        final ClosableIterator<RowResult<Value>> it = range.get();
         long finish = System.currentTimeMillis();
         s.totalGetMillis.addAndGet(finish - start);
         s.totalGetCalls.incrementAndGet();
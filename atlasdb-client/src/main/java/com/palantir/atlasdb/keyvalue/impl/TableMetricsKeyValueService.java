@@ -0,0 +1,672 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Multimap;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
+import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ForwardingClosableIterator;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
+
+/**
+ * Records, for every table and every data operation of the key value service, a latency timer, histograms of the
+ * number of cells and bytes read or written per call and a meter of failed calls. The metrics are tagged with the
+ * table name and registered in the tagged metric registry under {@code KeyValueService.<operation>.<metric>}.
+ *
+ * The metrics of a table and operation are created the first time they are needed and then looked up without
+ * allocating, so the cost on the hot path is a map lookup, two calls to {@link System#nanoTime} and the metric
+ * updates themselves. Counting the bytes of a call means walking all of its cells, so by default that is only done
+ * for one call in {@link #DEFAULT_BYTES_SAMPLE_RATE}; the histograms keep a sample of their updates anyway. For
+ * range scans, cells and bytes are counted as rows are consumed and recorded when the iterator is closed; the
+ * latency covers obtaining the iterator.
+ */
+public final class TableMetricsKeyValueService extends ForwardingKeyValueService {
+    static final int DEFAULT_BYTES_SAMPLE_RATE = 16;
+
+    enum Operation {
+        GET("get"),
+        GET_ROWS("getRows"),
+        GET_ROWS_COLUMN_RANGE("getRowsColumnRange"),
+        GET_LATEST_TIMESTAMPS("getLatestTimestamps"),
+        GET_ALL_TIMESTAMPS("getAllTimestamps"),
+        GET_RANGE("getRange"),
+        GET_RANGE_IN_PARALLEL("getRangeInParallel"),
+        GET_RANGE_OF_TIMESTAMPS("getRangeOfTimestamps"),
+        GET_CANDIDATE_CELLS_FOR_SWEEPING("getCandidateCellsForSweeping"),
+        GET_FIRST_BATCH_FOR_RANGES("getFirstBatchForRanges"),
+        PUT("put"),
+        MULTI_PUT("multiPut"),
+        PUT_WITH_TIMESTAMPS("putWithTimestamps"),
+        PUT_UNLESS_EXISTS("putUnlessExists"),
+        CHECK_AND_SET("checkAndSet"),
+        DELETE("delete"),
+        DELETE_RANGE("deleteRange"),
+        DELETE_ALL_TIMESTAMPS("deleteAllTimestamps"),
+        ADD_GARBAGE_COLLECTION_SENTINEL_VALUES("addGarbageCollectionSentinelValues"),
+        TRUNCATE_TABLE("truncateTable"),
+        COMPACT_INTERNALLY("compactInternally");
+
+        private static final Operation[] VALUES = values();
+
+        private final String metricName;
+
+        Operation(String metricName) {
+            this.metricName = metricName;
+        }
+
+        String metricName() {
+            return metricName;
+        }
+    }
+
+    static final class OperationMetrics {
+        private final Timer latency;
+        private final Histogram cells;
+        private final Histogram bytes;
+        private final Meter errors;
+
+        private OperationMetrics(MetricsManager metricsManager, TableReference tableRef, Operation operation) {
+            this.latency = metricsManager.registerOrGetTimerForTable(
+                    KeyValueService.class, operation.metricName() + ".latency", tableRef);
+            this.cells = metricsManager.registerOrGetHistogramForTable(
+                    KeyValueService.class, operation.metricName() + ".cells", tableRef);
+            this.bytes = metricsManager.registerOrGetHistogramForTable(
+                    KeyValueService.class, operation.metricName() + ".bytes", tableRef);
+            this.errors = metricsManager.registerOrGetMeterForTable(
+                    KeyValueService.class, operation.metricName() + ".errors", tableRef);
+        }
+
+        Timer latency() {
+            return latency;
+        }
+
+        Histogram cells() {
+            return cells;
+        }
+
+        Histogram bytes() {
+            return bytes;
+        }
+
+        Meter errors() {
+            return errors;
+        }
+
+        void recordLatency(long startNanos) {
+            latency.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void recordCall(long startNanos, long numCells, long numBytes) {
+            recordLatency(startNanos);
+            recordSize(numCells, numBytes);
+        }
+
+        void recordCall(long startNanos, long numCells) {
+            recordLatency(startNanos);
+            cells.update(numCells);
+        }
+
+        void recordSize(long numCells, long numBytes) {
+            cells.update(numCells);
+            bytes.update(numBytes);
+        }
+    }
+
+    private final KeyValueService delegate;
+    private final MetricsManager metricsManager;
+    private final int bytesSampleRate;
+    private final ConcurrentMap<TableReference, AtomicReferenceArray<OperationMetrics>> metricsByTable =
+            new ConcurrentHashMap<>();
+
+    private TableMetricsKeyValueService(KeyValueService delegate, MetricsManager metricsManager,
+            int bytesSampleRate) {
+        this.delegate = delegate;
+        this.metricsManager = metricsManager;
+        this.bytesSampleRate = bytesSampleRate;
+    }
+
+    public static KeyValueService create(KeyValueService delegate) {
+        return create(delegate, new MetricsManager());
+    }
+
+    public static KeyValueService create(KeyValueService delegate, MetricsManager metricsManager) {
+        return create(delegate, metricsManager, DEFAULT_BYTES_SAMPLE_RATE);
+    }
+
+    @VisibleForTesting
+    static TableMetricsKeyValueService create(KeyValueService delegate, MetricsManager metricsManager,
+            int bytesSampleRate) {
+        return new TableMetricsKeyValueService(delegate, metricsManager, bytesSampleRate);
+    }
+
+    @Override
+    protected KeyValueService delegate() {
+        return delegate;
+    }
+
+    OperationMetrics metrics(TableReference tableRef, Operation operation) {
+        AtomicReferenceArray<OperationMetrics> metricsForTable = metricsByTable.get(tableRef);
+        if (metricsForTable == null) {
+            metricsForTable = metricsByTable.computeIfAbsent(tableRef,
+                    unused -> new AtomicReferenceArray<>(Operation.VALUES.length));
+        }
+        OperationMetrics metrics = metricsForTable.get(operation.ordinal());
+        if (metrics == null) {
+            // Racing threads may both create the metrics, but the registry hands them the same instances.
+            metrics = new OperationMetrics(metricsManager, tableRef, operation);
+            metricsForTable.set(operation.ordinal(), metrics);
+        }
+        return metrics;
+    }
+
+    @Override
+    public Map<Cell, Value> get(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET);
+        long start = System.nanoTime();
+        try {
+            Map<Cell, Value> result = delegate.get(tableRef, timestampByCell);
+            recordCall(metrics, start, result.size(), result, TableMetricsKeyValueService::sizeOfValues);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<Cell, Value> getRows(TableReference tableRef, Iterable<byte[]> rows,
+            ColumnSelection columnSelection, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_ROWS);
+        long start = System.nanoTime();
+        try {
+            Map<Cell, Value> result = delegate.getRows(tableRef, rows, columnSelection, timestamp);
+            recordCall(metrics, start, result.size(), result, TableMetricsKeyValueService::sizeOfValues);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<byte[], RowColumnRangeIterator> getRowsColumnRange(TableReference tableRef, Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_ROWS_COLUMN_RANGE);
+        long start = System.nanoTime();
+        try {
+            Map<byte[], RowColumnRangeIterator> result =
+                    delegate.getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp);
+            metrics.recordLatency(start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public RowColumnRangeIterator getRowsColumnRange(TableReference tableRef, Iterable<byte[]> rows,
+            ColumnRangeSelection columnRangeSelection, int cellBatchHint, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_ROWS_COLUMN_RANGE);
+        long start = System.nanoTime();
+        try {
+            RowColumnRangeIterator result =
+                    delegate.getRowsColumnRange(tableRef, rows, columnRangeSelection, cellBatchHint, timestamp);
+            metrics.recordLatency(start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<Cell, Long> getLatestTimestamps(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_LATEST_TIMESTAMPS);
+        long start = System.nanoTime();
+        try {
+            Map<Cell, Long> result = delegate.getLatestTimestamps(tableRef, timestampByCell);
+            recordCall(metrics, start, result.size(), result.keySet(), TableMetricsKeyValueService::sizeOfCells);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> keys, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_ALL_TIMESTAMPS);
+        long start = System.nanoTime();
+        try {
+            Multimap<Cell, Long> result = delegate.getAllTimestamps(tableRef, keys, timestamp);
+            recordCall(metrics, start, result.size(), result.keySet(), TableMetricsKeyValueService::sizeOfCells);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Value>> getRange(TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp) {
+        return countRange(metrics(tableRef, Operation.GET_RANGE),
+                () -> delegate.getRange(tableRef, rangeRequest, timestamp));
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef, RangeRequest rangeRequest,
+            long timestamp, int parallelism, boolean ordered) {
+        return countRange(metrics(tableRef, Operation.GET_RANGE_IN_PARALLEL),
+                () -> delegate.getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered));
+    }
+
+    private static ClosableIterator<RowResult<Value>> countRange(OperationMetrics metrics,
+            Supplier<ClosableIterator<RowResult<Value>>> range) {
+        long start = System.nanoTime();
+        try {
+            ClosableIterator<RowResult<Value>> result = range.get();
+            metrics.recordLatency(start);
+            return new CountingRowIterator<Value>(result, metrics) {
+                @Override
+                long sizeOf(Value value) {
+                    return value.getContents().length;
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
+            RangeRequest rangeRequest, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_RANGE_OF_TIMESTAMPS);
+        long start = System.nanoTime();
+        try {
+            ClosableIterator<RowResult<Set<Long>>> result =
+                    delegate.getRangeOfTimestamps(tableRef, rangeRequest, timestamp);
+            metrics.recordLatency(start);
+            return new CountingRowIterator<Set<Long>>(result, metrics) {
+                @Override
+                long sizeOf(Set<Long> timestamps) {
+                    return (long) timestamps.size() * Long.BYTES;
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public ClosableIterator<List<CandidateCellForSweeping>> getCandidateCellsForSweeping(TableReference tableRef,
+            CandidateCellForSweepingRequest request) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_CANDIDATE_CELLS_FOR_SWEEPING);
+        long start = System.nanoTime();
+        try {
+            ClosableIterator<List<CandidateCellForSweeping>> result =
+                    delegate.getCandidateCellsForSweeping(tableRef, request);
+            metrics.recordLatency(start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> getFirstBatchForRanges(
+            TableReference tableRef, Iterable<RangeRequest> rangeRequests, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.GET_FIRST_BATCH_FOR_RANGES);
+        long start = System.nanoTime();
+        try {
+            Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> result =
+                    delegate.getFirstBatchForRanges(tableRef, rangeRequests, timestamp);
+            long cells = 0;
+            long bytes = 0;
+            for (TokenBackedBasicResultsPage<RowResult<Value>, byte[]> page : result.values()) {
+                for (RowResult<Value> row : page.getResults()) {
+                    for (Map.Entry<byte[], Value> column : row.getColumns().entrySet()) {
+                        cells++;
+                        bytes += row.getRowName().length + column.getKey().length
+                                + column.getValue().getContents().length;
+                    }
+                }
+            }
+            metrics.recordCall(start, cells, bytes);
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) {
+        OperationMetrics metrics = metrics(tableRef, Operation.PUT);
+        long start = System.nanoTime();
+        try {
+            delegate.put(tableRef, values, timestamp);
+            recordCall(metrics, start, values.size(), values, TableMetricsKeyValueService::sizeOfBytes);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        long start = System.nanoTime();
+        try {
+            delegate.multiPut(valuesByTable, timestamp);
+        } catch (RuntimeException | Error e) {
+            for (TableReference tableRef : valuesByTable.keySet()) {
+                metrics(tableRef, Operation.MULTI_PUT).errors().mark();
+            }
+            throw e;
+        }
+        for (Map.Entry<TableReference, ? extends Map<Cell, byte[]>> entry : valuesByTable.entrySet()) {
+            Map<Cell, byte[]> values = entry.getValue();
+            recordCall(metrics(entry.getKey(), Operation.MULTI_PUT), start, values.size(), values,
+                    TableMetricsKeyValueService::sizeOfBytes);
+        }
+    }
+
+    @Override
+    public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> values) {
+        OperationMetrics metrics = metrics(tableRef, Operation.PUT_WITH_TIMESTAMPS);
+        long start = System.nanoTime();
+        try {
+            delegate.putWithTimestamps(tableRef, values);
+            recordCall(metrics, start, values.size(), values.entries(), TableMetricsKeyValueService::sizeOfEntries);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void putUnlessExists(TableReference tableRef, Map<Cell, byte[]> values) throws KeyAlreadyExistsException {
+        OperationMetrics metrics = metrics(tableRef, Operation.PUT_UNLESS_EXISTS);
+        long start = System.nanoTime();
+        try {
+            delegate.putUnlessExists(tableRef, values);
+            recordCall(metrics, start, values.size(), values, TableMetricsKeyValueService::sizeOfBytes);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void checkAndSet(CheckAndSetRequest request) {
+        OperationMetrics metrics = metrics(request.table(), Operation.CHECK_AND_SET);
+        long start = System.nanoTime();
+        try {
+            delegate.checkAndSet(request);
+            metrics.recordCall(start, 1, Cells.getApproxSizeOfCell(request.cell()) + request.newValue().length);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(TableReference tableRef, Multimap<Cell, Long> keys) {
+        OperationMetrics metrics = metrics(tableRef, Operation.DELETE);
+        long start = System.nanoTime();
+        try {
+            delegate.delete(tableRef, keys);
+            recordCall(metrics, start, keys.size(), keys.keySet(), TableMetricsKeyValueService::sizeOfCells);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteRange(TableReference tableRef, RangeRequest range) {
+        OperationMetrics metrics = metrics(tableRef, Operation.DELETE_RANGE);
+        long start = System.nanoTime();
+        try {
+            delegate.deleteRange(tableRef, range);
+            metrics.recordLatency(start);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteAllTimestamps(TableReference tableRef, Map<Cell, Long> maxTimestampExclusiveByCell) {
+        OperationMetrics metrics = metrics(tableRef, Operation.DELETE_ALL_TIMESTAMPS);
+        long start = System.nanoTime();
+        try {
+            delegate.deleteAllTimestamps(tableRef, maxTimestampExclusiveByCell);
+            recordCall(metrics, start, maxTimestampExclusiveByCell.size(), maxTimestampExclusiveByCell.keySet(),
+                    TableMetricsKeyValueService::sizeOfCells);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void addGarbageCollectionSentinelValues(TableReference tableRef, Iterable<Cell> cells) {
+        OperationMetrics metrics = metrics(tableRef, Operation.ADD_GARBAGE_COLLECTION_SENTINEL_VALUES);
+        long start = System.nanoTime();
+        try {
+            delegate.addGarbageCollectionSentinelValues(tableRef, cells);
+            long numCells = 0;
+            long bytes = 0;
+            for (Cell cell : cells) {
+                numCells++;
+                bytes += Cells.getApproxSizeOfCell(cell);
+            }
+            metrics.recordCall(start, numCells, bytes);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void truncateTable(TableReference tableRef) {
+        OperationMetrics metrics = metrics(tableRef, Operation.TRUNCATE_TABLE);
+        long start = System.nanoTime();
+        try {
+            delegate.truncateTable(tableRef);
+            metrics.recordLatency(start);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void truncateTables(Set<TableReference> tableRefs) {
+        long start = System.nanoTime();
+        try {
+            delegate.truncateTables(tableRefs);
+        } catch (RuntimeException | Error e) {
+            for (TableReference tableRef : tableRefs) {
+                metrics(tableRef, Operation.TRUNCATE_TABLE).errors().mark();
+            }
+            throw e;
+        }
+        for (TableReference tableRef : tableRefs) {
+            metrics(tableRef, Operation.TRUNCATE_TABLE).recordLatency(start);
+        }
+    }
+
+    @Override
+    public void compactInternally(TableReference tableRef) {
+        OperationMetrics metrics = metrics(tableRef, Operation.COMPACT_INTERNALLY);
+        long start = System.nanoTime();
+        try {
+            delegate.compactInternally(tableRef);
+            metrics.recordLatency(start);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void compactInternally(TableReference tableRef, boolean inMaintenanceMode) {
+        OperationMetrics metrics = metrics(tableRef, Operation.COMPACT_INTERNALLY);
+        long start = System.nanoTime();
+        try {
+            delegate.compactInternally(tableRef, inMaintenanceMode);
+            metrics.recordLatency(start);
+        } catch (RuntimeException | Error e) {
+            metrics.errors().mark();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the latency and cell count of a call, and its size in bytes if the call is sampled. The sizer should be
+     * a static method reference, so that calls which are not sampled allocate nothing.
+     */
+    private <T> void recordCall(OperationMetrics metrics, long startNanos, long numCells, T sized,
+            ToLongFunction<? super T> sizer) {
+        if (bytesSampleRate == 1 || ThreadLocalRandom.current().nextInt(bytesSampleRate) == 0) {
+            metrics.recordCall(startNanos, numCells, sizer.applyAsLong(sized));
+        } else {
+            metrics.recordCall(startNanos, numCells);
+        }
+    }
+
+    private static long sizeOfValues(Map<Cell, Value> values) {
+        return sizeOfEntries(values.entrySet());
+    }
+
+    private static long sizeOfEntries(Iterable<Map.Entry<Cell, Value>> values) {
+        long bytes = 0;
+        for (Map.Entry<Cell, Value> entry : values) {
+            bytes += Cells.getApproxSizeOfCell(entry.getKey()) + entry.getValue().getContents().length;
+        }
+        return bytes;
+    }
+
+    private static long sizeOfBytes(Map<Cell, byte[]> values) {
+        long bytes = 0;
+        for (Map.Entry<Cell, byte[]> entry : values.entrySet()) {
+            bytes += Cells.getApproxSizeOfCell(entry.getKey()) + entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    private static long sizeOfCells(Iterable<Cell> cells) {
+        long bytes = 0;
+        for (Cell cell : cells) {
+            bytes += Cells.getApproxSizeOfCell(cell);
+        }
+        return bytes;
+    }
+
+    /**
+     * Counts the cells and bytes of the rows handed out, and records them once the iterator is closed.
+     */
+    private abstract static class CountingRowIterator<T> extends ForwardingClosableIterator<RowResult<T>> {
+        private final ClosableIterator<RowResult<T>> delegate;
+        private final OperationMetrics metrics;
+        private long cells = 0;
+        private long bytes = 0;
+        private boolean recorded = false;
+
+        CountingRowIterator(ClosableIterator<RowResult<T>> delegate, OperationMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        abstract long sizeOf(T value);
+
+        @Override
+        protected ClosableIterator<RowResult<T>> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return delegate.hasNext();
+            } catch (RuntimeException | Error e) {
+                metrics.errors().mark();
+                throw e;
+            }
+        }
+
+        @Override
+        public RowResult<T> next() {
+            RowResult<T> row;
+            try {
+                row = delegate.next();
+            } catch (RuntimeException | Error e) {
+                metrics.errors().mark();
+                throw e;
+            }
+            int rowNameLength = row.getRowName().length;
+            for (Map.Entry<byte[], T> column : row.getColumns().entrySet()) {
+                cells++;
+                bytes += rowNameLength + column.getKey().length + sizeOf(column.getValue());
+            }
+            return row;
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                metrics.recordSize(cells, bytes);
+            }
+            delegate.close();
+        }
+    }
+}
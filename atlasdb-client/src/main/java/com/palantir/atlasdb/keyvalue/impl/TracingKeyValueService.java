@@ -272,6 +272,16 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         return delegate().getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            boolean ordered) {
+        // No tracing, as we just return a lazy iterator and don't perform any calls to the backing KVS.
+        return delegate().getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
             RangeRequest rangeRequest,
@@ -100,6 +100,58 @@ public class EncodingUtils {
         }
     }
 
+    /**
+     * As {@link #encodeVarLongForSize(long, byte[], int)}, but writes the length bytes starting at offset of an
+     * array that may hold other data, so every byte is assigned rather than or-ed.
+     */
+    private static void encodeVarLongForSize(long value, @Output byte[] ret, int offset, int length, int size) {
+        int end = offset;
+        if (size > 8) {
+            ret[offset] = (byte)0xff;
+            end = offset + 1;
+            size -= 8;
+        }
+        int index = offset + length;
+        while (--index > end) {
+            ret[index] = (byte)((int)value & 0xff);
+            value >>>= 8;
+        }
+        ret[end] = (byte)(((0xff << (9-size)) & 0xff) | ((int)value & 0xff));
+    }
+
+    /**
+     * Writes the same bytes as {@link #encodeVarLong(long)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeVarLong(long value, @Output byte[] dest, int offset) {
+        int size = sizeOfVarLong(value);
+        encodeVarLongForSize(value, dest, offset, size, size);
+        return offset + size;
+    }
+
+    /**
+     * Writes the same bytes as {@link #encodeUnsignedVarLong(long)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeUnsignedVarLong(long value, @Output byte[] dest, int offset) {
+        return encodeVarLong(checkUnsigned(value), dest, offset);
+    }
+
+    /**
+     * Writes the same bytes as {@link #encodeSignedVarLong(long)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeSignedVarLong(long value, @Output byte[] dest, int offset) {
+        final boolean negative = value<0;
+        int size = sizeOfSignedVarLong(value);
+        value ^= (value >> 63);
+        encodeVarLongForSize(value, dest, offset, size, size+1);
+        if (negative) {
+            flipAllBitsInPlace(dest, offset, size);
+        }
+        return offset + size;
+    }
+
     public static int sizeOfVarLong(long value) {
         return CodedOutputStream.computeRawVarint64Size(value);
     }
@@ -244,7 +296,108 @@ public class EncodingUtils {
     }
 
     public static int sizeOfVarString(String str) {
-        return sizeOfSizedBytes(PtBytes.toBytes(str));
+        int length = sizeOfUtf8(str);
+        return length + sizeOfVarLong(length);
+    }
+
+    /**
+     * The length of {@link PtBytes#toBytes(String)}, computed without encoding the string.
+     */
+    public static int sizeOfUtf8(String str) {
+        int size = 0;
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                size += 1;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (isSurrogatePair(str, i)) {
+                size += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates are replaced with '?'.
+                size += 1;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the same bytes as {@link PtBytes#toBytes(String)} into dest at offset.
+     * @return the offset after the encoded string
+     */
+    public static int encodeUtf8(String str, @Output byte[] dest, int offset) {
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                dest[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                dest[offset++] = (byte) (0xc0 | (c >> 6));
+                dest[offset++] = (byte) (0x80 | (c & 0x3f));
+            } else if (isSurrogatePair(str, i)) {
+                int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                dest[offset++] = (byte) (0xf0 | (codePoint >> 18));
+                dest[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                dest[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                dest[offset++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                dest[offset++] = (byte) '?';
+            } else {
+                dest[offset++] = (byte) (0xe0 | (c >> 12));
+                dest[offset++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                dest[offset++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return offset;
+    }
+
+    private static boolean isSurrogatePair(String str, int index) {
+        return Character.isHighSurrogate(str.charAt(index))
+                && index + 1 < str.length()
+                && Character.isLowSurrogate(str.charAt(index + 1));
+    }
+
+    /**
+     * Writes the same bytes as {@link #encodeVarString(String)} into dest at offset.
+     * @return the offset after the encoded string
+     */
+    public static int encodeVarString(String strValue, @Output byte[] dest, int offset) {
+        offset = encodeVarLong(sizeOfUtf8(strValue), dest, offset);
+        return encodeUtf8(strValue, dest, offset);
+    }
+
+    /**
+     * Writes the same bytes as {@link #encodeSizedBytes(byte[])} into dest at offset.
+     * @return the offset after the encoded bytes
+     */
+    public static int encodeSizedBytes(byte[] bytes, @Output byte[] dest, int offset) {
+        offset = encodeVarLong(bytes.length, dest, offset);
+        return encodeBytes(bytes, dest, offset);
+    }
+
+    /**
+     * Copies bytes into dest at offset.
+     * @return the offset after the copied bytes
+     */
+    public static int encodeBytes(byte[] bytes, @Output byte[] dest, int offset) {
+        System.arraycopy(bytes, 0, dest, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+    /**
+     * Writes value big-endian into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeLong(long value, @Output byte[] dest, int offset) {
+        for (int i = PtBytes.SIZEOF_LONG - 1; i >= 0; i--) {
+            dest[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+        return offset + PtBytes.SIZEOF_LONG;
     }
 
     public static int sizeOfSizedBytes(byte[] bytes) {
@@ -269,6 +422,15 @@ public class EncodingUtils {
                 .array();
     }
 
+    /**
+     * Writes the same bytes as {@link #encodeUUID(UUID)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeUUID(UUID uuid, @Output byte[] dest, int offset) {
+        offset = encodeLong(uuid.getMostSignificantBits(), dest, offset);
+        return encodeLong(uuid.getLeastSignificantBits(), dest, offset);
+    }
+
     public static UUID decodeUUID(byte[] bytes, int offset) {
         ByteBuffer buf = ByteBuffer.wrap(bytes, offset, 2 * Longs.BYTES).order(ByteOrder.BIG_ENDIAN);
         long mostSigBits = buf.getLong();
@@ -366,9 +528,11 @@ public class EncodingUtils {
     }
 
     public static long decodeLittleEndian(byte[] value, int offset) {
-        byte[] subArray = ArrayUtils.subarray(value, offset, offset + PtBytes.SIZEOF_LONG);
-        ArrayUtils.reverse(subArray);
-        return PtBytes.toLong(subArray);
+        long result = 0;
+        for (int i = PtBytes.SIZEOF_LONG - 1; i >= 0; i--) {
+            result = (result << 8) | (value[offset + i] & 0xff);
+        }
+        return result;
     }
 
     public static byte[] encodeLittleEndian(long val) {
@@ -377,6 +541,18 @@ public class EncodingUtils {
         return bytes;
     }
 
+    /**
+     * Writes the same bytes as {@link #encodeLittleEndian(long)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeLittleEndian(long val, @Output byte[] dest, int offset) {
+        for (int i = 0; i < PtBytes.SIZEOF_LONG; i++) {
+            dest[offset + i] = (byte) val;
+            val >>>= 8;
+        }
+        return offset + PtBytes.SIZEOF_LONG;
+    }
+
     private static long checkUnsigned(long value) {
         if (value < 0) {
             throw new IllegalArgumentException("Expected unsigned value: " + value);
@@ -464,4 +640,18 @@ public class EncodingUtils {
             return ArrayUtils.addAll(new byte[] { 1 }, PtBytes.toBytes(Long.MIN_VALUE ^ value));
         }
     }
+
+    /**
+     * Writes the same bytes as {@link #encodeNullableFixedLong(Long)} into dest at offset.
+     * @return the offset after the encoded value
+     */
+    public static int encodeNullableFixedLong(Long value, @Output byte[] dest, int offset) {
+        if (value == null) {
+            Arrays.fill(dest, offset, offset + 9, (byte) 0);
+            return offset + 9;
+        } else {
+            dest[offset] = 1;
+            return encodeLong(Long.MIN_VALUE ^ value, dest, offset + 1);
+        }
+    }
 }
@@ -15,7 +15,13 @@
  */
 package com.palantir.atlasdb.schema;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.slf4j.Logger;
@@ -26,6 +32,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.io.BaseEncoding;
+import com.palantir.atlasdb.AtlasDbPerformanceConstants;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
@@ -35,6 +42,7 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
@@ -42,6 +50,7 @@ import com.palantir.common.annotation.Output;
 import com.palantir.common.base.AbortingVisitor;
 import com.palantir.common.base.AbortingVisitors;
 import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.Throwables;
 import com.palantir.common.collect.Maps2;
 import com.palantir.util.Mutable;
 import com.palantir.util.Mutables;
@@ -58,6 +67,10 @@ public class KvsRangeMigrator implements RangeMigrator {
     private final long migrationTimestamp;
     private final AbstractTaskCheckpointer checkpointer;
     private final Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform;
+    private final ExecutorService writeExecutor;
+    private final long writeBatchSizeBytes;
+    private final int maxWritesInFlight;
+    private final MigrationThroughput throughput;
 
     KvsRangeMigrator(TableReference srcTable,
                      TableReference destTable,
@@ -67,7 +80,11 @@ public class KvsRangeMigrator implements RangeMigrator {
                      KeyValueService writeKvs,
                      long migrationTimestamp,
                      AbstractTaskCheckpointer checkpointer,
-                     Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform) {
+                     Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform,
+                     ExecutorService writeExecutor,
+                     long writeBatchSizeBytes,
+                     int maxWritesInFlight,
+                     MigrationThroughput throughput) {
         this.srcTable = srcTable;
         this.destTable = destTable;
         this.readBatchSize = readBatchSize;
@@ -77,6 +94,10 @@ public class KvsRangeMigrator implements RangeMigrator {
         this.migrationTimestamp = migrationTimestamp;
         this.checkpointer = checkpointer;
         this.rowTransform = rowTransform;
+        this.writeExecutor = writeExecutor;
+        this.writeBatchSizeBytes = writeBatchSizeBytes;
+        this.maxWritesInFlight = maxWritesInFlight;
+        this.throughput = throughput;
     }
 
     @Override
@@ -154,12 +175,19 @@ public class KvsRangeMigrator implements RangeMigrator {
 
         BatchingVisitable<RowResult<byte[]>> bv = readT.getRange(srcTable, rangeToUse);
 
-        Map<Cell, byte[]> writeMap = Maps.newHashMap();
-        byte[] lastRow = internalCopyRange(bv, maxBytes, writeMap);
-        if (log.isTraceEnabled() && (lastRow != null)) {
-            log.trace("Copying {} bytes for range {} on table {}", lastRow.length, rangeId, srcTable);
+        BatchWriter writer = new BatchWriter();
+        byte[] lastRow;
+        try {
+            lastRow = internalCopyRange(bv, maxBytes, writer);
+            if (log.isTraceEnabled() && (lastRow != null)) {
+                log.trace("Copying {} bytes for range {} on table {}", lastRow.length, rangeId, srcTable);
+            }
+            // Every write must have landed before we move the checkpoint past it.
+            writer.finish();
+        } catch (RuntimeException | Error e) {
+            writer.awaitQuietly();
+            throw e;
         }
-        writeToKvs(writeMap);
 
         byte[] nextRow = getNextRowName(lastRow);
         checkpointer.checkpoint(srcTable.getQualifiedName(), rangeId, nextRow, writeT);
@@ -196,7 +224,7 @@ public class KvsRangeMigrator implements RangeMigrator {
 
     private byte[] internalCopyRange(BatchingVisitable<RowResult<byte[]>> bv,
                                      final long maxBytes,
-                                     @Output final Map<Cell, byte[]> writeMap) {
+                                     @Output final BatchWriter writer) {
         final Mutable<byte[]> lastRowName = Mutables.newMutable(null);
         final MutableLong bytesPut = new MutableLong(0L);
         bv.batchAccept(readBatchSize, AbortingVisitors.batching(
@@ -205,7 +233,7 @@ public class KvsRangeMigrator implements RangeMigrator {
                 new AbortingVisitor<RowResult<byte[]>, RuntimeException>() {
                     @Override
                     public boolean visit(RowResult<byte[]> rr) throws RuntimeException {
-                        return KvsRangeMigrator.this.internalCopyRow(rr, maxBytes, writeMap, bytesPut, lastRowName);
+                        return KvsRangeMigrator.this.internalCopyRow(rr, maxBytes, writer, bytesPut, lastRowName);
                     }
                 }));
         return lastRowName.get();
@@ -213,15 +241,17 @@ public class KvsRangeMigrator implements RangeMigrator {
 
     private boolean internalCopyRow(RowResult<byte[]> rr,
                                     long maxBytes,
-                                    @Output Map<Cell, byte[]> writeMap,
+                                    @Output BatchWriter writer,
                                     @Output MutableLong bytesPut,
                                     @Output Mutable<byte[]> lastRowName) {
         Map<Cell, byte[]> values = rowTransform.apply(rr);
-        writeMap.putAll(values);
 
+        long rowBytes = 0;
         for (Map.Entry<Cell, byte[]> e : values.entrySet()) {
-            bytesPut.add(e.getValue().length + Cells.getApproxSizeOfCell(e.getKey()));
+            rowBytes += getApproxSize(e);
         }
+        bytesPut.add(rowBytes);
+        writer.add(values, rowBytes);
 
         if (bytesPut.longValue() >= maxBytes) {
             lastRowName.set(rr.getRowName());
@@ -229,4 +259,87 @@ public class KvsRangeMigrator implements RangeMigrator {
         }
         return true;
     }
+
+    private static long getApproxSize(Map.Entry<Cell, byte[]> entry) {
+        return entry.getValue().length + Cells.getApproxSizeOfCell(entry.getKey());
+    }
+
+    /**
+     * Buffers the rows copied in one transaction and writes them out in batches of roughly
+     * writeBatchSizeBytes on the write executor, so that reading the next rows overlaps with writing
+     * the previous ones. At most maxWritesInFlight batches are outstanding at a time; adding a row
+     * blocks while that many are still being written, which bounds the memory held by a copy.
+     */
+    private final class BatchWriter {
+        private final Deque<Future<?>> writesInFlight = new ArrayDeque<>();
+        private Map<Cell, byte[]> batch = Maps.newHashMap();
+        private long batchBytes = 0;
+        private long batchRows = 0;
+
+        void add(Map<Cell, byte[]> values, long bytes) {
+            batch.putAll(values);
+            batchBytes += bytes;
+            batchRows++;
+            if (batchBytes >= writeBatchSizeBytes) {
+                flush();
+            }
+        }
+
+        void finish() {
+            flush();
+            while (!writesInFlight.isEmpty()) {
+                await(writesInFlight.removeFirst());
+            }
+        }
+
+        void awaitQuietly() {
+            while (!writesInFlight.isEmpty()) {
+                try {
+                    await(writesInFlight.removeFirst());
+                } catch (RuntimeException e) {
+                    log.warn("Write to table {} failed while abandoning a migration transaction", destTable, e);
+                }
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            while (writesInFlight.size() >= maxWritesInFlight) {
+                await(writesInFlight.removeFirst());
+            }
+            Map<Cell, byte[]> toWrite = batch;
+            long rows = batchRows;
+            long bytes = batchBytes;
+            batch = Maps.newHashMap();
+            batchBytes = 0;
+            batchRows = 0;
+            writesInFlight.addLast(writeExecutor.submit(() -> write(toWrite, rows, bytes)));
+        }
+
+        private void write(Map<Cell, byte[]> toWrite, long rows, long bytes) {
+            Iterable<List<Map.Entry<Cell, byte[]>>> partitions = IterablePartitioner.partitionByCountAndBytes(
+                    toWrite.entrySet(),
+                    AtlasDbPerformanceConstants.MAX_BATCH_SIZE,
+                    writeBatchSizeBytes,
+                    destTable,
+                    KvsRangeMigrator::getApproxSize);
+            for (List<Map.Entry<Cell, byte[]>> partition : partitions) {
+                writeToKvs(Maps2.fromEntries(partition));
+            }
+            throughput.recordCopied(rows, bytes);
+        }
+
+        private void await(Future<?> future) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            } catch (ExecutionException e) {
+                throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+            }
+        }
+    }
 }
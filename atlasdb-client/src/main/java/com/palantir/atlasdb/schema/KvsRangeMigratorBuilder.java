@@ -16,14 +16,17 @@
 package com.palantir.atlasdb.schema;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.common.collect.Maps2;
 
 /**
@@ -36,6 +39,10 @@ import com.palantir.common.collect.Maps2;
  *
  * If readTxManager is not given, the read transaction will be the same as the write transaction.
  * This will not work for kvs migrations.
+ *
+ * If writeExecutor is not given, writes happen on the copying thread once the rows of a transaction
+ * have been read. Given an executor, writes of writeBatchSizeBytes each are issued while the copy keeps
+ * reading, with at most maxWritesInFlight of them outstanding per range.
  */
 public class KvsRangeMigratorBuilder {
     private TableReference srcTable;
@@ -47,6 +54,10 @@ public class KvsRangeMigratorBuilder {
     private long migrationTimestamp;
     private AbstractTaskCheckpointer checkpointer;
     private Function<RowResult<byte[]>, Map<Cell, byte[]>> rowTransform;
+    private ExecutorService writeExecutor;
+    private long writeBatchSizeBytes;
+    private int maxWritesInFlight;
+    private MigrationThroughput throughput;
 
     public KvsRangeMigratorBuilder() {
         srcTable = null;
@@ -58,6 +69,10 @@ public class KvsRangeMigratorBuilder {
         migrationTimestamp = -1;
         checkpointer = null;
         rowTransform = getIdentityTransform();
+        writeExecutor = MoreExecutors.newDirectExecutorService();
+        writeBatchSizeBytes = TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES / 2;
+        maxWritesInFlight = 1;
+        throughput = new MigrationThroughput();
     }
 
     private static Function<RowResult<byte[]>, Map<Cell, byte[]>> getIdentityTransform() {
@@ -118,6 +133,30 @@ public class KvsRangeMigratorBuilder {
         return this;
     }
 
+    public KvsRangeMigratorBuilder writeExecutor(ExecutorService executor) {
+        Preconditions.checkNotNull(executor);
+        this.writeExecutor = executor;
+        return this;
+    }
+
+    public KvsRangeMigratorBuilder writeBatchSizeBytes(long bytes) {
+        Preconditions.checkArgument(bytes > 0);
+        this.writeBatchSizeBytes = bytes;
+        return this;
+    }
+
+    public KvsRangeMigratorBuilder maxWritesInFlight(int writes) {
+        Preconditions.checkArgument(writes > 0);
+        this.maxWritesInFlight = writes;
+        return this;
+    }
+
+    public KvsRangeMigratorBuilder throughput(MigrationThroughput migrationThroughput) {
+        Preconditions.checkNotNull(migrationThroughput);
+        this.throughput = migrationThroughput;
+        return this;
+    }
+
     public KvsRangeMigrator build() {
         if (destTable == null) {
             destTable = srcTable;
@@ -140,6 +179,10 @@ public class KvsRangeMigratorBuilder {
                 writeKvs,
                 migrationTimestamp,
                 checkpointer,
-                rowTransform);
+                rowTransform,
+                writeExecutor,
+                writeBatchSizeBytes,
+                maxWritesInFlight,
+                throughput);
     }
 }
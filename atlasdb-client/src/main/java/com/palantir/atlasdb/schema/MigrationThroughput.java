@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.schema;
+
+import com.codahale.metrics.Meter;
+
+/**
+ * Tracks how many rows and bytes a migration has written to the destination key value service.
+ *
+ * Shared by every {@link KvsRangeMigrator} of a migration, so that the rates reported cover all tables and
+ * ranges being copied concurrently.
+ */
+public class MigrationThroughput {
+    private final Meter rows = new Meter();
+    private final Meter bytes = new Meter();
+
+    public void recordCopied(long numRows, long numBytes) {
+        rows.mark(numRows);
+        bytes.mark(numBytes);
+    }
+
+    public long getRowsCopied() {
+        return rows.getCount();
+    }
+
+    public long getBytesCopied() {
+        return bytes.getCount();
+    }
+
+    /**
+     * Rows per second, averaged since this tracker was created.
+     */
+    public double getRowsPerSecond() {
+        return rows.getMeanRate();
+    }
+
+    /**
+     * Bytes per second, averaged since this tracker was created.
+     */
+    public double getBytesPerSecond() {
+        return bytes.getMeanRate();
+    }
+
+    public String getSummary() {
+        return String.format("Copied %d rows (%.1f rows/s) and %d bytes (%.1f bytes/s)",
+                getRowsCopied(), getRowsPerSecond(), getBytesCopied(), getBytesPerSecond());
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class CompactMetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] fullTableNameBytes = PtBytes.toBytes(fullTableName);
-            return EncodingUtils.add(fullTableNameBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(fullTableName)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(fullTableName, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<CompactMetadataRow> BYTES_HYDRATOR = new Hydrator<CompactMetadataRow>() {
@@ -502,6 +505,20 @@ public final class CompactMetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<CompactMetadataRowResult>> getRowsAsync(Iterable<CompactMetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<CompactMetadataRowResult>> getRowsAsync(Iterable<CompactMetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<CompactMetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(CompactMetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<CompactMetadataNamedColumnValue<?>> getRowColumns(CompactMetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -628,6 +645,7 @@ public final class CompactMetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -683,5 +701,5 @@ public final class CompactMetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "acEZxDWIkwYVNh5XdgAAJQ==";
+    static String __CLASS_HASH = "JiTjKJxMLaN8jVpblLdqLg==";
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class SweepPriorityTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] fullTableNameBytes = PtBytes.toBytes(fullTableName);
-            return EncodingUtils.add(fullTableNameBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(fullTableName)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(fullTableName, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<SweepPriorityRow> BYTES_HYDRATOR = new Hydrator<SweepPriorityRow>() {
@@ -1058,6 +1061,20 @@ public final class SweepPriorityTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<SweepPriorityRowResult>> getRowsAsync(Iterable<SweepPriorityRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<SweepPriorityRowResult>> getRowsAsync(Iterable<SweepPriorityRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<SweepPriorityRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(SweepPriorityRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<SweepPriorityNamedColumnValue<?>> getRowColumns(SweepPriorityRow row) {
         return getRowColumns(row, allColumns);
@@ -1184,6 +1201,7 @@ public final class SweepPriorityTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -1239,5 +1257,5 @@ public final class SweepPriorityTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "Fy5OQz2p3OpBl5iG2MX60w==";
+    static String __CLASS_HASH = "t7K14KFvN8eSadHgfUvOmA==";
 }
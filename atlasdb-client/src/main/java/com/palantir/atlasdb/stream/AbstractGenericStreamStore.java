@@ -25,6 +25,10 @@ import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
@@ -32,6 +36,7 @@ import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -40,16 +45,30 @@ import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.util.ByteArrayIOStream;
 
 public abstract class AbstractGenericStreamStore<T> implements GenericStreamStore<T> {
     protected static final Logger log = LoggerFactory.getLogger(AbstractGenericStreamStore.class);
 
+    // Shared by every stream store in the process, since generated stream stores are typically created per use.
+    // Keyed by numPrefetchThreads, so stores configured with different pool sizes each get the size they asked for.
+    private static final ConcurrentMap<Integer, ExecutorService> prefetchExecutors = new ConcurrentHashMap<>();
+
     @CheckForNull protected final TransactionManager txnMgr;
+    private final Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration;
 
     protected AbstractGenericStreamStore(TransactionManager txManager) {
+        this(txManager, () -> StreamStorePersistenceConfiguration.DEFAULT_CONFIG);
+    }
+
+    protected AbstractGenericStreamStore(TransactionManager txManager,
+            Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
         this.txnMgr = txManager;
+        this.persistenceConfiguration = persistenceConfiguration;
     }
 
     private long getNumberOfBlocksFromMetadata(StreamMetadata metadata) {
@@ -139,12 +158,60 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         };
 
         try {
+            StreamStorePersistenceConfiguration config = persistenceConfiguration.get();
+            int batchesToPrefetch = getNumberOfBatchesToPrefetch(config, blocksInMemory);
+            if (batchesToPrefetch > 0 && totalBlocks > blocksInMemory && txnMgr != null && !parent.isUncommitted()) {
+                MetricRegistry metricRegistry = AtlasDbMetrics.getMetricRegistry();
+                return BlockConsumingInputStream.createWithPrefetching(
+                        getReadOnlyBlockGetter(id),
+                        totalBlocks,
+                        blocksInMemory,
+                        getPrefetchExecutor(config),
+                        batchesToPrefetch,
+                        metricRegistry.timer(MetricRegistry.name(getClass(), "prefetchConsumerWait")),
+                        metricRegistry.counter(MetricRegistry.name(getClass(), "prefetchedBatchesConsumed")));
+            }
             return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
         } catch (IOException e) {
             throw Throwables.throwUncheckedException(e);
         }
     }
 
+    /**
+     * Prefetched blocks are loaded on other threads, so each batch is read in its own read-only transaction rather
+     * than in the caller's transaction. Those transactions cannot see the caller's uncommitted writes, so this must
+     * only be used once the caller's transaction is no longer uncommitted; a stream stored and loaded in the same
+     * running transaction is read through {@code pageRefresher} instead.
+     */
+    private BlockGetter getReadOnlyBlockGetter(T id) {
+        return new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                txnMgr.runTaskReadOnly(txn -> {
+                    loadNBlocksToOutputStream(txn, id, firstBlock, numBlocks, destination);
+                    return null;
+                });
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return BLOCK_SIZE_IN_BYTES;
+            }
+        };
+    }
+
+    private static int getNumberOfBatchesToPrefetch(StreamStorePersistenceConfiguration config, int blocksInMemory) {
+        long bytesPerBatch = (long) blocksInMemory * BLOCK_SIZE_IN_BYTES;
+        return (int) Math.min(config.numBlockBatchesToPrefetch(), config.maxPrefetchedBytesPerStream() / bytesPerBatch);
+    }
+
+    private static ExecutorService getPrefetchExecutor(StreamStorePersistenceConfiguration config) {
+        return prefetchExecutors.computeIfAbsent(config.numPrefetchThreads(), numThreads ->
+                PTExecutors.newFixedThreadPool(
+                        numThreads,
+                        new NamedThreadFactory("stream-store-prefetch", true /* daemon */)));
+    }
+
     protected int getNumberOfBlocksThatFitInMemory() {
         int inMemoryThreshold = (int) getInMemoryThreshold(); // safe; actually defined as an int in generated code.
         int blocksInMemory = inMemoryThreshold / BLOCK_SIZE_IN_BYTES;
@@ -54,7 +54,7 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
 
     protected AbstractPersistentStreamStore(TransactionManager txManager,
             Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
-        super(txManager);
+        super(txManager, persistenceConfiguration);
         this.backoffStrategy = StandardPeriodicBackoffStrategy.create(persistenceConfiguration);
     }
 
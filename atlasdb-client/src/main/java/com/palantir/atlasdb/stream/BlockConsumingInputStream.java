@@ -18,16 +18,34 @@ package com.palantir.atlasdb.stream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
+import com.palantir.logsafe.SafeArg;
 
 public final class BlockConsumingInputStream extends InputStream {
+    private static final Logger log = LoggerFactory.getLogger(BlockConsumingInputStream.class);
+
     private final BlockGetter blockGetter;
     private final long numBlocks;
     private final int blocksInMemory;
 
+    @Nullable private final Prefetcher prefetcher;
+
     private long nextBlockToRead;
 
     private byte[] buffer;
@@ -38,7 +56,30 @@ public final class BlockConsumingInputStream extends InputStream {
             long numBlocks,
             int blocksInMemory) throws IOException {
         ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
-        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory);
+        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory, null, 0, null, null);
+    }
+
+    /**
+     * Creates a stream that keeps up to {@code batchesToPrefetch} batches of {@code blocksInMemory} blocks loading
+     * on the given executor while the current batch is consumed. The block getter must therefore be safe to call
+     * from the executor's threads, and so must not read in a transaction owned by the consumer. If loading a
+     * prefetched batch fails, the batch is loaded again on the consuming thread before the failure is surfaced.
+     *
+     * @param consumerWaits timed whenever the consumer has to wait for a prefetched batch to finish loading
+     * @param batchesConsumed incremented for every prefetched batch that the consumer moves on to
+     */
+    public static BlockConsumingInputStream createWithPrefetching(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            ExecutorService executor,
+            int batchesToPrefetch,
+            Timer consumerWaits,
+            Counter batchesConsumed) throws IOException {
+        ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
+        Preconditions.checkArgument(batchesToPrefetch > 0, "Must prefetch at least one batch");
+        return new BlockConsumingInputStream(
+                blockGetter, numBlocks, blocksInMemory, executor, batchesToPrefetch, consumerWaits, batchesConsumed);
     }
 
     // we don't want to actually create a very large array in tests, as the external test VM would run out of memory.
@@ -57,10 +98,20 @@ public final class BlockConsumingInputStream extends InputStream {
                 expectedBufferSize);
     }
 
-    private BlockConsumingInputStream(BlockGetter blockGetter, long numBlocks, int blocksInMemory) {
+    private BlockConsumingInputStream(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            @Nullable ExecutorService prefetchExecutor,
+            int batchesToPrefetch,
+            @Nullable Timer consumerWaits,
+            @Nullable Counter batchesConsumed) {
         this.blockGetter = blockGetter;
         this.numBlocks = numBlocks;
         this.blocksInMemory = blocksInMemory;
+        this.prefetcher = prefetchExecutor == null
+                ? null
+                : new Prefetcher(prefetchExecutor, batchesToPrefetch, consumerWaits, batchesConsumed);
         this.nextBlockToRead = 0L;
         this.positionInBuffer = 0;
         this.buffer = new byte[0];
@@ -117,6 +168,14 @@ public final class BlockConsumingInputStream extends InputStream {
         return bytesRead;
     }
 
+    @Override
+    public void close() throws IOException {
+        if (prefetcher != null) {
+            prefetcher.cancelAll();
+        }
+        super.close();
+    }
+
     private boolean refillBuffer() throws IOException {
         // since blocksInMemory is an int, the min is guaranteed to fit in an int
         int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
@@ -124,17 +183,92 @@ public final class BlockConsumingInputStream extends InputStream {
             return false;
         }
 
+        buffer = prefetcher == null
+                ? loadBlocks(nextBlockToRead, numBlocksToGet)
+                : prefetcher.take(nextBlockToRead, numBlocksToGet);
+        nextBlockToRead += numBlocksToGet;
+        positionInBuffer = 0;
+        return true;
+    }
+
+    private byte[] loadBlocks(long firstBlock, int numBlocksToGet) throws IOException {
         int expectedLength = blockGetter.expectedBlockLength() * numBlocksToGet;
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(expectedLength)) {
-            blockGetter.get(nextBlockToRead, numBlocksToGet, outputStream);
-            nextBlockToRead += numBlocksToGet;
-            buffer = outputStream.toByteArray();
-            positionInBuffer = 0;
-            return true;
+            blockGetter.get(firstBlock, numBlocksToGet, outputStream);
+            return outputStream.toByteArray();
         }
     }
 
     private long blocksLeft() {
         return Math.max(0L, numBlocks - nextBlockToRead);
     }
+
+    private final class Prefetcher {
+        private final ExecutorService executor;
+        private final int batchesToPrefetch;
+        private final Timer consumerWaits;
+        private final Counter batchesConsumed;
+        private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+        private long nextBlockToPrefetch = 0L;
+
+        private Prefetcher(
+                ExecutorService executor,
+                int batchesToPrefetch,
+                Timer consumerWaits,
+                Counter batchesConsumed) {
+            this.executor = executor;
+            this.batchesToPrefetch = batchesToPrefetch;
+            this.consumerWaits = consumerWaits;
+            this.batchesConsumed = batchesConsumed;
+        }
+
+        /**
+         * Returns the batch of blocks starting at firstBlock; batches are always taken in order.
+         */
+        byte[] take(long firstBlock, int numBlocksToGet) throws IOException {
+            scheduleUpToLimit();
+            Future<byte[]> batch = inFlight.poll();
+            Preconditions.checkState(batch != null, "Expected a prefetched batch starting at block %s", firstBlock);
+            byte[] blocks = await(batch, firstBlock, numBlocksToGet);
+            batchesConsumed.inc();
+            scheduleUpToLimit();
+            return blocks;
+        }
+
+        void cancelAll() {
+            for (Future<byte[]> batch : inFlight) {
+                batch.cancel(true);
+            }
+            inFlight.clear();
+        }
+
+        private void scheduleUpToLimit() {
+            while (inFlight.size() < batchesToPrefetch && nextBlockToPrefetch < numBlocks) {
+                long firstBlock = nextBlockToPrefetch;
+                int numBlocksToGet = (int) Math.min(numBlocks - firstBlock, blocksInMemory);
+                inFlight.add(executor.submit(() -> loadBlocks(firstBlock, numBlocksToGet)));
+                nextBlockToPrefetch += numBlocksToGet;
+            }
+        }
+
+        private byte[] await(Future<byte[]> batch, long firstBlock, int numBlocksToGet) throws IOException {
+            Timer.Context waitTimer = batch.isDone() ? null : consumerWaits.time();
+            try {
+                return batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new InterruptedIOException("Interrupted while waiting for blocks to be prefetched");
+            } catch (ExecutionException e) {
+                log.info("Failed to prefetch blocks starting at block {}; loading them on the reading thread instead.",
+                        SafeArg.of("firstBlock", firstBlock), e.getCause());
+                return loadBlocks(firstBlock, numBlocksToGet);
+            } finally {
+                if (waitTimer != null) {
+                    waitTimer.stop();
+                }
+            }
+        }
+    }
 }
@@ -56,11 +56,56 @@ public interface StreamStorePersistenceConfiguration {
         return 0;
     }
 
+    /**
+     * The number of batches of blocks that a stream returned by loadStream() reads ahead of its consumer, where a
+     * batch is as many blocks as fit under the stream store's in-memory threshold. Prefetched batches are read in
+     * the background, each in its own read-only transaction, so only streams loaded through a transaction that is
+     * no longer uncommitted are prefetched; streams loaded in a running transaction are read on the consuming thread
+     * through that transaction. A value of 0 disables prefetching.
+     *
+     * This parameter is live reloadable, and takes effect for streams loaded after it is reloaded.
+     */
+    @Value.Default
+    default int numBlockBatchesToPrefetch() {
+        return 0;
+    }
+
+    /**
+     * The maximum number of bytes that a single stream may hold in prefetched batches. If this is smaller than
+     * numBlockBatchesToPrefetch batches, fewer batches are prefetched; if it is smaller than one batch, the stream
+     * is not prefetched at all.
+     *
+     * This parameter is live reloadable, and takes effect for streams loaded after it is reloaded.
+     */
+    @Value.Default
+    default long maxPrefetchedBytesPerStream() {
+        return 64 * 1024 * 1024;
+    }
+
+    /**
+     * The number of threads used to prefetch blocks. Stream stores configured with the same value share one pool
+     * in the process, which bounds the memory used for prefetching across their streams, as each thread holds at
+     * most one batch being read.
+     *
+     * This parameter is live reloadable; a new value takes effect for streams loaded afterwards, which use the pool
+     * of that size. Pools are never shut down, so frequently changing this value leaves idle pools behind.
+     */
+    @Value.Default
+    default int numPrefetchThreads() {
+        return 4;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkState(numBlocksToWriteBeforePause() > 0,
                 "Number of blocks to write before pausing must be positive");
         Preconditions.checkState(writePauseDurationMillis() >= 0,
                 "Pause duration between batches of writes must be non-negative");
+        Preconditions.checkState(numBlockBatchesToPrefetch() >= 0,
+                "Number of block batches to prefetch must be non-negative");
+        Preconditions.checkState(maxPrefetchedBytesPerStream() >= 0,
+                "Maximum number of prefetched bytes per stream must be non-negative");
+        Preconditions.checkState(numPrefetchThreads() > 0,
+                "Number of prefetch threads must be positive");
     }
 }
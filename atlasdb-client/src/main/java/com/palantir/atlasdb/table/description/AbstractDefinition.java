@@ -42,6 +42,7 @@ abstract class AbstractDefinition {
     boolean rangeScanAllowed = false;
     boolean negativeLookups = false;
     boolean appendHeavyAndReadLight = false;
+    boolean cachedAcrossTransactions = false;
 
     public void cachePriority(CachePriority priority) {
         this.cachePriority = priority;
@@ -105,6 +106,20 @@ abstract class AbstractDefinition {
         return appendHeavyAndReadLight;
     }
 
+    /**
+     * Allows values read from this table to be shared between transactions through a
+     * {@link com.palantir.atlasdb.cache.SharedCellCache}. This is intended for small, read-mostly tables: every
+     * transaction that writes to the table also writes its {@link com.palantir.atlasdb.cache.CachedTableVersions
+     * version}, so concurrent writers to the table conflict with each other.
+     */
+    public void cachedAcrossTransactions() {
+        cachedAcrossTransactions = true;
+    }
+
+    public boolean isCachedAcrossTransactions() {
+        return cachedAcrossTransactions;
+    }
+
     protected abstract ConflictHandler defaultConflictHandler();
 
     void validateFirstRowComp(NameComponentDescription comp) {
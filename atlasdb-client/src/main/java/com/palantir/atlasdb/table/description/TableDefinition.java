@@ -417,7 +417,8 @@ public class TableDefinition extends AbstractDefinition {
                 negativeLookups,
                 sweepStrategy,
                 appendHeavyAndReadLight,
-                tableNameSafety);
+                tableNameSafety,
+                cachedAcrossTransactions);
     }
 
     private ColumnMetadataDescription getColumnMetadataDescription() {
@@ -39,6 +39,7 @@ public class TableMetadata implements Persistable {
     final SweepStrategy sweepStrategy;
     final boolean appendHeavyAndReadLight;
     final LogSafety nameLogSafety;
+    final boolean cachedAcrossTransactions;
 
     public TableMetadata() {
         this(LogSafety.UNSAFE);
@@ -111,6 +112,31 @@ public class TableMetadata implements Persistable {
                          SweepStrategy sweepStrategy,
                          boolean appendHeavyAndReadLight,
                          LogSafety nameLogSafety) {
+        this(
+                rowMetadata,
+                columns,
+                conflictHandler,
+                cachePriority,
+                rangeScanAllowed,
+                explicitCompressionBlockSizeKB,
+                negativeLookups,
+                sweepStrategy,
+                appendHeavyAndReadLight,
+                nameLogSafety,
+                false);
+    }
+
+    public TableMetadata(NameMetadataDescription rowMetadata,
+                         ColumnMetadataDescription columns,
+                         ConflictHandler conflictHandler,
+                         CachePriority cachePriority,
+                         boolean rangeScanAllowed,
+                         int explicitCompressionBlockSizeKB,
+                         boolean negativeLookups,
+                         SweepStrategy sweepStrategy,
+                         boolean appendHeavyAndReadLight,
+                         LogSafety nameLogSafety,
+                         boolean cachedAcrossTransactions) {
         this.rowMetadata = rowMetadata;
         this.columns = columns;
         this.conflictHandler = conflictHandler;
@@ -121,6 +147,7 @@ public class TableMetadata implements Persistable {
         this.sweepStrategy = sweepStrategy;
         this.appendHeavyAndReadLight = appendHeavyAndReadLight;
         this.nameLogSafety = nameLogSafety;
+        this.cachedAcrossTransactions = cachedAcrossTransactions;
     }
 
     public NameMetadataDescription getRowMetadata() {
@@ -167,6 +194,14 @@ public class TableMetadata implements Persistable {
         return nameLogSafety;
     }
 
+    /**
+     * Whether values read from this table may be served to later transactions from a
+     * {@link com.palantir.atlasdb.cache.SharedCellCache}.
+     */
+    public boolean isCachedAcrossTransactions() {
+        return cachedAcrossTransactions;
+    }
+
     @Override
     public byte[] persistToBytes() {
         return persistToProto().build().toByteArray();
@@ -196,6 +231,7 @@ public class TableMetadata implements Persistable {
         // expiration strategy doesn't need to be persisted.
         builder.setAppendHeavyAndReadLight(appendHeavyAndReadLight);
         builder.setNameLogSafety(nameLogSafety);
+        builder.setCachedAcrossTransactions(cachedAcrossTransactions);
         return builder;
     }
 
@@ -228,6 +264,10 @@ public class TableMetadata implements Persistable {
         if (message.hasNameLogSafety()) {
             nameLogSafety = message.getNameLogSafety();
         }
+        boolean cachedAcrossTransactions = false;
+        if (message.hasCachedAcrossTransactions()) {
+            cachedAcrossTransactions = message.getCachedAcrossTransactions();
+        }
 
         return new TableMetadata(
                 NameMetadataDescription.hydrateFromProto(message.getRowName()),
@@ -239,7 +279,8 @@ public class TableMetadata implements Persistable {
                 negativeLookups,
                 sweepStrategy,
                 appendHeavyAndReadLight,
-                nameLogSafety);
+                nameLogSafety,
+                cachedAcrossTransactions);
     }
 
     @Override
@@ -255,6 +296,7 @@ public class TableMetadata implements Persistable {
                 + ", sweepStrategy = " + sweepStrategy
                 + ", appendHeavyAndReadLight = " + appendHeavyAndReadLight
                 + ", nameLogSafety = " + nameLogSafety
+                + ", cachedAcrossTransactions = " + cachedAcrossTransactions
                 + "]";
     }
 
@@ -273,6 +315,7 @@ public class TableMetadata implements Persistable {
         result = prime * result + sweepStrategy.hashCode();
         result = prime * result + (appendHeavyAndReadLight ? 0 : 1);
         result = prime * result + nameLogSafety.hashCode(); // Nonnull, because it has a default value
+        result = prime * result + (cachedAcrossTransactions ? 0 : 1);
         return result;
     }
 
@@ -326,6 +369,9 @@ public class TableMetadata implements Persistable {
         if (nameLogSafety != other.nameLogSafety) {
             return false;
         }
+        if (cachedAcrossTransactions != other.cachedAcrossTransactions) {
+            return false;
+        }
         return true;
     }
 
@@ -109,6 +109,16 @@ public enum ValueType {
             return "EncodingUtils.encodeUnsignedVarLong(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "EncodingUtils.sizeOfUnsignedVarLong(" + variableName + ")";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeUnsignedVarLong(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     /**
      * This value type supports range scans. Neighboring number will be written next to each other.
@@ -190,6 +200,16 @@ public enum ValueType {
             return "EncodingUtils.encodeSignedVarLong(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "EncodingUtils.sizeOfSignedVarLong(" + variableName + ")";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeSignedVarLong(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     /**
      * This value type supports range scans.  Sequential numbers will be written next to each other.
@@ -270,6 +290,16 @@ public enum ValueType {
             return "PtBytes.toBytes(Long.MIN_VALUE ^ " + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "8";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeLong(Long.MIN_VALUE ^ " + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     /**
      * This value type does NOT support range scans. This encoding is {@link PtBytes#toBytes(long)} but with
@@ -351,6 +381,16 @@ public enum ValueType {
             return "EncodingUtils.encodeLittleEndian(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "8";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeLittleEndian(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
         @Override
         public boolean supportsRangeScans() {
             return false;
@@ -419,6 +459,16 @@ public enum ValueType {
             return variableName + ".getBytes()";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "32";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeBytes(" + variableName + ".getBytes(), " + outputName + ", " + indexName + ")";
+        }
+
         @Override
         public String getHydrateCode(String inputName, String indexName) {
             return "new Sha256Hash(EncodingUtils.get32Bytes(" + inputName + ", " + indexName + "))";
@@ -511,6 +561,16 @@ public enum ValueType {
             return "EncodingUtils.encodeVarString(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "EncodingUtils.sizeOfVarString(" + variableName + ")";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeVarString(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     STRING {
         @Override
@@ -582,6 +642,16 @@ public enum ValueType {
             return "PtBytes.toBytes(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "EncodingUtils.sizeOfUtf8(" + variableName + ")";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeUtf8(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     BLOB {
         @Override
@@ -634,6 +704,16 @@ public enum ValueType {
             return variableName;
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return variableName + ".length";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeBytes(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
         @Override
         public String getHydrateCode(String inputName, String indexName) {
             return "EncodingUtils.getBytesFromOffsetToEnd(" + inputName + ", " + indexName + ")";
@@ -705,6 +785,16 @@ public enum ValueType {
             return "EncodingUtils.encodeSizedBytes(" + variableName + ")";
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "EncodingUtils.sizeOfSizedBytes(" + variableName + ")";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeSizedBytes(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
         @Override
         public String getHydrateCode(String inputName, String indexName) {
             return "EncodingUtils.decodeSizedBytes(" + inputName + ", " + indexName + ")";
@@ -802,6 +892,16 @@ public enum ValueType {
             return String.format("EncodingUtils.encodeNullableFixedLong(%s)", variableName);
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "9";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeNullableFixedLong(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
     },
     UUID {
         @Override
@@ -853,6 +953,16 @@ public enum ValueType {
             return String.format("EncodingUtils.encodeUUID(%s)", variableName);
         }
 
+        @Override
+        public String getPersistSizeCode(String variableName) {
+            return "16";
+        }
+
+        @Override
+        public String getPersistIntoCode(String variableName, String outputName, String indexName) {
+            return "EncodingUtils.encodeUUID(" + variableName + ", " + outputName + ", " + indexName + ")";
+        }
+
         @Override
         public String getHydrateCode(String inputName, String indexName) {
             return String.format("EncodingUtils.decodeUUID(%s, %s)", inputName, indexName);
@@ -904,6 +1014,17 @@ public enum ValueType {
     }
 
     public abstract String getPersistCode(String variableName);
+
+    /**
+     * Code for the number of bytes {@link #getPersistCode} would produce for the variable, without encoding it.
+     */
+    public abstract String getPersistSizeCode(String variableName);
+
+    /**
+     * Code that writes the same bytes as {@link #getPersistCode} into outputName at indexName, and evaluates to the
+     * index after them.
+     */
+    public abstract String getPersistIntoCode(String variableName, String outputName, String indexName);
     public abstract String getHydrateCode(String inputName, String indexName);
     public abstract String getFlippedHydrateCode(String inputName, String indexName);
     public abstract String getHydrateSizeCode(String variableName);
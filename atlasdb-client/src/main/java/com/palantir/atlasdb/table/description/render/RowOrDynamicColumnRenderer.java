@@ -175,16 +175,24 @@ class RowOrDynamicColumnRenderer extends Renderer {
     private void persistToBytes() {
         line("@Override");
         line("public byte[] persistToBytes() {"); {
-            List<String> vars = Lists.newArrayList();
+            List<String> sizes = Lists.newArrayList();
             for (NameComponentDescription comp : desc.getRowParts()) {
-                String var = varName(comp) + "Bytes";
-                vars.add(var);
-                line("byte[] ", var, " = ", comp.getType().getPersistCode(varName(comp)), ";");
-                if (comp.getOrder() == ValueByteOrder.DESCENDING) {
-                    line("EncodingUtils.flipAllBitsInPlace(", var, ");");
+                sizes.add(comp.getType().getPersistSizeCode(varName(comp)));
+            }
+            line("byte[] __output = new byte[", Joiner.on(" + ").join(sizes), "];");
+            line("int __index = 0;");
+            for (NameComponentDescription comp : desc.getRowParts()) {
+                String var = varName(comp);
+                if (comp.getOrder() == ValueByteOrder.ASCENDING) {
+                    line("__index = ", comp.getType().getPersistIntoCode(var, "__output", "__index"), ";");
+                } else {
+                    String start = "__" + var + "Start";
+                    line("int ", start, " = __index;");
+                    line("__index = ", comp.getType().getPersistIntoCode(var, "__output", "__index"), ";");
+                    line("EncodingUtils.flipAllBitsInPlace(__output, ", start, ", __index - ", start, ");");
                 }
             }
-            line("return EncodingUtils.add(", Joiner.on(", ").join(vars), ");");
+            line("return __output;");
         } line("}");
     }
 
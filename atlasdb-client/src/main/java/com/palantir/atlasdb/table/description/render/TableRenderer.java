@@ -29,6 +29,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -313,6 +314,8 @@ public class TableRenderer {
             line();
             renderNamedGetRows();
             line();
+            renderNamedGetRowsAsync();
+            line();
             renderGetRowColumns(false);
             line();
             renderGetRowsMultimap(false);
@@ -1069,6 +1072,22 @@ public class TableRenderer {
             } line("}");
         }
 
+        private void renderNamedGetRowsAsync() {
+            line("public CompletableFuture<List<", RowResult, ">> getRowsAsync(Iterable<", Row, "> rows) {"); {
+                line("return getRowsAsync(rows, allColumns);");
+            } line("}");
+            line();
+            line("public CompletableFuture<List<", RowResult, ">> getRowsAsync(Iterable<", Row, "> rows, ColumnSelection columns) {"); {
+                line("return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {"); {
+                    line("List<", RowResult, "> rowResults = Lists.newArrayListWithCapacity(results.size());");
+                    line("for (RowResult<byte[]> row : results.values()) {"); {
+                        line("rowResults.add(", RowResult, ".of(row));");
+                    } line("}");
+                    line("return rowResults;");
+                } line("});");
+            } line("}");
+        }
+
         private void renderDynamicGet() {
             line("@Override");
             line("public Multimap<", Row, ", ", ColumnValue, "> get(Multimap<", Row, ", ", Column, "> cells) {"); {
@@ -1254,6 +1273,7 @@ public class TableRenderer {
         Map.class,
         SortedMap.class,
         Callable.class,
+        CompletableFuture.class,
         Multimap.class,
         Multimaps.class,
         Collection.class,
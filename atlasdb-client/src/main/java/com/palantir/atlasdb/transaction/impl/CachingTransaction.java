@@ -16,8 +16,10 @@
 package com.palantir.atlasdb.transaction.impl;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +32,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.cache.CachedTableVersions;
+import com.palantir.atlasdb.cache.SharedCellCache;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -48,13 +52,29 @@ public class CachingTransaction extends ForwardingTransaction {
 
     private final Transaction delegate;
     private final Cache<Pair<String, Cell>, byte[]> cellCache;
+    private final Optional<SharedCellCache> sharedCellCache;
+    private final Set<TableReference> sharedCacheTablesWritten = Sets.newConcurrentHashSet();
+    private final ConcurrentMap<TableReference, Long> sharedCacheTableVersions = Maps.newConcurrentMap();
 
     public CachingTransaction(Transaction delegate) {
         this(delegate, DEFAULT_MAX_CACHED_CELLS);
     }
 
     public CachingTransaction(Transaction delegate, long maxCachedCells) {
+        this(delegate, maxCachedCells, Optional.empty());
+    }
+
+    /**
+     * Creates a caching transaction which also reads from and populates the given cache shared between
+     * transactions. The version of each cached table is read through the delegate the first time the table is read.
+     */
+    public CachingTransaction(Transaction delegate, SharedCellCache sharedCellCache) {
+        this(delegate, DEFAULT_MAX_CACHED_CELLS, Optional.of(sharedCellCache));
+    }
+
+    private CachingTransaction(Transaction delegate, long maxCachedCells, Optional<SharedCellCache> sharedCellCache) {
         this.delegate = delegate;
+        this.sharedCellCache = sharedCellCache;
         cellCache = CacheBuilder.newBuilder()
                 .maximumSize(maxCachedCells)
                 .softValues()
@@ -140,23 +160,43 @@ public class CachingTransaction extends ForwardingTransaction {
 
     @Override
     public final void delete(TableReference tableRef, Set<Cell> cells) {
+        markSharedCacheTableWritten(tableRef);
         super.delete(tableRef, cells);
         addToCache(tableRef, Cells.constantValueMap(cells, PtBytes.EMPTY_BYTE_ARRAY));
     }
 
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values) {
+        markSharedCacheTableWritten(tableRef);
         super.put(tableRef, values);
         addToCache(tableRef, values);
     }
 
+    private void markSharedCacheTableWritten(TableReference tableRef) {
+        if (sharedCellCache.isPresent() && sharedCellCache.get().isCached(tableRef)) {
+            sharedCacheTablesWritten.add(tableRef);
+        }
+    }
+
+    private boolean usesSharedCache(TableReference tableRef) {
+        // Once we have written to a table, our reads of it include our own writes, which must not be shared.
+        return sharedCellCache.isPresent()
+                && !sharedCacheTablesWritten.contains(tableRef)
+                && sharedCellCache.get().isCached(tableRef);
+    }
+
+    private long getSharedCacheTableVersion(TableReference tableRef) {
+        return sharedCacheTableVersions.computeIfAbsent(tableRef,
+                table -> CachedTableVersions.getVersion(delegate, table));
+    }
+
     private void addToCache(TableReference tableRef, Map<Cell, byte[]> values) {
         for (Map.Entry<Cell, byte[]> e : values.entrySet()) {
             byte[] value = e.getValue();
             if (value == null) {
                 value = PtBytes.EMPTY_BYTE_ARRAY;
             }
-            cacheLoadedCell(tableRef, e.getKey(), value);
+            cellCache.put(Pair.create(tableRef.getQualifiedName(), e.getKey()), value);
         }
     }
 
@@ -179,11 +219,18 @@ public class CachingTransaction extends ForwardingTransaction {
     }
 
     private byte[] getCachedCellIfPresent(TableReference tableRef, Cell cell) {
-        return cellCache.getIfPresent(Pair.create(tableRef.getQualifiedName(), cell));
+        byte[] value = cellCache.getIfPresent(Pair.create(tableRef.getQualifiedName(), cell));
+        if (value == null && usesSharedCache(tableRef)) {
+            value = sharedCellCache.get().get(tableRef, cell, getSharedCacheTableVersion(tableRef));
+        }
+        return value;
     }
 
     private void cacheLoadedCell(TableReference tableRef, Cell cell, byte[] value) {
         cellCache.put(Pair.create(tableRef.getQualifiedName(), cell), value);
+        if (usesSharedCache(tableRef)) {
+            sharedCellCache.get().put(tableRef, cell, value, getSharedCacheTableVersion(tableRef));
+        }
     }
 
 
@@ -27,6 +27,7 @@ import com.palantir.atlasdb.transaction.api.ConflictHandler;
 
 public class ConflictDetectionManager {
     private final LoadingCache<TableReference, ConflictHandler> cache;
+    private final LoadingCache<TableReference, Boolean> cachedAcrossTransactions;
 
     /**
      *  This class does not make the mistake of attempting cache invalidation,
@@ -41,9 +42,21 @@ public class ConflictDetectionManager {
      *  (This has always been the behavior of this class; I'm simply calling it out)
      */
     public ConflictDetectionManager(CacheLoader<TableReference, ConflictHandler> loader) {
+        this(loader, CacheLoader.from(tableReference -> false));
+    }
+
+    /**
+     * @param cachedAcrossTransactionsLoader whether each table's metadata has it cached across transactions.
+     */
+    public ConflictDetectionManager(
+            CacheLoader<TableReference, ConflictHandler> loader,
+            CacheLoader<TableReference, Boolean> cachedAcrossTransactionsLoader) {
         this.cache = CacheBuilder.newBuilder()
                 .maximumSize(100_000)
                 .build(loader);
+        this.cachedAcrossTransactions = CacheBuilder.newBuilder()
+                .maximumSize(100_000)
+                .build(cachedAcrossTransactionsLoader);
     }
 
     public void warmCacheWith(Map<TableReference, ConflictHandler> preload) {
@@ -58,4 +71,12 @@ public class ConflictDetectionManager {
     public ConflictHandler get(TableReference tableReference) {
         return cache.getUnchecked(tableReference);
     }
+
+    /**
+     * Whether writers to the table must record their writes in
+     * {@link com.palantir.atlasdb.cache.CachedTableVersions}, so that they conflict with each other.
+     */
+    public boolean isCachedAcrossTransactions(TableReference tableReference) {
+        return cachedAcrossTransactions.getUnchecked(tableReference);
+    }
 }
@@ -77,6 +77,16 @@ public final class ConflictDetectionManagers {
                             return getConflictHandlerFromMetadata(metadata);
                         }
                     }
+                },
+                new CacheLoader<TableReference, Boolean>() {
+                    @Override
+                    public Boolean load(TableReference tableReference) throws Exception {
+                        byte[] metadata = kvs.getMetadataForTable(tableReference);
+                        return metadata != null
+                                && metadata.length > 0
+                                && TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata)
+                                        .isCachedAcrossTransactions();
+                    }
                 });
         if (warmCache) {
             // kick off an async thread that attempts to fully warm this cache
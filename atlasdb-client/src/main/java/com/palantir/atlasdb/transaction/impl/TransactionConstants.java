@@ -23,6 +23,7 @@ import com.palantir.atlasdb.protos.generated.TableMetadataPersistence;
 import com.palantir.atlasdb.ptobject.EncodingUtils;
 import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
 import com.palantir.atlasdb.table.description.ColumnValueDescription;
+import com.palantir.atlasdb.table.description.DynamicColumnDescription;
 import com.palantir.atlasdb.table.description.NameComponentDescription;
 import com.palantir.atlasdb.table.description.NameMetadataDescription;
 import com.palantir.atlasdb.table.description.NamedColumnDescription;
@@ -39,6 +40,12 @@ public class TransactionConstants {
     public static final byte[] COMMIT_TS_COLUMN = PtBytes.toBytes(COMMIT_TS_COLUMN_STRING);
     public static final long FAILED_COMMIT_TS = -1L;
 
+    /**
+     * The packed transactions table, which holds many start timestamps per row. Only start timestamps at or after
+     * the transactions table cutover are stored here; earlier ones remain in {@link #TRANSACTION_TABLE}.
+     */
+    public static final TableReference TRANSACTIONS2_TABLE = TableReference.createWithEmptyNamespace("_transactions2");
+
     public static final long WARN_LEVEL_FOR_QUEUED_BYTES = 10 * 1024 * 1024;
 
     public static final long APPROX_IN_MEM_CELL_OVERHEAD_BYTES = 16;
@@ -62,4 +69,18 @@ public class TransactionConstants {
             ConflictHandler.IGNORE_ALL,
             TableMetadataPersistence.LogSafety.SAFE);
 
+    public static final TableMetadata TRANSACTIONS2_TABLE_METADATA = new TableMetadata(
+            NameMetadataDescription.create(ImmutableList.of(new NameComponentDescription.Builder()
+                    .componentName("partition_and_row")
+                    .type(ValueType.VAR_LONG)
+                    .build())),
+            new ColumnMetadataDescription(new DynamicColumnDescription(
+                    NameMetadataDescription.create(ImmutableList.of(new NameComponentDescription.Builder()
+                            .componentName("write_ts_offset")
+                            .type(ValueType.VAR_LONG)
+                            .build())),
+                    ColumnValueDescription.forType(ValueType.VAR_SIGNED_LONG))),
+            ConflictHandler.IGNORE_ALL,
+            TableMetadataPersistence.LogSafety.SAFE);
+
 }
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
 import com.google.common.annotations.VisibleForTesting;
@@ -133,4 +134,21 @@ public final class AtlasDbMetrics {
                     metricsPrefix, existingMetrics);
         }
     }
+
+    /**
+     * Registers each of the given gauges under {@code metricsPrefix + "." + name}, unless the registry already
+     * contains metrics with this prefix.
+     */
+    public static void registerGauges(Map<String, Gauge<?>> gauges, String metricsPrefix) {
+        MetricRegistry metricRegistry = getMetricRegistry();
+        Set<String> existingMetrics = metricRegistry.getMetrics().keySet().stream()
+                .filter(name -> name.startsWith(metricsPrefix))
+                .collect(Collectors.toSet());
+        if (existingMetrics.isEmpty()) {
+            gauges.forEach((name, gauge) -> metricRegistry.register(MetricRegistry.name(metricsPrefix, name), gauge));
+        } else {
+            log.info("Not registering gauges with prefix '{}' as metric registry already contains metrics: {}",
+                    metricsPrefix, existingMetrics);
+        }
+    }
 }
@@ -130,6 +130,34 @@ public class MetricsManager {
         }
     }
 
+    /**
+     * Returns the timer of the given name tagged with the given table, creating it if it does not exist yet.
+     */
+    public Timer registerOrGetTimerForTable(Class clazz, String metricName, TableReference tableRef) {
+        return taggedMetricRegistry.timer(getMetricNameForTable(clazz, metricName, tableRef));
+    }
+
+    /**
+     * Returns the histogram of the given name tagged with the given table, creating it if it does not exist yet.
+     */
+    public Histogram registerOrGetHistogramForTable(Class clazz, String metricName, TableReference tableRef) {
+        return taggedMetricRegistry.histogram(getMetricNameForTable(clazz, metricName, tableRef));
+    }
+
+    /**
+     * Returns the meter of the given name tagged with the given table, creating it if it does not exist yet.
+     */
+    public Meter registerOrGetMeterForTable(Class clazz, String metricName, TableReference tableRef) {
+        return taggedMetricRegistry.meter(getMetricNameForTable(clazz, metricName, tableRef));
+    }
+
+    private MetricName getMetricNameForTable(Class clazz, String metricName, TableReference tableRef) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(clazz, metricName))
+                .safeTags(getTableNameTagFor(tableRef))
+                .build();
+    }
+
     @VisibleForTesting
     Map<String, String> getTableNameTagFor(TableReference tableRef) {
         String tableName = tableRef.getTablename();
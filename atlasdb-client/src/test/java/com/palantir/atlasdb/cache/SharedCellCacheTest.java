@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+
+public class SharedCellCacheTest {
+    private static final TableReference CACHED_TABLE = TableReference.createFromFullyQualifiedName("test.cached");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("test.other");
+    private static final Cell CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+    private static final byte[] OTHER_VALUE = PtBytes.toBytes("other");
+
+    private final SharedCellCache cache = new SharedCellCache("test", CACHED_TABLE::equals, 1_000_000);
+
+    @Test
+    public void onlyCachesMatchingTables() {
+        assertThat(cache.isCached(CACHED_TABLE)).isTrue();
+        assertThat(cache.isCached(OTHER_TABLE)).isFalse();
+    }
+
+    @Test
+    public void servesValueToTransactionsReadingTheSameVersion() {
+        cache.put(CACHED_TABLE, CELL, VALUE, CachedTableVersions.NO_WRITES);
+
+        assertThat(cache.get(CACHED_TABLE, CELL, CachedTableVersions.NO_WRITES)).isEqualTo(VALUE);
+        assertThat(cache.get(CACHED_TABLE, CELL, 10)).isNull();
+    }
+
+    @Test
+    public void servesCopiesOfValues() {
+        cache.put(CACHED_TABLE, CELL, VALUE, 10);
+        cache.get(CACHED_TABLE, CELL, 10)[0] = 0;
+
+        assertThat(cache.get(CACHED_TABLE, CELL, 10)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void newerVersionReplacesValue() {
+        cache.put(CACHED_TABLE, CELL, VALUE, 10);
+        cache.put(CACHED_TABLE, CELL, OTHER_VALUE, 20);
+
+        assertThat(cache.get(CACHED_TABLE, CELL, 20)).isEqualTo(OTHER_VALUE);
+        assertThat(cache.get(CACHED_TABLE, CELL, 10)).isNull();
+    }
+
+    @Test
+    public void doesNotCacheValuesOfVersionsOlderThanOneAlreadySeen() {
+        cache.put(CACHED_TABLE, Cell.create(PtBytes.toBytes("other"), CELL.getColumnName()), VALUE, 20);
+        cache.put(CACHED_TABLE, CELL, VALUE, 10);
+
+        assertThat(cache.get(CACHED_TABLE, CELL, 10)).isNull();
+    }
+
+    @Test
+    public void versionsOfOtherTablesDoNotAffectValues() {
+        SharedCellCache bothTables = new SharedCellCache("both", table -> true, 1_000_000);
+        bothTables.put(CACHED_TABLE, CELL, VALUE, 10);
+        bothTables.put(OTHER_TABLE, CELL, VALUE, 20);
+
+        assertThat(bothTables.get(CACHED_TABLE, CELL, 10)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void evictsOnceFull() {
+        SharedCellCache smallCache = new SharedCellCache("small", CACHED_TABLE::equals, 1_000);
+        for (int i = 0; i < 100; i++) {
+            smallCache.put(CACHED_TABLE, Cell.create(PtBytes.toBytes("row" + i), CELL.getColumnName()), VALUE, 10);
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 100; i++) {
+            if (smallCache.get(CACHED_TABLE, Cell.create(PtBytes.toBytes("row" + i), CELL.getColumnName()), 10)
+                    != null) {
+                cached++;
+            }
+        }
+        assertThat(cached).isLessThan(100);
+    }
+}
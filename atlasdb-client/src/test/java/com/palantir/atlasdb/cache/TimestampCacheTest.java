@@ -16,8 +16,10 @@
 package com.palantir.atlasdb.cache;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
@@ -29,9 +31,7 @@ import org.junit.Test;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
-import com.google.common.cache.Cache;
 import com.palantir.atlasdb.AtlasDbConstants;
-import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.atlasdb.util.MetricsRule;
 
 public class TimestampCacheTest {
@@ -42,10 +42,8 @@ public class TimestampCacheTest {
 
     @Test
     public void cacheExposesMetrics() throws Exception {
-        Cache<Long, Long> cache = TimestampCache.createCache(AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
-        AtlasDbMetrics.registerCache(cache, TEST_CACHE_NAME);
-
-        TimestampCache timestampCache = new TimestampCache(cache);
+        TimestampCache timestampCache = new TimestampCache(
+                () -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE, TEST_CACHE_NAME);
 
         SortedMap<String, Gauge> gauges = metricsRule.metrics().getGauges(startsWith(TimestampCache.class.getName()));
         assertThat(gauges.keySet(), hasItems(cacheMetricName("hit.count"), cacheMetricName("miss.ratio")));
@@ -69,6 +67,49 @@ public class TimestampCacheTest {
         assertThat(gauges.get(cacheMetricName("request.count")).getValue(), equalTo(5L));
     }
 
+    @Test
+    public void bulkOperationsReturnCachedCommitTimestamps() {
+        TimestampCache timestampCache = new TimestampCache(() -> 100L, TEST_CACHE_NAME);
+
+        timestampCache.putAll(new long[] {1L, 3L}, new long[] {2L, -1L});
+
+        long[] commitTimestamps = new long[3];
+        int found = timestampCache.getAll(new long[] {1L, 2L, 3L}, commitTimestamps);
+
+        assertThat(found, is(2));
+        assertThat(commitTimestamps[0], is(2L));
+        assertThat(commitTimestamps[1], is(TimestampCache.MISSING));
+        assertThat(commitTimestamps[2], is(-1L));
+    }
+
+    @Test
+    public void growsUpToConfiguredSizeWhenEntriesAreEvicted() {
+        long size = 10_000L;
+        TimestampCache timestampCache = new TimestampCache(() -> size, TEST_CACHE_NAME);
+        int initialCapacity = timestampCache.capacity();
+
+        for (long startTs = 0; startTs < 2 * size; startTs++) {
+            timestampCache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+
+        assertThat(timestampCache.capacity(), greaterThan(initialCapacity));
+        assertThat((long) timestampCache.capacity(), lessThanOrEqualTo(2 * size));
+    }
+
+    @Test
+    public void evictedEntriesAreNeverReturnedWithTheWrongCommitTimestamp() {
+        TimestampCache timestampCache = new TimestampCache(() -> 16L, TEST_CACHE_NAME);
+
+        for (long startTs = 0; startTs < 1000; startTs++) {
+            timestampCache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+
+        for (long startTs = 0; startTs < 1000; startTs++) {
+            Long commitTs = timestampCache.getCommitTimestampIfPresent(startTs);
+            assertThat(commitTs == null || commitTs == startTs + 1, is(true));
+        }
+    }
+
     private static String cacheMetricName(String name) {
         return TEST_CACHE_NAME + ".cache." + name;
     }
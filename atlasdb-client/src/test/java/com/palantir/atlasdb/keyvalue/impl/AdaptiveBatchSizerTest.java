@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.AtlasDbPerformanceConstants;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+
+public class AdaptiveBatchSizerTest {
+    private static final TableReference WIDE_TABLE = TableReference.createFromFullyQualifiedName("test.wide");
+    private static final TableReference NARROW_TABLE = TableReference.createFromFullyQualifiedName("test.narrow");
+    private static final long TARGET_BYTES = 10_000;
+
+    private final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer("test", TARGET_BYTES);
+
+    @Test
+    public void usesDefaultPageSizeUntilTableHasBeenObserved() {
+        assertThat(sizer.getPageSize(WIDE_TABLE, 100)).isEqualTo(100);
+        assertThat(sizer.capPageSize(WIDE_TABLE, 100)).isEqualTo(100);
+    }
+
+    @Test
+    public void shrinksPagesOfWideRowsToTargetBytes() {
+        sizer.recordPage(WIDE_TABLE, 10, 10 * 1_000);
+
+        assertThat(sizer.getPageSize(WIDE_TABLE, 100)).isEqualTo(10);
+        assertThat(sizer.capPageSize(WIDE_TABLE, 100)).isEqualTo(10);
+    }
+
+    @Test
+    public void growsPagesOfNarrowRowsButOnlyWhenAllowed() {
+        sizer.recordPage(NARROW_TABLE, 100, 100 * 10);
+
+        assertThat(sizer.getPageSize(NARROW_TABLE, 100)).isEqualTo(1_000);
+        assertThat(sizer.capPageSize(NARROW_TABLE, 100)).isEqualTo(100);
+    }
+
+    @Test
+    public void learnsPerTable() {
+        sizer.recordPage(WIDE_TABLE, 10, 10 * 1_000);
+
+        assertThat(sizer.getPageSize(NARROW_TABLE, 100)).isEqualTo(100);
+    }
+
+    @Test
+    public void movesGraduallyTowardsNewObservations() {
+        sizer.recordPage(WIDE_TABLE, 1, 1_000);
+        sizer.recordPage(WIDE_TABLE, 1, 2_000);
+
+        // 1000 + 0.2 * (2000 - 1000)
+        assertThat(sizer.getLearnedPageSize(WIDE_TABLE)).hasValue((int) (TARGET_BYTES / 1_200));
+    }
+
+    @Test
+    public void boundsPageSizes() {
+        sizer.recordPage(WIDE_TABLE, 1, 10 * TARGET_BYTES);
+        sizer.recordPage(NARROW_TABLE, 1, 0);
+
+        assertThat(sizer.getPageSize(WIDE_TABLE, 100)).isEqualTo(1);
+        assertThat(sizer.getPageSize(NARROW_TABLE, 100)).isEqualTo(AtlasDbPerformanceConstants.MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void ignoresEmptyPages() {
+        sizer.recordPage(WIDE_TABLE, ImmutableList.<byte[]>of(), bytes -> bytes.length);
+
+        assertThat(sizer.getLearnedPageSize(WIDE_TABLE)).isEmpty();
+    }
+
+    @Test
+    public void reportsChosenPageSizes() {
+        TableReference table = TableReference.createFromFullyQualifiedName("test.reported");
+        AdaptiveBatchSizer reportingSizer = new AdaptiveBatchSizer("reportsChosenPageSizes", TARGET_BYTES);
+        reportingSizer.recordPage(table, ImmutableList.of(new byte[500], new byte[1_500]), bytes -> bytes.length);
+
+        reportingSizer.getPageSize(table, 100);
+
+        assertThat(reportingSizer.getPageSizeHistogram(table).getSnapshot().getValues()).containsExactly(10);
+    }
+}
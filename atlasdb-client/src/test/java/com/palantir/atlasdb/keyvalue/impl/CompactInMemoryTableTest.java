@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Queue;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService.Key;
+
+public class CompactInMemoryTableTest {
+    private static final int MIN_COMPACTION_SIZE = 2;
+
+    private static final Key KEY_1 = key("row1", "col", 1L);
+    private static final Key KEY_2 = key("row1", "col", 2L);
+    private static final Key KEY_3 = key("row2", "col", 1L);
+    private static final Key KEY_4 = key("row3", "col", 1L);
+
+    private final CompactInMemoryTable table =
+            new CompactInMemoryTable(MIN_COMPACTION_SIZE, MoreExecutors.directExecutor());
+
+    @Test
+    public void entriesAreReadableBeforeAndAfterCompaction() {
+        table.put(KEY_1, value("a"));
+        assertThat(table.compactedSize()).isEqualTo(0);
+        assertThat(table.get(KEY_1)).isEqualTo(value("a"));
+
+        table.put(KEY_2, value("b"));
+        assertThat(table.compactedSize()).isEqualTo(2);
+        assertThat(table.get(KEY_1)).isEqualTo(value("a"));
+        assertThat(table.get(KEY_2)).isEqualTo(value("b"));
+        assertThat(table.get(KEY_3)).isNull();
+    }
+
+    @Test
+    public void recentWritesShadowCompactedEntries() {
+        table.put(KEY_1, value("a"));
+        table.put(KEY_2, value("b"));
+        table.put(KEY_1, value("c"));
+
+        assertThat(table.get(KEY_1)).isEqualTo(value("c"));
+        assertThat(keys(table.range(null, false, null, false, false))).containsExactly(KEY_1, KEY_2);
+    }
+
+    @Test
+    public void removedCompactedEntriesStayRemovedThroughCompaction() {
+        table.put(KEY_1, value("a"));
+        table.put(KEY_2, value("b"));
+
+        table.remove(KEY_1);
+        assertThat(table.get(KEY_1)).isNull();
+        assertThat(keys(table.range(null, false, null, false, false))).containsExactly(KEY_2);
+
+        table.put(KEY_3, value("c"));
+        assertThat(table.compactedSize()).isEqualTo(2);
+        assertThat(table.get(KEY_1)).isNull();
+        assertThat(keys(table.range(null, false, null, false, false))).containsExactly(KEY_2, KEY_3);
+    }
+
+    @Test
+    public void rangesMergeRecentAndCompactedEntriesInBothDirections() {
+        table.put(KEY_1, value("a"));
+        table.put(KEY_3, value("c"));
+        table.put(KEY_2, value("b"));
+        assertThat(table.compactedSize()).isEqualTo(2);
+
+        assertThat(keys(table.range(KEY_1, false, KEY_4, true, false))).containsExactly(KEY_2, KEY_3);
+        assertThat(keys(table.range(KEY_1, true, KEY_4, false, true))).containsExactly(KEY_3, KEY_2, KEY_1);
+        assertThat(table.lowerEntry(KEY_3).getKey()).isEqualTo(KEY_2);
+        assertThat(table.lowerEntry(KEY_2).getKey()).isEqualTo(KEY_1);
+    }
+
+    @Test
+    public void putIfAbsentAndReplaceSeeCompactedEntries() {
+        table.put(KEY_1, value("a"));
+        table.put(KEY_2, value("b"));
+
+        assertThat(table.putIfAbsent(KEY_1, value("c"))).isEqualTo(value("a"));
+        assertThat(table.replace(KEY_1, value("c"), value("d"))).isFalse();
+        assertThat(table.replace(KEY_1, value("a"), value("d"))).isTrue();
+        assertThat(table.get(KEY_1)).isEqualTo(value("d"));
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        table.put(KEY_1, value("a"));
+        table.put(KEY_2, value("b"));
+        table.put(KEY_3, value("c"));
+
+        table.clear();
+
+        assertThat(table.compactedSize()).isEqualTo(0);
+        assertThat(table.range(null, false, null, false, false).hasNext()).isFalse();
+    }
+
+    @Test
+    public void emptyValuesAreNotMistakenForDeletes() {
+        table.put(KEY_1, new byte[0]);
+        assertThat(table.get(KEY_1)).isEmpty();
+
+        table.put(KEY_2, new byte[0]);
+        assertThat(table.get(KEY_1)).isEmpty();
+        assertThat(keys(table.range(null, false, null, false, false))).containsExactly(KEY_1, KEY_2);
+    }
+
+    @Test
+    public void writesDuringMergeAreKeptWhenMergeCompletes() {
+        Queue<Runnable> merges = new ArrayDeque<>();
+        CompactInMemoryTable mergingTable = new CompactInMemoryTable(MIN_COMPACTION_SIZE, merges::add);
+        mergingTable.put(KEY_1, value("a"));
+        mergingTable.put(KEY_2, value("b"));
+        assertThat(merges).hasSize(1);
+
+        mergingTable.remove(KEY_1);
+        mergingTable.put(KEY_3, value("c"));
+        mergingTable.put(KEY_4, value("d"));
+        assertThat(merges).hasSize(1);
+        assertThat(mergingTable.get(KEY_1)).isNull();
+        assertThat(keys(mergingTable.range(null, false, null, false, false))).containsExactly(KEY_2, KEY_3, KEY_4);
+
+        merges.remove().run();
+        assertThat(mergingTable.compactedSize()).isEqualTo(2);
+        assertThat(mergingTable.get(KEY_1)).isNull();
+        assertThat(keys(mergingTable.range(null, false, null, false, true))).containsExactly(KEY_4, KEY_3, KEY_2);
+    }
+
+    @Test
+    public void mergeCompletingAfterClearIsDiscarded() {
+        Queue<Runnable> merges = new ArrayDeque<>();
+        CompactInMemoryTable mergingTable = new CompactInMemoryTable(MIN_COMPACTION_SIZE, merges::add);
+        mergingTable.put(KEY_1, value("a"));
+        mergingTable.put(KEY_2, value("b"));
+
+        mergingTable.clear();
+        merges.remove().run();
+
+        assertThat(mergingTable.compactedSize()).isEqualTo(0);
+        assertThat(mergingTable.get(KEY_1)).isNull();
+    }
+
+    private static List<Key> keys(Iterator<Entry<Key, byte[]>> entries) {
+        List<Key> keys = Lists.newArrayList();
+        entries.forEachRemaining(entry -> keys.add(entry.getKey()));
+        return keys;
+    }
+
+    private static Key key(String row, String col, long ts) {
+        return new Key(PtBytes.toBytes(row), PtBytes.toBytes(col), ts);
+    }
+
+    private static byte[] value(String value) {
+        return PtBytes.toBytes(value);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+
+public class ParallelRangeScannerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final byte[] COLUMN = PtBytes.toBytes("col");
+    private static final int NUM_ROWS = 1000;
+    private static final long TIMESTAMP = 10L;
+
+    private final KeyValueService kvs = new InMemoryKeyValueService(false);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @Before
+    public void setUp() {
+        kvs.createTable(TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            values.put(Cell.create(row(i), COLUMN), Ints.toByteArray(i));
+        }
+        kvs.put(TABLE, values, TIMESTAMP - 1);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        kvs.close();
+    }
+
+    @Test
+    public void splitsCoverTheWholeRangeWithoutOverlap() {
+        List<RangeRequest> subRanges = ParallelRangeScanner.splitRange(kvs, TABLE, RangeRequest.all(), TIMESTAMP, 8);
+
+        assertThat(subRanges.size()).isGreaterThan(1).isLessThanOrEqualTo(8);
+        assertThat(subRanges.get(0).getStartInclusive()).isEmpty();
+        assertThat(subRanges.get(subRanges.size() - 1).getEndExclusive()).isEmpty();
+        for (int i = 1; i < subRanges.size(); i++) {
+            assertThat(subRanges.get(i).getStartInclusive()).isEqualTo(subRanges.get(i - 1).getEndExclusive());
+        }
+        List<Integer> rows = Lists.newArrayList();
+        for (RangeRequest subRange : subRanges) {
+            rows.addAll(readSequentially(subRange));
+        }
+        assertThat(rows).isEqualTo(readSequentially(RangeRequest.all()));
+    }
+
+    @Test
+    public void reverseAndEmptyRangesAreNotSplit() {
+        RangeRequest reverse = RangeRequest.reverseBuilder().build();
+        RangeRequest empty = RangeRequest.builder().startRowInclusive(row(NUM_ROWS)).build();
+
+        assertThat(ParallelRangeScanner.splitRange(kvs, TABLE, reverse, TIMESTAMP, 8)).containsExactly(reverse);
+        assertThat(ParallelRangeScanner.splitRange(kvs, TABLE, empty, TIMESTAMP, 8)).containsExactly(empty);
+    }
+
+    @Test
+    public void orderedScanReturnsSameRowsAsGetRange() {
+        RangeRequest range = RangeRequest.builder()
+                .startRowInclusive(row(123))
+                .endRowExclusive(row(876))
+                .build();
+
+        assertThat(readInParallel(range, 4, true)).isEqualTo(readSequentially(range));
+    }
+
+    @Test
+    public void unorderedScanReturnsSameRowsAsGetRange() {
+        assertThat(readInParallel(RangeRequest.all(), 4, false))
+                .containsOnlyElementsOf(readSequentially(RangeRequest.all()))
+                .hasSize(NUM_ROWS);
+    }
+
+    @Test
+    public void scanWithSmallBufferReturnsAllRows() {
+        try (ClosableIterator<RowResult<Value>> rows = ParallelRangeScanner.getRange(
+                kvs, executor, TABLE, RangeRequest.all(), TIMESTAMP, 4, 1, true)) {
+            assertThat(Lists.newArrayList(rows)).hasSize(NUM_ROWS);
+        }
+    }
+
+    @Test
+    public void failuresInSubRangesArePropagated() {
+        KeyValueService failingKvs = new ForwardingKeyValueService() {
+            @Override
+            protected KeyValueService delegate() {
+                return kvs;
+            }
+
+            @Override
+            public ClosableIterator<RowResult<Value>> getRange(TableReference tableRef, RangeRequest rangeRequest,
+                    long timestamp) {
+                if (rangeRequest.getBatchHint() == null) {
+                    throw new IllegalStateException("scan failed");
+                }
+                return super.getRange(tableRef, rangeRequest, timestamp);
+            }
+        };
+
+        try (ClosableIterator<RowResult<Value>> rows = ParallelRangeScanner.getRange(
+                failingKvs, executor, TABLE, RangeRequest.all(), TIMESTAMP, 4, 10, true)) {
+            assertThatThrownBy(rows::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("scan failed");
+        }
+    }
+
+    private List<Integer> readInParallel(RangeRequest range, int parallelism, boolean ordered) {
+        try (ClosableIterator<RowResult<Value>> rows = ParallelRangeScanner.getRange(
+                kvs, executor, TABLE, range, TIMESTAMP, parallelism, 10, ordered)) {
+            return rows.stream().map(ParallelRangeScannerTest::value).collect(Collectors.toList());
+        }
+    }
+
+    private List<Integer> readSequentially(RangeRequest range) {
+        try (ClosableIterator<RowResult<Value>> rows = kvs.getRange(TABLE, range, TIMESTAMP)) {
+            return rows.stream().map(ParallelRangeScannerTest::value).collect(Collectors.toList());
+        }
+    }
+
+    private static int value(RowResult<Value> row) {
+        return Ints.fromByteArray(row.getColumns().get(COLUMN).getContents());
+    }
+
+    private static byte[] row(int index) {
+        return PtBytes.toBytes(String.format("row%05d", index));
+    }
+}
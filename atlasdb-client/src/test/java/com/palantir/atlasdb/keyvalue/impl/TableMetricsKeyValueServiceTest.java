@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.TableMetricsKeyValueService.Operation;
+import com.palantir.atlasdb.keyvalue.impl.TableMetricsKeyValueService.OperationMetrics;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.ClosableIterator;
+
+public class TableMetricsKeyValueServiceTest {
+    private static final AtomicInteger tableCounter = new AtomicInteger();
+
+    private static final Cell CELL_1 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col"));
+    private static final Cell CELL_2 = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+    private static final long TIMESTAMP = 10L;
+
+    private final KeyValueService delegate = new InMemoryKeyValueService(false);
+    private final TableMetricsKeyValueService kvs =
+            TableMetricsKeyValueService.create(delegate, new MetricsManager(), 1);
+
+    private TableReference table;
+
+    @Before
+    public void setUp() {
+        // Metrics live in the global registry, so every test gets a fresh table.
+        table = TableReference.createFromFullyQualifiedName("test.metrics" + tableCounter.incrementAndGet());
+        delegate.createTable(table, AtlasDbConstants.GENERIC_TABLE_METADATA);
+    }
+
+    @Test
+    public void recordsCellsAndBytesWritten() {
+        kvs.put(table, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE), TIMESTAMP);
+
+        OperationMetrics metrics = kvs.metrics(table, Operation.PUT);
+        assertThat(metrics.latency().getCount()).isEqualTo(1);
+        assertThat(metrics.cells().getSnapshot().getMax()).isEqualTo(2);
+        assertThat(metrics.bytes().getSnapshot().getMax())
+                .isEqualTo(Cells.getApproxSizeOfCell(CELL_1) + Cells.getApproxSizeOfCell(CELL_2) + 2 * VALUE.length);
+    }
+
+    @Test
+    public void recordsCellsAndBytesRead() {
+        delegate.put(table, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE), TIMESTAMP);
+
+        Map<Cell, Value> result = kvs.get(table, ImmutableMap.of(CELL_1, TIMESTAMP + 1));
+
+        assertThat(result).containsOnlyKeys(CELL_1);
+        OperationMetrics metrics = kvs.metrics(table, Operation.GET);
+        assertThat(metrics.latency().getCount()).isEqualTo(1);
+        assertThat(metrics.cells().getSnapshot().getMax()).isEqualTo(1);
+        assertThat(metrics.bytes().getSnapshot().getMax())
+                .isEqualTo(Cells.getApproxSizeOfCell(CELL_1) + VALUE.length);
+    }
+
+    @Test
+    public void recordsBytesOfSampledCallsOnly() {
+        TableMetricsKeyValueService sampledKvs =
+                TableMetricsKeyValueService.create(delegate, new MetricsManager(), Integer.MAX_VALUE);
+
+        sampledKvs.put(table, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE), TIMESTAMP);
+
+        OperationMetrics metrics = sampledKvs.metrics(table, Operation.PUT);
+        assertThat(metrics.latency().getCount()).isEqualTo(1);
+        assertThat(metrics.cells().getSnapshot().getMax()).isEqualTo(2);
+        assertThat(metrics.bytes().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void recordsRangeScanSizeWhenIteratorIsClosed() {
+        delegate.put(table, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE), TIMESTAMP);
+
+        OperationMetrics metrics = kvs.metrics(table, Operation.GET_RANGE);
+        try (ClosableIterator<RowResult<Value>> it = kvs.getRange(table, RangeRequest.all(), TIMESTAMP + 1)) {
+            it.forEachRemaining(row -> { });
+            assertThat(metrics.latency().getCount()).isEqualTo(1);
+            assertThat(metrics.cells().getCount()).isEqualTo(0);
+        }
+
+        assertThat(metrics.cells().getCount()).isEqualTo(1);
+        assertThat(metrics.cells().getSnapshot().getMax()).isEqualTo(2);
+    }
+
+    @Test
+    public void parallelRangeScanFallsBackToSerialScanAndIsRecordedSeparately() {
+        delegate.put(table, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE), TIMESTAMP);
+
+        try (ClosableIterator<RowResult<Value>> it =
+                kvs.getRangeInParallel(table, RangeRequest.all(), TIMESTAMP + 1, 4, true)) {
+            assertThat(it.next().getRowName()).isEqualTo(CELL_1.getRowName());
+            assertThat(it.next().getRowName()).isEqualTo(CELL_2.getRowName());
+            assertThat(it.hasNext()).isFalse();
+        }
+
+        assertThat(kvs.metrics(table, Operation.GET_RANGE_IN_PARALLEL).cells().getSnapshot().getMax()).isEqualTo(2);
+        assertThat(kvs.metrics(table, Operation.GET_RANGE).latency().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void keepsMetricsSeparatePerTable() {
+        TableReference otherTable = TableReference.createFromFullyQualifiedName(
+                "test.metrics" + tableCounter.incrementAndGet());
+        delegate.createTable(otherTable, AtlasDbConstants.GENERIC_TABLE_METADATA);
+
+        kvs.multiPut(ImmutableMap.of(
+                table, ImmutableMap.of(CELL_1, VALUE),
+                otherTable, ImmutableMap.of(CELL_1, VALUE, CELL_2, VALUE)), TIMESTAMP);
+
+        assertThat(kvs.metrics(table, Operation.MULTI_PUT).cells().getSnapshot().getMax()).isEqualTo(1);
+        assertThat(kvs.metrics(otherTable, Operation.MULTI_PUT).cells().getSnapshot().getMax()).isEqualTo(2);
+        assertThat(kvs.metrics(table, Operation.PUT).latency().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void marksErrorsAndRethrows() {
+        KeyValueService failingDelegate = mock(KeyValueService.class);
+        RuntimeException failure = new RuntimeException("failed");
+        doThrow(failure).when(failingDelegate).put(any(TableReference.class), anyMapOf(Cell.class, byte[].class),
+                anyLong());
+        TableMetricsKeyValueService failingKvs =
+                TableMetricsKeyValueService.create(failingDelegate, new MetricsManager(), 1);
+
+        assertThatThrownBy(() -> failingKvs.put(table, ImmutableMap.of(CELL_1, VALUE), TIMESTAMP))
+                .isSameAs(failure);
+
+        OperationMetrics metrics = failingKvs.metrics(table, Operation.PUT);
+        assertThat(metrics.errors().getCount()).isEqualTo(1);
+        assertThat(metrics.latency().getCount()).isEqualTo(0);
+    }
+}
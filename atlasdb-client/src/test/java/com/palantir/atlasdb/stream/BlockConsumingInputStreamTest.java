@@ -22,6 +22,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -29,11 +30,19 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.io.ByteStreams;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -91,6 +100,9 @@ public class BlockConsumingInputStreamTest {
         }
     };
 
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+    private final Counter batchesConsumed = new Counter();
+
     private BlockConsumingInputStream dataStream;
 
     @Before
@@ -98,6 +110,11 @@ public class BlockConsumingInputStreamTest {
         dataStream = BlockConsumingInputStream.create(dataConsumer, 1, 1);
     }
 
+    @After
+    public void tearDown() {
+        prefetchExecutor.shutdownNow();
+    }
+
     @Test(expected = NullPointerException.class)
     public void cantReadToNullArray() throws IOException {
         dataStream.read(null, 1, 1);
@@ -291,6 +308,72 @@ public class BlockConsumingInputStreamTest {
         verify(spiedGetter, times(1)).get(anyLong(), eq(1L), any());
     }
 
+    @Test
+    public void canReadAcrossPrefetchedBlocks() throws IOException {
+        BlockConsumingInputStream stream = createPrefetchingStream(threeByteConsumer, 3, 1, 2);
+        expectNextBytesFromStream(stream, "di");
+        expectNextBytesFromStream(stream, "vi");
+        expectNextBytesFromStream(stream, "si");
+        expectNextBytesFromStream(stream, "bl");
+        assertEquals('e', stream.read());
+        assertEquals(-1, stream.read());
+        assertEquals(3, batchesConsumed.getCount());
+    }
+
+    @Test
+    public void prefetchesAtMostTheConfiguredNumberOfBatchesAhead() throws IOException, InterruptedException {
+        BlockGetter spiedGetter = Mockito.spy(singleByteConsumer);
+        BlockConsumingInputStream stream = createPrefetchingStream(spiedGetter, DATA_SIZE, 1, 2);
+
+        stream.read();
+        prefetchExecutor.shutdown();
+        prefetchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+
+        verify(spiedGetter, times(1)).get(eq(0L), eq(1L), any());
+        verify(spiedGetter, times(1)).get(eq(1L), eq(1L), any());
+        verify(spiedGetter, times(1)).get(eq(2L), eq(1L), any());
+        verify(spiedGetter, never()).get(eq(3L), anyLong(), any());
+    }
+
+    @Test
+    public void failedPrefetchIsRetriedOnTheReadingThread() throws IOException {
+        AtomicBoolean failedOnce = new AtomicBoolean(false);
+        BlockGetter flakyGetter = new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                if (firstBlock == 1 && failedOnce.compareAndSet(false, true)) {
+                    throw new IllegalStateException("flaky");
+                }
+                singleByteConsumer.get(firstBlock, numBlocks, destination);
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return data.length;
+            }
+        };
+
+        BlockConsumingInputStream stream = createPrefetchingStream(flakyGetter, DATA_SIZE, 1, 2);
+        byte[] result = new byte[DATA_SIZE];
+        assertEquals(DATA_SIZE, ByteStreams.read(stream, result, 0, DATA_SIZE));
+        assertArrayEquals(data, result);
+        assertTrue(failedOnce.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mustPrefetchAtLeastOneBatch() throws IOException {
+        createPrefetchingStream(singleByteConsumer, DATA_SIZE, 1, 0);
+    }
+
+    private BlockConsumingInputStream createPrefetchingStream(
+            BlockGetter getter,
+            long numBlocks,
+            int blocksInMemory,
+            int batchesToPrefetch) throws IOException {
+        return BlockConsumingInputStream.createWithPrefetching(
+                getter, numBlocks, blocksInMemory, prefetchExecutor, batchesToPrefetch, new Timer(), batchesConsumed);
+    }
+
     private void expectNextBytesFromStream(BlockConsumingInputStream stream, String expectedOutput) throws IOException {
         byte[] chunk = new byte[2];
         int read = stream.read(chunk);
@@ -151,6 +151,7 @@ public class TableMetadataPersistenceTest {
             explicitCompressionBlockSizeKB(CUSTOM_COMPRESSION_BLOCK_SIZE);
             negativeLookups();
             appendHeavyAndReadLight();
+            cachedAcrossTransactions();
         }};
     }
 
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -173,8 +174,10 @@ public final class GenericRangeScanTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] component1Bytes = component1.getBytes();
-            return EncodingUtils.add(component1Bytes);
+            byte[] __output = new byte[32];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(component1.getBytes(), __output, __index);
+            return __output;
         }
 
         public static final Hydrator<GenericRangeScanTestRow> BYTES_HYDRATOR = new Hydrator<GenericRangeScanTestRow>() {
@@ -265,8 +268,10 @@ public final class GenericRangeScanTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] component2Bytes = PtBytes.toBytes(component2);
-            return EncodingUtils.add(component2Bytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(component2)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(component2, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<GenericRangeScanTestColumn> BYTES_HYDRATOR = new Hydrator<GenericRangeScanTestColumn>() {
@@ -740,6 +745,7 @@ public final class GenericRangeScanTestTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -795,5 +801,5 @@ public final class GenericRangeScanTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "4fCBdR4I71aAK8klRZ7Hqw==";
+    static String __CLASS_HASH = "T6rA1peBD2O/+qVXgaCfdA==";
 }
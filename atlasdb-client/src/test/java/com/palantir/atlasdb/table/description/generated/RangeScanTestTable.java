@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class RangeScanTestTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] component1Bytes = PtBytes.toBytes(component1);
-            return EncodingUtils.add(component1Bytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(component1)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(component1, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<RangeScanTestRow> BYTES_HYDRATOR = new Hydrator<RangeScanTestRow>() {
@@ -502,6 +505,20 @@ public final class RangeScanTestTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<RangeScanTestRowResult>> getRowsAsync(Iterable<RangeScanTestRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<RangeScanTestRowResult>> getRowsAsync(Iterable<RangeScanTestRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<RangeScanTestRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(RangeScanTestRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<RangeScanTestNamedColumnValue<?>> getRowColumns(RangeScanTestRow row) {
         return getRowColumns(row, allColumns);
@@ -677,6 +694,7 @@ public final class RangeScanTestTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -732,5 +750,5 @@ public final class RangeScanTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "uM9vE+quytC6Gzz3VgTqZQ==";
+    static String __CLASS_HASH = "qhjTteMXvsLau7jbMY3AJA==";
 }
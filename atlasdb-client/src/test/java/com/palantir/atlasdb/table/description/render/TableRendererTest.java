@@ -63,6 +63,26 @@ public class TableRendererTest {
                         containsString("Optional.empty")));
     }
 
+    @Test
+    public void testRendersAsyncGetRows() {
+        TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
+        assertThat(renderer.render("table", getSimpleTableDefinition(TABLE_REF), NO_INDICES),
+                allOf(
+                        containsString("import java.util.concurrent.CompletableFuture"),
+                        containsString("CompletableFuture<List<TestTableRowResult>> getRowsAsync("),
+                        containsString("t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns)")));
+    }
+
+    @Test
+    public void testRendersRowKeyIntoSingleArray() {
+        TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
+        assertThat(renderer.render("table", getSimpleTableDefinition(TABLE_REF), NO_INDICES),
+                allOf(
+                        containsString("byte[] __output = new byte[EncodingUtils.sizeOfUtf8(rowName)];"),
+                        containsString("__index = EncodingUtils.encodeUtf8(rowName, __output, __index);"),
+                        not(containsString("EncodingUtils.add(rowNameBytes)"))));
+    }
+
     private TableDefinition getSimpleTableDefinition(TableReference tableRef) {
         return new TableDefinition() {{
             javaTableName(tableRef.getTablename());
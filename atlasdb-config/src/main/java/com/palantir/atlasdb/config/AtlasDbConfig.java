@@ -201,6 +201,86 @@ public abstract class AtlasDbConfig {
         return AtlasDbConstants.DEFAULT_SWEEP_PERSISTENT_LOCK_WAIT_MILLIS;
     }
 
+    /**
+     * The number of background sweep threads to run on this node. Each thread sweeps a different table, so
+     * increasing this allows tables with many new writes to be swept while a large table is still being swept.
+     */
+    @Value.Default
+    public int getSweepThreads() {
+        return AtlasDbConstants.DEFAULT_SWEEP_THREADS;
+    }
+
+    /**
+     * If true, transactions that start concurrently will share a single call to the timelock service, which returns
+     * one immutable timestamp lock for the whole batch along with a start timestamp for each transaction. This must
+     * only be enabled once every timelock server supports the start-transactions endpoint.
+     */
+    @Value.Default
+    public boolean batchTransactionStarts() {
+        return AtlasDbConstants.DEFAULT_BATCH_TRANSACTION_STARTS;
+    }
+
+    /**
+     * If true, concurrent commits write their commit timestamps to the transactions table in a single multi-cell
+     * write, and concurrent lookups of commit timestamps share a single read. This reduces the number of round trips
+     * to the key value service when many transactions commit at once.
+     */
+    @Value.Default
+    public boolean coalesceTransactionServiceCalls() {
+        return AtlasDbConstants.DEFAULT_COALESCE_TRANSACTION_SERVICE_CALLS;
+    }
+
+    /**
+     * If true, transactions run the independent phases of their commit concurrently rather than one after another:
+     * checking for write-write conflicts, writing their data and enqueueing it for sweep all happen at once, as do
+     * checking for read-write conflicts and punching once the commit timestamp has been acquired. Whether their locks
+     * are still held is only checked after the read-write conflict check has finished. This reduces commit latency at
+     * the cost of some threads. Transactions that turn out to conflict will have written their data, which readers
+     * then have to roll back.
+     */
+    @Value.Default
+    public boolean pipelineCommits() {
+        return AtlasDbConstants.DEFAULT_PIPELINE_COMMITS;
+    }
+
+    /**
+     * If present, transactions whose start timestamp is at least this value record their commit timestamps in the
+     * packed transactions table, which stores many transactions per row so that looking up the commit timestamps of
+     * nearby transactions takes far fewer reads. Earlier transactions remain in the original transactions table.
+     *
+     * The cutover is persisted when the transaction manager starts, and startup fails if it is not greater than a
+     * fresh timestamp at that point; once persisted it cannot be changed. It must be set to the same value on every
+     * client, and every client must have been restarted with it before the timestamp service reaches it.
+     */
+    public abstract Optional<Long> transactionsTableCutoverTimestamp();
+
+    /**
+     * If true, transactions will record their writes in a persistent sweep queue before committing, and a background
+     * thread will delete the cells that those writes overwrote. Unlike the background sweeper, this does not scan
+     * whole tables, so its cost is proportional to the volume of writes rather than to the size of the data.
+     */
+    @Value.Default
+    public boolean enableTargetedSweep() {
+        return AtlasDbConstants.DEFAULT_ENABLE_TARGETED_SWEEP;
+    }
+
+    /**
+     * The number of shards of the targeted sweep queue for each table. This must not be decreased once targeted
+     * sweep has been enabled, as entries in the removed shards would never be swept.
+     */
+    @Value.Default
+    public int getTargetedSweepShards() {
+        return AtlasDbConstants.DEFAULT_TARGETED_SWEEP_SHARDS;
+    }
+
+    /**
+     * The maximum number of sweep queue entries to process for a single shard in one run of targeted sweep.
+     */
+    @Value.Default
+    public int getTargetedSweepBatchSize() {
+        return AtlasDbConstants.DEFAULT_TARGETED_SWEEP_BATCH_SIZE;
+    }
+
     /**
      * The target number of (cell, timestamp) pairs to examine in a single run of the background sweeper.
      * @deprecated Use {@link AtlasDbRuntimeConfig#sweep#getSweepReadLimit} to make this value
@@ -254,6 +334,15 @@ public abstract class AtlasDbConfig {
         return 1000;
     }
 
+    /**
+     * If true, the key value service records per-table latency timers, histograms of the cells and bytes read or
+     * written and error meters for each of its operations, tagged with the table name.
+     */
+    @Value.Default
+    public boolean enableKvsTableMetrics() {
+        return AtlasDbConstants.DEFAULT_ENABLE_KVS_TABLE_METRICS;
+    }
+
     /**
      * The default lock expiration time for requests to the lock service.
      */
@@ -267,6 +356,9 @@ public abstract class AtlasDbConfig {
         checkLeaderAndTimelockBlocks();
         checkLockAndTimestampBlocks();
         checkNamespaceConfigAndGetNamespace();
+        Preconditions.checkState(getSweepThreads() > 0, "The number of sweep threads must be positive.");
+        Preconditions.checkState(transactionsTableCutoverTimestamp().orElse(0L) >= 0,
+                "The transactions table cutover timestamp must not be negative.");
     }
 
     private void checkLeaderAndTimelockBlocks() {
@@ -70,6 +70,7 @@ import com.palantir.atlasdb.http.UserAgents;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.ProfilingKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.SweepStatsKeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.TableMetricsKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.TracingKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.ValidatingQueryRewritingKeyValueService;
 import com.palantir.atlasdb.logging.KvsProfilingLogger;
@@ -99,18 +100,24 @@ import com.palantir.atlasdb.sweep.SweepBatchConfig;
 import com.palantir.atlasdb.sweep.SweepTaskRunner;
 import com.palantir.atlasdb.sweep.SweeperServiceImpl;
 import com.palantir.atlasdb.sweep.metrics.SweepMetricsManager;
+import com.palantir.atlasdb.sweep.queue.BackgroundSweepQueueProcessor;
+import com.palantir.atlasdb.sweep.queue.KvsSweepQueueProcessorFactory;
+import com.palantir.atlasdb.sweep.queue.KvsSweepQueueWriter;
 import com.palantir.atlasdb.sweep.queue.MultiTableSweepQueueWriter;
+import com.palantir.atlasdb.sweep.queue.SweepTimestampProvider;
 import com.palantir.atlasdb.table.description.Schema;
 import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.impl.ConflictDetectionManager;
 import com.palantir.atlasdb.transaction.impl.ConflictDetectionManagers;
+import com.palantir.atlasdb.transaction.impl.ImmutableTransactionManagerOptions;
 import com.palantir.atlasdb.transaction.impl.InstrumentedTimelockService;
 import com.palantir.atlasdb.transaction.impl.SerializableTransactionManager;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManagers;
 import com.palantir.atlasdb.transaction.impl.TimelockTimestampServiceAdapter;
 import com.palantir.atlasdb.transaction.impl.consistency.ImmutableTimestampCorroborationConsistencyCheck;
+import com.palantir.atlasdb.transaction.service.CoalescingTransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
@@ -295,6 +302,9 @@ public abstract class TransactionManagers {
 
         KeyValueService keyValueService = initializeCloseable(() -> {
             KeyValueService kvs = atlasFactory.getKeyValueService();
+            if (config.enableKvsTableMetrics()) {
+                kvs = TableMetricsKeyValueService.create(kvs);
+            }
             kvs = ProfilingKeyValueService.create(kvs);
             kvs = SweepStatsKeyValueService.create(kvs,
                     new TimelockTimestampServiceAdapter(lockAndTimestampServices.timelock()),
@@ -313,17 +323,26 @@ public abstract class TransactionManagers {
                 keyValueService,
                 schemas(),
                 schemaMetadataService,
+                lockAndTimestampServices.timestamp(),
+                config.transactionsTableCutoverTimestamp(),
                 config.initializeAsync());
         PersistentLockService persistentLockService = createAndRegisterPersistentLockService(
                 keyValueService,
                 registrar(),
                 config.initializeAsync());
 
+        TransactionService rawTransactionService = TransactionServices.createTransactionService(keyValueService);
         TransactionService transactionService = AtlasDbMetrics.instrument(TransactionService.class,
-                TransactionServices.createTransactionService(keyValueService));
+                config.coalesceTransactionServiceCalls()
+                        ? CoalescingTransactionService.create(rawTransactionService)
+                        : rawTransactionService);
         ConflictDetectionManager conflictManager = ConflictDetectionManagers.create(keyValueService);
         SweepStrategyManager sweepStrategyManager = SweepStrategyManagers.createDefault(keyValueService);
 
+        MultiTableSweepQueueWriter sweepQueueWriter = config.enableTargetedSweep()
+                ? new KvsSweepQueueWriter(keyValueService, sweepStrategyManager, config.getTargetedSweepShards())
+                : MultiTableSweepQueueWriter.NO_OP;
+
         CleanupFollower follower = CleanupFollower.create(schemas());
 
         Cleaner cleaner = initializeCloseable(() -> new DefaultCleanerBuilder(
@@ -360,7 +379,11 @@ public abstract class TransactionManagers {
                         config.keyValueService().defaultGetRangesConcurrency(),
                         config.initializeAsync(),
                         () -> runtimeConfigSupplier.get().getTimestampCacheSize(),
-                        MultiTableSweepQueueWriter.NO_OP,
+                        sweepQueueWriter,
+                        ImmutableTransactionManagerOptions.builder()
+                                .batchTransactionStarts(config.batchTransactionStarts())
+                                .pipelineCommits(config.pipelineCommits())
+                                .build(),
                         wrapInitializationCallbackAndAddConsistencyChecks(
                                 config,
                                 runtimeConfigSupplier.get(),
@@ -384,6 +407,17 @@ public abstract class TransactionManagers {
                         transactionManager,
                         persistentLockManager),
                 closeables);
+        if (config.enableTargetedSweep()) {
+            initializeCloseable(
+                    () -> initializeTargetedSweepBackgroundProcess(
+                            config,
+                            runtimeConfigSupplier,
+                            keyValueService,
+                            transactionService,
+                            sweepStrategyManager,
+                            transactionManager),
+                    closeables);
+        }
         initializeCloseable(
                 initializeCompactBackgroundProcess(
                         lockAndTimestampServices,
@@ -513,7 +547,8 @@ public abstract class TransactionManagers {
                 () -> runtimeConfigSupplier.get().sweep().enabled(),
                 () -> runtimeConfigSupplier.get().sweep().pauseMillis(),
                 persistentLockManager,
-                specificTableSweeper);
+                specificTableSweeper,
+                config.getSweepThreads());
 
         transactionManager.registerClosingCallback(backgroundSweeper::shutdown);
         backgroundSweeper.runInBackground();
@@ -521,6 +556,30 @@ public abstract class TransactionManagers {
         return backgroundSweeper;
     }
 
+    private static BackgroundSweepQueueProcessor initializeTargetedSweepBackgroundProcess(
+            AtlasDbConfig config,
+            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier,
+            KeyValueService kvs,
+            TransactionService transactionService,
+            SweepStrategyManager sweepStrategyManager,
+            SerializableTransactionManager transactionManager) {
+        KvsSweepQueueProcessorFactory processorFactory = new KvsSweepQueueProcessorFactory(
+                kvs,
+                transactionService,
+                sweepStrategyManager,
+                SweepTimestampProvider.create(transactionManager),
+                config.getTargetedSweepShards(),
+                config.getTargetedSweepBatchSize());
+        BackgroundSweepQueueProcessor processor = new BackgroundSweepQueueProcessor(
+                kvs, processorFactory::getProcessorForTable);
+
+        transactionManager.registerClosingCallback(processor::close);
+        processor.runInBackground(
+                () -> runtimeConfigSupplier.get().sweep().enabled(),
+                () -> runtimeConfigSupplier.get().sweep().pauseMillis());
+        return processor;
+    }
+
     private static SpecificTableSweeper initializeSweepEndpoint(
             Consumer<Object> env,
             KeyValueService kvs,
@@ -638,7 +697,9 @@ public abstract class TransactionManagers {
             LockAndTimestampServices lockAndTimestampServices) {
         return ImmutableLockAndTimestampServices.builder()
                 .from(lockAndTimestampServices)
-                .timelock(TimeLockClient.createDefault(lockAndTimestampServices.timelock()))
+                .timelock(TimeLockClient.createDefault(
+                        lockAndTimestampServices.timelock(),
+                        AtlasDbMetrics.getMetricRegistry()))
                 .lock(LockRefreshingLockService.create(lockAndTimestampServices.lock()))
                 .build();
     }
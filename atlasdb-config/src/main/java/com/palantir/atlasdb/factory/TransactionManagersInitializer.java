@@ -16,43 +16,62 @@
 
 package com.palantir.atlasdb.factory;
 
+import java.util.Optional;
 import java.util.Set;
 
 import com.palantir.async.initializer.AsyncInitializer;
+import com.palantir.atlasdb.cache.CachedTableVersions;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.schema.metadata.SchemaMetadataService;
+import com.palantir.atlasdb.sweep.queue.SweepQueueTables;
 import com.palantir.atlasdb.table.description.Schema;
 import com.palantir.atlasdb.table.description.Schemas;
 import com.palantir.atlasdb.transaction.impl.TransactionTables;
+import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.common.annotation.Idempotent;
+import com.palantir.timestamp.TimestampService;
 
 public final class TransactionManagersInitializer extends AsyncInitializer {
     private KeyValueService keyValueService;
     private Set<Schema> schemas;
     private SchemaMetadataService schemaMetadataService;
+    private TimestampService timestampService;
+    private Optional<Long> transactionsTableCutoverTimestamp;
 
     public static TransactionManagersInitializer createInitialTables(KeyValueService keyValueService,
             Set<Schema> schemas,
             SchemaMetadataService schemaMetadataService,
+            TimestampService timestampService,
+            Optional<Long> transactionsTableCutoverTimestamp,
             boolean initializeAsync) {
         TransactionManagersInitializer initializer = new TransactionManagersInitializer(
-                keyValueService, schemas, schemaMetadataService);
+                keyValueService, schemas, schemaMetadataService, timestampService, transactionsTableCutoverTimestamp);
         initializer.initialize(initializeAsync);
         return initializer;
     }
 
     private TransactionManagersInitializer(
-            KeyValueService keyValueService, Set<Schema> schemas, SchemaMetadataService schemaMetadataService) {
+            KeyValueService keyValueService,
+            Set<Schema> schemas,
+            SchemaMetadataService schemaMetadataService,
+            TimestampService timestampService,
+            Optional<Long> transactionsTableCutoverTimestamp) {
         this.keyValueService = keyValueService;
         this.schemas = schemas;
         this.schemaMetadataService = schemaMetadataService;
+        this.timestampService = timestampService;
+        this.transactionsTableCutoverTimestamp = transactionsTableCutoverTimestamp;
     }
 
     @Override
     @Idempotent
     public synchronized void tryInitialize() {
         TransactionTables.createTables(keyValueService);
+        transactionsTableCutoverTimestamp.ifPresent(cutover ->
+                TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, cutover));
+        SweepQueueTables.createTables(keyValueService);
+        CachedTableVersions.createTable(keyValueService);
 
         for (Schema schema : schemas) {
             Schemas.createTablesAndIndexes(schema, keyValueService);
@@ -19,6 +19,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.cache.CachedTableVersions;
 import com.palantir.atlasdb.config.SweepConfig;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.ProfilingKeyValueService;
@@ -67,6 +68,7 @@ public class KeyValueServiceModule {
                 sweepConfig::writeSizeThreshold);
 
         TransactionTables.createTables(kvs);
+        CachedTableVersions.createTable(kvs);
         ImmutableSet<Schema> schemas =
                 ImmutableSet.<Schema>builder()
                         .add(SweepSchema.INSTANCE.getLatestSchema())
@@ -80,7 +82,11 @@ public class KeyValueServiceModule {
 
     @Provides
     @Singleton
-    public TransactionService provideTransactionService(@Named("kvs") KeyValueService kvs) {
+    public TransactionService provideTransactionService(@Named("kvs") KeyValueService kvs,
+                                                        TimestampService tss,
+                                                        ServicesConfig config) {
+        config.atlasDbConfig().transactionsTableCutoverTimestamp().ifPresent(cutover ->
+                TransactionServices.persistCutoverTimestamp(kvs, tss, cutover));
         return TransactionServices.createTransactionService(kvs);
     }
 
@@ -28,6 +28,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionManagerAwareDbKvs;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.DbKvsPostgresGetCandidateCellsForSweepingTest;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.DbKvsPostgresParallelRangeScanTest;
 import com.palantir.docker.compose.DockerComposeRule;
 import com.palantir.docker.compose.configuration.ShutdownStrategy;
 import com.palantir.docker.compose.connection.Container;
@@ -45,7 +46,8 @@ import com.palantir.remoting.api.config.service.HumanReadableDuration;
         DbkvsPostgresSweepTaskRunnerTest.class,
         DbkvsBackgroundSweeperIntegrationTest.class,
         PostgresDbTimestampBoundStoreTest.class,
-        DbKvsPostgresGetCandidateCellsForSweepingTest.class
+        DbKvsPostgresGetCandidateCellsForSweepingTest.class,
+        DbKvsPostgresParallelRangeScanTest.class
         })
 public final class DbkvsPostgresTestSuite {
     private static final int POSTGRES_PORT_NUMBER = 5432;
@@ -21,8 +21,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.dbkvs.DbKeyValueServiceConfig;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import com.palantir.common.base.ClosableIterator;
 import com.palantir.nexus.db.monitoring.timer.SqlTimer;
 import com.palantir.nexus.db.monitoring.timer.SqlTimers;
 import com.palantir.nexus.db.pool.ConnectionManager;
@@ -117,4 +122,14 @@ public final class ConnectionManagerAwareDbKvs extends ForwardingKeyValueService
     public String getTablePrefix() {
         return kvs.getTablePrefix();
     }
+
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            boolean ordered) {
+        return kvs.getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
 }
@@ -111,6 +111,7 @@ import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.impl.ParallelRangeScanner;
 import com.palantir.common.annotation.Output;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
@@ -145,6 +146,8 @@ public final class DbKvs extends AbstractKeyValueService {
     private final OverflowValueLoader overflowValueLoader;
     private final DbKvsGetRange getRangeStrategy;
     private final DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy;
+    private final ExecutorService rangeScanExecutor = PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("Atlas DbKvs range scanner", true /* daemon */));
 
     public static DbKvs create(DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier) {
         DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier);
@@ -276,6 +279,7 @@ public final class DbKvs extends AbstractKeyValueService {
         dbTables.close();
         connections.close();
         batchingQueryRunner.close();
+        rangeScanExecutor.shutdownNow();
     }
 
     @Override
@@ -560,6 +564,32 @@ public final class DbKvs extends AbstractKeyValueService {
         return ClosableIterators.wrap(getRangeStrategy.getRange(tableRef, rangeRequest, timestamp));
     }
 
+    /**
+     * Like {@link #getRange(TableReference, RangeRequest, long)}, but splits the range into up to
+     * {@code parallelism} sub-ranges, each read over its own connection. At most {@code fetchBatchSize} rows per
+     * sub-range are buffered ahead of the caller. Parallelism is capped at the configured pool size.
+     *
+     * @param ordered whether rows must be returned in range order; unordered scans never wait on a slow sub-range
+     * while others have rows ready.
+     */
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            boolean ordered) {
+        return ParallelRangeScanner.getRange(
+                this,
+                rangeScanExecutor,
+                tableRef,
+                rangeRequest,
+                timestamp,
+                Math.min(parallelism, config.poolSize()),
+                config.fetchBatchSize(),
+                ordered);
+    }
+
     public void setMaxRangeOfTimestampsBatchSize(long newValue) {
         maxRangeOfTimestampsBatchSize = newValue;
     }
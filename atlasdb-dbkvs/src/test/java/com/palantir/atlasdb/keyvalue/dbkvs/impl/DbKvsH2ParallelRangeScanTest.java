@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.DbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableH2DdlConfig;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.nexus.db.pool.config.ImmutableH2ConnectionConfig;
+import com.palantir.nexus.db.pool.config.ImmutableMaskedValue;
+
+public class DbKvsH2ParallelRangeScanTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.parallel_scan");
+    private static final byte[] COLUMN = PtBytes.toBytes("col");
+    private static final int NUM_ROWS = 2000;
+    private static final long TIMESTAMP = 10L;
+
+    private ConnectionManagerAwareDbKvs kvs;
+
+    @Before
+    public void setUp() {
+        kvs = ConnectionManagerAwareDbKvs.create(createConfig());
+        kvs.createTable(TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            values.put(Cell.create(row(i), COLUMN), Ints.toByteArray(i));
+        }
+        kvs.put(TABLE, values, TIMESTAMP - 1);
+    }
+
+    @After
+    public void tearDown() {
+        kvs.dropTable(TABLE);
+        kvs.close();
+    }
+
+    @Test
+    public void orderedParallelScanMatchesGetRange() {
+        try (ClosableIterator<RowResult<Value>> rows =
+                kvs.getRangeInParallel(TABLE, RangeRequest.all(), TIMESTAMP, 4, true)) {
+            assertThat(values(rows)).isEqualTo(values(kvs.getRange(TABLE, RangeRequest.all(), TIMESTAMP)));
+        }
+    }
+
+    @Test
+    public void orderedParallelScanOfSubRangeMatchesGetRange() {
+        RangeRequest range = RangeRequest.builder()
+                .startRowInclusive(row(150))
+                .endRowExclusive(row(1650))
+                .build();
+        try (ClosableIterator<RowResult<Value>> rows = kvs.getRangeInParallel(TABLE, range, TIMESTAMP, 4, true)) {
+            assertThat(values(rows)).isEqualTo(values(kvs.getRange(TABLE, range, TIMESTAMP)));
+        }
+    }
+
+    @Test
+    public void unorderedParallelScanReturnsEveryRowOnce() {
+        try (ClosableIterator<RowResult<Value>> rows =
+                kvs.getRangeInParallel(TABLE, RangeRequest.all(), TIMESTAMP, 4, false)) {
+            assertThat(values(rows)).doesNotHaveDuplicates().hasSize(NUM_ROWS);
+        }
+    }
+
+    private static DbKeyValueServiceConfig createConfig() {
+        return ImmutableDbKeyValueServiceConfig.builder()
+                .connection(ImmutableH2ConnectionConfig.builder()
+                        // Named, so that every pooled connection sees the same in-memory database.
+                        .url("jdbc:h2:mem:dbkvs-parallel-scan-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                        .dbLogin("sa")
+                        .dbPassword(ImmutableMaskedValue.of(""))
+                        .build())
+                .ddl(ImmutableH2DdlConfig.builder().build())
+                .build();
+    }
+
+    private static byte[] row(int index) {
+        return PtBytes.toBytes(String.format("row%05d", index));
+    }
+
+    private static List<Integer> values(ClosableIterator<RowResult<Value>> rows) {
+        try (ClosableIterator<RowResult<Value>> toClose = rows) {
+            return toClose.stream()
+                    .map(row -> Ints.fromByteArray(row.getColumns().get(COLUMN).getContents()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
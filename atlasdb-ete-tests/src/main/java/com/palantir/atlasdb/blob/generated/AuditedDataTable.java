@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class AuditedDataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[8];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<AuditedDataRow> BYTES_HYDRATOR = new Hydrator<AuditedDataRow>() {
@@ -502,6 +505,20 @@ public final class AuditedDataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<AuditedDataRowResult>> getRowsAsync(Iterable<AuditedDataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<AuditedDataRowResult>> getRowsAsync(Iterable<AuditedDataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<AuditedDataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(AuditedDataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<AuditedDataNamedColumnValue<?>> getRowColumns(AuditedDataRow row) {
         return getRowColumns(row, allColumns);
@@ -628,6 +645,7 @@ public final class AuditedDataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -683,5 +701,5 @@ public final class AuditedDataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "DiDUi25lSvagf9Ql856UPw==";
+    static String __CLASS_HASH = "iT8qDXbT4znlkj/h1KksMA==";
 }
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -173,8 +174,10 @@ public final class DataStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashBytes = hash.getBytes();
-            return EncodingUtils.add(hashBytes);
+            byte[] __output = new byte[32];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(hash.getBytes(), __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataStreamHashAidxRow> BYTES_HYDRATOR = new Hydrator<DataStreamHashAidxRow>() {
@@ -265,8 +268,10 @@ public final class DataStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] streamIdBytes = EncodingUtils.encodeUnsignedVarLong(streamId);
-            return EncodingUtils.add(streamIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(streamId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(streamId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataStreamHashAidxColumn> BYTES_HYDRATOR = new Hydrator<DataStreamHashAidxColumn>() {
@@ -687,6 +692,7 @@ public final class DataStreamHashAidxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -742,5 +748,5 @@ public final class DataStreamHashAidxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "ucMDeXaO3xHImMNYqW8X4A==";
+    static String __CLASS_HASH = "PnLHL4k4iHJKEjjhf1nNKw==";
 }
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -177,9 +178,11 @@ public final class DataStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashOfRowComponentsBytes = PtBytes.toBytes(Long.MIN_VALUE ^ hashOfRowComponents);
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            return EncodingUtils.add(hashOfRowComponentsBytes, idBytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfUnsignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ hashOfRowComponents, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataStreamIdxRow> BYTES_HYDRATOR = new Hydrator<DataStreamIdxRow>() {
@@ -279,8 +282,10 @@ public final class DataStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] referenceBytes = EncodingUtils.encodeSizedBytes(reference);
-            return EncodingUtils.add(referenceBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(reference)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSizedBytes(reference, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataStreamIdxColumn> BYTES_HYDRATOR = new Hydrator<DataStreamIdxColumn>() {
@@ -701,6 +706,7 @@ public final class DataStreamIdxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -756,5 +762,5 @@ public final class DataStreamIdxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "Q9JYrOIjyqX4QIcVx39SDw==";
+    static String __CLASS_HASH = "1jxUpcd5KHbBWWaIhRAskA==";
 }
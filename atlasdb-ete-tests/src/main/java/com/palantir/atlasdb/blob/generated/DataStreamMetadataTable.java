@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -179,9 +180,11 @@ public final class DataStreamMetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashOfRowComponentsBytes = PtBytes.toBytes(Long.MIN_VALUE ^ hashOfRowComponents);
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            return EncodingUtils.add(hashOfRowComponentsBytes, idBytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfUnsignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ hashOfRowComponents, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataStreamMetadataRow> BYTES_HYDRATOR = new Hydrator<DataStreamMetadataRow>() {
@@ -540,6 +543,20 @@ public final class DataStreamMetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<DataStreamMetadataRowResult>> getRowsAsync(Iterable<DataStreamMetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<DataStreamMetadataRowResult>> getRowsAsync(Iterable<DataStreamMetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<DataStreamMetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(DataStreamMetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<DataStreamMetadataNamedColumnValue<?>> getRowColumns(DataStreamMetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -666,6 +683,7 @@ public final class DataStreamMetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -721,5 +739,5 @@ public final class DataStreamMetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "0QWEydqAzFf3kFEogcduuw==";
+    static String __CLASS_HASH = "JdClUma13lMsl5rRGBX4nA==";
 }
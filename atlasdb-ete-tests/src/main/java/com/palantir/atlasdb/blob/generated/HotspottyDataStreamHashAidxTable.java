@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -173,8 +174,10 @@ public final class HotspottyDataStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashBytes = hash.getBytes();
-            return EncodingUtils.add(hashBytes);
+            byte[] __output = new byte[32];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(hash.getBytes(), __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamHashAidxRow> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamHashAidxRow>() {
@@ -265,8 +268,10 @@ public final class HotspottyDataStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] streamIdBytes = EncodingUtils.encodeSignedVarLong(streamId);
-            return EncodingUtils.add(streamIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSignedVarLong(streamId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSignedVarLong(streamId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamHashAidxColumn> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamHashAidxColumn>() {
@@ -687,6 +692,7 @@ public final class HotspottyDataStreamHashAidxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -742,5 +748,5 @@ public final class HotspottyDataStreamHashAidxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "7ix5MBoUOvKMc30ZfEnuyA==";
+    static String __CLASS_HASH = "tjioEHGwb5D5L2J1JR3IxQ==";
 }
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -173,8 +174,10 @@ public final class HotspottyDataStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeSignedVarLong(id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamIdxRow> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamIdxRow>() {
@@ -265,8 +268,10 @@ public final class HotspottyDataStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] referenceBytes = EncodingUtils.encodeSizedBytes(reference);
-            return EncodingUtils.add(referenceBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(reference)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSizedBytes(reference, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamIdxColumn> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamIdxColumn>() {
@@ -687,6 +692,7 @@ public final class HotspottyDataStreamIdxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -742,5 +748,5 @@ public final class HotspottyDataStreamIdxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "dtjvisFA+rauOUpZSbWxlA==";
+    static String __CLASS_HASH = "t6qjkoGlDk6kMzohgb9tJg==";
 }
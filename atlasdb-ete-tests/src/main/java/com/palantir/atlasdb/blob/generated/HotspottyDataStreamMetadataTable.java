@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class HotspottyDataStreamMetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeSignedVarLong(id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamMetadataRow> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamMetadataRow>() {
@@ -526,6 +529,20 @@ public final class HotspottyDataStreamMetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<HotspottyDataStreamMetadataRowResult>> getRowsAsync(Iterable<HotspottyDataStreamMetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<HotspottyDataStreamMetadataRowResult>> getRowsAsync(Iterable<HotspottyDataStreamMetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<HotspottyDataStreamMetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(HotspottyDataStreamMetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<HotspottyDataStreamMetadataNamedColumnValue<?>> getRowColumns(HotspottyDataStreamMetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -652,6 +669,7 @@ public final class HotspottyDataStreamMetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -707,5 +725,5 @@ public final class HotspottyDataStreamMetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "T0PRzzVTzwI1X5G5YAFt6Q==";
+    static String __CLASS_HASH = "dq8WtThg1Agk/VG2AsYHmw==";
 }
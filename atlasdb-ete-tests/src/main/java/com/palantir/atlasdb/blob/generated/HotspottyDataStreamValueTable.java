@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -182,9 +183,11 @@ public final class HotspottyDataStreamValueTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeSignedVarLong(id);
-            byte[] blockIdBytes = EncodingUtils.encodeUnsignedVarLong(blockId);
-            return EncodingUtils.add(idBytes, blockIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSignedVarLong(id) + EncodingUtils.sizeOfUnsignedVarLong(blockId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSignedVarLong(id, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(blockId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<HotspottyDataStreamValueRow> BYTES_HYDRATOR = new Hydrator<HotspottyDataStreamValueRow>() {
@@ -514,6 +517,20 @@ public final class HotspottyDataStreamValueTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<HotspottyDataStreamValueRowResult>> getRowsAsync(Iterable<HotspottyDataStreamValueRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<HotspottyDataStreamValueRowResult>> getRowsAsync(Iterable<HotspottyDataStreamValueRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<HotspottyDataStreamValueRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(HotspottyDataStreamValueRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<HotspottyDataStreamValueNamedColumnValue<?>> getRowColumns(HotspottyDataStreamValueRow row) {
         return getRowColumns(row, allColumns);
@@ -640,6 +657,7 @@ public final class HotspottyDataStreamValueTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -695,5 +713,5 @@ public final class HotspottyDataStreamValueTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "mxCX7FY2WnrjY4hMnfTxaw==";
+    static String __CLASS_HASH = "22mNxULOlHd6TyBCA2ROKg==";
 }
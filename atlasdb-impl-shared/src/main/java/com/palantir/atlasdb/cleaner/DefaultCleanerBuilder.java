@@ -107,12 +107,13 @@ public class DefaultCleanerBuilder {
 
     private Puncher buildPuncher() {
         PuncherStore keyValuePuncherStore = KeyValueServicePuncherStore.create(keyValueService, initalizeAsync);
-        PuncherStore cachingPuncherStore = CachingPuncherStore.create(
+        PuncherStore indexedPuncherStore = IndexedPuncherStore.create(
                 keyValuePuncherStore,
-                punchIntervalMillis * 3);
+                keyValueService,
+                punchIntervalMillis);
         Clock clock = GlobalClock.create(timelockService);
         SimplePuncher simplePuncher = SimplePuncher.create(
-                cachingPuncherStore,
+                indexedPuncherStore,
                 clock,
                 Suppliers.ofInstance(transactionReadTimeout));
         return AsyncPuncher.create(simplePuncher, punchIntervalMillis);
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.util.Pair;
+
+/**
+ * Wrap a PuncherStore backed by the punch table, answering reads from an in-memory {@link PunchIndex} of the whole
+ * table instead of a range scan per lookup. The index is loaded with a single scan on first use; after that, punches
+ * made through this store are added as they are written, and punches made by other clients are picked up by scanning
+ * the rows newer than the latest indexed punch at most once every refreshIntervalMillis.
+ *
+ * Punches from other clients may therefore be missed for up to refreshIntervalMillis, and one that is older than
+ * the latest indexed punch (because of clock drift) is only picked up by {@link #reload}. Either can only make
+ * {@link #get} return an earlier timestamp, which is the conservative direction for the cleaner.
+ *
+ * The index keeps five longs per punch, which is about 20MB for a year of punches at the default interval.
+ */
+public final class IndexedPuncherStore implements PuncherStore {
+    private final PuncherStore puncherStore;
+    private final KeyValueService keyValueService;
+    private final long refreshIntervalMillis;
+
+    private volatile PunchIndex index = null;
+    private volatile long lastRefreshMillis = 0L;
+
+    public static IndexedPuncherStore create(
+            PuncherStore puncherStore,
+            KeyValueService keyValueService,
+            long refreshIntervalMillis) {
+        return new IndexedPuncherStore(puncherStore, keyValueService, refreshIntervalMillis);
+    }
+
+    private IndexedPuncherStore(PuncherStore puncherStore, KeyValueService keyValueService,
+            long refreshIntervalMillis) {
+        this.puncherStore = puncherStore;
+        this.keyValueService = keyValueService;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return puncherStore.isInitialized();
+    }
+
+    @Override
+    public void put(long timestamp, long timeMillis) {
+        puncherStore.put(timestamp, timeMillis);
+        synchronized (this) {
+            if (index != null) {
+                index = index.withPunch(timestamp, timeMillis);
+            }
+        }
+    }
+
+    @Override
+    public Long get(Long timeMillis) {
+        if (!isInitialized()) {
+            return puncherStore.get(timeMillis);
+        }
+        return getIndex().getTimestampForMillis(timeMillis);
+    }
+
+    @Override
+    public long getMillisForTimestamp(long timestamp) {
+        if (!isInitialized()) {
+            return puncherStore.getMillisForTimestamp(timestamp);
+        }
+        return getIndex().getMillisForTimestamp(timestamp);
+    }
+
+    /**
+     * Translates each of the given timestamps as {@link #getMillisForTimestamp} would, against the same view of the
+     * punch table.
+     */
+    public long[] getMillisForTimestamps(long[] timestamps) {
+        if (!isInitialized()) {
+            long[] result = new long[timestamps.length];
+            for (int i = 0; i < timestamps.length; i++) {
+                result[i] = puncherStore.getMillisForTimestamp(timestamps[i]);
+            }
+            return result;
+        }
+        return getIndex().getMillisForTimestamps(timestamps);
+    }
+
+    /**
+     * Discards the index and loads it again from the whole punch table.
+     */
+    public synchronized void reload() {
+        index = loadIndex();
+        lastRefreshMillis = System.currentTimeMillis();
+    }
+
+    @VisibleForTesting
+    int getIndexedPunchCount() {
+        return getIndex().size();
+    }
+
+    private PunchIndex getIndex() {
+        PunchIndex current = index;
+        if (current == null || System.currentTimeMillis() - lastRefreshMillis >= refreshIntervalMillis) {
+            return refresh();
+        }
+        return current;
+    }
+
+    private synchronized PunchIndex refresh() {
+        long now = System.currentTimeMillis();
+        if (index == null) {
+            index = loadIndex();
+        } else if (now - lastRefreshMillis >= refreshIntervalMillis) {
+            index = addPunchesAfter(index);
+        }
+        lastRefreshMillis = now;
+        return index;
+    }
+
+    private PunchIndex loadIndex() {
+        List<Pair<Long, Long>> punches = readPunches(RangeRequest.all());
+        long[] timestamps = new long[punches.size()];
+        long[] millis = new long[punches.size()];
+        for (int i = 0; i < punches.size(); i++) {
+            millis[i] = punches.get(i).lhSide;
+            timestamps[i] = punches.get(i).rhSide;
+        }
+        return PunchIndex.of(timestamps, millis);
+    }
+
+    private PunchIndex addPunchesAfter(PunchIndex current) {
+        if (current.size() == 0) {
+            return loadIndex();
+        }
+        // Rows are in descending order of time, so the newer punches come before the latest one we already have.
+        RangeRequest newerRows = RangeRequest.builder()
+                .endRowExclusive(encodeMillis(current.getLatestMillis()))
+                .build();
+        PunchIndex updated = current;
+        for (Pair<Long, Long> punch : readPunches(newerRows)) {
+            updated = updated.withPunch(punch.rhSide, punch.lhSide);
+        }
+        return updated;
+    }
+
+    /**
+     * Reads (timeMillis, timestamp) pairs for every punch in the given rows, oldest time first. A row has a
+     * timestamp for every time it was punched, because punches are written at their own timestamp.
+     */
+    private List<Pair<Long, Long>> readPunches(RangeRequest rangeRequest) {
+        List<Pair<Long, Long>> punches = Lists.newArrayList();
+        try (ClosableIterator<RowResult<Set<Long>>> rows =
+                keyValueService.getRangeOfTimestamps(AtlasDbConstants.PUNCH_TABLE, rangeRequest, Long.MAX_VALUE)) {
+            while (rows.hasNext()) {
+                RowResult<Set<Long>> row = rows.next();
+                long timeMillis = decodeMillis(row.getRowName());
+                for (Set<Long> timestamps : row.getColumns().values()) {
+                    for (long timestamp : timestamps) {
+                        punches.add(Pair.create(timeMillis, timestamp));
+                    }
+                }
+            }
+        }
+        return Lists.reverse(punches);
+    }
+
+    private static byte[] encodeMillis(long timeMillis) {
+        byte[] row = EncodingUtils.encodeUnsignedVarLong(timeMillis);
+        EncodingUtils.flipAllBitsInPlace(row);
+        return row;
+    }
+
+    private static long decodeMillis(byte[] row) {
+        byte[] encodedMillis = row.clone();
+        EncodingUtils.flipAllBitsInPlace(encodedMillis);
+        return EncodingUtils.decodeUnsignedVarLong(encodedMillis);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An immutable, in-memory copy of the punch table that translates between timestamps and wall-clock time by binary
+ * search. It follows the semantics of {@link KeyValueServicePuncherStore}:
+ *
+ * - {@link #getTimestampForMillis} returns the latest timestamp punched at the greatest punched time at or before
+ *   the given time, or {@link Long#MIN_VALUE} if there is none.
+ * - {@link #getMillisForTimestamp} returns the greatest time punched with a timestamp at or before the given
+ *   timestamp, or 0 if there is none. Clocks may drift, so this is not necessarily the time of the greatest such
+ *   timestamp.
+ *
+ * Punches are kept in two sorted pairs of primitive arrays: every punch ordered by timestamp, with the greatest time
+ * punched up to that timestamp, and every distinct punched time, with the latest timestamp punched at that time.
+ * Punches normally arrive with increasing timestamps and times; those are appended in amortised constant time to
+ * arrays shared with the previous index, which only ever reads the entries it was created with. Any other punch, or
+ * a second punch added to the same index, copies the arrays.
+ */
+final class PunchIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final PunchIndex EMPTY = new PunchIndex(
+            new long[0], new long[0], new long[0], 0, new long[0], new long[0], 0);
+
+    // Every punch, ordered by timestamp, then by time, with the greatest time punched up to each.
+    private final long[] punchTimestamps;
+    private final long[] punchMillis;
+    private final long[] maxMillisUpTo;
+    private final int numPunches;
+
+    // Every distinct punched time, with the latest timestamp punched at it.
+    private final long[] distinctMillis;
+    private final long[] latestTimestampAt;
+    private final int numMillis;
+
+    // The arrays may be shared with at most one newer index, which appends beyond the entries this one can see.
+    private final AtomicBoolean extended = new AtomicBoolean();
+
+    private PunchIndex(
+            long[] punchTimestamps,
+            long[] punchMillis,
+            long[] maxMillisUpTo,
+            int numPunches,
+            long[] distinctMillis,
+            long[] latestTimestampAt,
+            int numMillis) {
+        this.punchTimestamps = punchTimestamps;
+        this.punchMillis = punchMillis;
+        this.maxMillisUpTo = maxMillisUpTo;
+        this.numPunches = numPunches;
+        this.distinctMillis = distinctMillis;
+        this.latestTimestampAt = latestTimestampAt;
+        this.numMillis = numMillis;
+    }
+
+    static PunchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index of the given punches, which may be in any order. Punch i is timestamps[i] at millis[i].
+     */
+    static PunchIndex of(long[] timestamps, long[] millis) {
+        if (timestamps.length != millis.length) {
+            throw new IllegalArgumentException("Every punch needs both a timestamp and a time");
+        }
+        Integer[] order = new Integer[timestamps.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) ->
+                compare(timestamps[first], millis[first], timestamps[second], millis[second]));
+
+        long[] sortedTimestamps = new long[order.length];
+        long[] sortedMillis = new long[order.length];
+        int size = 0;
+        for (int i : order) {
+            if (size > 0 && sortedTimestamps[size - 1] == timestamps[i] && sortedMillis[size - 1] == millis[i]) {
+                continue;
+            }
+            sortedTimestamps[size] = timestamps[i];
+            sortedMillis[size] = millis[i];
+            size++;
+        }
+        return build(sortedTimestamps, sortedMillis, size);
+    }
+
+    int size() {
+        return numPunches;
+    }
+
+    /**
+     * The greatest punched time, or {@link Long#MIN_VALUE} if nothing has been punched.
+     */
+    long getLatestMillis() {
+        return numMillis == 0 ? Long.MIN_VALUE : distinctMillis[numMillis - 1];
+    }
+
+    long getTimestampForMillis(long timeMillis) {
+        int index = floorIndex(distinctMillis, numMillis, timeMillis);
+        return index < 0 ? Long.MIN_VALUE : latestTimestampAt[index];
+    }
+
+    long getMillisForTimestamp(long timestamp) {
+        int index = floorIndex(punchTimestamps, numPunches, timestamp);
+        return index < 0 ? 0L : maxMillisUpTo[index];
+    }
+
+    /**
+     * Translates each of the given timestamps as {@link #getMillisForTimestamp} would.
+     */
+    long[] getMillisForTimestamps(long[] timestamps) {
+        long[] result = new long[timestamps.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            result[i] = getMillisForTimestamp(timestamps[i]);
+        }
+        return result;
+    }
+
+    PunchIndex withPunch(long timestamp, long timeMillis) {
+        boolean isLatestPunch = numPunches == 0
+                || (timestamp > punchTimestamps[numPunches - 1] && timeMillis > distinctMillis[numMillis - 1]);
+        if (isLatestPunch && extended.compareAndSet(false, true)) {
+            return append(timestamp, timeMillis);
+        }
+        return insert(timestamp, timeMillis);
+    }
+
+    private PunchIndex append(long timestamp, long timeMillis) {
+        long[] newTimestamps = punchTimestamps;
+        long[] newMillis = punchMillis;
+        long[] newMaxMillis = maxMillisUpTo;
+        if (numPunches == punchTimestamps.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, numPunches * 2);
+            newTimestamps = Arrays.copyOf(punchTimestamps, capacity);
+            newMillis = Arrays.copyOf(punchMillis, capacity);
+            newMaxMillis = Arrays.copyOf(maxMillisUpTo, capacity);
+        }
+        long[] newDistinctMillis = distinctMillis;
+        long[] newLatestTimestamps = latestTimestampAt;
+        if (numMillis == distinctMillis.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, numMillis * 2);
+            newDistinctMillis = Arrays.copyOf(distinctMillis, capacity);
+            newLatestTimestamps = Arrays.copyOf(latestTimestampAt, capacity);
+        }
+        newTimestamps[numPunches] = timestamp;
+        newMillis[numPunches] = timeMillis;
+        newMaxMillis[numPunches] = timeMillis;
+        newDistinctMillis[numMillis] = timeMillis;
+        newLatestTimestamps[numMillis] = timestamp;
+        return new PunchIndex(newTimestamps, newMillis, newMaxMillis, numPunches + 1,
+                newDistinctMillis, newLatestTimestamps, numMillis + 1);
+    }
+
+    private PunchIndex insert(long timestamp, long timeMillis) {
+        long[] timestamps = new long[numPunches + 1];
+        long[] millis = new long[numPunches + 1];
+        int position = 0;
+        while (position < numPunches
+                && compare(punchTimestamps[position], punchMillis[position], timestamp, timeMillis) < 0) {
+            position++;
+        }
+        if (position < numPunches && punchTimestamps[position] == timestamp && punchMillis[position] == timeMillis) {
+            return this;
+        }
+        System.arraycopy(punchTimestamps, 0, timestamps, 0, position);
+        System.arraycopy(punchMillis, 0, millis, 0, position);
+        timestamps[position] = timestamp;
+        millis[position] = timeMillis;
+        System.arraycopy(punchTimestamps, position, timestamps, position + 1, numPunches - position);
+        System.arraycopy(punchMillis, position, millis, position + 1, numPunches - position);
+        return build(timestamps, millis, numPunches + 1);
+    }
+
+    /**
+     * Builds an index from punches that are sorted by timestamp, then by time, and contain no duplicates.
+     */
+    private static PunchIndex build(long[] sortedTimestamps, long[] sortedMillis, int size) {
+        int capacity = Math.max(INITIAL_CAPACITY, size + size / 2);
+        long[] punchTimestamps = Arrays.copyOf(sortedTimestamps, capacity);
+        long[] punchMillis = Arrays.copyOf(sortedMillis, capacity);
+        long[] maxMillisUpTo = new long[capacity];
+        long maxMillis = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            maxMillis = Math.max(maxMillis, sortedMillis[i]);
+            maxMillisUpTo[i] = maxMillis;
+        }
+
+        Integer[] byMillis = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            byMillis[i] = i;
+        }
+        Arrays.sort(byMillis, (first, second) -> compare(
+                sortedMillis[first], sortedTimestamps[first], sortedMillis[second], sortedTimestamps[second]));
+        long[] distinctMillis = new long[capacity];
+        long[] latestTimestampAt = new long[capacity];
+        int numMillis = 0;
+        for (int i : byMillis) {
+            if (numMillis == 0 || distinctMillis[numMillis - 1] != sortedMillis[i]) {
+                numMillis++;
+            }
+            distinctMillis[numMillis - 1] = sortedMillis[i];
+            latestTimestampAt[numMillis - 1] = sortedTimestamps[i];
+        }
+        return new PunchIndex(punchTimestamps, punchMillis, maxMillisUpTo, size,
+                distinctMillis, latestTimestampAt, numMillis);
+    }
+
+    private static int compare(long firstKey, long firstTiebreak, long secondKey, long secondTiebreak) {
+        int byKey = Long.compare(firstKey, secondKey);
+        return byKey != 0 ? byKey : Long.compare(firstTiebreak, secondTiebreak);
+    }
+
+    /**
+     * Index of the last of the first size values that is at most key, or -1 if there is none.
+     */
+    private static int floorIndex(long[] sortedValues, int size, long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sortedValues[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.Throwables;
+
+/**
+ * The delete stage of the background scrub task. Readers hand each batch of cells to be scrubbed to this stage and
+ * carry on pulling the next batch off the scrub queue while the deletes run on the scrubber's delete threads.
+ *
+ * At most maxInFlightBatches batches are queued or running at once; beyond that {@link #submit} blocks, so a slow
+ * key value service throttles the readers instead of letting work pile up in memory.
+ */
+final class ScrubDeletePipeline {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Queue<Future<?>> inFlight = new ConcurrentLinkedQueue<>();
+    private final MetricsManager metricsManager;
+    private final Timer submitWaitTimer;
+
+    ScrubDeletePipeline(ExecutorService executor, int maxInFlightBatches, MetricsManager metricsManager) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxInFlightBatches);
+        this.metricsManager = metricsManager;
+        this.submitWaitTimer = metricsManager.registerOrGetTimer(ScrubDeletePipeline.class, "submitWait");
+        metricsManager.registerMetric(ScrubDeletePipeline.class, "inFlightBatches",
+                (Gauge<Integer>) () -> maxInFlightBatches - permits.availablePermits());
+    }
+
+    /**
+     * Schedules a batch that scrubs numCells cells of a single table, blocking while the pipeline is full.
+     * Rethrows the failure of any earlier batch that has since completed exceptionally.
+     */
+    void submit(TableReference tableRef, int numCells, Runnable batch) {
+        try (Timer.Context ignored = submitWaitTimer.time()) {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.throwUncheckedException(e);
+        }
+        Meter cellsScrubbed = metricsManager.registerOrGetMeterForTable(
+                ScrubDeletePipeline.class, "cellsScrubbed", tableRef);
+        try {
+            inFlight.add(executor.submit(() -> {
+                try {
+                    batch.run();
+                    cellsScrubbed.mark(numCells);
+                } finally {
+                    permits.release();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        reapCompleted();
+    }
+
+    /**
+     * Waits for every batch submitted so far, then rethrows the first failure. Once this returns or throws, no batch
+     * submitted before the call is still running or has a failure left to report.
+     */
+    void awaitAll() {
+        RuntimeException failure = null;
+        Future<?> future;
+        while ((future = inFlight.poll()) != null) {
+            try {
+                Futures.getUnchecked(future);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void reapCompleted() {
+        Iterator<Future<?>> iterator = inFlight.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (future.isDone()) {
+                iterator.remove();
+                Futures.getUnchecked(future);
+            }
+        }
+    }
+}
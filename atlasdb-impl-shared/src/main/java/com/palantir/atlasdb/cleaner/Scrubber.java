@@ -66,6 +66,7 @@ import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.BatchingVisitable;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.collect.Maps2;
@@ -87,6 +88,7 @@ public class Scrubber {
     private static final int MAX_RETRY_ATTEMPTS = 100;
     private static final int RETRY_SLEEP_INTERVAL_IN_MILLIS = 1000;
     private static final int MAX_DELETES_IN_BATCH = 10_000;
+    private static final int MAX_IN_FLIGHT_DELETE_BATCHES_PER_THREAD = 2;
 
     private final ScheduledExecutorService service = PTExecutors.newSingleThreadScheduledExecutor(
             new NamedThreadFactory("scrubber", true /* daemon */));
@@ -107,6 +109,7 @@ public class Scrubber {
     private final int readThreadCount;
     private final ExecutorService readerExec;
     private final ExecutorService exec;
+    private final ScrubDeletePipeline deletePipeline;
 
     private static final String SCRUBBER_THREAD_PREFIX = "AtlasScrubber";
 
@@ -174,6 +177,8 @@ public class Scrubber {
         NamedThreadFactory threadFactory = new NamedThreadFactory(SCRUBBER_THREAD_PREFIX, true);
         this.readerExec = PTExecutors.newFixedThreadPool(readThreadCount, threadFactory);
         this.exec = PTExecutors.newFixedThreadPool(threadCount, threadFactory);
+        this.deletePipeline = new ScrubDeletePipeline(
+                exec, threadCount * MAX_IN_FLIGHT_DELETE_BATCHES_PER_THREAD, new MetricsManager());
     }
 
     public boolean isInitialized() {
@@ -277,8 +282,12 @@ public class Scrubber {
             }));
         }
 
-        for (Future<Void> readerFuture : readerFutures) {
-            Futures.getUnchecked(readerFuture);
+        try {
+            awaitAll(readerFutures);
+        } finally {
+            // Drain the delete stage even if a reader failed, so that no batch of this run is still running, or has
+            // a failure left to report, when the next run starts submitting.
+            deletePipeline.awaitAll();
         }
 
         log.debug("Scrub background task running at timestamp {} processed a total of {} cells",
@@ -287,6 +296,27 @@ public class Scrubber {
         log.debug("Finished scrub task");
     }
 
+    /**
+     * Waits for every reader, so that none is still submitting deletes, then rethrows the first failure.
+     */
+    private static void awaitAll(List<Future<Void>> readerFutures) {
+        RuntimeException failure = null;
+        for (Future<Void> readerFuture : readerFutures) {
+            try {
+                Futures.getUnchecked(readerFuture);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /* package */ void scrubImmediately(final TransactionManager txManager,
                                         final Multimap<TableReference, Cell> tableNameToCell,
                                         final long scrubTimestamp,
@@ -392,7 +422,8 @@ public class Scrubber {
     }
 
     /**
-     * Scrubs some cells.
+     * Scrubs some cells. The deletes are handed to the delete pipeline one table at a time, and may still be running
+     * when this returns.
      *
      * @return number of cells read from _scrub table
      */
@@ -417,7 +448,6 @@ public class Scrubber {
         }
 
         int numCellsReadFromScrubTable = 0;
-        List<Future<Void>> scrubFutures = Lists.newArrayList();
         Map<TableReference, Multimap<Cell, Long>> failedWrites = Maps.newHashMap();
 
         for (Map.Entry<Long, Multimap<TableReference, Cell>> entry : scrubTimestampToTableNameToCell.entrySet()) {
@@ -443,18 +473,16 @@ public class Scrubber {
                     }
                 }
             } else if (commitTimestamp < maxScrubTimestamp) {
-                for (final List<Entry<TableReference, Cell>> batch :
-                        Iterables.partition(tableNameToCell.entries(), batchSizeSupplier.get())) {
-                    final Multimap<TableReference, Cell> batchMultimap = HashMultimap.create();
-                    for (Entry<TableReference, Cell> e : batch) {
-                        batchMultimap.put(e.getKey(), e.getValue());
+                TransactionType transactionType =
+                        aggressiveScrub ? TransactionType.AGGRESSIVE_HARD_DELETE : TransactionType.HARD_DELETE;
+                for (Entry<TableReference, Collection<Cell>> cells : tableNameToCell.asMap().entrySet()) {
+                    TableReference tableRef = cells.getKey();
+                    for (List<Cell> batch : Iterables.partition(cells.getValue(), batchSizeSupplier.get())) {
+                        Multimap<TableReference, Cell> batchMultimap = HashMultimap.create();
+                        batchMultimap.putAll(tableRef, batch);
+                        deletePipeline.submit(tableRef, batch.size(),
+                                () -> scrubCells(txManager, batchMultimap, scrubTimestamp, transactionType));
                     }
-                    scrubFutures.add(exec.submit(() -> {
-                        scrubCells(txManager, batchMultimap,
-                                scrubTimestamp,
-                                aggressiveScrub ? TransactionType.AGGRESSIVE_HARD_DELETE : TransactionType.HARD_DELETE);
-                        return null;
-                    }));
                 }
             }
             // else {
@@ -462,15 +490,11 @@ public class Scrubber {
             // }
         }
 
-        for (Future<Void> future : scrubFutures) {
-            Futures.getUnchecked(future);
-        }
-
         if (!failedWrites.isEmpty()) {
             scrubberStore.markCellsAsScrubbed(failedWrites, batchSizeSupplier.get());
         }
 
-        log.trace("Finished scrubbing cells: {}", scrubTimestampToTableNameToCell);
+        log.trace("Finished reading cells to scrub: {}", scrubTimestampToTableNameToCell);
 
         if (log.isDebugEnabled()) {
             Set<TableReference> tables = Sets.newHashSet();
@@ -479,7 +503,7 @@ public class Scrubber {
             }
             long minTimestamp = Collections.min(scrubTimestampToTableNameToCell.keySet());
             long maxTimestamp = Collections.max(scrubTimestampToTableNameToCell.keySet());
-            log.debug("Finished scrubbing {} cells at {} timestamps ({}...{}) from tables {}",
+            log.debug("Queued scrubbing of {} cells at {} timestamps ({}...{}) from tables {}",
                       numCellsReadFromScrubTable, scrubTimestampToTableNameToCell.size(),
                       minTimestamp, maxTimestamp, tables);
         }
@@ -245,6 +245,20 @@ public final class TableRemappingKeyValueService extends ForwardingObject implem
         }
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef,
+                                                                 RangeRequest rangeRequest,
+                                                                 long timestamp,
+                                                                 int parallelism,
+                                                                 boolean ordered) {
+        try {
+            return delegate().getRangeInParallel(
+                    tableMapper.getMappedTableName(tableRef), rangeRequest, timestamp, parallelism, ordered);
+        } catch (TableMappingNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
                                                                        RangeRequest rangeRequest,
@@ -247,6 +247,15 @@ public final class TableSplittingKeyValueService implements KeyValueService {
         return getDelegate(tableRef).getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef,
+                                                                 RangeRequest rangeRequest,
+                                                                 long timestamp,
+                                                                 int parallelism,
+                                                                 boolean ordered) {
+        return getDelegate(tableRef).getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
                                                                        RangeRequest rangeRequest,
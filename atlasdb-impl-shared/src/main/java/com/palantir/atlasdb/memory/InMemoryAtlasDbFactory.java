@@ -28,6 +28,7 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.CachedTableVersions;
 import com.palantir.atlasdb.cleaner.Cleaner;
 import com.palantir.atlasdb.cleaner.CleanupFollower;
 import com.palantir.atlasdb.cleaner.DefaultCleanerBuilder;
@@ -162,6 +163,7 @@ public class InMemoryAtlasDbFactory implements AtlasDbFactory {
 
         schemas.forEach(s -> Schemas.createTablesAndIndexes(s, keyValueService));
         TransactionTables.createTables(keyValueService);
+        CachedTableVersions.createTable(keyValueService);
 
         TransactionService transactionService = TransactionServices.createTransactionService(keyValueService);
         LockService lock = LockRefreshingLockService.create(LockServiceImpl.create(
@@ -19,12 +19,16 @@ package com.palantir.atlasdb.schema;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.palantir.atlasdb.AtlasDbConstants;
@@ -35,12 +39,16 @@ import com.palantir.atlasdb.table.description.RowNamePartitioner;
 import com.palantir.atlasdb.table.description.TableMetadata;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
 
 public class KeyValueServiceMigrator {
     private final TableReference checkpointTable;
     private static final String CHECKPOINT_TABLE_NAME = "tmp_migrate_progress";
     private static final int PARTITIONS = 256;
+    private static final long WRITE_BATCH_SIZE_BYTES = 1024 * 1024;
+    private static final int MAX_WRITES_IN_FLIGHT_PER_RANGE = 2;
+    private static final long THROUGHPUT_REPORT_INTERVAL_SECONDS = 30;
 
     private final TransactionManager fromTransactionManager;
     private final TransactionManager toTransactionManager;
@@ -49,6 +57,8 @@ public class KeyValueServiceMigrator {
     private final Supplier<Long> migrationTimestampSupplier;
 
     private final int threads;
+    private final int tableThreads;
+    private final int writeThreads;
     private final int defaultBatchSize;
 
     // Tables that exist on the legacy KVS and should not be migrated.
@@ -82,6 +92,44 @@ public class KeyValueServiceMigrator {
                                    KvsMigrationMessageProcessor messageProcessor,
                                    TaskProgress taskProgress,
                                    Set<TableReference> unmigratableTables) {
+        this(checkpointNamespace,
+                fromTransactionManager,
+                toTransactionManager,
+                fromKvs,
+                toKvs,
+                migrationTimestampSupplier,
+                threads,
+                1,
+                threads,
+                defaultBatchSize,
+                readBatchSizeOverrides,
+                messageProcessor,
+                taskProgress,
+                unmigratableTables);
+    }
+
+    /**
+     * @param threads number of threads copying ranges, shared by all tables being migrated
+     * @param tableThreads number of tables migrated concurrently
+     * @param writeThreads number of threads writing copied rows to the destination kvs
+     */
+    public KeyValueServiceMigrator(Namespace checkpointNamespace,
+                                   TransactionManager fromTransactionManager,
+                                   TransactionManager toTransactionManager,
+                                   KeyValueService fromKvs,
+                                   KeyValueService toKvs,
+                                   Supplier<Long> migrationTimestampSupplier,
+                                   int threads,
+                                   int tableThreads,
+                                   int writeThreads,
+                                   int defaultBatchSize,
+                                   Map<TableReference, Integer> readBatchSizeOverrides,
+                                   KvsMigrationMessageProcessor messageProcessor,
+                                   TaskProgress taskProgress,
+                                   Set<TableReference> unmigratableTables) {
+        Preconditions.checkArgument(threads > 0, "threads must be positive");
+        Preconditions.checkArgument(tableThreads > 0, "tableThreads must be positive");
+        Preconditions.checkArgument(writeThreads > 0, "writeThreads must be positive");
         this.checkpointTable = TableReference.create(checkpointNamespace, CHECKPOINT_TABLE_NAME);
         this.fromTransactionManager = fromTransactionManager;
         this.toTransactionManager = toTransactionManager;
@@ -89,6 +137,8 @@ public class KeyValueServiceMigrator {
         this.toKvs = toKvs;
         this.migrationTimestampSupplier = migrationTimestampSupplier;
         this.threads = threads;
+        this.tableThreads = tableThreads;
+        this.writeThreads = writeThreads;
         this.defaultBatchSize = defaultBatchSize;
         this.readBatchSizeOverrides = readBatchSizeOverrides;
         this.messageProcessor = messageProcessor;
@@ -179,6 +229,18 @@ public class KeyValueServiceMigrator {
                 new GeneralTaskCheckpointer(checkpointTable, toKvs, txManager);
 
         ExecutorService executor = PTExecutors.newFixedThreadPool(threads);
+        ExecutorService tableExecutor = PTExecutors.newFixedThreadPool(tableThreads,
+                new NamedThreadFactory("kvs-migration-table", true /* daemon */));
+        ExecutorService writeExecutor = PTExecutors.newFixedThreadPool(writeThreads,
+                new NamedThreadFactory("kvs-migration-write", true /* daemon */));
+        ScheduledExecutorService reporter = PTExecutors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("kvs-migration-throughput", true /* daemon */));
+        MigrationThroughput throughput = new MigrationThroughput();
+        reporter.scheduleAtFixedRate(
+                () -> processMessage(throughput.getSummary(), KvsMigrationMessageLevel.INFO),
+                THROUGHPUT_REPORT_INTERVAL_SECONDS,
+                THROUGHPUT_REPORT_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
         try {
             migrateTables(
                     tables,
@@ -187,41 +249,97 @@ public class KeyValueServiceMigrator {
                     toKvs,
                     migrationTimestampSupplier.get(),
                     executor,
+                    tableExecutor,
+                    writeExecutor,
+                    throughput,
                     checkpointer);
-            processMessage("Data migration complete.", KvsMigrationMessageLevel.INFO);
+            processMessage("Data migration complete. " + throughput.getSummary(), KvsMigrationMessageLevel.INFO);
         } catch (Throwable t) {
-            processMessage("Migration failed.", t, KvsMigrationMessageLevel.ERROR);
+            processMessage("Migration failed. " + throughput.getSummary(), t, KvsMigrationMessageLevel.ERROR);
             Throwables.throwUncheckedException(t);
         } finally {
+            reporter.shutdownNow();
+            tableExecutor.shutdownNow();
             executor.shutdown();
+            writeExecutor.shutdown();
             executor.awaitTermination(10000L, TimeUnit.MILLISECONDS);
+            writeExecutor.awaitTermination(10000L, TimeUnit.MILLISECONDS);
         }
     }
 
+    /**
+     * Tables are copied concurrently on the table executor. Each table is split into ranges that are copied
+     * on the shared range executor, and every range hands its writes to the shared write executor, so reads
+     * and writes of all tables overlap while the number of threads of each kind stays bounded.
+     */
     private void migrateTables(Set<TableReference> tables,
                                TransactionManager readTxManager,
                                TransactionManager txManager,
                                KeyValueService writeKvs,
                                long migrationTimestamp,
                                ExecutorService executor,
-                               GeneralTaskCheckpointer checkpointer) {
+                               ExecutorService tableExecutor,
+                               ExecutorService writeExecutor,
+                               MigrationThroughput throughput,
+                               GeneralTaskCheckpointer checkpointer) throws InterruptedException {
         processMessage("Migrating tables at migrationTimestamp " + migrationTimestamp,
                 KvsMigrationMessageLevel.INFO);
+        List<Future<?>> futures = Lists.newArrayList();
         for (TableReference table : tables) {
-            KvsRangeMigrator rangeMigrator =
-                    new KvsRangeMigratorBuilder().srcTable(table).readBatchSize(getBatchSize(table)).readTxManager(
-                            readTxManager).txManager(txManager).writeKvs(writeKvs).migrationTimestamp(
-                            migrationTimestamp).checkpointer(checkpointer).build();
-            TableMigratorBuilder builder =
-                    new TableMigratorBuilder().srcTable(table).partitions(PARTITIONS).partitioners(
-                            getPartitioners(fromKvs, table)).readBatchSize(
-                            getBatchSize(table)).executor(executor).checkpointer(checkpointer).progress(
-                            taskProgress).rangeMigrator(rangeMigrator);
-            TableMigrator migrator = builder.build();
-            migrator.migrate();
+            futures.add(tableExecutor.submit(() -> migrateTable(
+                    table,
+                    readTxManager,
+                    txManager,
+                    writeKvs,
+                    migrationTimestamp,
+                    executor,
+                    writeExecutor,
+                    throughput,
+                    checkpointer)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
         }
     }
 
+    private void migrateTable(TableReference table,
+                              TransactionManager readTxManager,
+                              TransactionManager txManager,
+                              KeyValueService writeKvs,
+                              long migrationTimestamp,
+                              ExecutorService executor,
+                              ExecutorService writeExecutor,
+                              MigrationThroughput throughput,
+                              GeneralTaskCheckpointer checkpointer) {
+        processMessage("Migrating table " + table, KvsMigrationMessageLevel.INFO);
+        KvsRangeMigrator rangeMigrator = new KvsRangeMigratorBuilder()
+                .srcTable(table)
+                .readBatchSize(getBatchSize(table))
+                .readTxManager(readTxManager)
+                .txManager(txManager)
+                .writeKvs(writeKvs)
+                .migrationTimestamp(migrationTimestamp)
+                .checkpointer(checkpointer)
+                .writeExecutor(writeExecutor)
+                .writeBatchSizeBytes(WRITE_BATCH_SIZE_BYTES)
+                .maxWritesInFlight(MAX_WRITES_IN_FLIGHT_PER_RANGE)
+                .throughput(throughput)
+                .build();
+        TableMigratorBuilder builder =
+                new TableMigratorBuilder().srcTable(table).partitions(PARTITIONS).partitioners(
+                        getPartitioners(fromKvs, table)).readBatchSize(
+                        getBatchSize(table)).executor(executor).checkpointer(checkpointer).progress(
+                        taskProgress).rangeMigrator(rangeMigrator);
+        TableMigrator migrator = builder.build();
+        migrator.migrate();
+        processMessage("Finished migrating table " + table + ". " + throughput.getSummary(),
+                KvsMigrationMessageLevel.INFO);
+    }
+
     private List<RowNamePartitioner> getPartitioners(KeyValueService kvs, TableReference table) {
         try {
             byte[] metadata = kvs.getMetadataForTable(table);
@@ -15,9 +15,14 @@
  */
 package com.palantir.atlasdb.sweep;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -29,15 +34,16 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.InsufficientConsistencyException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.sweep.priority.NextTableToSweepProvider;
 import com.palantir.atlasdb.sweep.progress.SweepProgress;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.Throwables;
 import com.palantir.lock.LockService;
-import com.palantir.lock.SingleLockService;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
 
@@ -53,10 +59,12 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
     private final Supplier<Long> sweepPauseMillis;
     private final PersistentLockManager persistentLockManager;
     private final SpecificTableSweeper specificTableSweeper;
+    private final int numThreads;
 
     private final SweepOutcomeMetrics sweepOutcomeMetrics = new SweepOutcomeMetrics();
+    private final ConcurrentMap<Integer, TableReference> tablesBeingSweptByThread = new ConcurrentHashMap<>();
 
-    private Thread daemon;
+    private List<Thread> daemons;
 
     private final CountDownLatch shuttingDown = new CountDownLatch(1);
 
@@ -68,7 +76,9 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
             Supplier<Boolean> isSweepEnabled,
             Supplier<Long> sweepPauseMillis,
             PersistentLockManager persistentLockManager,
-            SpecificTableSweeper specificTableSweeper) {
+            SpecificTableSweeper specificTableSweeper,
+            int numThreads) {
+        Preconditions.checkArgument(numThreads > 0, "The number of sweep threads must be positive");
         this.lockService = lockService;
         this.nextTableToSweepProvider = nextTableToSweepProvider;
         this.sweepBatchConfigSource = sweepBatchConfigSource;
@@ -76,6 +86,7 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
         this.sweepPauseMillis = sweepPauseMillis;
         this.persistentLockManager = persistentLockManager;
         this.specificTableSweeper = specificTableSweeper;
+        this.numThreads = numThreads;
     }
 
     public static BackgroundSweeperImpl create(
@@ -84,6 +95,22 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
             Supplier<Long> sweepPauseMillis,
             PersistentLockManager persistentLockManager,
             SpecificTableSweeper specificTableSweeper) {
+        return create(
+                sweepBatchConfigSource,
+                isSweepEnabled,
+                sweepPauseMillis,
+                persistentLockManager,
+                specificTableSweeper,
+                AtlasDbConstants.DEFAULT_SWEEP_THREADS);
+    }
+
+    public static BackgroundSweeperImpl create(
+            AdjustableSweepBatchConfigSource sweepBatchConfigSource,
+            Supplier<Boolean> isSweepEnabled,
+            Supplier<Long> sweepPauseMillis,
+            PersistentLockManager persistentLockManager,
+            SpecificTableSweeper specificTableSweeper,
+            int numThreads) {
         NextTableToSweepProvider nextTableToSweepProvider = NextTableToSweepProvider
                 .create(specificTableSweeper.getKvs(), specificTableSweeper.getSweepPriorityStore());
 
@@ -94,16 +121,22 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
                 isSweepEnabled,
                 sweepPauseMillis,
                 persistentLockManager,
-                specificTableSweeper);
+                specificTableSweeper,
+                numThreads);
     }
 
     @Override
     public synchronized void runInBackground() {
-        Preconditions.checkState(daemon == null);
-        daemon = new Thread(this);
-        daemon.setDaemon(true);
-        daemon.setName("BackgroundSweeper");
-        daemon.start();
+        Preconditions.checkState(daemons == null);
+        daemons = new ArrayList<>(numThreads);
+        for (int threadIndex = 0; threadIndex < numThreads; threadIndex++) {
+            int index = threadIndex;
+            Thread daemon = new Thread(() -> runSweepThread(index));
+            daemon.setDaemon(true);
+            daemon.setName(numThreads == 1 ? "BackgroundSweeper" : "BackgroundSweeper-" + threadIndex);
+            daemon.start();
+            daemons.add(daemon);
+        }
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down persistent lock manager");
             try {
@@ -120,13 +153,20 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
         }));
     }
 
+    /**
+     * Runs the first background sweep thread on the calling thread.
+     */
     @Override
     public void run() {
-        try (SingleLockService locks = createSweepLocks()) {
+        runSweepThread(0);
+    }
+
+    private void runSweepThread(int threadIndex) {
+        try (SweepLocks locks = createSweepLocks(threadIndex)) {
             // Wait a while before starting so short lived clis don't try to sweep.
             waitUntilSpecificTableSweeperIsInitialized();
             sleepForMillis(getBackoffTimeWhenSweepHasNotRun());
-            log.info("Starting background sweeper.");
+            log.info("Starting background sweeper thread {}.", SafeArg.of("threadIndex", threadIndex));
             while (true) {
                 // InterruptedException might be wrapped in RuntimeException (i.e. AtlasDbDependencyException),
                 // which would be caught downstream.
@@ -138,7 +178,9 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
 
                 SweepOutcome outcome = checkConfigAndRunSweep(locks);
 
-                log.info("Sweep iteration finished with outcome: {}", SafeArg.of("sweepOutcome", outcome));
+                log.info("Sweep iteration finished with outcome: {} on thread {}",
+                        SafeArg.of("sweepOutcome", outcome),
+                        SafeArg.of("threadIndex", threadIndex));
 
                 updateBatchSize(outcome);
                 updateMetrics(outcome);
@@ -152,6 +194,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
             log.error("BackgroundSweeper failed fatally and will not rerun until restarted: {}",
                     UnsafeArg.of("message", t.getMessage()), t);
             sweepOutcomeMetrics.registerOccurrenceOf(SweepOutcome.FATAL);
+        } finally {
+            tablesBeingSweptByThread.remove(threadIndex);
         }
     }
 
@@ -186,7 +230,7 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
     }
 
     @VisibleForTesting
-    SweepOutcome checkConfigAndRunSweep(SingleLockService locks) throws InterruptedException {
+    SweepOutcome checkConfigAndRunSweep(SweepLocks locks) throws InterruptedException {
         if (isSweepEnabled.get()) {
             return grabLocksAndRun(locks);
         }
@@ -195,11 +239,11 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
         return SweepOutcome.DISABLED;
     }
 
-    private SweepOutcome grabLocksAndRun(SingleLockService locks) throws InterruptedException {
+    private SweepOutcome grabLocksAndRun(SweepLocks locks) throws InterruptedException {
         try {
             locks.lockOrRefresh();
             if (locks.haveLocks()) {
-                return runOnce();
+                return runOnce(locks);
             } else {
                 log.debug("Skipping sweep because sweep is running elsewhere.");
                 return SweepOutcome.UNABLE_TO_ACQUIRE_LOCKS;
@@ -217,17 +261,30 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
     }
 
     @VisibleForTesting
-    SweepOutcome runOnce() {
-        Optional<TableToSweep> tableToSweep = getTableToSweep();
+    SweepOutcome runOnce(SweepLocks locks) throws InterruptedException {
+        int threadIndex = locks.getThreadIndex();
+        Optional<TableToSweep> tableToSweep = getTableToSweep(threadIndex);
         if (!tableToSweep.isPresent()) {
             // Don't change this log statement. It's parsed by test automation code.
             log.debug("Skipping sweep because no table has enough new writes to be worth sweeping at the moment.");
+            locks.releaseTableLock();
+            tablesBeingSweptByThread.remove(threadIndex);
             return SweepOutcome.NOTHING_TO_SWEEP;
         }
 
+        TableReference tableRef = tableToSweep.get().getTableRef();
+        if (!locks.lockOrRefreshTable(tableRef)) {
+            log.info("Skipping sweep of table {} on thread {} because it is being swept by another sweep thread.",
+                    LoggingArgs.tableRef(tableRef),
+                    SafeArg.of("threadIndex", threadIndex));
+            tablesBeingSweptByThread.remove(threadIndex);
+            return SweepOutcome.UNABLE_TO_ACQUIRE_LOCKS;
+        }
+        tablesBeingSweptByThread.put(threadIndex, tableRef);
+
         SweepBatchConfig batchConfig = sweepBatchConfigSource.getAdjustedSweepConfig();
         try {
-            specificTableSweeper.runOnceAndSaveResults(tableToSweep.get(), batchConfig);
+            specificTableSweeper.runOnceAndSaveResults(threadIndex, tableToSweep.get(), batchConfig);
             return SweepOutcome.SUCCESS;
         } catch (InsufficientConsistencyException e) {
             log.warn("Could not sweep because not all nodes of the database are online.", e);
@@ -235,37 +292,62 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
         } catch (RuntimeException e) {
             specificTableSweeper.updateSweepErrorMetric();
 
-            return determineCauseOfFailure(e, tableToSweep.get());
+            return determineCauseOfFailure(e, threadIndex, tableToSweep.get());
         }
     }
 
     // there's a bug in older jdk8s around type inference here, don't make the same mistake two of us made
     // and try to lambda refactor this unless you live far enough in the future that this isn't an issue
-    private Optional<TableToSweep> getTableToSweep() {
+    private Optional<TableToSweep> getTableToSweep(int threadIndex) {
         return specificTableSweeper.getTxManager().runTaskWithRetry(
                 tx -> {
-                    Optional<SweepProgress> progress = specificTableSweeper.getSweepProgressStore().loadProgress();
+                    Optional<SweepProgress> progress =
+                            specificTableSweeper.getSweepProgressStore().loadProgress(threadIndex);
                     if (progress.isPresent()) {
                         return Optional.of(new TableToSweep(progress.get().tableRef(), progress));
                     } else {
-                        log.info("Sweep is choosing a new table to sweep.");
-                        Optional<TableReference> nextTable = getNextTableToSweep(tx);
+                        log.info("Sweep thread {} is choosing a new table to sweep.",
+                                SafeArg.of("threadIndex", threadIndex));
+                        Optional<TableReference> nextTable = getNextTableToSweep(tx, threadIndex);
                         return nextTable.map(tableReference -> new TableToSweep(tableReference, Optional.empty()));
                     }
                 });
     }
 
-    private Optional<TableReference> getNextTableToSweep(Transaction tx) {
-        return nextTableToSweepProvider
-                .getNextTableToSweep(tx, specificTableSweeper.getSweepRunner().getConservativeSweepTimestamp());
+    private Optional<TableReference> getNextTableToSweep(Transaction tx, int threadIndex) {
+        return nextTableToSweepProvider.getNextTableToSweep(
+                tx,
+                specificTableSweeper.getSweepRunner().getConservativeSweepTimestamp(),
+                getTablesBeingSweptByOtherThreads(threadIndex));
     }
 
-    private SweepOutcome determineCauseOfFailure(Exception originalException, TableToSweep tableToSweep) {
+    /**
+     * The tables being swept by the other threads on this node, and the tables other nodes have saved progress for.
+     * The latter is only a hint to avoid contending for table locks, so it only covers thread indices used here.
+     */
+    private Set<TableReference> getTablesBeingSweptByOtherThreads(int threadIndex) {
+        Set<TableReference> tables = new HashSet<>();
+        tablesBeingSweptByThread.forEach((index, tableRef) -> {
+            if (index != threadIndex) {
+                tables.add(tableRef);
+            }
+        });
+        for (int otherIndex = 0; otherIndex < numThreads; otherIndex++) {
+            if (otherIndex != threadIndex) {
+                specificTableSweeper.getSweepProgressStore().loadProgress(otherIndex)
+                        .ifPresent(progress -> tables.add(progress.tableRef()));
+            }
+        }
+        return tables;
+    }
+
+    private SweepOutcome determineCauseOfFailure(Exception originalException, int threadIndex,
+            TableToSweep tableToSweep) {
         try {
             Set<TableReference> tables = specificTableSweeper.getKvs().getAllTableNames();
 
             if (!tables.contains(tableToSweep.getTableRef())) {
-                clearSweepProgress();
+                clearSweepProgress(threadIndex);
                 log.info("The table being swept by the background sweeper was dropped, moving on...");
                 return SweepOutcome.TABLE_DROPPED_WHILE_SWEEPING;
             }
@@ -281,8 +363,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
         }
     }
 
-    private void clearSweepProgress() {
-        specificTableSweeper.getSweepProgressStore().clearProgress();
+    private void clearSweepProgress(int threadIndex) {
+        specificTableSweeper.getSweepProgressStore().clearProgress(threadIndex);
     }
 
     private void sleepForMillis(long millis) throws InterruptedException {
@@ -292,8 +374,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
     }
 
     @VisibleForTesting
-    SingleLockService createSweepLocks() {
-        return SingleLockService.createSingleLockServiceWithSafeLockId(lockService, "atlas sweep");
+    SweepLocks createSweepLocks(int threadIndex) {
+        return new SweepLocks(lockService, threadIndex);
     }
 
     @Override
@@ -304,21 +386,25 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper, AutoClose
     @Override
     public synchronized void shutdown() {
         sweepOutcomeMetrics.registerOccurrenceOf(SweepOutcome.SHUTDOWN);
-        if (daemon == null) {
+        if (daemons == null) {
             return;
         }
         log.info("Signalling background sweeper to shut down.");
-        // Interrupt the daemon, whatever lock it may be waiting on.
-        daemon.interrupt();
+        // Interrupt the daemons, whatever lock they may be waiting on.
+        daemons.forEach(Thread::interrupt);
         // Ensure we do not accidentally abort shutdown if any code incorrectly swallows InterruptedExceptions
-        // on the daemon thread.
+        // on the daemon threads.
         shuttingDown.countDown();
         try {
-            daemon.join(MAX_DAEMON_CLEAN_SHUTDOWN_TIME_MILLIS);
-            if (daemon.isAlive()) {
-                log.error("Background sweep thread failed to shut down");
+            long deadline = System.currentTimeMillis() + MAX_DAEMON_CLEAN_SHUTDOWN_TIME_MILLIS;
+            for (Thread daemon : daemons) {
+                daemon.join(Math.max(1, deadline - System.currentTimeMillis()));
+                if (daemon.isAlive()) {
+                    log.error("Background sweep thread {} failed to shut down",
+                            SafeArg.of("threadName", daemon.getName()));
+                }
             }
-            daemon = null;
+            daemons = null;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw Throwables.rewrapAndThrowUncheckedException(e);
@@ -15,9 +15,14 @@
  */
 package com.palantir.atlasdb.sweep;
 
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
@@ -28,35 +33,91 @@ import gnu.trove.TDecorators;
 import gnu.trove.map.TLongLongMap;
 import gnu.trove.map.hash.TLongLongHashMap;
 import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 
 public final class CommitTsLoader {
     private static final Logger log = LoggerFactory.getLogger(CommitTsLoader.class);
 
     private final TLongLongMap commitTsByStartTs;
     private final TransactionService transactionService;
+    private final TimestampCache sharedCache;
 
-    private CommitTsLoader(TLongLongMap commitTsByStartTs, TransactionService transactionService) {
+    private CommitTsLoader(
+            TLongLongMap commitTsByStartTs,
+            TransactionService transactionService,
+            TimestampCache sharedCache) {
         this.commitTsByStartTs = commitTsByStartTs;
         this.transactionService = transactionService;
+        this.sharedCache = sharedCache;
     }
 
     public static CommitTsLoader create(TransactionService transactionService, TLongSet startTssToWarmingCache) {
+        return create(transactionService, startTssToWarmingCache, null);
+    }
+
+    /**
+     * Creates a loader that also consults, and populates, a {@link TimestampCache} that outlives it, so that
+     * commit timestamps looked up for one batch of cells do not have to be loaded again for the next batch.
+     */
+    public static CommitTsLoader create(
+            TransactionService transactionService,
+            TLongSet startTssToWarmingCache,
+            @Nullable TimestampCache sharedCache) {
         TLongLongMap cache = new TLongLongHashMap();
-        if (!startTssToWarmingCache.isEmpty()) {
+        TLongSet startTssToLoad = startTssToWarmingCache;
+        if (sharedCache != null && !startTssToWarmingCache.isEmpty()) {
+            startTssToLoad = loadFromSharedCache(sharedCache, startTssToWarmingCache, cache);
+        }
+        if (!startTssToLoad.isEmpty()) {
             // Ideally TransactionService should work with primitive collections to avoid GC overhead..
-            cache.putAll(transactionService.get(TDecorators.wrap(startTssToWarmingCache)));
+            Map<Long, Long> loaded = transactionService.get(TDecorators.wrap(startTssToLoad));
+            cache.putAll(loaded);
+            if (sharedCache != null) {
+                putIntoSharedCache(sharedCache, loaded);
+            }
         }
-        return new CommitTsLoader(cache, transactionService);
+        return new CommitTsLoader(cache, transactionService, sharedCache);
     }
 
     public long load(long startTs) {
         if (!commitTsByStartTs.containsKey(startTs)) {
             long commitTs = loadCacheMissAndPossiblyRollBack(startTs);
             commitTsByStartTs.put(startTs, commitTs);
+            if (sharedCache != null) {
+                sharedCache.putAlreadyCommittedTransaction(startTs, commitTs);
+            }
         }
         return commitTsByStartTs.get(startTs);
     }
 
+    private static TLongSet loadFromSharedCache(TimestampCache sharedCache, TLongSet startTss, TLongLongMap cache) {
+        long[] startTimestamps = startTss.toArray();
+        long[] commitTimestamps = new long[startTimestamps.length];
+        sharedCache.getAll(startTimestamps, commitTimestamps);
+
+        TLongSet misses = new TLongHashSet();
+        for (int i = 0; i < startTimestamps.length; i++) {
+            if (commitTimestamps[i] == TimestampCache.MISSING) {
+                misses.add(startTimestamps[i]);
+            } else {
+                cache.put(startTimestamps[i], commitTimestamps[i]);
+            }
+        }
+        return misses;
+    }
+
+    private static void putIntoSharedCache(TimestampCache sharedCache, Map<Long, Long> loaded) {
+        long[] startTimestamps = new long[loaded.size()];
+        long[] commitTimestamps = new long[loaded.size()];
+        int index = 0;
+        for (Map.Entry<Long, Long> entry : loaded.entrySet()) {
+            startTimestamps[index] = entry.getKey();
+            commitTimestamps[index] = entry.getValue();
+            index++;
+        }
+        sharedCache.putAll(startTimestamps, commitTimestamps);
+    }
+
     public long loadCacheMissAndPossiblyRollBack(long startTs) {
         Long commitTs = transactionService.get(startTs);
 
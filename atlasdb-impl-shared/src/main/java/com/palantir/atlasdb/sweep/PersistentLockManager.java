@@ -49,6 +49,11 @@ public class PersistentLockManager implements AutoCloseable {
     @GuardedBy("this")
     PersistentLockId lockId;
 
+    // The number of callers currently holding the lock. Background sweep threads share the single backup lock, so
+    // it must only be released once none of them are deleting.
+    @GuardedBy("this")
+    private int numHolders = 0;
+
     @GuardedBy("this")
     private boolean isShutDown = false;
 
@@ -68,6 +73,7 @@ public class PersistentLockManager implements AutoCloseable {
     public synchronized void shutdown() {
         log.info("Shutting down...");
         isShutDown = true;
+        numHolders = 0;
         if (lockId != null) {
             releasePersistentLock();
         }
@@ -87,8 +93,14 @@ public class PersistentLockManager implements AutoCloseable {
         Preconditions.checkState(!isShutDown,
                 "This PersistentLockManager is shut down, and cannot be used to acquire locks.");
 
+        if (lockId != null && numHolders > 0) {
+            numHolders++;
+            return true;
+        }
+
         try {
             lockId = persistentLockService.acquireBackupLock("Sweep");
+            numHolders = 1;
             log.info("Successfully acquired persistent lock for sweep: {}", SafeArg.of("lockId", lockId));
             return true;
         } catch (CheckAndSetException e) {
@@ -103,6 +115,7 @@ public class PersistentLockManager implements AutoCloseable {
                     // We tried to acquire while already holding the lock. Welp - but we still have the lock.
                     log.info("Attempted to acquire the a new lock when we already held a lock."
                             + " The acquire failed, but our lock is still valid, so we still hold the lock.");
+                    numHolders = 1;
                     return true;
                 } else {
                     // In this case, some other process holds the lock. Therefore, we don't hold the lock.
@@ -129,6 +142,14 @@ public class PersistentLockManager implements AutoCloseable {
             return;
         }
 
+        numHolders = Math.max(0, numHolders - 1);
+        if (numHolders > 0) {
+            log.debug("Not releasing persistent lock {}, as it is still held by {} other callers",
+                    SafeArg.of("lockId", lockId),
+                    SafeArg.of("numHolders", numHolders));
+            return;
+        }
+
         log.info("Releasing persistent lock {}", SafeArg.of("lockId", lockId));
         try {
             persistentLockService.releaseBackupLock(lockId);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep;
+
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.lock.LockService;
+import com.palantir.lock.SingleLockService;
+
+/**
+ * The locks held by one background sweep thread. The lock on the index of the thread ensures that only one sweeper in
+ * the cluster uses the sweep progress stored for that index, and the lock on the table currently being swept ensures
+ * that two sweep threads never sweep the same table at the same time.
+ */
+class SweepLocks implements AutoCloseable {
+    private static final String SWEEP_LOCK_ID = "atlas sweep";
+    private static final String TABLE_LOCK_ID_PREFIX = "atlas sweep table ";
+
+    private final LockService lockService;
+    private final int threadIndex;
+    private final SingleLockService threadLock;
+
+    private Optional<TableReference> lockedTable = Optional.empty();
+    private SingleLockService tableLock = null;
+
+    SweepLocks(LockService lockService, int threadIndex) {
+        this.lockService = lockService;
+        this.threadIndex = threadIndex;
+        this.threadLock = SingleLockService.createSingleLockServiceWithSafeLockId(
+                lockService, getThreadLockId(threadIndex));
+    }
+
+    int getThreadIndex() {
+        return threadIndex;
+    }
+
+    Optional<TableReference> getLockedTable() {
+        return lockedTable;
+    }
+
+    void lockOrRefresh() throws InterruptedException {
+        threadLock.lockOrRefresh();
+    }
+
+    boolean haveLocks() {
+        return threadLock.haveLocks();
+    }
+
+    /**
+     * Takes or refreshes the lock on the given table, releasing the lock on any other table this thread was sweeping.
+     *
+     * @return whether this thread now holds the lock on the table
+     */
+    boolean lockOrRefreshTable(TableReference tableRef) throws InterruptedException {
+        if (!lockedTable.equals(Optional.of(tableRef))) {
+            releaseTableLock();
+            tableLock = SingleLockService.createSingleLockService(
+                    lockService, TABLE_LOCK_ID_PREFIX + tableRef.getQualifiedName());
+            lockedTable = Optional.of(tableRef);
+        }
+        tableLock.lockOrRefresh();
+        if (!tableLock.haveLocks()) {
+            // If the refresh failed because our lock expired, the table may still be free to lock again.
+            tableLock.lockOrRefresh();
+        }
+        return tableLock.haveLocks();
+    }
+
+    void releaseTableLock() {
+        if (tableLock != null) {
+            tableLock.close();
+            tableLock = null;
+        }
+        lockedTable = Optional.empty();
+    }
+
+    @Override
+    public void close() {
+        releaseTableLock();
+        threadLock.close();
+    }
+
+    /**
+     * The first thread uses the lock that a single background sweeper has always used, so that it remains mutually
+     * exclusive with sweepers that have not been upgraded.
+     */
+    @VisibleForTesting
+    static String getThreadLockId(int threadIndex) {
+        return threadIndex == 0 ? SWEEP_LOCK_ID : SWEEP_LOCK_ID + " " + threadIndex;
+    }
+}
@@ -19,12 +19,16 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
@@ -33,6 +37,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
@@ -41,6 +46,8 @@ import com.palantir.atlasdb.keyvalue.api.ImmutableCandidateCellForSweepingReques
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.SweepResults;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.AdaptiveBatchSizer;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
 import com.palantir.atlasdb.sweep.CellsToSweepPartitioningIterator.ExaminedCellLimit;
@@ -48,6 +55,9 @@ import com.palantir.atlasdb.sweep.metrics.SweepMetricsManager;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.logsafe.UnsafeArg;
 
 import gnu.trove.TDecorators;
@@ -58,6 +68,11 @@ import gnu.trove.TDecorators;
 public class SweepTaskRunner {
     private static final Logger log = LoggerFactory.getLogger(SweepTaskRunner.class);
 
+    // Shared by every runner, as runners are never closed. Idle threads of a cached pool time out, so this holds no
+    // threads while nothing is being swept.
+    private static final ExecutorService PREFETCH_EXECUTOR = PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("sweep-candidate-prefetcher", true /* daemon */));
+
     private final KeyValueService keyValueService;
     private final LongSupplier unreadableTimestampSupplier;
     private final LongSupplier immutableTimestampSupplier;
@@ -65,6 +80,10 @@ public class SweepTaskRunner {
     private final SweepStrategyManager sweepStrategyManager;
     private final CellsSweeper cellsSweeper;
     private final Optional<SweepMetricsManager> metricsManager;
+    private final TimestampCache commitTsCache = new TimestampCache(
+            () -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE,
+            MetricRegistry.name(SweepTaskRunner.class, "startToCommitTimestamp"));
+    private final AdaptiveBatchSizer candidateBatchSizer = AdaptiveBatchSizer.create("sweepCandidates");
 
     public SweepTaskRunner(
             KeyValueService keyValueService,
@@ -185,42 +204,59 @@ public class SweepTaskRunner {
                 unreadableTimestampSupplier, immutableTimestampSupplier);
         CandidateCellForSweepingRequest request = ImmutableCandidateCellForSweepingRequest.builder()
                 .startRowInclusive(startRow)
-                .batchSizeHint(batchConfig.candidateBatchSize())
+                .batchSizeHint(candidateBatchSizer.capPageSize(tableRef, batchConfig.candidateBatchSize()))
                 .maxTimestampExclusive(sweepTs)
                 .shouldCheckIfLatestValueIsEmpty(sweeper.shouldSweepLastCommitted())
                 .shouldDeleteGarbageCollectionSentinels(!sweeper.shouldAddSentinels())
                 .build();
 
-        SweepableCellFilter sweepableCellFilter = new SweepableCellFilter(transactionService, sweeper, sweepTs);
+        SweepableCellFilter sweepableCellFilter = new SweepableCellFilter(
+                transactionService, sweeper, sweepTs, commitTsCache);
         try (ClosableIterator<List<CandidateCellForSweeping>> candidates = keyValueService.getCandidateCellsForSweeping(
                     tableRef, request)) {
             ExaminedCellLimit limit = new ExaminedCellLimit(startRow, batchConfig.maxCellTsPairsToExamine());
+            Iterator<List<CandidateCellForSweeping>> measuredCandidates =
+                    Iterators.transform(candidates, candidateBatch -> {
+                        candidateBatchSizer.recordPage(tableRef, candidateBatch, SweepTaskRunner::getApproxSize);
+                        return candidateBatch;
+                    });
             Iterator<BatchOfCellsToSweep> batchesToSweep = getBatchesToSweep(
-                        candidates, batchConfig, sweepableCellFilter, limit);
+                        measuredCandidates, batchConfig, sweepableCellFilter, limit);
             long totalCellTsPairsExamined = 0;
             long totalCellTsPairsDeleted = 0;
 
             metricsManager.ifPresent(SweepMetricsManager::resetBeforeDeleteBatch);
 
             byte[] lastRow = startRow;
-            while (batchesToSweep.hasNext()) {
-                BatchOfCellsToSweep batch = batchesToSweep.next();
-
-                /*
-                 * At this point cells were merged in batches of at least deleteBatchSize blocks per batch. Therefore we
-                 * expect most batches to have slightly more than deleteBatchSize blocks. Partitioning such batches with
-                 * deleteBatchSize as a limit results in a small second batch, which is bad for performance reasons.
-                 * Therefore, deleteBatchSize is doubled.
-                 */
-                long cellsDeleted = sweepBatch(tableRef, batch.cells(), runType, 2 * batchConfig.deleteBatchSize());
-                totalCellTsPairsDeleted += cellsDeleted;
-
-                long cellsExamined = batch.numCellTsPairsExamined();
-                totalCellTsPairsExamined += cellsExamined;
-
-                metricsManager.ifPresent(manager -> manager.updateAfterDeleteBatch(cellsExamined, cellsDeleted));
-
-                lastRow = batch.lastCellExamined().getRowName();
+            // The next batch of candidates is read and filtered while the current batch is being deleted.
+            Future<Optional<BatchOfCellsToSweep>> nextBatch = prefetchNextBatch(batchesToSweep);
+            try {
+                Optional<BatchOfCellsToSweep> maybeBatch = getPrefetchedBatch(nextBatch);
+                while (maybeBatch.isPresent()) {
+                    BatchOfCellsToSweep batch = maybeBatch.get();
+                    nextBatch = prefetchNextBatch(batchesToSweep);
+
+                    /*
+                     * At this point cells were merged in batches of at least deleteBatchSize blocks per batch.
+                     * Therefore we expect most batches to have slightly more than deleteBatchSize blocks. Partitioning
+                     * such batches with deleteBatchSize as a limit results in a small second batch, which is bad for
+                     * performance reasons. Therefore, deleteBatchSize is doubled.
+                     */
+                    long cellsDeleted = sweepBatch(
+                            tableRef, batch.cells(), runType, 2 * batchConfig.deleteBatchSize());
+                    totalCellTsPairsDeleted += cellsDeleted;
+
+                    long cellsExamined = batch.numCellTsPairsExamined();
+                    totalCellTsPairsExamined += cellsExamined;
+
+                    metricsManager.ifPresent(manager -> manager.updateAfterDeleteBatch(cellsExamined, cellsDeleted));
+
+                    lastRow = batch.lastCellExamined().getRowName();
+                    maybeBatch = getPrefetchedBatch(nextBatch);
+                }
+            } finally {
+                // Don't close the candidate iterator while it is still being read from.
+                waitForPrefetchQuietly(nextBatch);
             }
             return SweepResults.builder()
                     .previousStartRow(Optional.of(startRow))
@@ -234,6 +270,36 @@ public class SweepTaskRunner {
         }
     }
 
+    private static long getApproxSize(CandidateCellForSweeping candidate) {
+        return Cells.getApproxSizeOfCell(candidate.cell()) + (long) candidate.sortedTimestamps().size() * Long.BYTES;
+    }
+
+    private Future<Optional<BatchOfCellsToSweep>> prefetchNextBatch(Iterator<BatchOfCellsToSweep> batchesToSweep) {
+        return PREFETCH_EXECUTOR.submit(() ->
+                batchesToSweep.hasNext() ? Optional.of(batchesToSweep.next()) : Optional.empty());
+    }
+
+    private static Optional<BatchOfCellsToSweep> getPrefetchedBatch(Future<Optional<BatchOfCellsToSweep>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
+    private static void waitForPrefetchQuietly(Future<Optional<BatchOfCellsToSweep>> batch) {
+        try {
+            batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Either already thrown from getPrefetchedBatch, or superseded by the exception that got us here.
+        }
+    }
+
     /**
      * Returns batches with at least batchConfig.deleteBatchSize blocks per batch.
      */
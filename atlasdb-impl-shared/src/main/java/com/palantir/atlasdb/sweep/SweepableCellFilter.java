@@ -21,6 +21,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
@@ -35,11 +36,21 @@ public class SweepableCellFilter {
     private final TransactionService transactionService;
     private final Sweeper sweeper;
     private final long sweepTs;
+    private final TimestampCache commitTsCache;
 
     public SweepableCellFilter(TransactionService transactionService, Sweeper sweeper, long sweepTs) {
+        this(transactionService, sweeper, sweepTs, null);
+    }
+
+    public SweepableCellFilter(
+            TransactionService transactionService,
+            Sweeper sweeper,
+            long sweepTs,
+            @Nullable TimestampCache commitTsCache) {
         this.transactionService = transactionService;
         this.sweeper = sweeper;
         this.sweepTs = sweepTs;
+        this.commitTsCache = commitTsCache;
     }
 
     // For a given list of candidates, decide which ones we should actually sweep.
@@ -48,7 +59,8 @@ public class SweepableCellFilter {
     public BatchOfCellsToSweep getCellsToSweep(List<CandidateCellForSweeping> candidates) {
         Preconditions.checkArgument(!candidates.isEmpty(),
                 "Got an empty collection of candidates. This is a programming error.");
-        CommitTsLoader commitTss = CommitTsLoader.create(transactionService, getAllTimestamps(candidates));
+        CommitTsLoader commitTss = CommitTsLoader.create(
+                transactionService, getAllTimestamps(candidates), commitTsCache);
         ImmutableBatchOfCellsToSweep.Builder builder = ImmutableBatchOfCellsToSweep.builder();
         long numCellTsPairsExamined = 0;
         Cell lastCellExamined = null;
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.sweep.metrics;
 
+import com.codahale.metrics.MetricRegistry;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.keyvalue.api.SweepResults;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
@@ -53,4 +54,19 @@ public class SweepMetricsManager {
     public void sweepError() {
         sweepErrors.set(1L);
     }
+
+    /**
+     * Records the work done by one iteration of the given background sweep thread, so that the throughput of each
+     * thread can be monitored when several tables are swept in parallel.
+     */
+    public void updateThreadThroughput(int threadIndex, SweepResults sweepResults) {
+        factory.simpleMeter(threadMetricName(threadIndex, AtlasDbMetricNames.CELLS_EXAMINED))
+                .set(sweepResults.getCellTsPairsExamined());
+        factory.simpleMeter(threadMetricName(threadIndex, AtlasDbMetricNames.CELLS_SWEPT))
+                .set(sweepResults.getStaleValuesDeleted());
+    }
+
+    private static String threadMetricName(int threadIndex, String name) {
+        return MetricRegistry.name(AtlasDbMetricNames.SWEEP_THREAD, Integer.toString(threadIndex), name);
+    }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -28,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
@@ -55,9 +57,19 @@ public class NextTableToSweepProvider {
     }
 
     public Optional<TableReference> getNextTableToSweep(Transaction tx, long conservativeSweepTimestamp) {
+        return getNextTableToSweep(tx, conservativeSweepTimestamp, ImmutableSet.of());
+    }
+
+    /**
+     * Chooses the table with the highest sweep priority, ignoring the given tables (which are typically being swept
+     * by other background sweep threads).
+     */
+    public Optional<TableReference> getNextTableToSweep(Transaction tx, long conservativeSweepTimestamp,
+            Set<TableReference> tablesToExclude) {
         Map<TableReference, Double> scores = calculator.calculateSweepPriorityScores(tx, conservativeSweepTimestamp);
 
-        Map<TableReference, Double> tablesWithNonZeroPriority = Maps.filterValues(scores, score -> score > 0.0);
+        Map<TableReference, Double> tablesWithNonZeroPriority = Maps.filterEntries(scores,
+                entry -> entry.getValue() > 0.0 && !tablesToExclude.contains(entry.getKey()));
         if (tablesWithNonZeroPriority.isEmpty()) {
             return logDecision(Optional.empty(), scores);
         }
@@ -18,10 +18,14 @@ package com.palantir.atlasdb.sweep.progress;
 
 import java.util.Optional;
 
+/**
+ * Stores the progress of each background sweep thread, identified by the index of the thread. At most one thread in
+ * the cluster holds a given index at a time, so the progress for an index is only ever written by one sweeper.
+ */
 public interface SweepProgressStore {
-    void clearProgress();
-    void saveProgress(SweepProgress newProgress);
-    Optional<SweepProgress> loadProgress();
+    void clearProgress(int threadIndex);
+    void saveProgress(int threadIndex, SweepProgress newProgress);
+    Optional<SweepProgress> loadProgress(int threadIndex);
 
     default boolean isInitialized() {
         return true;
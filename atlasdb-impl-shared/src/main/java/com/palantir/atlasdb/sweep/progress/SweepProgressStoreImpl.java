@@ -34,6 +34,7 @@ import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence;
 import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
@@ -77,7 +78,6 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
 
     private static final String ROW_AND_COLUMN_NAME = "s";
     private static final byte[] ROW_AND_COLUMN_NAME_BYTES = PtBytes.toCachedBytes(ROW_AND_COLUMN_NAME);
-    private static final Cell CELL = Cell.create(ROW_AND_COLUMN_NAME_BYTES, ROW_AND_COLUMN_NAME_BYTES);
 
     private static final TableMetadata SWEEP_PROGRESS_METADATA = new TableMetadata(
             NameMetadataDescription.create(ImmutableList.of(
@@ -104,16 +104,17 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
     }
 
     @Override
-    public Optional<SweepProgress> loadProgress()  {
-        Map<Cell, Value> entry = kvs.get(AtlasDbConstants.SWEEP_PROGRESS_TABLE, ImmutableMap.of(CELL, 1L));
-        return hydrateProgress(entry);
+    public Optional<SweepProgress> loadProgress(int threadIndex) {
+        Cell cell = getCell(threadIndex);
+        Map<Cell, Value> entry = kvs.get(AtlasDbConstants.SWEEP_PROGRESS_TABLE, ImmutableMap.of(cell, 1L));
+        return hydrateProgress(cell, entry);
     }
 
     @Override
-    public void saveProgress(SweepProgress newProgress) {
-        Optional<SweepProgress> oldProgress = loadProgress();
+    public void saveProgress(int threadIndex, SweepProgress newProgress) {
+        Optional<SweepProgress> oldProgress = loadProgress(threadIndex);
         try {
-            kvs.checkAndSet(casProgressRequest(oldProgress, newProgress));
+            kvs.checkAndSet(casProgressRequest(getCell(threadIndex), oldProgress, newProgress));
         } catch (Exception e) {
             log.warn("Exception trying to persist sweep progress. The intermediate progress might not have been "
                     + "persisted. This should not cause sweep issues unless the problem persists.", e);
@@ -121,24 +122,40 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
     }
 
     /**
-     * Fully remove the contents of the sweep progress table.
+     * Remove the progress of the given sweep thread from the sweep progress table. Progress of the other threads is
+     * kept, but note that sweepers on versions without multiple sweep threads clear the whole table.
      */
     @Override
-    public void clearProgress() {
+    public void clearProgress(int threadIndex) {
         // Use deleteRange instead of truncate
         // 1) The table should be small, performance difference should be negligible.
         // 2) Truncate takes an exclusive lock in Postgres, which can interfere
         // with concurrently running backups.
-        kvs.deleteRange(AtlasDbConstants.SWEEP_PROGRESS_TABLE, RangeRequest.all());
+        byte[] row = getCell(threadIndex).getRowName();
+        kvs.deleteRange(AtlasDbConstants.SWEEP_PROGRESS_TABLE, RangeRequest.builder()
+                .startRowInclusive(row)
+                .endRowExclusive(RangeRequests.nextLexicographicName(row))
+                .build());
     }
 
-    private CheckAndSetRequest casProgressRequest(Optional<SweepProgress> oldProgress, SweepProgress progress)
-            throws JsonProcessingException {
+    /**
+     * The first thread uses the row that a single background sweeper has always used, so that its progress is kept
+     * across upgrades.
+     */
+    private static Cell getCell(int threadIndex) {
+        byte[] row = threadIndex == 0
+                ? ROW_AND_COLUMN_NAME_BYTES
+                : PtBytes.toBytes(ROW_AND_COLUMN_NAME + threadIndex);
+        return Cell.create(row, ROW_AND_COLUMN_NAME_BYTES);
+    }
+
+    private CheckAndSetRequest casProgressRequest(Cell cell, Optional<SweepProgress> oldProgress,
+            SweepProgress progress) throws JsonProcessingException {
         if (!oldProgress.isPresent()) {
-            return CheckAndSetRequest.newCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE, CELL, progressToBytes(progress));
+            return CheckAndSetRequest.newCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE, cell, progressToBytes(progress));
         }
         return CheckAndSetRequest.singleCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE,
-                CELL, progressToBytes(oldProgress.get()), progressToBytes(progress));
+                cell, progressToBytes(oldProgress.get()), progressToBytes(progress));
     }
 
     private void tryInitialize() {
@@ -149,13 +166,13 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
         return OBJECT_MAPPER.writeValueAsBytes(value);
     }
 
-    private static Optional<SweepProgress> hydrateProgress(Map<Cell, Value> result) {
+    private static Optional<SweepProgress> hydrateProgress(Cell cell, Map<Cell, Value> result) {
         if (result.isEmpty()) {
             log.info("No persisted SweepProgress information found.");
             return Optional.empty();
         }
         try {
-            return Optional.of(OBJECT_MAPPER.readValue(result.get(CELL).getContents(), SweepProgress.class));
+            return Optional.of(OBJECT_MAPPER.readValue(result.get(cell).getContents(), SweepProgress.class));
         } catch (Exception e) {
             log.warn("Error deserializing SweepProgress object.", e);
             return Optional.empty();
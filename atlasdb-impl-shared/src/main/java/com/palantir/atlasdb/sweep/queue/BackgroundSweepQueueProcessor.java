@@ -16,23 +16,32 @@
 
 package com.palantir.atlasdb.sweep.queue;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.logging.LoggingArgs;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 
-public class BackgroundSweepQueueProcessor {
+public class BackgroundSweepQueueProcessor implements AutoCloseable {
 
     private final Logger log = LoggerFactory.getLogger(BackgroundSweepQueueProcessor.class);
 
     private final KeyValueService kvs;
     private final Function<TableReference, SweepQueueProcessor> processorFactory;
 
+    private final ScheduledExecutorService executor = PTExecutors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("targeted-sweep", true /* daemon */));
+
     public BackgroundSweepQueueProcessor(
             KeyValueService kvs,
             Function<TableReference, SweepQueueProcessor> processorFactory) {
@@ -40,9 +49,29 @@ public class BackgroundSweepQueueProcessor {
         this.processorFactory = processorFactory;
     }
 
+    public void runInBackground(Supplier<Boolean> isEnabled, Supplier<Long> pauseMillis) {
+        executor.schedule(() -> runAndReschedule(isEnabled, pauseMillis), pauseMillis.get(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runAndReschedule(Supplier<Boolean> isEnabled, Supplier<Long> pauseMillis) {
+        try {
+            if (isEnabled.get()) {
+                sweepOneBatchForAllTables();
+            }
+        } catch (Throwable t) { // (authorized)
+            log.warn("error while processing the sweep queue", t);
+        } finally {
+            if (!executor.isShutdown()) {
+                runInBackground(isEnabled, pauseMillis);
+            }
+        }
+    }
+
     public void sweepOneBatchForAllTables() {
         for (TableReference table : kvs.getAllTableNames()) {
-            trySweepOneBatch(table);
+            if (!AtlasDbConstants.hiddenTables.contains(table)) {
+                trySweepOneBatch(table);
+            }
         }
     }
 
@@ -51,7 +80,12 @@ public class BackgroundSweepQueueProcessor {
         try {
             processorFactory.apply(table).processNextBatch();
         } catch (Exception ex) {
-            log.warn("error while processing sweep queue for table {}", LoggingArgs.tableRef(table));
+            log.warn("error while processing sweep queue for table {}", LoggingArgs.tableRef(table), ex);
         }
     }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.sweep.Sweeper;
+import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+
+public class KvsSweepQueueProcessorFactory {
+
+    private static final SweepQueueProcessor NO_OP_PROCESSOR =
+            new SweepQueueProcessor(() -> 0L, SweepQueueReader.NO_OP, SweepDeleter.NO_OP);
+
+    private final KeyValueService kvs;
+    private final TransactionService transactionService;
+    private final SweepStrategyManager sweepStrategyManager;
+    private final SweepTimestampProvider sweepTimestamps;
+    private final int numShards;
+    private final int batchSize;
+
+    private final Map<TableReference, SweepQueueProcessor> processorsByTable = Maps.newConcurrentMap();
+
+    public KvsSweepQueueProcessorFactory(
+            KeyValueService kvs,
+            TransactionService transactionService,
+            SweepStrategyManager sweepStrategyManager,
+            SweepTimestampProvider sweepTimestamps,
+            int numShards,
+            int batchSize) {
+        this.kvs = kvs;
+        this.transactionService = transactionService;
+        this.sweepStrategyManager = sweepStrategyManager;
+        this.sweepTimestamps = sweepTimestamps;
+        this.numShards = numShards;
+        this.batchSize = batchSize;
+    }
+
+    public SweepQueueProcessor getProcessorForTable(TableReference table) {
+        return processorsByTable.computeIfAbsent(table, this::createProcessorForTable);
+    }
+
+    private SweepQueueProcessor createProcessorForTable(TableReference table) {
+        SweepStrategy sweepStrategy = sweepStrategyManager.get().get(table);
+        Optional<Sweeper> sweeper = sweepStrategy == null ? Optional.empty() : Sweeper.of(sweepStrategy);
+        if (!sweeper.isPresent()) {
+            // Nothing is enqueued for tables that are not swept.
+            return NO_OP_PROCESSOR;
+        }
+
+        SweepQueueReader reader = new KvsSweepQueueReader(kvs, transactionService, table, numShards, batchSize);
+        SweepDeleter deleter = new SweepDeleterImpl(table, kvs, sweeper.get());
+        return new SweepQueueProcessor(() -> sweepTimestamps.getSweepTimestamp(sweeper.get()), reader, deleter);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.Value;
+
+/**
+ * Records, per shard of the sweep queue, the smallest start timestamp that has not yet been consumed.
+ */
+class KvsSweepQueueProgress {
+    private static final byte[] COLUMN = PtBytes.toCachedBytes("p");
+    private static final long INITIAL_TIMESTAMP = 0L;
+
+    private final KeyValueService kvs;
+
+    KvsSweepQueueProgress(KeyValueService kvs) {
+        this.kvs = kvs;
+    }
+
+    long getNextTimestampToConsume(byte[] rowPrefix) {
+        Cell cell = progressCell(rowPrefix);
+        Map<Cell, Value> result = kvs.get(AtlasDbConstants.SWEEP_QUEUE_PROGRESS_TABLE, ImmutableMap.of(cell, 1L));
+        if (result.isEmpty()) {
+            return INITIAL_TIMESTAMP;
+        }
+        return PtBytes.toLong(result.get(cell).getContents());
+    }
+
+    /**
+     * Advances the progress of the shard. Throws a {@link com.palantir.atlasdb.keyvalue.api.CheckAndSetException}
+     * if another processor has concurrently updated the progress.
+     */
+    void updateNextTimestampToConsume(byte[] rowPrefix, long oldTimestamp, long newTimestamp) {
+        Cell cell = progressCell(rowPrefix);
+        if (oldTimestamp == INITIAL_TIMESTAMP) {
+            kvs.checkAndSet(CheckAndSetRequest.newCell(
+                    AtlasDbConstants.SWEEP_QUEUE_PROGRESS_TABLE, cell, PtBytes.toBytes(newTimestamp)));
+        } else {
+            kvs.checkAndSet(CheckAndSetRequest.singleCell(
+                    AtlasDbConstants.SWEEP_QUEUE_PROGRESS_TABLE,
+                    cell,
+                    PtBytes.toBytes(oldTimestamp),
+                    PtBytes.toBytes(newTimestamp)));
+        }
+    }
+
+    private static Cell progressCell(byte[] rowPrefix) {
+        return Cell.create(rowPrefix, COLUMN);
+    }
+}
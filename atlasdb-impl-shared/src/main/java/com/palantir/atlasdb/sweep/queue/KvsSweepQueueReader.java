@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.sweep.CommitTsLoader;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.common.base.ClosableIterator;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * Reads the persistent sweep queue for a single table, one shard at a time.
+ *
+ * Entries are written before the transaction that made them commits, so each entry is only passed on to the
+ * consumer once its transaction is known to have committed before the sweep timestamp. Entries of transactions that
+ * failed to commit are consumed without being passed on. An entry whose transaction committed at or after the sweep
+ * timestamp blocks the rest of its shard until the sweep timestamp has advanced past it.
+ */
+public class KvsSweepQueueReader implements SweepQueueReader {
+
+    private final KeyValueService kvs;
+    private final TransactionService transactionService;
+    private final KvsSweepQueueProgress progress;
+    private final TableReference table;
+    private final int numShards;
+    private final int batchSize;
+
+    public KvsSweepQueueReader(
+            KeyValueService kvs,
+            TransactionService transactionService,
+            TableReference table,
+            int numShards,
+            int batchSize) {
+        this.kvs = kvs;
+        this.transactionService = transactionService;
+        this.progress = new KvsSweepQueueProgress(kvs);
+        this.table = table;
+        this.numShards = numShards;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void consumeNextBatch(Consumer<Collection<WriteInfo>> consumer, long maxTimestampExclusive) {
+        for (int shard = 0; shard < numShards; shard++) {
+            consumeNextBatchForShard(shard, consumer, maxTimestampExclusive);
+        }
+    }
+
+    private void consumeNextBatchForShard(
+            int shard,
+            Consumer<Collection<WriteInfo>> consumer,
+            long maxTimestampExclusive) {
+        byte[] rowPrefix = SweepQueueKeys.rowPrefix(table, shard);
+        long startTimestamp = progress.getNextTimestampToConsume(rowPrefix);
+        if (startTimestamp >= maxTimestampExclusive) {
+            return;
+        }
+
+        List<RowResult<Value>> rows = readRows(rowPrefix, startTimestamp, maxTimestampExclusive);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        CommitTsLoader commitTimestamps = CommitTsLoader.create(transactionService, getStartTimestamps(rows));
+        List<WriteInfo> writes = Lists.newArrayList();
+        Multimap<Cell, Long> consumedEntries = HashMultimap.create();
+        long nextTimestampToConsume = startTimestamp;
+
+        for (RowResult<Value> row : rows) {
+            long writeTimestamp = SweepQueueKeys.timestamp(row.getRowName());
+            long commitTimestamp = commitTimestamps.load(writeTimestamp);
+            if (commitTimestamp >= maxTimestampExclusive) {
+                break;
+            }
+
+            for (Map.Entry<Cell, Value> entry : row.getCells()) {
+                if (commitTimestamp != TransactionConstants.FAILED_COMMIT_TS) {
+                    writes.add(WriteInfo.of(
+                            SweepQueueKeys.writtenCell(entry.getKey().getColumnName()),
+                            SweepQueueKeys.isTombstone(entry.getValue().getContents()),
+                            writeTimestamp));
+                }
+                consumedEntries.put(entry.getKey(), entry.getValue().getTimestamp());
+            }
+            nextTimestampToConsume = writeTimestamp + 1;
+        }
+
+        if (nextTimestampToConsume == startTimestamp) {
+            return;
+        }
+
+        if (!writes.isEmpty()) {
+            consumer.accept(writes);
+        }
+        progress.updateNextTimestampToConsume(rowPrefix, startTimestamp, nextTimestampToConsume);
+        kvs.delete(AtlasDbConstants.SWEEP_QUEUE_TABLE, consumedEntries);
+    }
+
+    private List<RowResult<Value>> readRows(byte[] rowPrefix, long startTimestamp, long maxTimestampExclusive) {
+        RangeRequest range = RangeRequest.builder()
+                .startRowInclusive(SweepQueueKeys.row(rowPrefix, startTimestamp))
+                .endRowExclusive(SweepQueueKeys.row(rowPrefix, maxTimestampExclusive))
+                .batchHint(batchSize)
+                .build();
+
+        List<RowResult<Value>> rows = Lists.newArrayList();
+        int numEntries = 0;
+        try (ClosableIterator<RowResult<Value>> iterator =
+                kvs.getRange(AtlasDbConstants.SWEEP_QUEUE_TABLE, range, Long.MAX_VALUE)) {
+            while (iterator.hasNext() && numEntries < batchSize) {
+                RowResult<Value> row = iterator.next();
+                rows.add(row);
+                numEntries += row.getColumns().size();
+            }
+        }
+        return rows;
+    }
+
+    private static TLongSet getStartTimestamps(List<RowResult<Value>> rows) {
+        TLongSet startTimestamps = new TLongHashSet(rows.size());
+        for (RowResult<Value> row : rows) {
+            startTimestamps.add(SweepQueueKeys.timestamp(row.getRowName()));
+        }
+        return startTimestamps;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
+
+/**
+ * Persists {@link WriteInfo}s to the sweep queue table, sharded by cell so that the queue for a single table can be
+ * consumed in parallel. The number of shards must not be decreased once entries have been written, as entries in the
+ * removed shards would never be read.
+ */
+public class KvsSweepQueueWriter implements MultiTableSweepQueueWriter {
+
+    private final KeyValueService kvs;
+    private final SweepStrategyManager sweepStrategyManager;
+    private final int numShards;
+
+    public KvsSweepQueueWriter(KeyValueService kvs, SweepStrategyManager sweepStrategyManager, int numShards) {
+        Preconditions.checkArgument(numShards > 0, "The sweep queue must have at least one shard");
+        this.kvs = kvs;
+        this.sweepStrategyManager = sweepStrategyManager;
+        this.numShards = numShards;
+    }
+
+    @Override
+    public void enqueue(TableReference table, Collection<WriteInfo> writes) {
+        if (writes.isEmpty() || !isSweepable(table)) {
+            return;
+        }
+
+        Map<Long, Map<Cell, byte[]>> queueCellsByTimestamp = Maps.newHashMap();
+        byte[][] rowPrefixByShard = new byte[numShards][];
+        for (WriteInfo write : writes) {
+            int shard = SweepQueueKeys.shardFor(write.cell(), numShards);
+            if (rowPrefixByShard[shard] == null) {
+                rowPrefixByShard[shard] = SweepQueueKeys.rowPrefix(table, shard);
+            }
+            queueCellsByTimestamp.computeIfAbsent(write.timestamp(), ignored -> Maps.newHashMap())
+                    .put(SweepQueueKeys.queueCell(rowPrefixByShard[shard], write),
+                            SweepQueueKeys.value(write.isTombstone()));
+        }
+
+        queueCellsByTimestamp.forEach((timestamp, queueCells) ->
+                kvs.put(AtlasDbConstants.SWEEP_QUEUE_TABLE, queueCells, timestamp));
+    }
+
+    private boolean isSweepable(TableReference table) {
+        if (AtlasDbConstants.hiddenTables.contains(table)) {
+            return false;
+        }
+        // Tables without a known sweep strategy are not swept either; see KvsSweepQueueProcessorFactory.
+        SweepStrategy sweepStrategy = sweepStrategyManager.get().get(table);
+        return sweepStrategy != null && sweepStrategy != SweepStrategy.NOTHING;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Arrays;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+
+/**
+ * Encodes entries of the persistent sweep queue.
+ *
+ * Rows are keyed by (table, shard, start timestamp), so that all entries for one shard of one table are contiguous
+ * and ordered by the start timestamp of the transaction that wrote them. Columns hold the (row, column) of the
+ * written cell, and the value records whether the write was a tombstone.
+ */
+final class SweepQueueKeys {
+    private static final byte[] TOMBSTONE = { 1 };
+    private static final byte[] NOT_TOMBSTONE = { 0 };
+
+    private SweepQueueKeys() {
+        // Utility class
+    }
+
+    static int shardFor(Cell cell, int numShards) {
+        return Math.floorMod(cell.hashCode(), numShards);
+    }
+
+    static byte[] rowPrefix(TableReference table, int shard) {
+        return EncodingUtils.add(
+                EncodingUtils.encodeVarString(table.getQualifiedName()),
+                EncodingUtils.encodeVarLong(shard));
+    }
+
+    static byte[] row(byte[] rowPrefix, long timestamp) {
+        return EncodingUtils.add(rowPrefix, PtBytes.toBytes(timestamp));
+    }
+
+    static long timestamp(byte[] row) {
+        return PtBytes.toLong(row, row.length - PtBytes.SIZEOF_LONG);
+    }
+
+    static Cell queueCell(byte[] rowPrefix, WriteInfo write) {
+        byte[] column = EncodingUtils.add(
+                EncodingUtils.encodeSizedBytes(write.cell().getRowName()),
+                write.cell().getColumnName());
+        return Cell.create(row(rowPrefix, write.timestamp()), column);
+    }
+
+    static Cell writtenCell(byte[] queueColumn) {
+        byte[] row = EncodingUtils.decodeSizedBytes(queueColumn, 0);
+        int columnOffset = EncodingUtils.sizeOfSizedBytes(row);
+        return Cell.create(row, Arrays.copyOfRange(queueColumn, columnOffset, queueColumn.length));
+    }
+
+    static byte[] value(boolean isTombstone) {
+        return isTombstone ? TOMBSTONE : NOT_TOMBSTONE;
+    }
+
+    static boolean isTombstone(byte[] value) {
+        return value.length > 0 && value[0] == TOMBSTONE[0];
+    }
+}
@@ -21,6 +21,8 @@ import java.util.function.Consumer;
 
 public interface SweepQueueReader {
 
+    SweepQueueReader NO_OP = (consumer, maxTimestampExclusive) -> { };
+
     // Passes the next batch of writes to the given consumer. If the consumer returns without throwing,
     // the batch is considered consumed, and future invocations of this method will consume only newer writes.
     // On the other hand, if the consumer fails by throwing an exception, the same batch will be consumed
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+
+public final class SweepQueueTables {
+    private SweepQueueTables() {
+        // Utility class
+    }
+
+    public static void createTables(KeyValueService keyValueService) {
+        keyValueService.createTables(ImmutableMap.of(
+                AtlasDbConstants.SWEEP_QUEUE_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA,
+                AtlasDbConstants.SWEEP_QUEUE_PROGRESS_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA));
+    }
+}
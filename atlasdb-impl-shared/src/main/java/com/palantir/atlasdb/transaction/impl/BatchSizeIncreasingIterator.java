@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.transaction.impl;
 
 import java.util.List;
+import java.util.function.ToLongFunction;
 
 import javax.annotation.Nullable;
 
@@ -26,6 +27,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.palantir.atlasdb.AtlasDbPerformanceConstants;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.AdaptiveBatchSizer;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
 import com.palantir.util.AssertUtils;
@@ -36,6 +39,9 @@ public class BatchSizeIncreasingIterator<T> {
     final int originalBatchSize;
 
     final BatchProvider<T> batchProvider;
+    @Nullable final AdaptiveBatchSizer batchSizer;
+    final TableReference tableRef;
+    final ToLongFunction<T> sizeOf;
     ClosableIterator<T> currentResults = null;
     byte[] lastToken;
 
@@ -46,9 +52,29 @@ public class BatchSizeIncreasingIterator<T> {
     public BatchSizeIncreasingIterator(BatchProvider<T> batchProvider,
                                        int originalBatchSize,
                                        @Nullable ClosableIterator<T> currentResults) {
+        this(batchProvider, originalBatchSize, currentResults, null, null, unused -> 0L);
+    }
+
+    /**
+     * If a batch sizer is given, the sizes of the batches read are recorded against the table, and every batch is
+     * capped to the number of items that fit the sizer's byte budget for the table. Later batches otherwise grow
+     * geometrically as they would without a sizer, so a generous budget never makes a batch bigger than that.
+     */
+    public BatchSizeIncreasingIterator(BatchProvider<T> batchProvider,
+                                       int originalBatchSize,
+                                       @Nullable ClosableIterator<T> currentResults,
+                                       @Nullable AdaptiveBatchSizer batchSizer,
+                                       @Nullable TableReference tableRef,
+                                       ToLongFunction<T> sizeOf) {
         Preconditions.checkArgument(originalBatchSize > 0);
+        Preconditions.checkArgument(batchSizer == null || tableRef != null, "a batch sizer needs a table");
         this.batchProvider = batchProvider;
-        this.originalBatchSize = originalBatchSize;
+        this.batchSizer = batchSizer;
+        this.tableRef = tableRef;
+        this.sizeOf = sizeOf;
+        this.originalBatchSize = batchSizer == null
+                ? originalBatchSize
+                : batchSizer.capPageSize(tableRef, originalBatchSize);
         this.currentResults = currentResults;
         if (currentResults != null) {
             this.lastBatchSize = originalBatchSize;
@@ -65,6 +91,13 @@ public class BatchSizeIncreasingIterator<T> {
         if (numReturned == 0) {
             return originalBatchSize;
         }
+        if (batchSizer != null) {
+            return batchSizer.capPageSize(tableRef, Math.max(getGeometricBatchSize(), originalBatchSize));
+        }
+        return getGeometricBatchSize();
+    }
+
+    private int getGeometricBatchSize() {
         final long batchSize;
         long maxNewBatchSize = numReturned * 4;
         if (numNotDeleted == 0) {
@@ -110,6 +143,9 @@ public class BatchSizeIncreasingIterator<T> {
         Preconditions.checkState(lastBatchSize > 0);
         ImmutableList<T> list = ImmutableList.copyOf(Iterators.limit(currentResults, lastBatchSize));
         numReturned += list.size();
+        if (batchSizer != null) {
+            batchSizer.recordPage(tableRef, list, sizeOf);
+        }
         if (!list.isEmpty()) {
             lastToken = batchProvider.getLastToken(list);
         }
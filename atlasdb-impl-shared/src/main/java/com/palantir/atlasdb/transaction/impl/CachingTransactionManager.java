@@ -15,16 +15,37 @@
  */
 package com.palantir.atlasdb.transaction.impl;
 
+import java.util.Optional;
+
+import com.palantir.atlasdb.cache.SharedCellCache;
 import com.palantir.atlasdb.transaction.api.LockAwareTransactionManager;
 import com.palantir.atlasdb.transaction.api.Transaction;
 
+/**
+ * Wraps each transaction in a {@link CachingTransaction}. If a {@link SharedCellCache} is given, tables cached across
+ * transactions are also served from it.
+ */
 public class CachingTransactionManager extends WrappingTransactionManager {
+    private final Optional<SharedCellCache> sharedCellCache;
+
     public CachingTransactionManager(LockAwareTransactionManager delegate) {
+        this(delegate, Optional.empty());
+    }
+
+    public CachingTransactionManager(LockAwareTransactionManager delegate, SharedCellCache sharedCellCache) {
+        this(delegate, Optional.of(sharedCellCache));
+    }
+
+    private CachingTransactionManager(
+            LockAwareTransactionManager delegate,
+            Optional<SharedCellCache> sharedCellCache) {
         super(delegate);
+        this.sharedCellCache = sharedCellCache;
     }
 
     @Override
     protected Transaction wrap(Transaction transaction) {
-        return new CachingTransaction(transaction);
+        return sharedCellCache.map(cache -> new CachingTransaction(transaction, cache))
+                .orElseGet(() -> new CachingTransaction(transaction));
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.palantir.common.base.Throwables;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+/**
+ * Coalesces concurrent transaction starts into a single call to {@link TimelockService#startTransactions}, in the
+ * same way as {@link com.palantir.timestamp.RequestBatchingTimestampService} does for timestamps. Only one call is in
+ * flight at a time, and it serves every start that was requested before it began.
+ *
+ * All transactions in a batch share the same immutable timestamp lock, so it must be released through
+ * {@link #unlock(LockToken)}, which only unlocks it once every transaction in the batch has finished.
+ */
+/* package */ class CoalescingTransactionStarter {
+    @VisibleForTesting
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final TimelockService timelockService;
+    private final Queue<CompletableFuture<StartTransactionsResponse>> pendingStarts = new ConcurrentLinkedQueue<>();
+    private final Lock fairLock = new ReentrantLock(true);
+    private final Map<LockToken, AtomicInteger> liveTransactionsByLock = new ConcurrentHashMap<>();
+
+    CoalescingTransactionStarter(TimelockService timelockService) {
+        this.timelockService = timelockService;
+    }
+
+    /**
+     * Returns the immutable timestamp lock of the calling transaction, and a range containing just its start
+     * timestamp.
+     */
+    StartTransactionsResponse startTransaction() {
+        CompletableFuture<StartTransactionsResponse> future = new CompletableFuture<>();
+        pendingStarts.add(future);
+
+        fairLock.lock();
+        try {
+            while (!future.isDone()) {
+                startPendingTransactions();
+            }
+        } finally {
+            fairLock.unlock();
+        }
+
+        try {
+            return future.getNow(null);
+        } catch (CompletionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
+    void unlock(LockToken immutableTsLock) {
+        AtomicInteger liveTransactions = liveTransactionsByLock.get(immutableTsLock);
+        if (liveTransactions == null || liveTransactions.decrementAndGet() == 0) {
+            liveTransactionsByLock.remove(immutableTsLock);
+            timelockService.tryUnlock(ImmutableSet.of(immutableTsLock));
+        }
+    }
+
+    @VisibleForTesting
+    int numQueuedStarts() {
+        return pendingStarts.size();
+    }
+
+    private void startPendingTransactions() {
+        List<CompletableFuture<StartTransactionsResponse>> batch = Lists.newArrayList();
+        CompletableFuture<StartTransactionsResponse> next;
+        while (batch.size() < MAX_BATCH_SIZE && (next = pendingStarts.poll()) != null) {
+            batch.add(next);
+        }
+
+        int numStarted = 0;
+        try {
+            while (numStarted < batch.size()) {
+                StartTransactionsResponse response = timelockService.startTransactions(
+                        StartTransactionsRequest.create(batch.size() - numStarted));
+                numStarted += complete(batch.subList(numStarted, batch.size()), response);
+            }
+        } catch (Throwable t) {
+            batch.subList(numStarted, batch.size()).forEach(future -> future.completeExceptionally(t));
+        }
+    }
+
+    private int complete(List<CompletableFuture<StartTransactionsResponse>> futures,
+            StartTransactionsResponse response) {
+        // The server may hand out fewer timestamps than we asked for; the remaining starts go in the next call.
+        TimestampRange startTimestamps = response.getStartTimestamps();
+        int numStarted = (int) Math.min(futures.size(), startTimestamps.size());
+        liveTransactionsByLock.put(response.getImmutableTimestamp().getLock(), new AtomicInteger(numStarted));
+
+        for (int i = 0; i < numStarted; i++) {
+            long startTimestamp = startTimestamps.getLowerBound() + i;
+            futures.get(i).complete(StartTransactionsResponse.of(
+                    response.getImmutableTimestamp(),
+                    TimestampRange.createInclusiveRange(startTimestamp, startTimestamp)));
+        }
+        return numStarted;
+    }
+}
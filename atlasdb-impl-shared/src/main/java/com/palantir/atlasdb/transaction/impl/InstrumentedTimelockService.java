@@ -27,6 +27,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -64,6 +66,11 @@ public class InstrumentedTimelockService implements TimelockService {
         return executeWithRecord(() -> timelockService.lockImmutableTimestamp(request));
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        return executeWithRecord(() -> timelockService.startTransactions(request));
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return executeWithRecord(() -> timelockService.getImmutableTimestamp());
@@ -90,6 +97,14 @@ public class InstrumentedTimelockService implements TimelockService {
         return executeWithRecord(() -> timelockService.unlock(tokens));
     }
 
+    @Override
+    public void tryUnlock(Set<LockToken> tokens) {
+        executeWithRecord(() -> {
+            timelockService.tryUnlock(tokens);
+            return null;
+        });
+    }
+
     @Override
     public long currentTimeMillis() {
         return executeWithRecord(() -> timelockService.currentTimeMillis());
@@ -16,38 +16,52 @@
 package com.palantir.atlasdb.transaction.impl;
 
 import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.Cleaner;
@@ -90,11 +104,19 @@ import com.palantir.util.Pair;
  * If every table was marked as Serializable then we wouldn't need to also do write write conflict checking.
  * However, it is very common that we will be running in a mixed mode so this implementation does the standard
  * write/write conflict checking as well as preventing read/write conflicts to attain serializability.
+ * <p>
+ * To bound the memory held by large read transactions, the values read are recorded as digests: values shorter than
+ * 32 bytes are kept as they are and longer ones are replaced by their SHA-256 hash. The hash must be cryptographic,
+ * as anyone who can write a cell could otherwise choose a changed value with the same digest and hide a conflict. Range reads that overlap or abut one
+ * another are verified as a single range, and the re-reads done at commit time are spread across the get ranges
+ * executor.
  */
 public class SerializableTransaction extends SnapshotTransaction {
     private static final Logger log = LoggerFactory.getLogger(SerializableTransaction.class);
 
     private static final int BATCH_SIZE = 1000;
+    private static final HashFunction DIGEST_FUNCTION = Hashing.sha256();
+    private static final int DIGEST_LENGTH = DIGEST_FUNCTION.bits() / Byte.SIZE;
 
     final ConcurrentMap<TableReference, ConcurrentNavigableMap<Cell, byte[]>> readsByTable = Maps.newConcurrentMap();
     final ConcurrentMap<TableReference, ConcurrentMap<RangeRequest, byte[]>> rangeEndByTable = Maps.newConcurrentMap();
@@ -102,6 +124,7 @@ public class SerializableTransaction extends SnapshotTransaction {
             columnRangeEndsByTable = Maps.newConcurrentMap();
     final ConcurrentMap<TableReference, Set<Cell>> cellsRead = Maps.newConcurrentMap();
     final ConcurrentMap<TableReference, Set<RowRead>> rowsRead = Maps.newConcurrentMap();
+    private final AtomicLong readSetBytes = new AtomicLong();
     private final MetricRegistry metricRegistry = AtlasDbMetrics.getMetricRegistry();
 
     public SerializableTransaction(KeyValueService keyValueService,
@@ -122,7 +145,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                                    long lockAcquireTimeoutMs,
                                    ExecutorService getRangesExecutor,
                                    int defaultGetRangesConcurrency,
-                                   MultiTableSweepQueueWriter sweepQueue) {
+                                   MultiTableSweepQueueWriter sweepQueue,
+                                   Optional<ExecutorService> commitPipelineExecutor) {
         super(keyValueService,
               timelockService,
               transactionService,
@@ -141,7 +165,8 @@ public class SerializableTransaction extends SnapshotTransaction {
               lockAcquireTimeoutMs,
               getRangesExecutor,
               defaultGetRangesConcurrency,
-              sweepQueue);
+              sweepQueue,
+              commitPipelineExecutor);
     }
 
     @Override
@@ -331,11 +356,34 @@ public class SerializableTransaction extends SnapshotTransaction {
         return map;
     }
 
+    /**
+     * Returns what is recorded in the read set for a value: the value itself if it is short, otherwise a hash of it.
+     * Hashes are exactly {@code DIGEST_LENGTH} bytes long, so a short value is never mistaken for the hash of a long
+     * one.
+     */
+    static byte[] digest(byte[] value) {
+        if (value.length < DIGEST_LENGTH) {
+            return value;
+        }
+        return DIGEST_FUNCTION.hashBytes(value).asBytes();
+    }
+
+    private void recordReads(TableReference table, Map<Cell, byte[]> values) {
+        ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
+        for (Entry<Cell, byte[]> entry : transformGetsForTesting(values).entrySet()) {
+            Cell cell = entry.getKey();
+            byte[] digest = digest(entry.getValue());
+            if (reads.put(cell, digest) == null) {
+                readSetBytes.addAndGet(cell.getRowName().length + cell.getColumnName().length + digest.length);
+            }
+        }
+    }
+
     private void markCellsRead(TableReference table, Set<Cell> searched, Map<Cell, byte[]> result) {
         if (!isSerializableTable(table)) {
             return;
         }
-        getReadsForTable(table).putAll(transformGetsForTesting(result));
+        recordReads(table, result);
         Set<Cell> cellsForTable = cellsRead.get(table);
         if (cellsForTable == null) {
             cellsRead.putIfAbsent(table, Sets.newConcurrentHashSet());
@@ -348,11 +396,8 @@ public class SerializableTransaction extends SnapshotTransaction {
         if (!isSerializableTable(table)) {
             return;
         }
-        ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
         for (RowResult<byte[]> row : result) {
-            Map<Cell, byte[]> map = Maps2.fromEntries(row.getCells());
-            map = transformGetsForTesting(map);
-            reads.putAll(map);
+            recordReads(table, Maps2.fromEntries(row.getCells()));
         }
         setRangeEnd(table, range, Iterables.getLast(result).getRowName());
     }
@@ -365,10 +410,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         if (!isSerializableTable(table)) {
             return;
         }
-        ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
-        Map<Cell, byte[]> map = Maps2.fromEntries(result);
-        map = transformGetsForTesting(map);
-        reads.putAll(map);
+        recordReads(table, Maps2.fromEntries(result));
         setColumnRangeEnd(table, row, range, Iterables.getLast(result).getKey().getColumnName());
     }
 
@@ -390,11 +432,8 @@ public class SerializableTransaction extends SnapshotTransaction {
         if (!isSerializableTable(table)) {
             return;
         }
-        ConcurrentNavigableMap<Cell, byte[]> reads = getReadsForTable(table);
         for (RowResult<byte[]> row : result) {
-            Map<Cell, byte[]> map = Maps2.fromEntries(row.getCells());
-            map = transformGetsForTesting(map);
-            reads.putAll(map);
+            recordReads(table, Maps2.fromEntries(row.getCells()));
         }
         Set<RowRead> rowReads = rowsRead.get(table);
         if (rowReads == null) {
@@ -429,14 +468,45 @@ public class SerializableTransaction extends SnapshotTransaction {
 
     @Override
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
+        getReadSetBytesHistogram().update(readSetBytes.get());
         Transaction ro = getReadOnlyTransaction(commitTimestamp);
-        verifyRanges(ro);
-        verifyColumnRanges(ro);
-        verifyCells(ro);
-        verifyRows(ro);
+        List<Runnable> checks = Lists.newArrayList();
+        verifyRanges(ro, checks);
+        verifyColumnRanges(ro, checks);
+        verifyCells(ro, checks);
+        verifyRows(ro, checks);
+        try (Timer.Context timer = getReadSetVerificationTimer().time()) {
+            runChecks(checks);
+        }
     }
 
-    private void verifyRows(Transaction ro) {
+    /**
+     * Runs the given checks with at most the default get ranges concurrency, this thread included. Once a check
+     * fails, the checks that have not started yet are skipped.
+     */
+    private void runChecks(List<Runnable> checks) {
+        int parallelism = Math.min(checks.size(), defaultGetRangesConcurrency);
+        if (parallelism <= 1) {
+            checks.forEach(Runnable::run);
+            return;
+        }
+
+        Queue<Runnable> pending = new ConcurrentLinkedQueue<>(checks);
+        Callable<Void> worker = () -> {
+            try {
+                for (Runnable check = pending.poll(); check != null; check = pending.poll()) {
+                    check.run();
+                }
+            } catch (RuntimeException | Error e) {
+                pending.clear();
+                throw e;
+            }
+            return null;
+        };
+        runConcurrently(getRangesExecutor, Collections.nCopies(parallelism, worker));
+    }
+
+    private void verifyRows(Transaction ro, List<Runnable> checks) {
         for (Map.Entry<TableReference, Set<RowRead>> tableAndRowsEntry : rowsRead.entrySet()) {
             TableReference table = tableAndRowsEntry.getKey();
             Set<RowRead> rows = tableAndRowsEntry.getValue();
@@ -449,7 +519,9 @@ public class SerializableTransaction extends SnapshotTransaction {
                 rowsReadByColumns.putAll(r.cols, r.rows);
             }
             for (ColumnSelection cols : rowsReadByColumns.keySet()) {
-                verifyColumns(ro, table, readsForTable, rowsReadByColumns, cols);
+                for (List<byte[]> batch : Iterables.partition(rowsReadByColumns.get(cols), BATCH_SIZE)) {
+                    checks.add(() -> verifyColumns(ro, table, readsForTable, batch, cols));
+                }
             }
 
         }
@@ -459,50 +531,49 @@ public class SerializableTransaction extends SnapshotTransaction {
             Transaction ro,
             TableReference table,
             ConcurrentNavigableMap<Cell, byte[]> readsForTable,
-            Multimap<ColumnSelection, byte[]> rowsReadByColumns,
+            List<byte[]> batch,
             ColumnSelection columns) {
-        for (List<byte[]> batch : Iterables.partition(rowsReadByColumns.get(columns), BATCH_SIZE)) {
-            SortedMap<byte[], RowResult<byte[]>> currentRows = ro.getRows(table, batch, columns);
-            for (byte[] row : batch) {
-                RowResult<byte[]> currentRow = currentRows.get(row);
-                Map<Cell, byte[]> orignalReads = readsForTable
-                        .tailMap(Cells.createSmallestCellForRow(row), true)
-                        .headMap(Cells.createLargestCellForRow(row), true);
-
-                // We want to filter out all our reads to just the set that matches our column selection.
-                orignalReads = Maps.filterKeys(orignalReads, input -> columns.contains(input.getColumnName()));
-
-                if (writesByTable.get(table) != null) {
-                    // We don't want to verify any reads that we wrote to cause
-                    // we will just read our own values.
-                    // NB: We filter our write set out here because our normal SI
-                    // checking handles this case to ensure the value hasn't changed.
-                    orignalReads = Maps.filterKeys(
-                            orignalReads,
-                            Predicates.not(Predicates.in(writesByTable.get(table).keySet())));
-                }
+        SortedMap<byte[], RowResult<byte[]>> currentRows = ro.getRows(table, batch, columns);
+        for (byte[] row : batch) {
+            RowResult<byte[]> currentRow = currentRows.get(row);
+            Map<Cell, byte[]> orignalReads = readsForTable
+                    .tailMap(Cells.createSmallestCellForRow(row), true)
+                    .headMap(Cells.createLargestCellForRow(row), true);
+
+            // We want to filter out all our reads to just the set that matches our column selection.
+            orignalReads = Maps.filterKeys(orignalReads, input -> columns.contains(input.getColumnName()));
+
+            if (writesByTable.get(table) != null) {
+                // We don't want to verify any reads that we wrote to cause
+                // we will just read our own values.
+                // NB: We filter our write set out here because our normal SI
+                // checking handles this case to ensure the value hasn't changed.
+                orignalReads = Maps.filterKeys(
+                        orignalReads,
+                        Predicates.not(Predicates.in(writesByTable.get(table).keySet())));
+            }
 
-                if (currentRow == null && orignalReads.isEmpty()) {
-                    continue;
-                }
+            if (currentRow == null && orignalReads.isEmpty()) {
+                continue;
+            }
 
-                if (currentRow == null) {
-                    handleTransactionConflict(table);
-                }
+            if (currentRow == null) {
+                handleTransactionConflict(table);
+            }
 
-                Map<Cell, byte[]> currentCells = Maps2.fromEntries(currentRow.getCells());
-                if (writesByTable.get(table) != null) {
-                    // We don't want to verify any reads that we wrote to cause
-                    // we will just read our own values.
-                    // NB: We filter our write set out here because our normal SI
-                    // checking handles this case to ensure the value hasn't changed.
-                    currentCells = Maps.filterKeys(
-                            currentCells,
-                            Predicates.not(Predicates.in(writesByTable.get(table).keySet())));
-                }
-                if (!areMapsEqual(orignalReads, currentCells)) {
-                    handleTransactionConflict(table);
-                }
+            Map<Cell, byte[]> currentCells = ImmutableMap.copyOf(Maps.transformValues(
+                    Maps2.fromEntries(currentRow.getCells()), SerializableTransaction::digest));
+            if (writesByTable.get(table) != null) {
+                // We don't want to verify any reads that we wrote to cause
+                // we will just read our own values.
+                // NB: We filter our write set out here because our normal SI
+                // checking handles this case to ensure the value hasn't changed.
+                currentCells = Maps.filterKeys(
+                        currentCells,
+                        Predicates.not(Predicates.in(writesByTable.get(table).keySet())));
+            }
+            if (!areMapsEqual(orignalReads, currentCells)) {
+                handleTransactionConflict(table);
             }
         }
     }
@@ -522,36 +593,47 @@ public class SerializableTransaction extends SnapshotTransaction {
         return true;
     }
 
-    private void verifyCells(Transaction readOnlyTransaction) {
+    private void verifyCells(Transaction readOnlyTransaction, List<Runnable> checks) {
         for (Entry<TableReference, Set<Cell>> tableAndCellsEntry : cellsRead.entrySet()) {
             TableReference table = tableAndCellsEntry.getKey();
             Set<Cell> cells = tableAndCellsEntry.getValue();
 
             final ConcurrentNavigableMap<Cell, byte[]> readsForTable = getReadsForTable(table);
-            for (Iterable<Cell> batch : Iterables.partition(cells, BATCH_SIZE)) {
-                // We don't want to verify any reads that we wrote to cause we will just read our own values.
-                // NB: If the value has changed between read and write, our normal SI checking handles this case
-                Iterable<Cell> batchWithoutWrites = writesByTable.get(table) != null
-                        ? Iterables.filter(batch, Predicates.not(Predicates.in(writesByTable.get(table).keySet())))
-                        : batch;
-                ImmutableSet<Cell> batchWithoutWritesSet = ImmutableSet.copyOf(batchWithoutWrites);
-                Map<Cell, byte[]> currentBatch = readOnlyTransaction.get(table, batchWithoutWritesSet);
-                ImmutableMap<Cell, byte[]> originalReads = Maps.toMap(
-                        Sets.intersection(batchWithoutWritesSet, readsForTable.keySet()),
-                        Functions.forMap(readsForTable));
-                if (!areMapsEqual(currentBatch, originalReads)) {
-                    handleTransactionConflict(table);
-                }
+            for (List<Cell> batch : Iterables.partition(cells, BATCH_SIZE)) {
+                checks.add(() -> verifyCellBatch(readOnlyTransaction, table, readsForTable, batch));
             }
         }
     }
 
-    private void verifyRanges(Transaction readOnlyTransaction) {
+    private void verifyCellBatch(
+            Transaction readOnlyTransaction,
+            TableReference table,
+            ConcurrentNavigableMap<Cell, byte[]> readsForTable,
+            List<Cell> batch) {
+        // We don't want to verify any reads that we wrote to cause we will just read our own values.
+        // NB: If the value has changed between read and write, our normal SI checking handles this case
+        Iterable<Cell> batchWithoutWrites = writesByTable.get(table) != null
+                ? Iterables.filter(batch, Predicates.not(Predicates.in(writesByTable.get(table).keySet())))
+                : batch;
+        ImmutableSet<Cell> batchWithoutWritesSet = ImmutableSet.copyOf(batchWithoutWrites);
+        Map<Cell, byte[]> currentBatch = ImmutableMap.copyOf(Maps.transformValues(
+                readOnlyTransaction.get(table, batchWithoutWritesSet),
+                SerializableTransaction::digest));
+        ImmutableMap<Cell, byte[]> originalReads = Maps.toMap(
+                Sets.intersection(batchWithoutWritesSet, readsForTable.keySet()),
+                Functions.forMap(readsForTable));
+        if (!areMapsEqual(currentBatch, originalReads)) {
+            handleTransactionConflict(table);
+        }
+    }
+
+    private void verifyRanges(Transaction readOnlyTransaction, List<Runnable> checks) {
         // verify each set of reads to ensure they are the same.
         for (Entry<TableReference, ConcurrentMap<RangeRequest, byte[]>> tableAndRange : rangeEndByTable.entrySet()) {
             TableReference table = tableAndRange.getKey();
             Map<RangeRequest, byte[]> rangeEnds = tableAndRange.getValue();
 
+            List<RangeRequest> rangesRead = Lists.newArrayListWithCapacity(rangeEnds.size());
             for (Entry<RangeRequest, byte[]> rangeAndRangeEndEntry : rangeEnds.entrySet()) {
                 RangeRequest range = rangeAndRangeEndEntry.getKey();
                 byte[] rangeEnd = rangeAndRangeEndEntry.getValue();
@@ -561,18 +643,64 @@ public class SerializableTransaction extends SnapshotTransaction {
                             .endRowExclusive(RangeRequests.getNextStartRow(range.isReverse(), rangeEnd))
                             .build();
                 }
+                rangesRead.add(range);
+            }
+            for (RangeRequest range : coalesceRanges(rangesRead)) {
+                checks.add(() -> verifyRange(readOnlyTransaction, table, range));
+            }
+        }
+    }
+
+    private void verifyRange(Transaction readOnlyTransaction, TableReference table, RangeRequest range) {
+        ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+        BatchingVisitableView<RowResult<byte[]>> bv = BatchingVisitableView.of(
+                readOnlyTransaction.getRange(table, range));
+        NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
+                getReadsInRange(table, range),
+                ByteBuffer::wrap);
+        if (!bv.transformBatch(input -> filterWritesFromRows(input, writes)).isEqual(readsInRange.entrySet())) {
+            handleTransactionConflict(table);
+        }
+    }
 
-                ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
-                BatchingVisitableView<RowResult<byte[]>> bv = BatchingVisitableView.of(
-                        readOnlyTransaction.getRange(table, range));
-                NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
-                        getReadsInRange(table, range),
-                        ByteBuffer::wrap);
-                if (!bv.transformBatch(input -> filterWritesFromRows(input, writes)).isEqual(readsInRange.entrySet())) {
-                    handleTransactionConflict(table);
+    /**
+     * Merges forward ranges over the same columns that overlap or abut one another, so that rows covered by several
+     * range reads are only read once when the reads are verified. Reverse ranges are returned unchanged.
+     */
+    static List<RangeRequest> coalesceRanges(Collection<RangeRequest> ranges) {
+        Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+        List<RangeRequest> coalesced = Lists.newArrayList();
+        ListMultimap<List<ByteBuffer>, RangeRequest> forwardRangesByColumns = ArrayListMultimap.create();
+        for (RangeRequest range : ranges) {
+            if (range.isReverse()) {
+                coalesced.add(range);
+            } else {
+                List<ByteBuffer> columns = ImmutableList.copyOf(
+                        Iterables.transform(range.getColumnNames(), ByteBuffer::wrap));
+                forwardRangesByColumns.put(columns, range);
+            }
+        }
+
+        Ordering<RangeRequest> byStart = Ordering.from(comparator).onResultOf(RangeRequest::getStartInclusive);
+        for (List<RangeRequest> rangesWithSameColumns : Multimaps.asMap(forwardRangesByColumns).values()) {
+            List<RangeRequest> sortedRanges = byStart.sortedCopy(rangesWithSameColumns);
+            RangeRequest current = sortedRanges.get(0);
+            for (RangeRequest next : sortedRanges.subList(1, sortedRanges.size())) {
+                byte[] currentEnd = current.getEndExclusive();
+                byte[] nextEnd = next.getEndExclusive();
+                if (currentEnd.length == 0) {
+                    continue;
+                }
+                if (comparator.compare(next.getStartInclusive(), currentEnd) > 0) {
+                    coalesced.add(current);
+                    current = next;
+                } else if (nextEnd.length == 0 || comparator.compare(nextEnd, currentEnd) > 0) {
+                    current = current.getBuilder().endRowExclusive(nextEnd).build();
                 }
             }
+            coalesced.add(current);
         }
+        return coalesced;
     }
 
     private NavigableMap<Cell, byte[]> getReadsInColumnRange(TableReference table,
@@ -600,7 +728,7 @@ public class SerializableTransaction extends SnapshotTransaction {
         return reads;
     }
 
-    private void verifyColumnRanges(Transaction readOnlyTransaction) {
+    private void verifyColumnRanges(Transaction readOnlyTransaction, List<Runnable> checks) {
         // verify each set of reads to ensure they are the same.
         for (Entry<TableReference,
                 ConcurrentMap<byte[], ConcurrentMap<BatchColumnRangeSelection, byte[]>>> tableAndRange :
@@ -624,34 +752,40 @@ public class SerializableTransaction extends SnapshotTransaction {
                                 RangeRequests.getNextStartRow(false, rangeEnd),
                                 range.getBatchHint());
                     }
-                    if (rangesToRows.get(range) != null) {
-                        rangesToRows.get(range).add(row);
-                    } else {
-                        rangesToRows.put(range, ImmutableList.of(row));
-                    }
+                    rangesToRows.computeIfAbsent(range, unused -> Lists.newArrayList()).add(row);
                 }
             }
             for (Entry<BatchColumnRangeSelection, List<byte[]>> e : rangesToRows.entrySet()) {
                 BatchColumnRangeSelection range = e.getKey();
-                List<byte[]> rows = e.getValue();
-                Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> result =
-                        readOnlyTransaction.getRowsColumnRange(table, rows, range);
-                for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> res : result.entrySet()) {
-                    byte[] row = res.getKey();
-                    BatchingVisitableView<Entry<Cell, byte[]>> bv = BatchingVisitableView.of(res.getValue());
-                    NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
-                            getReadsInColumnRange(table, row, range),
-                            input -> ByteBuffer.wrap(input));
-                    boolean isEqual = bv.transformBatch(input -> filterWritesFromCells(input, writes))
-                            .isEqual(readsInRange.entrySet());
-                    if (!isEqual) {
-                        handleTransactionConflict(table);
-                    }
+                for (List<byte[]> rows : Iterables.partition(e.getValue(), BATCH_SIZE)) {
+                    checks.add(() -> verifyColumnRange(readOnlyTransaction, table, writes, rows, range));
                 }
             }
         }
     }
 
+    private void verifyColumnRange(
+            Transaction readOnlyTransaction,
+            TableReference table,
+            Map<Cell, byte[]> writes,
+            List<byte[]> rows,
+            BatchColumnRangeSelection range) {
+        Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> result =
+                readOnlyTransaction.getRowsColumnRange(table, rows, range);
+        for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> res : result.entrySet()) {
+            byte[] row = res.getKey();
+            BatchingVisitableView<Entry<Cell, byte[]>> bv = BatchingVisitableView.of(res.getValue());
+            NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
+                    getReadsInColumnRange(table, row, range),
+                    input -> ByteBuffer.wrap(input));
+            boolean isEqual = bv.transformBatch(input -> filterWritesFromCells(input, writes))
+                    .isEqual(readsInRange.entrySet());
+            if (!isEqual) {
+                handleTransactionConflict(table);
+            }
+        }
+    }
+
     private List<Entry<Cell, ByteBuffer>> filterWritesFromCells(
             Iterable<Entry<Cell, byte[]>> cells,
             Map<Cell, byte[]> writes) {
@@ -660,7 +794,7 @@ public class SerializableTransaction extends SnapshotTransaction {
             // NB: We filter our write set out here because our normal SI
             // checking handles this case to ensure the value hasn't changed.
             if (writes == null || !writes.containsKey(cell.getKey())) {
-                cellsWithoutWrites.add(Maps.immutableEntry(cell.getKey(), ByteBuffer.wrap(cell.getValue())));
+                cellsWithoutWrites.add(Maps.immutableEntry(cell.getKey(), ByteBuffer.wrap(digest(cell.getValue()))));
             }
         }
         return cellsWithoutWrites;
@@ -718,7 +852,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                 lockAcquireTimeoutMs,
                 getRangesExecutor,
                 defaultGetRangesConcurrency,
-                MultiTableSweepQueueWriter.NO_OP) {
+                MultiTableSweepQueueWriter.NO_OP,
+                Optional.empty()) {
             @Override
             protected Map<Long, Long> getCommitTimestamps(TableReference tableRef,
                                                           Iterable<Long> startTimestamps,
@@ -771,6 +906,14 @@ public class SerializableTransaction extends SnapshotTransaction {
                 System.currentTimeMillis() - timeCreated);
     }
 
+    private Histogram getReadSetBytesHistogram() {
+        return metricRegistry.histogram(MetricRegistry.name(SerializableTransaction.class, "ReadSetBytes"));
+    }
+
+    private Timer getReadSetVerificationTimer() {
+        return metricRegistry.timer(MetricRegistry.name(SerializableTransaction.class, "ReadSetVerification"));
+    }
+
     private Meter getTransactionConflictsMeter() {
         // TODO(hsaraogi): add table names as a tag
         return metricRegistry.meter(
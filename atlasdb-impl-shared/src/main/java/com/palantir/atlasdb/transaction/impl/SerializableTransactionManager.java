@@ -206,6 +206,31 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             Supplier<Long> timestampCacheSize,
             MultiTableSweepQueueWriter sweepQueueWriter,
             Callback<SerializableTransactionManager> callback) {
+        return create(keyValueService, timelockService, lockService, transactionService, constraintModeSupplier,
+                conflictDetectionManager, sweepStrategyManager, cleaner, initializationPrerequisite,
+                allowHiddenTableAccess, lockAcquireTimeoutMs, concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency, initializeAsync, timestampCacheSize, sweepQueueWriter,
+                TransactionManagerOptions.defaultOptions(), callback);
+    }
+
+    public static SerializableTransactionManager create(KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            Supplier<Boolean> initializationPrerequisite,
+            boolean allowHiddenTableAccess,
+            Supplier<Long> lockAcquireTimeoutMs,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            boolean initializeAsync,
+            Supplier<Long> timestampCacheSize,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            TransactionManagerOptions options,
+            Callback<SerializableTransactionManager> callback) {
         TimestampTracker timestampTracker = TimestampTrackerImpl.createWithDefaultTrackers(
                 timelockService, cleaner, initializeAsync);
         SerializableTransactionManager serializableTransactionManager = new SerializableTransactionManager(
@@ -223,7 +248,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 lockAcquireTimeoutMs,
                 concurrentGetRangesThreadPoolSize,
                 defaultGetRangesConcurrency,
-                sweepQueueWriter);
+                sweepQueueWriter,
+                options);
 
         if (!initializeAsync) {
             callback.runWithRetry(serializableTransactionManager);
@@ -302,7 +328,6 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
         );
     }
 
-    // Canonical constructor.
     public SerializableTransactionManager(KeyValueService keyValueService,
             TimelockService timelockService,
             LockService lockService,
@@ -318,6 +343,42 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             int concurrentGetRangesThreadPoolSize,
             int defaultGetRangesConcurrency,
             MultiTableSweepQueueWriter sweepQueueWriter) {
+        this(
+                keyValueService,
+                timelockService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                timestampTracker,
+                timestampCacheSize,
+                allowHiddenTableAccess,
+                lockAcquireTimeoutMs,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                sweepQueueWriter,
+                TransactionManagerOptions.defaultOptions());
+    }
+
+    // Canonical constructor.
+    public SerializableTransactionManager(KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            TimestampTracker timestampTracker,
+            Supplier<Long> timestampCacheSize,
+            boolean allowHiddenTableAccess,
+            Supplier<Long> lockAcquireTimeoutMs,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            TransactionManagerOptions options) {
         super(
                 keyValueService,
                 timelockService,
@@ -333,7 +394,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 concurrentGetRangesThreadPoolSize,
                 defaultGetRangesConcurrency,
                 timestampCacheSize,
-                sweepQueueWriter);
+                sweepQueueWriter,
+                options);
     }
 
     @Override
@@ -360,7 +422,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 lockAcquireTimeoutMs.get(),
                 getRangesExecutor,
                 defaultGetRangesConcurrency,
-                sweepQueueWriter);
+                sweepQueueWriter,
+                commitPipelineExecutor);
     }
 
     @VisibleForTesting
@@ -27,10 +27,16 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -58,6 +64,7 @@ import com.google.common.base.Predicates;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
@@ -75,10 +82,12 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.AtlasDbPerformanceConstants;
+import com.palantir.atlasdb.cache.CachedTableVersions;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.Cleaner;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
@@ -95,6 +104,7 @@ import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AdaptiveBatchSizer;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
 import com.palantir.atlasdb.keyvalue.impl.RowResults;
@@ -184,6 +194,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     private final Cleaner cleaner;
     private final Supplier<Long> startTimestamp;
     private static final MetricsManager metricsManager = new MetricsManager();
+    private static final AdaptiveBatchSizer rangeBatchSizer = AdaptiveBatchSizer.create("transactionRangeReads");
 
     private final MultiTableSweepQueueWriter sweepQueue;
 
@@ -213,7 +224,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     protected final long lockAcquireTimeoutMs;
     protected final ExecutorService getRangesExecutor;
     protected final int defaultGetRangesConcurrency;
+    private final Optional<ExecutorService> commitPipelineExecutor;
     private final Set<TableReference> involvedTables = Sets.newConcurrentHashSet();
+    private final Set<CompletableFuture<?>> pendingAsyncReads = Sets.newConcurrentHashSet();
+    private final AtomicReference<Throwable> asyncReadFailure = new AtomicReference<>();
 
     protected volatile boolean hasReads;
 
@@ -223,6 +237,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      * @param immutableTimestamp If we find a row written before the immutableTimestamp we don't need to
      *                           grab a read lock for it because we know that no writers exist.
      * @param preCommitCondition This check must pass for this transaction to commit.
+     * @param commitPipelineExecutor If present, independent phases of the commit protocol are run concurrently on
+     *                               this executor rather than one after another.
      */
     /* package */ SnapshotTransaction(KeyValueService keyValueService,
                                TimelockService timelockService,
@@ -242,7 +258,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                long lockAcquireTimeoutMs,
                                ExecutorService getRangesExecutor,
                                int defaultGetRangesConcurrency,
-                               MultiTableSweepQueueWriter sweepQueue) {
+                               MultiTableSweepQueueWriter sweepQueue,
+                               Optional<ExecutorService> commitPipelineExecutor) {
         this.keyValueService = keyValueService;
         this.timelockService = timelockService;
         this.defaultTransactionService = transactionService;
@@ -262,6 +279,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.getRangesExecutor = getRangesExecutor;
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueue = sweepQueue;
+        this.commitPipelineExecutor = commitPipelineExecutor;
         this.hasReads = false;
     }
 
@@ -298,6 +316,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.getRangesExecutor = getRangesExecutor;
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueue = sweepQueue;
+        this.commitPipelineExecutor = Optional.empty();
         this.hasReads = false;
     }
 
@@ -331,6 +350,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.getRangesExecutor = getRangesExecutor;
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueue = MultiTableSweepQueueWriter.NO_OP;
+        this.commitPipelineExecutor = Optional.empty();
         this.hasReads = false;
     }
 
@@ -358,11 +378,20 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 && System.currentTimeMillis() - timeCreated > transactionReadTimeoutMillis) {
             throw new TransactionFailedRetriableException("Transaction timed out.");
         }
-        Preconditions.checkArgument(allowHiddenTableAccess || !AtlasDbConstants.hiddenTables.contains(tableRef));
+        Preconditions.checkArgument(allowHiddenTableAccess || !isReadOutsideTransactionProtocol(tableRef));
         Preconditions.checkState(state.get() == State.UNCOMMITTED || state.get() == State.COMMITTING,
                 "Transaction must be uncommitted.");
     }
 
+    /**
+     * Hidden tables are written outside of the transaction protocol, except for the cached table versions, which
+     * every transaction writing to a cached table updates, and which must be read like any other transactional table.
+     */
+    private static boolean isReadOutsideTransactionProtocol(TableReference tableRef) {
+        return AtlasDbConstants.hiddenTables.contains(tableRef)
+                && !tableRef.equals(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE);
+    }
+
     @Override
     public SortedMap<byte[], RowResult<byte[]>> getRows(TableReference tableRef, Iterable<byte[]> rows,
                                                         ColumnSelection columnSelection) {
@@ -478,7 +507,12 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         ColumnRangeBatchProvider batchProvider = new ColumnRangeBatchProvider(
                 keyValueService, tableRef, row, columnRangeSelection, getStartTimestamp());
         BatchSizeIncreasingIterator<Map.Entry<Cell, Value>> batchIterator = new BatchSizeIncreasingIterator<>(
-                batchProvider, columnRangeSelection.getBatchHint(), ClosableIterators.wrap(rawIterator));
+                batchProvider,
+                columnRangeSelection.getBatchHint(),
+                ClosableIterators.wrap(rawIterator),
+                rangeBatchSizer,
+                tableRef,
+                entry -> Cells.getApproxSizeOfCell(entry.getKey()) + entry.getValue().getContents().length);
         Iterator<Iterator<Map.Entry<Cell, byte[]>>> postFilteredBatches =
                 new AbstractIterator<Iterator<Map.Entry<Cell, byte[]>>>() {
             @Override
@@ -630,6 +664,57 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return Maps.filterValues(result, Predicates.not(Value.IS_EMPTY));
     }
 
+    @Override
+    public CompletableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsync(TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection) {
+        return readAsync(tableRef, () -> getRows(tableRef, rows, columnSelection));
+    }
+
+    @Override
+    public CompletableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells) {
+        return readAsync(tableRef, () -> get(tableRef, cells));
+    }
+
+    /**
+     * Runs a blocking read on the getRanges executor. The read goes through the overridable blocking method, so
+     * subclasses record it exactly as they would a blocking read, and commit waits for it to finish. If the read
+     * fails or is cancelled, commit fails too, since the transaction cannot know what the read saw.
+     */
+    private <T> CompletableFuture<T> readAsync(TableReference tableRef, Supplier<T> read) {
+        checkGetPreconditions(tableRef);
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(read, getRangesExecutor);
+        pendingAsyncReads.add(future);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                recordAsyncReadFailure(error);
+            }
+            pendingAsyncReads.remove(future);
+        });
+        return future;
+    }
+
+    private void waitForPendingAsyncReads() {
+        for (CompletableFuture<?> read : pendingAsyncReads) {
+            try {
+                read.join();
+            } catch (CompletionException | CancellationException e) {
+                // Thrown below once every read has finished.
+                recordAsyncReadFailure(e);
+            }
+        }
+        Throwable failure = asyncReadFailure.get();
+        if (failure != null) {
+            Throwables.throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private void recordAsyncReadFailure(Throwable error) {
+        asyncReadFailure.compareAndSet(null,
+                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+    }
+
     @Override
     public Map<Cell, byte[]> getIgnoringLocalWrites(TableReference tableRef, Set<Cell> cells) {
         checkGetPreconditions(tableRef);
@@ -950,8 +1035,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             Function<Value, T> transformer) {
         RowRangeBatchProvider batchProvider =
                 new RowRangeBatchProvider(keyValueService, tableRef, range, getStartTimestamp());
-        BatchSizeIncreasingIterator<RowResult<Value>> results =
-                new BatchSizeIncreasingIterator<>(batchProvider, preFilterBatchSize, null);
+        BatchSizeIncreasingIterator<RowResult<Value>> results = new BatchSizeIncreasingIterator<>(
+                batchProvider, preFilterBatchSize, null, rangeBatchSizer, tableRef, SnapshotTransaction::getApproxSize);
         Iterator<Iterator<RowResult<T>>> batchedPostFiltered = new AbstractIterator<Iterator<RowResult<T>>>() {
             @Override
             protected Iterator<RowResult<T>> computeNext() {
@@ -1061,6 +1146,14 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return postFilter;
     }
 
+    private static long getApproxSize(RowResult<Value> row) {
+        long size = 0;
+        for (Map.Entry<byte[], Value> column : row.getColumns().entrySet()) {
+            size += row.getRowName().length + column.getKey().length + column.getValue().getContents().length;
+        }
+        return size;
+    }
+
     private int estimateSize(List<RowResult<Value>> rangeRows) {
         int estimatedSize = 0;
         for (RowResult<Value> rowResult : rangeRows) {
@@ -1093,7 +1186,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         // TODO(hsaraogi): add table names as a tag
         getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_READ).mark(rawResults.size());
 
-        if (AtlasDbConstants.hiddenTables.contains(tableRef)) {
+        if (isReadOutsideTransactionProtocol(tableRef)) {
             Preconditions.checkState(allowHiddenTableAccess, "hidden tables cannot be read in this transaction");
             // hidden tables are used outside of the transaction protocol, and in general have invalid timestamps,
             // so do not apply post-filtering as post-filtering would rollback (actually delete) the data incorrectly
@@ -1299,6 +1392,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         if (state.get() == State.FAILED) {
             throw new IllegalStateException("this transaction has already failed");
         }
+        // Reads must be recorded before we check for conflicts.
+        waitForPendingAsyncReads();
         while (true) {
             Preconditions.checkState(state.get() == State.UNCOMMITTED, "Transaction must be uncommitted.");
             if (state.compareAndSet(State.UNCOMMITTED, State.COMMITTING)) {
@@ -1370,16 +1465,28 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             return;
         }
 
+        recordWritesToCachedTables();
+
         Timer.Context acquireLocksTimer = getTimer("commitAcquireLocks").time();
         LockToken commitLocksToken = acquireLocksForCommit();
         long millisForLocks = TimeUnit.NANOSECONDS.toMillis(acquireLocksTimer.stop());
         try {
-            Timer.Context conflictsTimer = getTimer("commitCheckingForConflicts").time();
-            throwIfConflictOnCommit(commitLocksToken, transactionService);
-            long millisCheckingForConflicts = TimeUnit.NANOSECONDS.toMillis(conflictsTimer.stop());
-            Timer.Context writesTimer = getTimer("commitWrite").time();
-            keyValueService.multiPut(writesByTable, getStartTimestamp());
-            long millisForWrites = TimeUnit.NANOSECONDS.toMillis(writesTimer.stop());
+            long millisCheckingForConflicts;
+            long millisForWrites;
+            if (commitPipelineExecutor.isPresent()) {
+                // The conflict check ignores our own writes, so it can run while they are being made. Our writes
+                // are harmless if the check then fails: like those of any transaction that fails to commit, they
+                // have no commit timestamp and will be rolled back by the next reader.
+                List<Long> millis = runCommitPhasesConcurrently(ImmutableList.of(
+                        () -> checkForConflictsOnCommit(commitLocksToken, transactionService),
+                        this::writeToKeyValueService,
+                        this::enqueueWritesForSweep));
+                millisCheckingForConflicts = millis.get(0);
+                millisForWrites = millis.get(1);
+            } else {
+                millisCheckingForConflicts = checkForConflictsOnCommit(commitLocksToken, transactionService);
+                millisForWrites = writeToKeyValueService();
+            }
 
             // Now that all writes are done, get the commit timestamp
             // We must do this before we check that our locks are still valid to ensure that
@@ -1388,18 +1495,29 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             long commitTimestamp = timelockService.getFreshTimestamp();
             commitTsForScrubbing = commitTimestamp;
 
-            // punch on commit so that if hard delete is the only thing happening on a system,
-            // we won't block forever waiting for the unreadable timestamp to advance past the
-            // scrub timestamp (same as the hard delete transaction's start timestamp)
-            Timer.Context punchTimer = getTimer("millisForPunch").time();
-            cleaner.punch(commitTimestamp);
-            long millisForPunch = TimeUnit.NANOSECONDS.toMillis(punchTimer.stop());
+            long millisForPunch;
+            if (commitPipelineExecutor.isPresent()) {
+                millisForPunch = runCommitPhasesConcurrently(ImmutableList.of(
+                        () -> {
+                            throwIfReadWriteConflictForSerializable(commitTimestamp);
+                            return 0L;
+                        },
+                        () -> punch(commitTimestamp))).get(1);
+
+                // As below, our locks must still be held once read-write conflict checking has finished, so this
+                // only runs after it has completed.
+                throwIfPreCommitRequirementsNotMet(commitLocksToken, commitTimestamp);
+            } else {
+                millisForPunch = punch(commitTimestamp);
 
-            throwIfReadWriteConflictForSerializable(commitTimestamp);
+                throwIfReadWriteConflictForSerializable(commitTimestamp);
 
-            // Verify that our locks and pre-commit conditions are still valid before we actually commit;
-            // this throwIfPreCommitRequirementsNotMet is required by the transaction protocol for correctness
-            throwIfPreCommitRequirementsNotMet(commitLocksToken, commitTimestamp);
+                // Verify that our locks and pre-commit conditions are still valid before we actually commit;
+                // this throwIfPreCommitRequirementsNotMet is required by the transaction protocol for correctness
+                throwIfPreCommitRequirementsNotMet(commitLocksToken, commitTimestamp);
+
+                enqueueWritesForSweep();
+            }
 
             Timer.Context commitTsTimer = getTimer("commitPutCommitTs").time();
             putCommitTimestamp(commitTimestamp, commitLocksToken, transactionService);
@@ -1426,13 +1544,118 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                         tableRefs.safeTableRefs(),
                         tableRefs.unsafeTableRefs());
             }
-
-            sweepQueue.enqueue(writesByTable, getStartTimestamp());
         } finally {
-            timelockService.unlock(ImmutableSet.of(commitLocksToken));
+            timelockService.tryUnlock(ImmutableSet.of(commitLocksToken));
         }
     }
 
+    /**
+     * Writes our start timestamp to the version cell of each table we wrote to that is cached across transactions,
+     * so that shared caches on every node stop serving values read before our writes. This must happen before we
+     * lock, so that the version cells are locked and checked for conflicts along with the rest of our writes.
+     */
+    private void recordWritesToCachedTables() {
+        Map<Cell, byte[]> versions = Maps.newHashMap();
+        for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> e : writesByTable.entrySet()) {
+            if (!e.getValue().isEmpty() && conflictDetectionManager.isCachedAcrossTransactions(e.getKey())) {
+                versions.put(CachedTableVersions.versionCell(e.getKey()),
+                        CachedTableVersions.versionValue(getStartTimestamp()));
+            }
+        }
+        if (!versions.isEmpty()) {
+            markTableAsInvolvedInThisTransaction(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE);
+            putWritesAndLogIfTooLarge(versions, getLocalWrites(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE));
+        }
+    }
+
+    private long checkForConflictsOnCommit(LockToken commitLocksToken, TransactionService transactionService) {
+        Timer.Context conflictsTimer = getTimer("commitCheckingForConflicts").time();
+        throwIfConflictOnCommit(commitLocksToken, transactionService);
+        return TimeUnit.NANOSECONDS.toMillis(conflictsTimer.stop());
+    }
+
+    private long writeToKeyValueService() {
+        Timer.Context writesTimer = getTimer("commitWrite").time();
+        keyValueService.multiPut(writesByTable, getStartTimestamp());
+        return TimeUnit.NANOSECONDS.toMillis(writesTimer.stop());
+    }
+
+    /**
+     * Punch on commit so that if hard delete is the only thing happening on a system, we won't block forever waiting
+     * for the unreadable timestamp to advance past the scrub timestamp (same as the hard delete transaction's start
+     * timestamp).
+     */
+    private long punch(long commitTimestamp) {
+        Timer.Context punchTimer = getTimer("millisForPunch").time();
+        cleaner.punch(commitTimestamp);
+        return TimeUnit.NANOSECONDS.toMillis(punchTimer.stop());
+    }
+
+    /**
+     * Enqueue our writes for sweep before committing, so that a failure between committing and enqueueing cannot
+     * leave committed writes that are never swept. Readers of the queue must therefore check that the transaction
+     * committed before acting on its entries.
+     */
+    private long enqueueWritesForSweep() {
+        Timer.Context sweepQueueTimer = getTimer("commitEnqueueForSweep").time();
+        sweepQueue.enqueue(writesByTable, getStartTimestamp());
+        return TimeUnit.NANOSECONDS.toMillis(sweepQueueTimer.stop());
+    }
+
+    /**
+     * Runs the given commit phases concurrently, the first on this thread and the rest on the commit pipeline
+     * executor, and returns the result of each.
+     */
+    private List<Long> runCommitPhasesConcurrently(List<Callable<Long>> phases) {
+        return runConcurrently(commitPipelineExecutor.get(), phases);
+    }
+
+    /**
+     * Runs the given tasks concurrently, the first on this thread and the rest on the given executor, and returns
+     * the result of each. Every task is allowed to finish before a failure is rethrown, so that nothing from this
+     * transaction is still running once it has been abandoned; if several tasks fail, the failure of the earliest
+     * task in the list is the one thrown.
+     */
+    protected static <T> List<T> runConcurrently(ExecutorService executor, List<Callable<T>> tasks) {
+        List<Future<T>> futures = Lists.newArrayListWithCapacity(tasks.size() - 1);
+        for (Callable<T> task : tasks.subList(1, tasks.size())) {
+            futures.add(executor.submit(task));
+        }
+
+        List<T> results = Lists.newArrayListWithCapacity(tasks.size());
+        Throwable failure = null;
+        try {
+            results.add(tasks.get(0).call());
+        } catch (Throwable t) {
+            failure = t;
+        }
+        boolean interrupted = false;
+        for (Future<T> future : futures) {
+            while (true) {
+                try {
+                    results.add(future.get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            Throwables.throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
+        }
+        return results;
+    }
+
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
         // This is for overriding to get serializable transactions
     }
@@ -1627,6 +1850,17 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                                                   @Output Set<CellConflict> dominatingWrites,
                                                                   TransactionService transactionService) {
         Map<Cell, Long> rawResults = keyValueService.getLatestTimestamps(tableRef, keysToLoad);
+        Map<Cell, Long> ownWrites = Maps.newHashMapWithExpectedSize(0);
+        if (commitPipelineExecutor.isPresent()) {
+            // Our own writes may already have landed, since they are made while conflicts are being checked. They
+            // could be hiding a conflicting write that started before us, so look again beneath them.
+            for (Map.Entry<Cell, Long> e : rawResults.entrySet()) {
+                if (e.getValue() == getStartTimestamp()) {
+                    ownWrites.put(e.getKey(), getStartTimestamp());
+                }
+            }
+            rawResults = Maps.filterKeys(rawResults, cell -> !ownWrites.containsKey(cell));
+        }
         Map<Long, Long> commitTimestamps = getCommitTimestamps(tableRef, rawResults.values(), false);
         Map<Cell, Long> keysToDelete = Maps.newHashMapWithExpectedSize(0);
 
@@ -1672,7 +1906,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
 
         // Once we successfully rollback and delete these cells we need to reload them.
-        return keysToDelete;
+        if (ownWrites.isEmpty()) {
+            return keysToDelete;
+        }
+        return ImmutableMap.<Cell, Long>builder().putAll(keysToDelete).putAll(ownWrites).build();
     }
 
     /**
@@ -1854,14 +2091,17 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         if (Iterables.isEmpty(startTimestamps)) {
             return ImmutableMap.of();
         }
-        Map<Long, Long> result = Maps.newHashMap();
-        Set<Long> gets = Sets.newHashSet();
-        for (long startTs : startTimestamps) {
-            Long cached = timestampValidationReadCache.getCommitTimestampIfPresent(startTs);
-            if (cached != null) {
-                result.put(startTs, cached);
+        long[] distinctStartTimestamps = Longs.toArray(ImmutableSet.copyOf(startTimestamps));
+        long[] cachedCommitTimestamps = new long[distinctStartTimestamps.length];
+        int numCached = timestampValidationReadCache.getAll(distinctStartTimestamps, cachedCommitTimestamps);
+
+        Map<Long, Long> result = Maps.newHashMapWithExpectedSize(distinctStartTimestamps.length);
+        Set<Long> gets = Sets.newHashSetWithExpectedSize(distinctStartTimestamps.length - numCached);
+        for (int i = 0; i < distinctStartTimestamps.length; i++) {
+            if (cachedCommitTimestamps[i] == TimestampCache.MISSING) {
+                gets.add(distinctStartTimestamps[i]);
             } else {
-                gets.add(startTs);
+                result.put(distinctStartTimestamps[i], cachedCommitTimestamps[i]);
             }
         }
 
@@ -1884,14 +2124,22 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 LoggingArgs.tableRef(tableRef));
         Map<Long, Long> rawResults = loadCommitTimestamps(gets);
 
+        long[] loadedStartTimestamps = new long[rawResults.size()];
+        long[] loadedCommitTimestamps = new long[rawResults.size()];
+        int numLoaded = 0;
         for (Map.Entry<Long, Long> e : rawResults.entrySet()) {
             if (e.getValue() != null) {
                 long startTs = e.getKey();
                 long commitTs = e.getValue();
                 result.put(startTs, commitTs);
-                timestampValidationReadCache.putAlreadyCommittedTransaction(startTs, commitTs);
+                loadedStartTimestamps[numLoaded] = startTs;
+                loadedCommitTimestamps[numLoaded] = commitTs;
+                numLoaded++;
             }
         }
+        timestampValidationReadCache.putAll(
+                Arrays.copyOf(loadedStartTimestamps, numLoaded),
+                Arrays.copyOf(loadedCommitTimestamps, numLoaded));
         return result;
     }
 
@@ -21,6 +21,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
@@ -43,10 +44,13 @@ import com.palantir.atlasdb.transaction.api.TransactionReadSentinelBehavior;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.lock.LockService;
 import com.palantir.lock.v2.LockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.timestamp.TimestampService;
 
@@ -68,6 +72,8 @@ import com.palantir.timestamp.TimestampService;
     final TimestampTracker timestampTracker;
     final int defaultGetRangesConcurrency;
     final MultiTableSweepQueueWriter sweepQueueWriter;
+    final Optional<CoalescingTransactionStarter> transactionStarter;
+    final Optional<ExecutorService> commitPipelineExecutor;
 
     final List<Runnable> closingCallbacks;
     final AtomicBoolean isClosed;
@@ -88,6 +94,29 @@ import com.palantir.timestamp.TimestampService;
             int defaultGetRangesConcurrency,
             Supplier<Long> timestampCacheSize,
             MultiTableSweepQueueWriter sweepQueueWriter) {
+        this(keyValueService, timelockService, lockService, transactionService, constraintModeSupplier,
+                conflictDetectionManager, sweepStrategyManager, cleaner, allowHiddenTableAccess, lockAcquireTimeoutMs,
+                timestampTracker, concurrentGetRangesThreadPoolSize, defaultGetRangesConcurrency, timestampCacheSize,
+                sweepQueueWriter, TransactionManagerOptions.defaultOptions());
+    }
+
+    protected SnapshotTransactionManager(
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            boolean allowHiddenTableAccess,
+            Supplier<Long> lockAcquireTimeoutMs,
+            TimestampTracker timestampTracker,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            Supplier<Long> timestampCacheSize,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            TransactionManagerOptions options) {
         super(timestampCacheSize);
 
         this.keyValueService = keyValueService;
@@ -106,6 +135,12 @@ import com.palantir.timestamp.TimestampService;
         this.timestampTracker = timestampTracker;
         this.defaultGetRangesConcurrency = defaultGetRangesConcurrency;
         this.sweepQueueWriter = sweepQueueWriter;
+        this.transactionStarter = options.batchTransactionStarts()
+                ? Optional.of(new CoalescingTransactionStarter(timelockService))
+                : Optional.empty();
+        this.commitPipelineExecutor = options.pipelineCommits()
+                ? Optional.of(PTExecutors.newCachedThreadPool(new NamedThreadFactory("commit-pipeline", true)))
+                : Optional.empty();
     }
 
     @Override
@@ -127,19 +162,31 @@ import com.palantir.timestamp.TimestampService;
     }
 
     public RawTransaction setupRunTaskWithConditionThrowOnConflict(PreCommitCondition condition) {
+        if (transactionStarter.isPresent()) {
+            StartTransactionsResponse response = transactionStarter.get().startTransaction();
+            long startTimestamp = response.getStartTimestamps().getLowerBound();
+            return setupTransaction(response.getImmutableTimestamp(), getStartTimestampSupplier(() -> startTimestamp),
+                    condition);
+        }
+
         LockImmutableTimestampResponse immutableTsResponse = timelockService.lockImmutableTimestamp(
                 LockImmutableTimestampRequest.create());
+        return setupTransaction(immutableTsResponse, getStartTimestampSupplier(), condition);
+    }
+
+    private RawTransaction setupTransaction(LockImmutableTimestampResponse immutableTsResponse,
+            Supplier<Long> startTimestampSupplier,
+            PreCommitCondition condition) {
         try {
             LockToken immutableTsLock = immutableTsResponse.getLock();
             long immutableTs = immutableTsResponse.getImmutableTimestamp();
             recordImmutableTimestamp(immutableTs);
-            Supplier<Long> startTimestampSupplier = getStartTimestampSupplier();
 
             SnapshotTransaction transaction = createTransaction(immutableTs, startTimestampSupplier,
                     immutableTsLock, condition);
             return new RawTransaction(transaction, immutableTsLock);
         } catch (Throwable e) {
-            timelockService.unlock(ImmutableSet.of(immutableTsResponse.getLock()));
+            unlockImmutableTimestamp(immutableTsResponse.getLock());
             throw Throwables.rewrapAndThrowUncheckedException(e);
         }
     }
@@ -151,7 +198,7 @@ import com.palantir.timestamp.TimestampService;
         try {
             result = runTaskThrowOnConflict(task, tx);
         } finally {
-            timelockService.unlock(ImmutableSet.of(tx.getImmutableTsLock()));
+            unlockImmutableTimestamp(tx.getImmutableTsLock());
         }
         if ((tx.getTransactionType() == TransactionType.AGGRESSIVE_HARD_DELETE) && !tx.isAborted()) {
             // t.getCellsToScrubImmediately() checks that t has been committed
@@ -187,7 +234,8 @@ import com.palantir.timestamp.TimestampService;
                 lockAcquireTimeoutMs.get(),
                 getRangesExecutor,
                 defaultGetRangesConcurrency,
-                sweepQueueWriter);
+                sweepQueueWriter,
+                commitPipelineExecutor);
     }
 
     @Override
@@ -214,7 +262,8 @@ import com.palantir.timestamp.TimestampService;
                 lockAcquireTimeoutMs.get(),
                 getRangesExecutor,
                 defaultGetRangesConcurrency,
-                sweepQueueWriter);
+                sweepQueueWriter,
+                Optional.empty());
         try {
             return runTaskThrowOnConflict(txn -> task.execute(txn, condition),
                     new ReadTransaction(transaction, sweepStrategyManager));
@@ -248,6 +297,7 @@ import com.palantir.timestamp.TimestampService;
         if (isClosed.compareAndSet(false, true)) {
             super.close();
             timestampTracker.close();
+            commitPipelineExecutor.ifPresent(ExecutorService::shutdown);
             cleaner.close();
             keyValueService.close();
             closeLockServiceIfPossible();
@@ -272,9 +322,21 @@ import com.palantir.timestamp.TimestampService;
         }
     }
 
+    private void unlockImmutableTimestamp(LockToken immutableTsLock) {
+        if (transactionStarter.isPresent()) {
+            transactionStarter.get().unlock(immutableTsLock);
+        } else {
+            timelockService.tryUnlock(ImmutableSet.of(immutableTsLock));
+        }
+    }
+
     private Supplier<Long> getStartTimestampSupplier() {
+        return getStartTimestampSupplier(timelockService::getFreshTimestamp);
+    }
+
+    private Supplier<Long> getStartTimestampSupplier(LongSupplier timestampSupplier) {
         return Suppliers.memoize(() -> {
-            long freshTimestamp = timelockService.getFreshTimestamp();
+            long freshTimestamp = timestampSupplier.getAsLong();
             cleaner.punch(freshTimestamp);
             return freshTimestamp;
         });
@@ -23,6 +23,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -58,6 +60,15 @@ public class TimestampDecoratingTimelockService implements TimelockService {
         return delegate.lockImmutableTimestamp(request);
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        LockImmutableTimestampResponse immutableTimestamp = delegate.lockImmutableTimestamp(
+                LockImmutableTimestampRequest.create());
+        return StartTransactionsResponse.of(
+                immutableTimestamp,
+                decoratedTimestamps.getFreshTimestamps(request.getNumTransactions()));
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return delegate.getImmutableTimestamp();
@@ -83,6 +94,11 @@ public class TimestampDecoratingTimelockService implements TimelockService {
         return delegate.unlock(tokens);
     }
 
+    @Override
+    public void tryUnlock(Set<LockToken> tokens) {
+        delegate.tryUnlock(tokens);
+    }
+
     @Override
     public long currentTimeMillis() {
         return delegate.currentTimeMillis();
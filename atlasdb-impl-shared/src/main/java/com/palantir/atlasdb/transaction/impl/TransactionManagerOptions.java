@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import org.immutables.value.Value;
+
+/**
+ * Optional behaviours of a {@link SnapshotTransactionManager}, all of which are off by default. New options should
+ * be added here rather than as further constructor and factory parameters.
+ */
+@Value.Immutable
+public interface TransactionManagerOptions {
+    /**
+     * Whether transactions that start concurrently share a single call to the timelock service.
+     */
+    @Value.Default
+    default boolean batchTransactionStarts() {
+        return false;
+    }
+
+    /**
+     * Whether transactions run the independent phases of their commit concurrently rather than one after another.
+     */
+    @Value.Default
+    default boolean pipelineCommits() {
+        return false;
+    }
+
+    static TransactionManagerOptions defaultOptions() {
+        return ImmutableTransactionManagerOptions.builder().build();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.palantir.atlasdb.transaction.impl;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 
 public final class TransactionTables {
@@ -23,16 +25,22 @@ public final class TransactionTables {
     }
 
     public static void createTables(KeyValueService keyValueService) {
-        keyValueService.createTable(
+        keyValueService.createTables(ImmutableMap.of(
                 TransactionConstants.TRANSACTION_TABLE,
-                TransactionConstants.TRANSACTION_TABLE_METADATA.persistToBytes());
+                TransactionConstants.TRANSACTION_TABLE_METADATA.persistToBytes(),
+                TransactionConstants.TRANSACTIONS2_TABLE,
+                TransactionConstants.TRANSACTIONS2_TABLE_METADATA.persistToBytes()));
     }
 
     public static void deleteTables(KeyValueService keyValueService) {
-        keyValueService.dropTable(TransactionConstants.TRANSACTION_TABLE);
+        keyValueService.dropTables(ImmutableSet.of(
+                TransactionConstants.TRANSACTION_TABLE,
+                TransactionConstants.TRANSACTIONS2_TABLE));
     }
 
     public static void truncateTables(KeyValueService keyValueService) {
-        keyValueService.truncateTable(TransactionConstants.TRANSACTION_TABLE);
+        keyValueService.truncateTables(ImmutableSet.of(
+                TransactionConstants.TRANSACTION_TABLE,
+                TransactionConstants.TRANSACTIONS2_TABLE));
     }
 }
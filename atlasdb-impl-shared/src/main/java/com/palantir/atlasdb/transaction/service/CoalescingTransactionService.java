@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Coalesces concurrent calls to a {@link TransactionService}, in the same way as
+ * {@link com.palantir.timestamp.RequestBatchingTimestampService} does for timestamps: only one write and one read is
+ * in flight at a time, and each serves every request that was queued before it began. Concurrent commits therefore
+ * share a single multi-cell {@link TransactionService#putUnlessExistsMultiple} write to the transactions table, and
+ * concurrent lookups a single {@link TransactionService#get(Iterable)}. A caller without contention goes straight
+ * through, so there is no added latency.
+ *
+ * If a batched write fails because some of its start timestamps were already set, each of its writes is retried on
+ * its own, so that every caller sees the outcome of its own write.
+ */
+public final class CoalescingTransactionService implements TransactionService {
+    @VisibleForTesting
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final TransactionService delegate;
+    private final Coalescer<Void, PendingPut> puts = new Coalescer<>(this::putBatch);
+    private final Coalescer<Map<Long, Long>, PendingGet> gets = new Coalescer<>(this::getBatch);
+
+    private CoalescingTransactionService(TransactionService delegate) {
+        this.delegate = delegate;
+    }
+
+    public static CoalescingTransactionService create(TransactionService delegate) {
+        return new CoalescingTransactionService(delegate);
+    }
+
+    @Override
+    public Long get(long startTimestamp) {
+        return get(ImmutableSet.of(startTimestamp)).get(startTimestamp);
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        return gets.submit(new PendingGet(ImmutableSet.copyOf(startTimestamps)));
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) {
+        puts.submit(new PendingPut(startTimestamp, commitTimestamp));
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        delegate.putUnlessExistsMultiple(startTimestampToCommitTimestamp);
+    }
+
+    @VisibleForTesting
+    int numQueuedPuts() {
+        return puts.pending.size();
+    }
+
+    @VisibleForTesting
+    int numQueuedGets() {
+        return gets.pending.size();
+    }
+
+    private void getBatch(List<PendingGet> batch) {
+        Set<Long> startTimestamps = Sets.newHashSet();
+        batch.forEach(pending -> startTimestamps.addAll(pending.startTimestamps));
+
+        Map<Long, Long> commitTimestamps = delegate.get(startTimestamps);
+        for (PendingGet pending : batch) {
+            Map<Long, Long> result = Maps.newHashMapWithExpectedSize(pending.startTimestamps.size());
+            for (Long startTimestamp : pending.startTimestamps) {
+                Long commitTimestamp = commitTimestamps.get(startTimestamp);
+                if (commitTimestamp != null) {
+                    result.put(startTimestamp, commitTimestamp);
+                }
+            }
+            pending.future.complete(result);
+        }
+    }
+
+    private void putBatch(List<PendingPut> batch) {
+        // A start timestamp may be both committed and rolled back concurrently; only one of those goes in the batch.
+        Map<Long, Long> commitTimestamps = Maps.newHashMapWithExpectedSize(batch.size());
+        List<PendingPut> batched = Lists.newArrayListWithCapacity(batch.size());
+        List<PendingPut> individual = Lists.newArrayList();
+        for (PendingPut pending : batch) {
+            if (commitTimestamps.putIfAbsent(pending.startTimestamp, pending.commitTimestamp) == null) {
+                batched.add(pending);
+            } else {
+                individual.add(pending);
+            }
+        }
+
+        try {
+            delegate.putUnlessExistsMultiple(commitTimestamps);
+            batched.forEach(pending -> pending.future.complete(null));
+        } catch (KeyAlreadyExistsException e) {
+            individual.addAll(batched);
+        }
+        individual.forEach(this::putIndividually);
+    }
+
+    private void putIndividually(PendingPut pending) {
+        try {
+            delegate.putUnlessExists(pending.startTimestamp, pending.commitTimestamp);
+            pending.future.complete(null);
+        } catch (KeyAlreadyExistsException e) {
+            // The failed batch may have written this value before it hit a start timestamp that was already set.
+            if (Objects.equals(delegate.get(pending.startTimestamp), pending.commitTimestamp)) {
+                pending.future.complete(null);
+            } else {
+                pending.future.completeExceptionally(e);
+            }
+        } catch (Throwable t) {
+            pending.future.completeExceptionally(t);
+        }
+    }
+
+    private abstract static class Pending<R> {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+    }
+
+    private static final class PendingGet extends Pending<Map<Long, Long>> {
+        private final Set<Long> startTimestamps;
+
+        PendingGet(Set<Long> startTimestamps) {
+            this.startTimestamps = startTimestamps;
+        }
+    }
+
+    private static final class PendingPut extends Pending<Void> {
+        private final long startTimestamp;
+        private final long commitTimestamp;
+
+        PendingPut(long startTimestamp, long commitTimestamp) {
+            this.startTimestamp = startTimestamp;
+            this.commitTimestamp = commitTimestamp;
+        }
+    }
+
+    private static final class Coalescer<R, T extends Pending<R>> {
+        private final Consumer<List<T>> batchProcessor;
+        private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+        private final Lock fairLock = new ReentrantLock(true);
+
+        Coalescer(Consumer<List<T>> batchProcessor) {
+            this.batchProcessor = batchProcessor;
+        }
+
+        R submit(T request) {
+            pending.add(request);
+
+            fairLock.lock();
+            try {
+                while (!request.future.isDone()) {
+                    processBatch();
+                }
+            } finally {
+                fairLock.unlock();
+            }
+
+            try {
+                return request.future.getNow(null);
+            } catch (CompletionException e) {
+                throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+            }
+        }
+
+        private void processBatch() {
+            List<T> batch = Lists.newArrayList();
+            T next = pending.poll();
+            while (next != null) {
+                batch.add(next);
+                next = batch.size() < MAX_BATCH_SIZE ? pending.poll() : null;
+            }
+            try {
+                batchProcessor.accept(batch);
+            } catch (Throwable t) {
+                batch.forEach(request -> request.future.completeExceptionally(t));
+            }
+        }
+    }
+}
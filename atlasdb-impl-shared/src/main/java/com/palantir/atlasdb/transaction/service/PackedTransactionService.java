@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MultimapBuilder;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+/**
+ * A {@link TransactionService} backed by the packed transactions table; see {@link PackedTransactionsEncoding}.
+ *
+ * When a lookup asks for many start timestamps in the same row, and they are close enough together that most of the
+ * columns between them are wanted, the row is read with a single column range read instead of a cell at a time.
+ */
+public final class PackedTransactionService implements TransactionService {
+    // All entries in the transactions table are stored with timestamp 0.
+    private static final long MAX_TIMESTAMP = 1L;
+
+    private static final int MIN_TIMESTAMPS_FOR_RANGE_READ = 16;
+    private static final int MAX_COLUMNS_READ_PER_TIMESTAMP = 4;
+
+    private final KeyValueService keyValueService;
+
+    public PackedTransactionService(KeyValueService keyValueService) {
+        this.keyValueService = keyValueService;
+    }
+
+    @Override
+    public Long get(long startTimestamp) {
+        Cell cell = PackedTransactionsEncoding.encodeStartTimestamp(startTimestamp);
+        Map<Cell, Value> returnMap = keyValueService.get(
+                TransactionConstants.TRANSACTIONS2_TABLE,
+                ImmutableMap.of(cell, MAX_TIMESTAMP));
+        if (returnMap.containsKey(cell)) {
+            return PackedTransactionsEncoding.decodeCommitTimestamp(startTimestamp, returnMap.get(cell).getContents());
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        ListMultimap<Long, Long> startTimestampsByRow = MultimapBuilder.hashKeys().arrayListValues().build();
+        for (Long startTimestamp : ImmutableSet.copyOf(startTimestamps)) {
+            startTimestampsByRow.put(PackedTransactionsEncoding.rowKey(startTimestamp), startTimestamp);
+        }
+
+        Map<Long, Long> result = Maps.newHashMap();
+        Map<Cell, Long> cellsToRead = Maps.newHashMap();
+        for (Map.Entry<Long, Collection<Long>> row : startTimestampsByRow.asMap().entrySet()) {
+            Collection<Long> timestampsInRow = row.getValue();
+            if (shouldReadAsRange(timestampsInRow)) {
+                readRange(row.getKey(), timestampsInRow, result);
+            } else {
+                for (Long startTimestamp : timestampsInRow) {
+                    cellsToRead.put(PackedTransactionsEncoding.encodeStartTimestamp(startTimestamp), MAX_TIMESTAMP);
+                }
+            }
+        }
+
+        if (!cellsToRead.isEmpty()) {
+            Map<Cell, Value> rawResults = keyValueService.get(TransactionConstants.TRANSACTIONS2_TABLE, cellsToRead);
+            for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
+                putDecoded(e.getKey(), e.getValue(), result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) {
+        keyValueService.putUnlessExists(TransactionConstants.TRANSACTIONS2_TABLE, ImmutableMap.of(
+                PackedTransactionsEncoding.encodeStartTimestamp(startTimestamp),
+                PackedTransactionsEncoding.encodeCommitTimestamp(startTimestamp, commitTimestamp)));
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        Map<Cell, byte[]> values = Maps.newHashMapWithExpectedSize(startTimestampToCommitTimestamp.size());
+        startTimestampToCommitTimestamp.forEach((startTimestamp, commitTimestamp) -> values.put(
+                PackedTransactionsEncoding.encodeStartTimestamp(startTimestamp),
+                PackedTransactionsEncoding.encodeCommitTimestamp(startTimestamp, commitTimestamp)));
+        keyValueService.putUnlessExists(TransactionConstants.TRANSACTIONS2_TABLE, values);
+    }
+
+    private static boolean shouldReadAsRange(Collection<Long> timestampsInRow) {
+        if (timestampsInRow.size() < MIN_TIMESTAMPS_FOR_RANGE_READ) {
+            return false;
+        }
+        long columnSpan = lastColumn(timestampsInRow) - firstColumn(timestampsInRow) + 1;
+        return columnSpan <= (long) timestampsInRow.size() * MAX_COLUMNS_READ_PER_TIMESTAMP;
+    }
+
+    private void readRange(long rowKey, Collection<Long> timestampsInRow, Map<Long, Long> result) {
+        long firstColumn = firstColumn(timestampsInRow);
+        long lastColumn = lastColumn(timestampsInRow);
+        byte[] row = EncodingUtils.encodeVarLong(rowKey);
+        BatchColumnRangeSelection range = BatchColumnRangeSelection.create(
+                EncodingUtils.encodeVarLong(firstColumn),
+                EncodingUtils.encodeVarLong(lastColumn + 1),
+                (int) (lastColumn - firstColumn + 1));
+
+        Map<byte[], RowColumnRangeIterator> rawResults = keyValueService.getRowsColumnRange(
+                TransactionConstants.TRANSACTIONS2_TABLE, ImmutableList.of(row), range, MAX_TIMESTAMP);
+        Map<Long, Long> rowResult = Maps.newHashMap();
+        for (RowColumnRangeIterator iterator : rawResults.values()) {
+            iterator.forEachRemaining(e -> putDecoded(e.getKey(), e.getValue(), rowResult));
+        }
+        // The range may include start timestamps that were not asked for.
+        for (Long startTimestamp : timestampsInRow) {
+            Long commitTimestamp = rowResult.get(startTimestamp);
+            if (commitTimestamp != null) {
+                result.put(startTimestamp, commitTimestamp);
+            }
+        }
+    }
+
+    private static long firstColumn(Collection<Long> timestampsInRow) {
+        return timestampsInRow.stream().mapToLong(PackedTransactionsEncoding::columnKey).min().getAsLong();
+    }
+
+    private static long lastColumn(Collection<Long> timestampsInRow) {
+        return timestampsInRow.stream().mapToLong(PackedTransactionsEncoding::columnKey).max().getAsLong();
+    }
+
+    private static void putDecoded(Cell cell, Value value, Map<Long, Long> result) {
+        long startTimestamp = PackedTransactionsEncoding.decodeStartTimestamp(cell);
+        result.put(startTimestamp,
+                PackedTransactionsEncoding.decodeCommitTimestamp(startTimestamp, value.getContents()));
+    }
+}
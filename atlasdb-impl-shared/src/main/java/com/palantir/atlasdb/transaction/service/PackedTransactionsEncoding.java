@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import com.google.common.base.Preconditions;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+/**
+ * Encoding of start and commit timestamps in {@link TransactionConstants#TRANSACTIONS2_TABLE}.
+ *
+ * Start timestamps are grouped into partitions of {@link #TIMESTAMPS_PER_PARTITION} consecutive timestamps, and each
+ * partition is spread over {@link #ROWS_PER_PARTITION} rows by the low bits of the timestamp. Transactions that
+ * commit at the same time therefore write to different rows rather than contending on one, while the start
+ * timestamps read by a transaction, which are usually close together, fall into a handful of rows. The column is
+ * the position of the start timestamp within its row, and sorts in timestamp order. The value is the commit
+ * timestamp as a signed delta from the start timestamp, which is only one to three bytes for a committed transaction.
+ */
+final class PackedTransactionsEncoding {
+    private static final int ROW_BITS = 4;
+    private static final int PARTITION_BITS = 20;
+
+    static final int ROWS_PER_PARTITION = 1 << ROW_BITS;
+    static final long TIMESTAMPS_PER_PARTITION = 1L << PARTITION_BITS;
+
+    private static final long ROW_MASK = ROWS_PER_PARTITION - 1;
+    private static final long PARTITION_MASK = TIMESTAMPS_PER_PARTITION - 1;
+
+    /**
+     * Holds the persisted cutover timestamp. Its row is beyond the row of any non-negative start timestamp.
+     */
+    static final Cell CUTOVER_CELL = Cell.create(
+            EncodingUtils.encodeVarLong(Long.MAX_VALUE),
+            EncodingUtils.encodeVarLong(0));
+
+    private PackedTransactionsEncoding() {
+        // Utility class
+    }
+
+    static Cell encodeStartTimestamp(long startTimestamp) {
+        return Cell.create(
+                EncodingUtils.encodeVarLong(rowKey(startTimestamp)),
+                EncodingUtils.encodeVarLong(columnKey(startTimestamp)));
+    }
+
+    static long decodeStartTimestamp(Cell cell) {
+        long rowKey = EncodingUtils.decodeVarLong(cell.getRowName());
+        long columnKey = EncodingUtils.decodeVarLong(cell.getColumnName());
+        return ((rowKey >>> ROW_BITS) << PARTITION_BITS) | (columnKey << ROW_BITS) | (rowKey & ROW_MASK);
+    }
+
+    static byte[] encodeCommitTimestamp(long startTimestamp, long commitTimestamp) {
+        return EncodingUtils.encodeSignedVarLong(commitTimestamp - startTimestamp);
+    }
+
+    static long decodeCommitTimestamp(long startTimestamp, byte[] value) {
+        return startTimestamp + EncodingUtils.decodeSignedVarLong(value);
+    }
+
+    /**
+     * The row holding the given start timestamp. Start timestamps share a row if and only if they have the same
+     * row key.
+     */
+    static long rowKey(long startTimestamp) {
+        Preconditions.checkArgument(startTimestamp >= 0, "Start timestamps must be non-negative");
+        return ((startTimestamp >>> PARTITION_BITS) << ROW_BITS) | (startTimestamp & ROW_MASK);
+    }
+
+    /**
+     * The position of the given start timestamp within its row.
+     */
+    static long columnKey(long startTimestamp) {
+        return (startTimestamp & PARTITION_MASK) >>> ROW_BITS;
+    }
+}
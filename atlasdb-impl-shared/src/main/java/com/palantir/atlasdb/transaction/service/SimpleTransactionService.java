@@ -82,6 +82,15 @@ public final class SimpleTransactionService implements TransactionService {
                 ImmutableMap.of(key, value));
     }
 
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        Map<Cell, byte[]> values = Maps.newHashMapWithExpectedSize(startTimestampToCommitTimestamp.size());
+        startTimestampToCommitTimestamp.forEach((startTimestamp, commitTimestamp) -> values.put(
+                getTransactionCell(startTimestamp),
+                TransactionConstants.getValueForTimestamp(commitTimestamp)));
+        keyValueService.putUnlessExists(TransactionConstants.TRANSACTION_TABLE, values);
+    }
+
     private Cell getTransactionCell(long startTimestamp) {
         return Cell.create(
                 TransactionConstants.getValueForTimestamp(startTimestamp),
@@ -15,15 +15,87 @@
  */
 package com.palantir.atlasdb.transaction.service;
 
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.timestamp.TimestampService;
 
 public final class TransactionServices {
     private TransactionServices() {
         // Uility class
     }
 
-    public static TransactionService createTransactionService(
-            KeyValueService keyValueService) {
-        return new SimpleTransactionService(keyValueService);
+    /**
+     * Creates a transaction service that honours the transactions table cutover persisted by
+     * {@link #persistCutoverTimestamp(KeyValueService, TimestampService, long)}. The persisted cutover is read before
+     * the service serves its first request, and that view is kept for the life of the service; a cutover persisted
+     * afterwards is only seen by services created later. Every client of a key value service that may have a cutover
+     * must use a transaction service created this way.
+     */
+    public static TransactionService createTransactionService(KeyValueService keyValueService) {
+        return new VersionedTransactionService(
+                new SimpleTransactionService(keyValueService),
+                new PackedTransactionService(keyValueService),
+                () -> getPersistedCutoverTimestamp(keyValueService).orElse(Long.MAX_VALUE));
+    }
+
+    /**
+     * Persists the first start timestamp to store in the packed transactions table, and must be called when a
+     * client configured with a cutover starts up, before it creates its transaction service.
+     *
+     * A cutover at or below a start timestamp that has already been handed out would send the commit timestamps of
+     * transactions that committed into the original table to the packed table, where they would not be found, so a
+     * cutover that is not yet persisted is only accepted if it is strictly greater than a fresh timestamp. Once
+     * persisted, the same cutover is accepted on later startups; a different one is always rejected. Every client
+     * must be configured with the same cutover, and must have started with it before the timestamp service hands out
+     * the cutover timestamp, since clients that are already running do not see a newly persisted cutover.
+     *
+     * @param keyValueService key value service holding the transactions tables
+     * @param timestampService timestamp service handing out the start timestamps of this key value service
+     * @param cutoverTimestamp the first start timestamp to store in the packed transactions table
+     * @throws IllegalStateException if the cutover does not match the persisted one, or is not yet persisted and is
+     * not greater than a fresh timestamp
+     */
+    public static void persistCutoverTimestamp(
+            KeyValueService keyValueService,
+            TimestampService timestampService,
+            long cutoverTimestamp) {
+        if (!getPersistedCutoverTimestamp(keyValueService).isPresent()) {
+            long freshTimestamp = timestampService.getFreshTimestamp();
+            Preconditions.checkState(cutoverTimestamp > freshTimestamp,
+                    "The configured transactions table cutover timestamp %s must be greater than the timestamps "
+                            + "already handed out, but a fresh timestamp is %s.",
+                    cutoverTimestamp, freshTimestamp);
+            try {
+                keyValueService.putUnlessExists(TransactionConstants.TRANSACTIONS2_TABLE, ImmutableMap.of(
+                        PackedTransactionsEncoding.CUTOVER_CELL,
+                        EncodingUtils.encodeVarLong(cutoverTimestamp)));
+            } catch (KeyAlreadyExistsException e) {
+                // Another client has persisted a cutover concurrently; check that it agrees below.
+            }
+        }
+
+        Optional<Long> persisted = getPersistedCutoverTimestamp(keyValueService);
+        if (!persisted.equals(Optional.of(cutoverTimestamp))) {
+            throw new IllegalStateException(String.format(
+                    "The configured transactions table cutover timestamp %d does not match the persisted "
+                            + "cutover timestamp %s. Every client must use the same cutover timestamp.",
+                    cutoverTimestamp, persisted.map(String::valueOf).orElse("(none)")));
+        }
+    }
+
+    private static Optional<Long> getPersistedCutoverTimestamp(KeyValueService keyValueService) {
+        Cell cell = PackedTransactionsEncoding.CUTOVER_CELL;
+        Map<Cell, Value> result = keyValueService.get(TransactionConstants.TRANSACTIONS2_TABLE,
+                ImmutableMap.of(cell, 1L));
+        return Optional.ofNullable(result.get(cell)).map(value -> EncodingUtils.decodeVarLong(value.getContents()));
     }
 }
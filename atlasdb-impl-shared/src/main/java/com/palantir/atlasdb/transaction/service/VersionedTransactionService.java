@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A {@link TransactionService} that stores each start timestamp in the transactions table schema that was current
+ * when that timestamp was handed out: start timestamps before the cutover timestamp use the original schema, and the
+ * rest use the new one. Reads for either range are always served by the schema that writes it, so transactions on
+ * both sides of the cutover see a single consistent view.
+ *
+ * The cutover timestamp is resolved before the first request is served rather than when this service is created, so
+ * creating it does not require the key value service to be available. It is then kept for the life of this service,
+ * so every request is routed by the same view of the cutover.
+ */
+public final class VersionedTransactionService implements TransactionService {
+    private final TransactionService beforeCutover;
+    private final TransactionService afterCutover;
+    private final Supplier<Long> cutoverTimestamp;
+
+    public VersionedTransactionService(
+            TransactionService beforeCutover,
+            TransactionService afterCutover,
+            Supplier<Long> cutoverTimestamp) {
+        this.beforeCutover = beforeCutover;
+        this.afterCutover = afterCutover;
+        this.cutoverTimestamp = Suppliers.memoize(cutoverTimestamp);
+    }
+
+    @Override
+    public Long get(long startTimestamp) {
+        return serviceFor(startTimestamp).get(startTimestamp);
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        long cutover = getCutoverTimestamp();
+        List<Long> before = Lists.newArrayList();
+        List<Long> after = Lists.newArrayList();
+        for (Long startTimestamp : startTimestamps) {
+            (startTimestamp < cutover ? before : after).add(startTimestamp);
+        }
+
+        if (after.isEmpty()) {
+            return beforeCutover.get(before);
+        }
+        if (before.isEmpty()) {
+            return afterCutover.get(after);
+        }
+        Map<Long, Long> result = Maps.newHashMap(beforeCutover.get(before));
+        result.putAll(afterCutover.get(after));
+        return result;
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) {
+        serviceFor(startTimestamp).putUnlessExists(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        long cutover = getCutoverTimestamp();
+        Map<Long, Long> before = Maps.newHashMap();
+        Map<Long, Long> after = Maps.newHashMap();
+        startTimestampToCommitTimestamp.forEach((startTimestamp, commitTimestamp) ->
+                (startTimestamp < cutover ? before : after).put(startTimestamp, commitTimestamp));
+
+        if (!before.isEmpty()) {
+            beforeCutover.putUnlessExistsMultiple(before);
+        }
+        if (!after.isEmpty()) {
+            afterCutover.putUnlessExistsMultiple(after);
+        }
+    }
+
+    private TransactionService serviceFor(long startTimestamp) {
+        return startTimestamp < getCutoverTimestamp() ? beforeCutover : afterCutover;
+    }
+
+    private long getCutoverTimestamp() {
+        return cutoverTimestamp.get();
+    }
+}
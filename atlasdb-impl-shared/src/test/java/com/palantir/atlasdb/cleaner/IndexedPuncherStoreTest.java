@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class IndexedPuncherStoreTest {
+    private static final long TIMESTAMP_1 = 10L;
+    private static final long TIMESTAMP_2 = 20L;
+    private static final long TIMESTAMP_3 = 30L;
+
+    private static final long WALL_CLOCK_1 = 100L;
+    private static final long WALL_CLOCK_2 = 200L;
+    private static final long WALL_CLOCK_3 = 300L;
+
+    private KeyValueService kvs;
+    private PuncherStore otherPuncherStore;
+
+    @Before
+    public void setUp() {
+        kvs = new InMemoryKeyValueService(false);
+        otherPuncherStore = KeyValueServicePuncherStore.create(kvs);
+        otherPuncherStore.put(TIMESTAMP_1, WALL_CLOCK_1);
+        otherPuncherStore.put(TIMESTAMP_2, WALL_CLOCK_2);
+    }
+
+    @Test
+    public void loadsExistingPunches() {
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        assertThat(puncherStore.get(WALL_CLOCK_1 - 1)).isEqualTo(Long.MIN_VALUE);
+        assertThat(puncherStore.get(WALL_CLOCK_2 + 1)).isEqualTo(TIMESTAMP_2);
+        assertThat(puncherStore.getMillisForTimestamp(TIMESTAMP_1 - 1)).isEqualTo(0L);
+        assertThat(puncherStore.getMillisForTimestamp(TIMESTAMP_2 - 1)).isEqualTo(WALL_CLOCK_1);
+        assertThat(puncherStore.getIndexedPunchCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void indexesOwnPunchesImmediately() {
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        puncherStore.get(WALL_CLOCK_1);
+        puncherStore.put(TIMESTAMP_3, WALL_CLOCK_3);
+        assertThat(puncherStore.get(WALL_CLOCK_3)).isEqualTo(TIMESTAMP_3);
+        assertThat(puncherStore.getMillisForTimestamp(TIMESTAMP_3)).isEqualTo(WALL_CLOCK_3);
+        assertThat(otherPuncherStore.get(WALL_CLOCK_3)).isEqualTo(TIMESTAMP_3);
+    }
+
+    @Test
+    public void missesOtherPunchesUntilRefreshed() {
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        puncherStore.get(WALL_CLOCK_1);
+        otherPuncherStore.put(TIMESTAMP_3, WALL_CLOCK_3);
+        assertThat(puncherStore.get(WALL_CLOCK_3)).isEqualTo(TIMESTAMP_2);
+
+        puncherStore.reload();
+        assertThat(puncherStore.get(WALL_CLOCK_3)).isEqualTo(TIMESTAMP_3);
+    }
+
+    @Test
+    public void tailsNewerPunchesWhenRefreshIntervalHasElapsed() {
+        IndexedPuncherStore puncherStore = createPuncherStore(0L);
+        puncherStore.get(WALL_CLOCK_1);
+        otherPuncherStore.put(TIMESTAMP_3, WALL_CLOCK_3);
+        assertThat(puncherStore.get(WALL_CLOCK_3)).isEqualTo(TIMESTAMP_3);
+        assertThat(puncherStore.getIndexedPunchCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void handlesClockDrift() {
+        otherPuncherStore.put(TIMESTAMP_3, WALL_CLOCK_1 - 1);
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        assertThat(puncherStore.getMillisForTimestamp(TIMESTAMP_3)).isEqualTo(WALL_CLOCK_2);
+        assertThat(puncherStore.get(WALL_CLOCK_1 - 1)).isEqualTo(TIMESTAMP_3);
+        assertThat(puncherStore.get(WALL_CLOCK_1)).isEqualTo(TIMESTAMP_1);
+    }
+
+    @Test
+    public void matchesUnindexedStoreForOutOfOrderPunches() {
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        long timestampBetween = (TIMESTAMP_1 + TIMESTAMP_2) / 2;
+        long wallClockBetween = (WALL_CLOCK_1 + WALL_CLOCK_2) / 2;
+        puncherStore.get(WALL_CLOCK_1);
+        puncherStore.put(TIMESTAMP_3, WALL_CLOCK_3);
+        puncherStore.put(timestampBetween, wallClockBetween);
+
+        for (long timestamp = 0; timestamp <= TIMESTAMP_3 + 1; timestamp++) {
+            assertThat(puncherStore.getMillisForTimestamp(timestamp))
+                    .isEqualTo(otherPuncherStore.getMillisForTimestamp(timestamp));
+        }
+        for (long timeMillis = 0; timeMillis <= WALL_CLOCK_3 + 1; timeMillis++) {
+            assertThat(puncherStore.get(timeMillis)).isEqualTo(otherPuncherStore.get(timeMillis));
+        }
+    }
+
+    @Test
+    public void translatesTimestampsInBulk() {
+        IndexedPuncherStore puncherStore = createPuncherStore(Long.MAX_VALUE);
+        assertThat(puncherStore.getMillisForTimestamps(new long[] {TIMESTAMP_2, 0L, TIMESTAMP_1 + 1}))
+                .containsExactly(WALL_CLOCK_2, 0L, WALL_CLOCK_1);
+    }
+
+    private IndexedPuncherStore createPuncherStore(long refreshIntervalMillis) {
+        return IndexedPuncherStore.create(otherPuncherStore, kvs, refreshIntervalMillis);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.concurrent.PTExecutors;
+
+public class ScrubDeletePipelineTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("foo.bar");
+
+    private final ExecutorService deleteExecutor = PTExecutors.newFixedThreadPool(2);
+    private final ExecutorService submitExecutor = Executors.newSingleThreadExecutor();
+    private final ScrubDeletePipeline pipeline = new ScrubDeletePipeline(deleteExecutor, 2, new MetricsManager());
+
+    @After
+    public void after() {
+        deleteExecutor.shutdownNow();
+        submitExecutor.shutdownNow();
+    }
+
+    @Test
+    public void submitDoesNotWaitForBatchToRun() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        pipeline.submit(TABLE, 1, () -> awaitAndIncrement(release, completed));
+        assertThat(completed.get()).isEqualTo(0);
+
+        release.countDown();
+        pipeline.awaitAll();
+        assertThat(completed.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void submitBlocksWhilePipelineIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        pipeline.submit(TABLE, 1, () -> awaitAndIncrement(release, completed));
+        pipeline.submit(TABLE, 1, () -> awaitAndIncrement(release, completed));
+
+        Future<?> thirdSubmit = submitExecutor.submit(() -> pipeline.submit(TABLE, 1, completed::incrementAndGet));
+        Thread.sleep(100);
+        assertThat(thirdSubmit.isDone()).isFalse();
+
+        release.countDown();
+        thirdSubmit.get(10, TimeUnit.SECONDS);
+        pipeline.awaitAll();
+        assertThat(completed.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void awaitAllRethrowsFailedBatch() {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.submit(TABLE, 1, () -> failAfter(release));
+
+        release.countDown();
+        assertThatThrownBy(pipeline::awaitAll).hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void awaitAllWaitsForEveryBatchBeforeRethrowingFailure() {
+        CountDownLatch releaseFailure = new CountDownLatch(1);
+        CountDownLatch releaseSuccess = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        pipeline.submit(TABLE, 1, () -> failAfter(releaseFailure));
+        pipeline.submit(TABLE, 1, () -> awaitAndIncrement(releaseSuccess, completed));
+
+        releaseFailure.countDown();
+        submitExecutor.submit(() -> {
+            Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+            releaseSuccess.countDown();
+        });
+        assertThatThrownBy(pipeline::awaitAll).hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(completed.get()).isEqualTo(1);
+
+        pipeline.submit(TABLE, 1, completed::incrementAndGet);
+        pipeline.awaitAll();
+        assertThat(completed.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void laterSubmitRethrowsFailedBatch() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.submit(TABLE, 1, () -> failAfter(release));
+        release.countDown();
+        Thread.sleep(100);
+
+        assertThatThrownBy(() -> pipeline.submit(TABLE, 1, () -> { }))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void failedBatchesReleaseTheirSlots() {
+        for (int i = 0; i < 3; i++) {
+            CountDownLatch release = new CountDownLatch(1);
+            pipeline.submit(TABLE, 1, () -> failAfter(release));
+            release.countDown();
+            assertThatThrownBy(pipeline::awaitAll).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        pipeline.submit(TABLE, 1, completed::incrementAndGet);
+        pipeline.awaitAll();
+        assertThat(completed.get()).isEqualTo(1);
+    }
+
+    private static void failAfter(CountDownLatch latch) {
+        awaitAndIncrement(latch, new AtomicInteger());
+        throw new IllegalStateException("delete failed");
+    }
+
+    private static void awaitAndIncrement(CountDownLatch latch, AtomicInteger counter) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        counter.incrementAndGet();
+    }
+}
@@ -31,6 +31,7 @@ import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -132,6 +133,30 @@ public class ScrubberTest {
         Assert.assertEquals(ImmutableList.of(), scrubQueue);
     }
 
+    @Test
+    public void testOldVersionsAreScrubbedAcrossTables() {
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+        TableReference firstTable = TableReference.createFromFullyQualifiedName("foo.first");
+        TableReference secondTable = TableReference.createFromFullyQualifiedName("foo.second");
+        for (TableReference tableRef : ImmutableList.of(firstTable, secondTable)) {
+            kvs.createTable(tableRef, new byte[] {});
+            kvs.putWithTimestamps(tableRef, ImmutableMultimap.of(
+                    cell, Value.create(new byte[] {3}, 10),
+                    cell, Value.create(new byte[] {4}, 20)));
+        }
+        transactions.putUnlessExists(10, 15);
+        transactions.putUnlessExists(20, 25);
+        scrubStore.queueCellsForScrubbing(ImmutableMultimap.of(cell, firstTable, cell, secondTable), 20, 100);
+
+        scrubber.runBackgroundScrubTask(null);
+
+        for (TableReference tableRef : ImmutableList.of(firstTable, secondTable)) {
+            Multimap<Cell, Long> timestamps = kvs.getAllTimestamps(tableRef, ImmutableSet.of(cell), Long.MAX_VALUE);
+            Assert.assertEquals(ImmutableSet.of(Value.INVALID_VALUE_TIMESTAMP, 20L),
+                    ImmutableSet.copyOf(timestamps.values()));
+        }
+    }
+
     private Scrubber getScrubber(KeyValueService keyValueService, ScrubberStore scrubberStore,
             TransactionService transactionService) {
         return Scrubber.create(keyValueService, scrubberStore,
@@ -142,8 +167,8 @@ public class ScrubberTest {
                 transactionService,
                 false, // is aggressive
                 () -> 100, //  batch size
-                1, // thread count
-                1, // read thread count
+                2, // thread count
+                2, // read thread count
                 ImmutableList.of()); // followers
     }
 }
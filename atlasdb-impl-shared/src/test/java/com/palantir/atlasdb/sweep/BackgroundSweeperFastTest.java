@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.sweep;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 
 import java.util.Optional;
@@ -25,9 +26,11 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.ImmutableSweepResults;
 import com.palantir.atlasdb.keyvalue.api.SweepResults;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.sweep.priority.ImmutableUpdateSweepPriority;
 import com.palantir.atlasdb.sweep.progress.ImmutableSweepProgress;
 import com.palantir.atlasdb.sweep.progress.SweepProgress;
@@ -35,7 +38,7 @@ import com.palantir.atlasdb.sweep.progress.SweepProgress;
 public class BackgroundSweeperFastTest extends SweeperTestSetup {
 
     @Test
-    public void testWritePriorityAfterCompleteFreshRun() {
+    public void testWritePriorityAfterCompleteFreshRun() throws InterruptedException {
         setNoProgress();
         setNextTableToSweep(TABLE_REF);
         setupTaskRunner(ImmutableSweepResults.builder()
@@ -45,7 +48,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .timeInMillis(10L)
                 .timeSweepStarted(20L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
         Mockito.verify(priorityStore).update(
                 any(),
                 eq(TABLE_REF),
@@ -59,7 +62,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
     }
 
     @Test
-    public void testWritePriorityAfterSecondRunCompletesSweep() {
+    public void testWritePriorityAfterSecondRunCompletesSweep() throws InterruptedException {
         setProgress(ImmutableSweepProgress.builder()
                 .tableRef(TABLE_REF)
                 .staleValuesDeleted(3)
@@ -78,7 +81,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .timeInMillis(0L)
                 .timeSweepStarted(0L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
         Mockito.verify(priorityStore).update(
                 any(),
                 eq(TABLE_REF),
@@ -91,7 +94,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
     }
 
     @Test
-    public void testWriteProgressAfterIncompleteRunUsesSystemTimeForStart() {
+    public void testWriteProgressAfterIncompleteRunUsesSystemTimeForStart() throws InterruptedException {
         setNoProgress();
         setNextTableToSweep(TABLE_REF);
         setupTaskRunner(ImmutableSweepResults.builder()
@@ -102,10 +105,10 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .timeInMillis(10L)
                 .timeSweepStarted(Long.MAX_VALUE)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
 
         ArgumentCaptor<SweepProgress> argumentCaptor = ArgumentCaptor.forClass(SweepProgress.class);
-        Mockito.verify(progressStore).saveProgress(argumentCaptor.capture());
+        Mockito.verify(progressStore).saveProgress(eq(0), argumentCaptor.capture());
 
         SweepProgress savedProgress = argumentCaptor.getValue();
         long timeSweepStarted = savedProgress.startTimeInMillis();
@@ -127,7 +130,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
     }
 
     @Test
-    public void testWriteProgressAfterIncompleteRunWithPreviousProgress() {
+    public void testWriteProgressAfterIncompleteRunWithPreviousProgress() throws InterruptedException {
         setProgress(ImmutableSweepProgress.builder()
                 .tableRef(TABLE_REF)
                 .staleValuesDeleted(3)
@@ -146,9 +149,10 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .timeInMillis(20L)
                 .timeSweepStarted(50L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
 
         Mockito.verify(progressStore).saveProgress(
+                eq(0),
                 eq(ImmutableSweepProgress.builder()
                         .tableRef(TABLE_REF)
                         .staleValuesDeleted(5)
@@ -162,7 +166,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
     }
 
     @Test
-    public void testPutZeroWriteCountAfterFreshIncompleteRun() {
+    public void testPutZeroWriteCountAfterFreshIncompleteRun() throws InterruptedException {
         setNoProgress();
         setNextTableToSweep(TABLE_REF);
         setupTaskRunner(ImmutableSweepResults.builder()
@@ -173,7 +177,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .timeInMillis(10L)
                 .timeSweepStarted(20L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
         Mockito.verify(priorityStore).update(
                 any(),
                 eq(TABLE_REF),
@@ -183,7 +187,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
     }
 
     @Test
-    public void testMetricsRecordedAfterIncompleteRunForOneIterationOnly() {
+    public void testMetricsRecordedAfterIncompleteRunForOneIterationOnly() throws InterruptedException {
         setNoProgress();
         setNextTableToSweep(TABLE_REF);
 
@@ -197,12 +201,12 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .build();
 
         setupTaskRunner(intermediateResults);
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
         Mockito.verify(sweepMetricsManager).updateMetrics(intermediateResults, TABLE_REF);
     }
 
     @Test
-    public void testMetricsUseIntermediateResultsPerIteration() {
+    public void testMetricsUseIntermediateResultsPerIteration() throws InterruptedException {
         setProgress(ImmutableSweepProgress.builder()
                         .tableRef(TABLE_REF)
                         .staleValuesDeleted(3)
@@ -223,7 +227,65 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .build();
 
         setupTaskRunner(intermediateResults);
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(sweepLocks);
         Mockito.verify(sweepMetricsManager).updateMetrics(intermediateResults, TABLE_REF);
     }
+
+    @Test
+    public void doesNotSweepTableLockedByAnotherThread() throws InterruptedException {
+        setNoProgress();
+        setNextTableToSweep(TABLE_REF);
+        setTableLocksAvailable(false);
+
+        Assertions.assertThat(backgroundSweeper.runOnce(sweepLocks))
+                .isEqualTo(BackgroundSweeperImpl.SweepOutcome.UNABLE_TO_ACQUIRE_LOCKS);
+        Mockito.verify(sweepTaskRunner, Mockito.never()).run(any(), any(), any());
+    }
+
+    @Test
+    public void doesNotChooseTableInProgressOnAnotherThread() throws InterruptedException {
+        TableReference otherTable = TableReference.createFromFullyQualifiedName("backgroundsweeper.other");
+        setNoProgress();
+        Mockito.doReturn(Optional.of(ImmutableSweepProgress.builder()
+                .tableRef(otherTable)
+                .staleValuesDeleted(0)
+                .cellTsPairsExamined(0)
+                .minimumSweptTimestamp(0L)
+                .startRow(new byte[] {1})
+                .startColumn(PtBytes.toBytes("unused"))
+                .timeInMillis(0L)
+                .startTimeInMillis(0L)
+                .build())).when(progressStore).loadProgress(1);
+        setNextTableToSweep(TABLE_REF);
+        setupTaskRunner(SweepResults.createEmptySweepResultWithNoMoreToSweep());
+
+        BackgroundSweeperImpl twoThreadSweeper = new BackgroundSweeperImpl(
+                lockService,
+                nextTableToSweepProvider,
+                sweepBatchConfigSource,
+                () -> sweepEnabled,
+                () -> 0L, // pauseMillis
+                Mockito.mock(PersistentLockManager.class),
+                specificTableSweeper,
+                2); // numThreads
+        try (SweepLocks locks = twoThreadSweeper.createSweepLocks(0)) {
+            Assertions.assertThat(twoThreadSweeper.runOnce(locks))
+                    .isEqualTo(BackgroundSweeperImpl.SweepOutcome.SUCCESS);
+        }
+
+        Mockito.verify(nextTableToSweepProvider).getNextTableToSweep(any(), anyLong(), eq(ImmutableSet.of(otherTable)));
+        Mockito.verify(progressStore).clearProgress(0);
+    }
+
+    @Test
+    public void recordsThroughputOfThread() throws InterruptedException {
+        setNoProgress();
+        setNextTableToSweep(TABLE_REF);
+        SweepResults results = SweepResults.createEmptySweepResultWithNoMoreToSweep();
+        setupTaskRunner(results);
+
+        backgroundSweeper.runOnce(sweepLocks);
+
+        Mockito.verify(sweepMetricsManager).updateThreadThroughput(0, results);
+    }
 }
@@ -110,6 +110,22 @@ public class PersistentLockManagerTest {
         verify(mockPls, times(1)).releaseBackupLock(mockLockId);
     }
 
+    @Test
+    @GuardedBy("manager")
+    public void lockIsOnlyReleasedOnceAllHoldersHaveReleasedIt() {
+        manager.acquirePersistentLockWithRetry();
+        manager.acquirePersistentLockWithRetry();
+
+        manager.releasePersistentLock();
+        assertThat(manager.lockId, is(mockLockId));
+        verify(mockPls, never()).releaseBackupLock(any());
+
+        manager.releasePersistentLock();
+        assertThat(manager.lockId, nullValue());
+        verify(mockPls, times(1)).acquireBackupLock("Sweep");
+        verify(mockPls, times(1)).releaseBackupLock(mockLockId);
+    }
+
     @Test
     public void releaseWithoutAcquireIsNoOp() {
         manager.releasePersistentLock();
@@ -17,12 +17,14 @@
 package com.palantir.atlasdb.sweep;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
+import java.math.BigInteger;
 import java.util.Optional;
 
 import org.junit.Before;
@@ -40,6 +42,7 @@ import com.palantir.atlasdb.sweep.progress.SweepProgressStore;
 import com.palantir.atlasdb.transaction.api.LockAwareTransactionManager;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
+import com.palantir.lock.LockRefreshToken;
 import com.palantir.lock.LockService;
 
 public class SweeperTestSetup {
@@ -54,10 +57,12 @@ public class SweeperTestSetup {
     protected KeyValueService kvs = mock(KeyValueService.class);
     protected SweepProgressStore progressStore = mock(SweepProgressStore.class);
     protected SweepPriorityStore priorityStore = mock(SweepPriorityStore.class);
-    private NextTableToSweepProvider nextTableToSweepProvider = mock(NextTableToSweepProvider.class);
+    protected NextTableToSweepProvider nextTableToSweepProvider = mock(NextTableToSweepProvider.class);
     protected SweepTaskRunner sweepTaskRunner = mock(SweepTaskRunner.class);
-    private boolean sweepEnabled = true;
+    protected boolean sweepEnabled = true;
     protected SweepMetricsManager sweepMetricsManager = mock(SweepMetricsManager.class);
+    protected LockService lockService = mock(LockService.class);
+    protected SweepLocks sweepLocks;
     protected long currentTimeMillis = 1000200300L;
 
     @BeforeClass
@@ -76,13 +81,17 @@ public class SweeperTestSetup {
         specificTableSweeper = getSpecificTableSweeperService();
 
         backgroundSweeper = new BackgroundSweeperImpl(
-                mock(LockService.class),
+                lockService,
                 nextTableToSweepProvider,
                 sweepBatchConfigSource,
                 () -> sweepEnabled,
                 () -> 0L, // pauseMillis
                 mock(PersistentLockManager.class),
-                specificTableSweeper);
+                specificTableSweeper,
+                1); // numThreads
+
+        setTableLocksAvailable(true);
+        sweepLocks = backgroundSweeper.createSweepLocks(0);
     }
 
     protected SpecificTableSweeper getSpecificTableSweeperService() {
@@ -110,16 +119,25 @@ public class SweeperTestSetup {
     }
 
     protected void setNoProgress() {
-        doReturn(Optional.empty()).when(progressStore).loadProgress();
+        doReturn(Optional.empty()).when(progressStore).loadProgress(anyInt());
     }
 
     protected void setProgress(SweepProgress progress) {
-        doReturn(Optional.of(progress)).when(progressStore).loadProgress();
+        doReturn(Optional.of(progress)).when(progressStore).loadProgress(0);
     }
 
     protected void setNextTableToSweep(TableReference tableRef) {
         doReturn(Optional.of(tableRef)).when(nextTableToSweepProvider)
-                .getNextTableToSweep(any(), anyLong());
+                .getNextTableToSweep(any(), anyLong(), any());
+    }
+
+    protected void setTableLocksAvailable(boolean available) {
+        LockRefreshToken token = available ? new LockRefreshToken(BigInteger.ONE, Long.MAX_VALUE) : null;
+        try {
+            doReturn(token).when(lockService).lock(any(), any());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     protected void setupTaskRunner(SweepResults results) {
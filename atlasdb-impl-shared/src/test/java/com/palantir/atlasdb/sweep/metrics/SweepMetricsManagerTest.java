@@ -191,6 +191,18 @@ public class SweepMetricsManagerTest {
         assertThat(getMeter(AtlasDbMetricNames.SWEEP_ERROR).getCount(), equalTo(2L));
     }
 
+    @Test
+    public void throughputIsRecordedSeparatelyForEachThread() {
+        sweepMetricsManager.updateThreadThroughput(0, SWEEP_RESULTS);
+        sweepMetricsManager.updateThreadThroughput(0, OTHER_SWEEP_RESULTS);
+        sweepMetricsManager.updateThreadThroughput(1, SWEEP_RESULTS);
+
+        assertThat(getThreadMeter(0, CELLS_EXAMINED).getCount(), equalTo(EXAMINED + OTHER_EXAMINED));
+        assertThat(getThreadMeter(0, CELLS_SWEPT).getCount(), equalTo(DELETED + OTHER_DELETED));
+        assertThat(getThreadMeter(1, CELLS_EXAMINED).getCount(), equalTo(EXAMINED));
+        assertThat(getThreadMeter(1, CELLS_SWEPT).getCount(), equalTo(DELETED));
+    }
+
     private void setLoggingSafety(Map<TableReference, byte[]> args) {
         LoggingArgs.hydrate(args);
     }
@@ -213,6 +225,10 @@ public class SweepMetricsManagerTest {
         return metricRegistry.meter(MetricRegistry.name(SweepMetric.class, namePrefix));
     }
 
+    private Meter getThreadMeter(int threadIndex, String name) {
+        return getMeter(MetricRegistry.name(AtlasDbMetricNames.SWEEP_THREAD, Integer.toString(threadIndex), name));
+    }
+
     private <T> Gauge<T> getCurrentValueMetric(String namePrefix) {
         return metricRegistry.gauge(MetricRegistry.name(SweepMetric.class, namePrefix), CurrentValueMetric::new);
     }
@@ -26,11 +26,13 @@ import static org.mockito.Mockito.when;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 
@@ -96,6 +98,27 @@ public class NextTableToSweepProviderTest {
         Assert.assertThat(tableToSweep.get(), anyOf(is(table("table2")), is(table("table3")), is(table("table4"))));
     }
 
+    @Test
+    public void excludedTablesAreNotChosenEvenIfTheyHaveHighestPriority() {
+        givenPriority(table("table1"), 10.0);
+        givenPriority(table("table2"), 30.0);
+        givenPriority(table("table3"), 20.0);
+
+        whenGettingNextTableToSweepExcluding(ImmutableSet.of(table("table2")));
+
+        thenTableChosenIs(table("table3"));
+    }
+
+    @Test
+    public void allTablesWithNonZeroPriorityExcluded_thenProviderReturnsEmpty() {
+        givenPriority(table("table1"), 0.0);
+        givenPriority(table("table2"), 30.0);
+
+        whenGettingNextTableToSweepExcluding(ImmutableSet.of(table("table2")));
+
+        thenProviderReturnsEmpty();
+    }
+
     private void givenNoPrioritiesReturned() {
         //Nothing to do
     }
@@ -110,6 +133,12 @@ public class NextTableToSweepProviderTest {
         tableToSweep = provider.getNextTableToSweep(null, 0L);
     }
 
+    private void whenGettingNextTableToSweepExcluding(Set<TableReference> tablesToExclude) {
+        when(calculator.calculateSweepPriorityScores(any(), anyLong())).thenReturn(priorities);
+
+        tableToSweep = provider.getNextTableToSweep(null, 0L, tablesToExclude);
+    }
+
     private void thenProviderReturnsEmpty() {
         Assert.assertFalse(tableToSweep.isPresent());
     }
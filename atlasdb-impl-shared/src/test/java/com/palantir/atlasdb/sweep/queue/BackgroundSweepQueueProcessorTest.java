@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class BackgroundSweepQueueProcessorTest {
+    private static final TableReference TABLE_1 = TableReference.createFromFullyQualifiedName("test.table1");
+    private static final TableReference TABLE_2 = TableReference.createFromFullyQualifiedName("test.table2");
+
+    private final KeyValueService kvs = new InMemoryKeyValueService(true);
+    private final Set<TableReference> failingTables = Sets.newConcurrentHashSet();
+    private final Set<TableReference> sweptTables = Sets.newConcurrentHashSet();
+
+    private BackgroundSweepQueueProcessor processor;
+
+    @Before
+    public void setup() {
+        SweepQueueTables.createTables(kvs);
+        kvs.createTable(TABLE_1, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        kvs.createTable(TABLE_2, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        processor = new BackgroundSweepQueueProcessor(kvs, this::createProcessor);
+    }
+
+    @After
+    public void tearDown() {
+        processor.close();
+    }
+
+    @Test
+    public void sweepsEveryTableThatIsNotHidden() {
+        processor.sweepOneBatchForAllTables();
+
+        assertThat(sweptTables).containsExactlyInAnyOrder(TABLE_1, TABLE_2);
+    }
+
+    @Test
+    public void failureToSweepOneTableDoesNotStopOthers() {
+        failingTables.add(TABLE_1);
+
+        processor.sweepOneBatchForAllTables();
+
+        assertThat(sweptTables).containsExactly(TABLE_2);
+    }
+
+    @Test
+    public void sweepsInBackgroundWhileEnabled() {
+        processor.runInBackground(() -> true, () -> 1L);
+
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .until(() -> sweptTables.size() == 2);
+    }
+
+    @Test
+    public void doesNotSweepInBackgroundWhileDisabled() {
+        AtomicInteger enabledChecks = new AtomicInteger();
+
+        processor.runInBackground(() -> enabledChecks.incrementAndGet() < 0, () -> 1L);
+
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .until(() -> enabledChecks.get() >= 3);
+        assertThat(sweptTables).isEmpty();
+    }
+
+    private SweepQueueProcessor createProcessor(TableReference table) {
+        if (failingTables.contains(table)) {
+            throw new IllegalStateException("failed to create processor for " + table);
+        }
+        return new SweepQueueProcessor(() -> 0L, (consumer, maxTimestampExclusive) -> sweptTables.add(table),
+                SweepDeleter.NO_OP);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.atlasdb.transaction.service.TransactionServices;
+
+public class KvsSweepQueueTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final TableReference UNSWEPT_TABLE = TableReference.createFromFullyQualifiedName("test.unswept");
+    private static final int SHARDS = 4;
+    private static final int BATCH_SIZE = 100;
+
+    private static final Cell CELL_1 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col"));
+    private static final Cell CELL_2 = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col"));
+
+    private final KeyValueService kvs = new InMemoryKeyValueService(true);
+    private final TransactionService transactionService = TransactionServices.createTransactionService(kvs);
+    private final SweepStrategyManager sweepStrategyManager = mock(SweepStrategyManager.class);
+
+    private final List<WriteInfo> consumed = Lists.newArrayList();
+
+    private KvsSweepQueueWriter writer;
+    private KvsSweepQueueReader reader;
+
+    @Before
+    public void setup() {
+        SweepQueueTables.createTables(kvs);
+        when(sweepStrategyManager.get()).thenReturn(ImmutableMap.of(
+                TABLE, SweepStrategy.CONSERVATIVE,
+                UNSWEPT_TABLE, SweepStrategy.NOTHING));
+
+        writer = new KvsSweepQueueWriter(kvs, sweepStrategyManager, SHARDS);
+        reader = new KvsSweepQueueReader(kvs, transactionService, TABLE, SHARDS, BATCH_SIZE);
+    }
+
+    @Test
+    public void committedWritesAreConsumedAndRemovedFromQueue() {
+        enqueueAndCommit(TABLE, 10L, 20L, CELL_1, CELL_2);
+
+        reader.consumeNextBatch(this::consume, 30L);
+
+        assertThat(consumed).containsExactlyInAnyOrder(
+                WriteInfo.of(CELL_1, false, 10L),
+                WriteInfo.of(CELL_2, false, 10L));
+        assertQueueIsEmpty();
+    }
+
+    @Test
+    public void writesAreOnlyConsumedOnce() {
+        enqueueAndCommit(TABLE, 10L, 20L, CELL_1);
+
+        reader.consumeNextBatch(this::consume, 30L);
+        reader.consumeNextBatch(this::consume, 30L);
+
+        assertThat(consumed).containsExactly(WriteInfo.of(CELL_1, false, 10L));
+    }
+
+    @Test
+    public void writesCommittedAfterSweepTimestampAreNotConsumed() {
+        enqueueAndCommit(TABLE, 10L, 20L, CELL_1);
+
+        reader.consumeNextBatch(this::consume, 15L);
+        assertThat(consumed).isEmpty();
+
+        reader.consumeNextBatch(this::consume, 21L);
+        assertThat(consumed).containsExactly(WriteInfo.of(CELL_1, false, 10L));
+    }
+
+    @Test
+    public void writesOfFailedTransactionsAreDroppedWithoutBeingConsumed() {
+        enqueueAndCommit(TABLE, 10L, TransactionConstants.FAILED_COMMIT_TS, CELL_1);
+
+        reader.consumeNextBatch(this::consume, 30L);
+
+        assertThat(consumed).isEmpty();
+        assertQueueIsEmpty();
+    }
+
+    @Test
+    public void writesToTablesThatAreNotSweptAreNotEnqueued() {
+        enqueueAndCommit(UNSWEPT_TABLE, 10L, 20L, CELL_1);
+
+        assertQueueIsEmpty();
+    }
+
+    @Test
+    public void writesToTablesWithoutSweepStrategyAreNotEnqueued() {
+        enqueueAndCommit(TableReference.createFromFullyQualifiedName("test.unknown"), 10L, 20L, CELL_1);
+
+        assertQueueIsEmpty();
+    }
+
+    private void enqueueAndCommit(TableReference table, long startTs, long commitTs, Cell... cells) {
+        ImmutableList.Builder<WriteInfo> writes = ImmutableList.builder();
+        for (Cell cell : cells) {
+            writes.add(WriteInfo.of(cell, false, startTs));
+        }
+        writer.enqueue(table, writes.build());
+        transactionService.putUnlessExists(startTs, commitTs);
+    }
+
+    private void consume(Collection<WriteInfo> writes) {
+        consumed.addAll(writes);
+    }
+
+    private void assertQueueIsEmpty() {
+        assertThat(kvs.getRange(AtlasDbConstants.SWEEP_QUEUE_TABLE, RangeRequest.all(), Long.MAX_VALUE).hasNext())
+                .isFalse();
+    }
+}
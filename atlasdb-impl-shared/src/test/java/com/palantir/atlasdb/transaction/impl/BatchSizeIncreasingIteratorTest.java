@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.AdaptiveBatchSizer;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.ClosableIterators;
+
+public class BatchSizeIncreasingIteratorTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.batches");
+    private static final int NUM_ITEMS = 1000;
+    private static final long ITEM_BYTES = 100;
+
+    private final IntegerBatchProvider batchProvider = new IntegerBatchProvider();
+
+    @Test
+    public void learnedBatchSizeDoesNotExceedGeometricGrowth() {
+        AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer("test", 1000 * ITEM_BYTES, new MetricsManager());
+        BatchSizeIncreasingIterator<Integer> iterator = createIterator(10, batchSizer);
+
+        readBatchWithoutDeletes(iterator);
+        List<Integer> secondBatch = readBatchWithoutDeletes(iterator);
+
+        assertThat(secondBatch).hasSize(10);
+        assertThat(batchProvider.requestedBatchSizes).containsExactly(10);
+    }
+
+    @Test
+    public void batchSizeIsCappedToLearnedBatchSize() {
+        AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer("test", 10 * ITEM_BYTES, new MetricsManager());
+        BatchSizeIncreasingIterator<Integer> iterator = createIterator(100, batchSizer);
+
+        readBatchWithoutDeletes(iterator);
+        List<Integer> secondBatch = readBatchWithoutDeletes(iterator);
+
+        assertThat(secondBatch).hasSize(10).startsWith(100);
+        assertThat(batchProvider.requestedBatchSizes).containsExactly(100, 10);
+    }
+
+    @Test
+    public void firstBatchIsCappedToLearnedBatchSize() {
+        AdaptiveBatchSizer batchSizer = new AdaptiveBatchSizer("test", 10 * ITEM_BYTES, new MetricsManager());
+        batchSizer.recordPage(TABLE, 1, ITEM_BYTES);
+
+        List<Integer> firstBatch = readBatchWithoutDeletes(createIterator(100, batchSizer));
+
+        assertThat(firstBatch).hasSize(10);
+        assertThat(batchProvider.requestedBatchSizes).containsExactly(10);
+    }
+
+    private BatchSizeIncreasingIterator<Integer> createIterator(int batchSize, AdaptiveBatchSizer batchSizer) {
+        return new BatchSizeIncreasingIterator<>(batchProvider, batchSize, null, batchSizer, TABLE,
+                unused -> ITEM_BYTES);
+    }
+
+    private static List<Integer> readBatchWithoutDeletes(BatchSizeIncreasingIterator<Integer> iterator) {
+        List<Integer> batch = iterator.getBatch();
+        iterator.markNumResultsNotDeleted(batch.size());
+        return batch;
+    }
+
+    private static class IntegerBatchProvider implements BatchProvider<Integer> {
+        private final List<Integer> requestedBatchSizes = Lists.newArrayList();
+
+        @Override
+        public ClosableIterator<Integer> getBatch(int batchSize, @Nullable byte[] lastToken) {
+            requestedBatchSizes.add(batchSize);
+            int start = lastToken == null ? 0 : Ints.fromByteArray(lastToken) + 1;
+            // Like the key value service, treat the batch size as a hint and return the rest of the range.
+            List<Integer> items = IntStream.range(start, NUM_ITEMS)
+                    .boxed()
+                    .collect(Collectors.toList());
+            return ClosableIterators.wrap(items.iterator());
+        }
+
+        @Override
+        public boolean hasNext(byte[] lastToken) {
+            return Ints.fromByteArray(lastToken) + 1 < NUM_ITEMS;
+        }
+
+        @Override
+        public byte[] getLastToken(List<Integer> batch) {
+            return Ints.toByteArray(Iterables.getLast(batch));
+        }
+    }
+}
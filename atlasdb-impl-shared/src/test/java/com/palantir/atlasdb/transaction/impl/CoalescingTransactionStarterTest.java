@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class CoalescingTransactionStarterTest {
+    private static final long IMMUTABLE_TS = 1L;
+
+    private final TimelockService timelockService = mock(TimelockService.class);
+    private final CoalescingTransactionStarter starter = new CoalescingTransactionStarter(timelockService);
+    private final AtomicLong nextTimestamp = new AtomicLong(10L);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void singleStartGetsItsOwnLockAndTimestamp() {
+        when(timelockService.startTransactions(any())).thenAnswer(inv -> respond(inv, 1));
+
+        StartTransactionsResponse response = starter.startTransaction();
+
+        assertThat(response.getStartTimestamps().size()).isEqualTo(1L);
+        assertThat(response.getStartTimestamps().getLowerBound()).isEqualTo(10L);
+        assertThat(response.getImmutableTimestamp().getImmutableTimestamp()).isEqualTo(IMMUTABLE_TS);
+    }
+
+    @Test
+    public void concurrentStartsShareOneCallAndGetDistinctTimestamps() throws Exception {
+        List<StartTransactionsResponse> responses = startBatchBehindBlockedCall(10);
+
+        Set<Long> startTimestamps = Sets.newHashSet();
+        Set<LockToken> locks = Sets.newHashSet();
+        for (StartTransactionsResponse response : responses) {
+            startTimestamps.add(response.getStartTimestamps().getLowerBound());
+            locks.add(response.getImmutableTimestamp().getLock());
+        }
+
+        assertThat(startTimestamps).hasSize(10);
+        assertThat(locks).hasSize(1);
+        verify(timelockService, times(2)).startTransactions(any());
+    }
+
+    @Test
+    public void requestsMoreTimestampsIfTheServerReturnsFewerThanRequested() throws Exception {
+        when(timelockService.startTransactions(any())).thenAnswer(inv -> respond(inv, 1));
+
+        List<Future<StartTransactionsResponse>> futures = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            futures.add(executor.submit(starter::startTransaction));
+        }
+
+        Set<Long> startTimestamps = Sets.newHashSet();
+        for (Future<StartTransactionsResponse> future : futures) {
+            startTimestamps.add(future.get().getStartTimestamps().getLowerBound());
+        }
+        assertThat(startTimestamps).hasSize(5);
+    }
+
+    @Test
+    public void sharedLockIsOnlyUnlockedOnceAllTransactionsHaveFinished() throws Exception {
+        List<StartTransactionsResponse> responses = startBatchBehindBlockedCall(3);
+        LockToken lock = responses.get(0).getImmutableTimestamp().getLock();
+
+        starter.unlock(lock);
+        starter.unlock(lock);
+        verify(timelockService, never()).tryUnlock(ImmutableSet.of(lock));
+
+        starter.unlock(lock);
+        verify(timelockService).tryUnlock(ImmutableSet.of(lock));
+    }
+
+    @Test
+    public void locksNotTakenByTheStarterAreUnlockedImmediately() {
+        LockToken lock = LockToken.of(UUID.randomUUID());
+
+        starter.unlock(lock);
+
+        verify(timelockService).tryUnlock(ImmutableSet.of(lock));
+    }
+
+    @Test
+    public void failuresArePropagatedToAllStartsInTheBatch() {
+        when(timelockService.startTransactions(any())).thenThrow(new IllegalStateException("timelock unavailable"));
+
+        assertThatThrownBy(starter::startTransaction).isInstanceOf(IllegalStateException.class);
+        verify(timelockService, never()).tryUnlock(any());
+    }
+
+    /**
+     * Starts the given number of transactions while an earlier call is in flight, so that they are all served by
+     * the next call, and returns their responses.
+     */
+    private List<StartTransactionsResponse> startBatchBehindBlockedCall(int numTransactions) throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        when(timelockService.startTransactions(any())).thenAnswer(inv -> {
+            if (firstCallStarted.getCount() > 0) {
+                firstCallStarted.countDown();
+                releaseFirstCall.await();
+            }
+            return respond(inv, Integer.MAX_VALUE);
+        });
+
+        Future<StartTransactionsResponse> first = executor.submit(starter::startTransaction);
+        firstCallStarted.await();
+        List<Future<StartTransactionsResponse>> futures = Lists.newArrayList();
+        for (int i = 0; i < numTransactions; i++) {
+            futures.add(executor.submit(starter::startTransaction));
+        }
+        while (starter.numQueuedStarts() < numTransactions) {
+            Thread.sleep(10);
+        }
+        releaseFirstCall.countDown();
+        first.get();
+
+        List<StartTransactionsResponse> responses = Lists.newArrayList();
+        for (Future<StartTransactionsResponse> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+
+    private StartTransactionsResponse respond(InvocationOnMock invocation, int maxTimestamps) {
+        StartTransactionsRequest request = (StartTransactionsRequest) invocation.getArguments()[0];
+        int numTimestamps = Math.min(request.getNumTransactions(), maxTimestamps);
+        long lower = nextTimestamp.getAndAdd(numTimestamps);
+        return StartTransactionsResponse.of(
+                LockImmutableTimestampResponse.of(IMMUTABLE_TS, LockToken.of(UUID.randomUUID())),
+                TimestampRange.createInclusiveRange(lower, lower + numTimestamps - 1));
+    }
+}
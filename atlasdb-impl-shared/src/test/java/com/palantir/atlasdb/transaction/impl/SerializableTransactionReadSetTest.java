@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+
+public class SerializableTransactionReadSetTest {
+    private static final byte[] COLUMN = PtBytes.toBytes("col");
+
+    @Test
+    public void shortValuesAreTheirOwnDigest() {
+        byte[] value = PtBytes.toBytes("short value");
+        assertThat(SerializableTransaction.digest(value)).isSameAs(value);
+    }
+
+    @Test
+    public void valuesOfDigestLengthAreHashed() {
+        byte[] value = new byte[32];
+        assertThat(SerializableTransaction.digest(value)).isEqualTo(Hashing.sha256().hashBytes(value).asBytes());
+    }
+
+    @Test
+    public void longValuesAreHashed() {
+        byte[] value = new byte[1000];
+        byte[] otherValue = Arrays.copyOf(value, value.length);
+        otherValue[999] = 1;
+
+        assertThat(SerializableTransaction.digest(value)).hasSize(32);
+        assertThat(SerializableTransaction.digest(value)).isEqualTo(SerializableTransaction.digest(value.clone()));
+        assertThat(SerializableTransaction.digest(value)).isNotEqualTo(SerializableTransaction.digest(otherValue));
+    }
+
+    @Test
+    public void overlappingAndAbuttingRangesAreMerged() {
+        assertThat(SerializableTransaction.coalesceRanges(ImmutableList.of(
+                range("c", "e"),
+                range("a", "c"),
+                range("b", "d"))))
+                .containsExactly(range("a", "e"));
+    }
+
+    @Test
+    public void disjointRangesAreNotMerged() {
+        assertThat(SerializableTransaction.coalesceRanges(ImmutableList.of(range("d", "e"), range("a", "c"))))
+                .containsExactlyInAnyOrder(range("a", "c"), range("d", "e"));
+    }
+
+    @Test
+    public void unboundedRangeAbsorbsLaterRanges() {
+        assertThat(SerializableTransaction.coalesceRanges(ImmutableList.of(range("b", ""), range("c", "z"))))
+                .containsExactly(range("b", ""));
+    }
+
+    @Test
+    public void rangesOverDifferentColumnsAreNotMerged() {
+        RangeRequest withColumns = range("b", "d").getBuilder().retainColumns(ImmutableList.of(COLUMN)).build();
+        assertThat(SerializableTransaction.coalesceRanges(ImmutableList.of(range("a", "c"), withColumns)))
+                .containsExactlyInAnyOrder(range("a", "c"), withColumns);
+    }
+
+    @Test
+    public void reverseRangesAreNotMerged() {
+        RangeRequest reverse = RangeRequest.reverseBuilder()
+                .startRowInclusive(PtBytes.toBytes("c"))
+                .endRowExclusive(PtBytes.toBytes("a"))
+                .build();
+        assertThat(SerializableTransaction.coalesceRanges(ImmutableList.of(reverse, range("a", "c"))))
+                .containsExactlyInAnyOrder(range("a", "c"), reverse);
+    }
+
+    private static RangeRequest range(String startInclusive, String endExclusive) {
+        return RangeRequest.builder()
+                .startRowInclusive(PtBytes.toBytes(startInclusive))
+                .endRowExclusive(PtBytes.toBytes(endExclusive))
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+public class CoalescingTransactionServiceTest {
+    private final TransactionService delegate = mock(TransactionService.class);
+    private final CoalescingTransactionService transactionService = CoalescingTransactionService.create(delegate);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void singlePutIsWrittenOnItsOwn() {
+        transactionService.putUnlessExists(1L, 2L);
+
+        verify(delegate).putUnlessExistsMultiple(ImmutableMap.of(1L, 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void concurrentPutsShareOneWrite() throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        doAnswer(inv -> {
+            if (firstCallStarted.getCount() > 0) {
+                firstCallStarted.countDown();
+                releaseFirstCall.await();
+            }
+            return null;
+        }).when(delegate).putUnlessExistsMultiple(any());
+
+        Future<?> first = executor.submit(() -> transactionService.putUnlessExists(0L, 1L));
+        firstCallStarted.await();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (long startTs = 10L; startTs < 20L; startTs++) {
+            long commitTs = startTs + 1;
+            futures.add(executor.submit(() -> transactionService.putUnlessExists(commitTs - 1, commitTs)));
+        }
+        while (transactionService.numQueuedPuts() < 10) {
+            Thread.sleep(10);
+        }
+        releaseFirstCall.countDown();
+        first.get();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+        verify(delegate, times(2)).putUnlessExistsMultiple(captor.capture());
+        assertThat(captor.getAllValues().get(1)).hasSize(10);
+    }
+
+    @Test
+    public void failedBatchOnlyFailsThePutsThatConflicted() {
+        doThrow(new KeyAlreadyExistsException("conflict")).when(delegate).putUnlessExistsMultiple(any());
+        doThrow(new KeyAlreadyExistsException("conflict")).when(delegate).putUnlessExists(1L, 2L);
+        when(delegate.get(1L)).thenReturn(TransactionConstants.FAILED_COMMIT_TS);
+
+        assertThatThrownBy(() -> transactionService.putUnlessExists(1L, 2L))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+    }
+
+    @Test
+    public void putsAlreadyWrittenByAFailedBatchSucceed() {
+        doThrow(new KeyAlreadyExistsException("conflict")).when(delegate).putUnlessExistsMultiple(any());
+        doThrow(new KeyAlreadyExistsException("conflict")).when(delegate).putUnlessExists(1L, 2L);
+        when(delegate.get(1L)).thenReturn(2L);
+
+        transactionService.putUnlessExists(1L, 2L);
+
+        verify(delegate).putUnlessExists(1L, 2L);
+    }
+
+    @Test
+    public void otherFailuresArePropagatedWithoutRetrying() {
+        doThrow(new IllegalStateException("kvs unavailable")).when(delegate).putUnlessExistsMultiple(any());
+
+        assertThatThrownBy(() -> transactionService.putUnlessExists(1L, 2L))
+                .isInstanceOf(IllegalStateException.class);
+        verify(delegate, never()).putUnlessExists(anyLong(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void concurrentGetsShareOneReadAndOnlySeeTheirOwnTimestamps() throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        when(delegate.get(any(Iterable.class))).thenAnswer(inv -> {
+            if (firstCallStarted.getCount() > 0) {
+                firstCallStarted.countDown();
+                releaseFirstCall.await();
+            }
+            ImmutableMap.Builder<Long, Long> result = ImmutableMap.builder();
+            for (Long startTs : (Iterable<Long>) inv.getArguments()[0]) {
+                result.put(startTs, startTs + 1);
+            }
+            return result.build();
+        });
+
+        Future<Map<Long, Long>> first = executor.submit(() -> transactionService.get(ImmutableList.of(0L)));
+        firstCallStarted.await();
+        List<Future<Map<Long, Long>>> futures = Lists.newArrayList();
+        for (long startTs = 10L; startTs < 20L; startTs++) {
+            long timestamp = startTs;
+            futures.add(executor.submit(() -> transactionService.get(ImmutableList.of(timestamp))));
+        }
+        while (transactionService.numQueuedGets() < 10) {
+            Thread.sleep(10);
+        }
+        releaseFirstCall.countDown();
+
+        assertThat(first.get()).isEqualTo(ImmutableMap.of(0L, 1L));
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isEqualTo(ImmutableMap.of(10L + i, 11L + i));
+        }
+        verify(delegate, times(2)).get(any(Iterable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getOfSingleTimestampReturnsNullIfNotCommitted() {
+        when(delegate.get(any(Iterable.class))).thenReturn(ImmutableMap.of());
+
+        assertThat(transactionService.get(1L)).isNull();
+    }
+}
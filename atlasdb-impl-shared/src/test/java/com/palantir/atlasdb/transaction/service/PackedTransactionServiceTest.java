@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.atlasdb.transaction.impl.TransactionTables;
+
+public class PackedTransactionServiceTest {
+    private static final long PARTITION_START = 5 * PackedTransactionsEncoding.TIMESTAMPS_PER_PARTITION;
+
+    private final KeyValueService keyValueService = spy(new InMemoryKeyValueService(false));
+    private final TransactionService transactionService = new PackedTransactionService(keyValueService);
+
+    @Before
+    public void setUp() {
+        TransactionTables.createTables(keyValueService);
+    }
+
+    @Test
+    public void canReadWrittenCommitTimestamps() {
+        transactionService.putUnlessExists(10L, 15L);
+        transactionService.putUnlessExists(11L, TransactionConstants.FAILED_COMMIT_TS);
+
+        assertThat(transactionService.get(10L)).isEqualTo(15L);
+        assertThat(transactionService.get(11L)).isEqualTo(TransactionConstants.FAILED_COMMIT_TS);
+        assertThat(transactionService.get(12L)).isNull();
+    }
+
+    @Test
+    public void cannotOverwriteCommitTimestamp() {
+        transactionService.putUnlessExists(10L, 15L);
+
+        assertThatThrownBy(() -> transactionService.putUnlessExists(10L, TransactionConstants.FAILED_COMMIT_TS))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+        assertThat(transactionService.get(10L)).isEqualTo(15L);
+    }
+
+    @Test
+    public void encodingRoundTrips() {
+        for (long startTimestamp : ImmutableList.of(0L, 1L, 15L, 16L, 12_345_678L, Long.MAX_VALUE >>> 1)) {
+            Cell cell = PackedTransactionsEncoding.encodeStartTimestamp(startTimestamp);
+            assertThat(PackedTransactionsEncoding.decodeStartTimestamp(cell)).isEqualTo(startTimestamp);
+            for (long commitTimestamp : ImmutableList.of(startTimestamp + 1, TransactionConstants.FAILED_COMMIT_TS)) {
+                byte[] value = PackedTransactionsEncoding.encodeCommitTimestamp(startTimestamp, commitTimestamp);
+                assertThat(PackedTransactionsEncoding.decodeCommitTimestamp(startTimestamp, value))
+                        .isEqualTo(commitTimestamp);
+            }
+        }
+    }
+
+    @Test
+    public void consecutiveStartTimestampsAreSpreadOverRows() {
+        long rows = LongStream.range(PARTITION_START, PARTITION_START + 100)
+                .map(PackedTransactionsEncoding::rowKey)
+                .distinct()
+                .count();
+        assertThat(rows).isEqualTo(PackedTransactionsEncoding.ROWS_PER_PARTITION);
+    }
+
+    @Test
+    public void committedTransactionsTakeLittleSpace() {
+        assertThat(PackedTransactionsEncoding.encodeCommitTimestamp(1_000_000_000L, 1_000_000_050L)).hasSize(1);
+    }
+
+    @Test
+    public void canReadManyCommitTimestampsFromAPartition() {
+        Map<Long, Long> committed = LongStream.range(PARTITION_START, PARTITION_START + 1000)
+                .filter(startTimestamp -> startTimestamp % 3 != 0)
+                .boxed()
+                .collect(Collectors.toMap(startTimestamp -> startTimestamp, startTimestamp -> startTimestamp + 7));
+        transactionService.putUnlessExistsMultiple(committed);
+
+        Map<Long, Long> result = transactionService.get(LongStream.range(PARTITION_START, PARTITION_START + 500)
+                .boxed()
+                .collect(Collectors.toList()));
+
+        assertThat(result).isEqualTo(committed.entrySet().stream()
+                .filter(entry -> entry.getKey() < PARTITION_START + 500)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        verify(keyValueService, never()).get(any(TableReference.class), any());
+    }
+
+    @Test
+    public void sparseStartTimestampsAreReadAsCells() {
+        long sparseStart = PARTITION_START + 1000 * PackedTransactionsEncoding.ROWS_PER_PARTITION;
+        transactionService.putUnlessExistsMultiple(ImmutableMap.of(PARTITION_START, 3L, sparseStart, 4L));
+
+        assertThat(transactionService.get(ImmutableList.of(PARTITION_START, sparseStart, sparseStart + 1)))
+                .isEqualTo(ImmutableMap.of(PARTITION_START, 3L, sparseStart, 4L));
+        verify(keyValueService, never()).getRowsColumnRange(
+                any(TableReference.class), any(), any(BatchColumnRangeSelection.class), anyLong());
+    }
+
+    @Test
+    public void rangeReadsOnlyReturnRequestedStartTimestamps() {
+        long rowWidth = PackedTransactionsEncoding.ROWS_PER_PARTITION;
+        Map<Long, Long> committed = LongStream.range(0, 64)
+                .map(column -> PARTITION_START + column * rowWidth)
+                .boxed()
+                .collect(Collectors.toMap(startTimestamp -> startTimestamp, startTimestamp -> startTimestamp + 1));
+        transactionService.putUnlessExistsMultiple(committed);
+
+        Map<Long, Long> requested = committed.entrySet().stream()
+                .filter(entry -> (entry.getKey() - PARTITION_START) % (2 * rowWidth) == 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        assertThat(transactionService.get(requested.keySet())).isEqualTo(requested);
+        verify(keyValueService).getRowsColumnRange(
+                any(TableReference.class), any(), any(BatchColumnRangeSelection.class), anyLong());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.transaction.impl.TransactionTables;
+import com.palantir.timestamp.TimestampService;
+
+public class VersionedTransactionServiceTest {
+    private static final long CUTOVER = 100L;
+
+    private final TransactionService beforeCutover = mock(TransactionService.class);
+    private final TransactionService afterCutover = mock(TransactionService.class);
+    private final TransactionService transactionService =
+            new VersionedTransactionService(beforeCutover, afterCutover, () -> CUTOVER);
+
+    private final KeyValueService keyValueService = new InMemoryKeyValueService(false);
+    private final TimestampService timestampService = mock(TimestampService.class);
+
+    @Before
+    public void setUp() {
+        TransactionTables.createTables(keyValueService);
+        when(timestampService.getFreshTimestamp()).thenReturn(CUTOVER - 1);
+    }
+
+    @Test
+    public void routesSingleTimestampsByCutover() {
+        when(beforeCutover.get(CUTOVER - 1)).thenReturn(1L);
+        when(afterCutover.get(CUTOVER)).thenReturn(2L);
+
+        assertThat(transactionService.get(CUTOVER - 1)).isEqualTo(1L);
+        assertThat(transactionService.get(CUTOVER)).isEqualTo(2L);
+
+        transactionService.putUnlessExists(CUTOVER - 1, CUTOVER + 1);
+        transactionService.putUnlessExists(CUTOVER, CUTOVER + 1);
+        verify(beforeCutover).putUnlessExists(CUTOVER - 1, CUTOVER + 1);
+        verify(afterCutover).putUnlessExists(CUTOVER, CUTOVER + 1);
+    }
+
+    @Test
+    public void splitsBatchesAtCutover() {
+        when(beforeCutover.get(ImmutableList.of(1L))).thenReturn(ImmutableMap.of(1L, 2L));
+        when(afterCutover.get(ImmutableList.of(CUTOVER, CUTOVER + 1))).thenReturn(ImmutableMap.of(CUTOVER, 200L));
+
+        assertThat(transactionService.get(ImmutableList.of(1L, CUTOVER, CUTOVER + 1)))
+                .isEqualTo(ImmutableMap.of(1L, 2L, CUTOVER, 200L));
+
+        transactionService.putUnlessExistsMultiple(ImmutableMap.of(1L, 2L, CUTOVER, 200L));
+        verify(beforeCutover).putUnlessExistsMultiple(ImmutableMap.of(1L, 2L));
+        verify(afterCutover).putUnlessExistsMultiple(ImmutableMap.of(CUTOVER, 200L));
+    }
+
+    @Test
+    public void batchesOnOneSideOfCutoverOnlyUseOneService() {
+        transactionService.putUnlessExistsMultiple(ImmutableMap.of(1L, 2L, 3L, 4L));
+
+        verify(beforeCutover).putUnlessExistsMultiple(ImmutableMap.of(1L, 2L, 3L, 4L));
+        verifyNoMoreInteractions(afterCutover);
+    }
+
+    @Test
+    public void writesAfterCutoverGoToPackedTable() {
+        TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER);
+        TransactionService versioned = TransactionServices.createTransactionService(keyValueService);
+        versioned.putUnlessExists(CUTOVER - 1, CUTOVER + 1);
+        versioned.putUnlessExists(CUTOVER, CUTOVER + 2);
+
+        assertThat(new SimpleTransactionService(keyValueService).get(ImmutableList.of(CUTOVER - 1, CUTOVER)))
+                .isEqualTo(ImmutableMap.of(CUTOVER - 1, CUTOVER + 1));
+        assertThat(new PackedTransactionService(keyValueService).get(ImmutableList.of(CUTOVER - 1, CUTOVER)))
+                .isEqualTo(ImmutableMap.of(CUTOVER, CUTOVER + 2));
+        assertThat(versioned.get(ImmutableList.of(CUTOVER - 1, CUTOVER)))
+                .isEqualTo(ImmutableMap.of(CUTOVER - 1, CUTOVER + 1, CUTOVER, CUTOVER + 2));
+    }
+
+    @Test
+    public void allTimestampsUseOriginalTableWithoutCutover() {
+        TransactionServices.createTransactionService(keyValueService).putUnlessExists(CUTOVER, CUTOVER + 1);
+
+        assertThat(new SimpleTransactionService(keyValueService).get(CUTOVER)).isEqualTo(CUTOVER + 1);
+    }
+
+    @Test
+    public void conflictingCutoverIsRejected() {
+        TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER);
+
+        assertThatThrownBy(() ->
+                TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER + 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not match");
+    }
+
+    @Test
+    public void cutoverNotAboveFreshTimestampIsRejectedAndNotPersisted() {
+        when(timestampService.getFreshTimestamp()).thenReturn(CUTOVER);
+
+        assertThatThrownBy(() ->
+                TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("must be greater than");
+
+        TransactionServices.createTransactionService(keyValueService).putUnlessExists(CUTOVER, CUTOVER + 1);
+        assertThat(new SimpleTransactionService(keyValueService).get(CUTOVER)).isEqualTo(CUTOVER + 1);
+    }
+
+    @Test
+    public void persistedCutoverIsAcceptedAfterTimestampsPassIt() {
+        TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER);
+        when(timestampService.getFreshTimestamp()).thenReturn(CUTOVER + 10);
+
+        TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER);
+    }
+
+    @Test
+    public void cutoverIsResolvedOnceBeforeFirstRequest() {
+        AtomicInteger lookups = new AtomicInteger();
+        TransactionService service = new VersionedTransactionService(beforeCutover, afterCutover, () -> {
+            lookups.incrementAndGet();
+            return CUTOVER;
+        });
+        assertThat(lookups.get()).isEqualTo(0);
+
+        service.putUnlessExists(CUTOVER, CUTOVER + 1);
+        service.get(CUTOVER);
+        service.get(CUTOVER - 1);
+
+        verify(afterCutover).putUnlessExists(CUTOVER, CUTOVER + 1);
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void defaultTransactionServiceUsesPersistedCutover() {
+        TransactionServices.persistCutoverTimestamp(keyValueService, timestampService, CUTOVER);
+
+        TransactionServices.createTransactionService(keyValueService).putUnlessExists(CUTOVER, CUTOVER + 1);
+
+        assertThat(new PackedTransactionService(keyValueService).get(CUTOVER)).isEqualTo(CUTOVER + 1);
+        assertThat(new SimpleTransactionService(keyValueService).get(CUTOVER)).isNull();
+    }
+}
@@ -27,8 +27,10 @@ import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import org.immutables.value.Value;
@@ -38,6 +40,7 @@ import org.openjdk.jmh.util.Multiset;
 import org.openjdk.jmh.util.Statistics;
 import org.openjdk.jmh.util.TreeMultiset;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -63,6 +66,58 @@ public class PerformanceResults {
         }
     }
 
+    /**
+     * Compares these results against a baseline previously written by {@link #writeToFile(File)}, and returns the
+     * benchmarks whose mean or 99th percentile latency is more than {@code thresholdPercent} percent worse than in the
+     * baseline. Benchmarks that are missing from the baseline are ignored.
+     */
+    public List<Regression> findRegressions(File baselineFile, double thresholdPercent) throws IOException {
+        List<PerformanceResult> baseline = new ObjectMapper().readValue(baselineFile,
+                new TypeReference<List<ImmutablePerformanceResult>>() {});
+        return findRegressions(getPerformanceResults(results), baseline, thresholdPercent);
+    }
+
+    @VisibleForTesting
+    static List<Regression> findRegressions(
+            List<? extends PerformanceResult> current,
+            List<? extends PerformanceResult> baseline,
+            double thresholdPercent) {
+        Map<String, PerformanceResult> baselineByBenchmark = baseline.stream()
+                .collect(Collectors.toMap(PerformanceResult::benchmark, result -> result, (first, second) -> second));
+        List<Regression> regressions = Lists.newArrayList();
+        for (PerformanceResult result : current) {
+            PerformanceResult previous = baselineByBenchmark.get(result.benchmark());
+            if (previous != null) {
+                checkForRegression(result, previous, "mean", PerformanceResult::mean, thresholdPercent)
+                        .ifPresent(regressions::add);
+                checkForRegression(result, previous, "p99", PerformanceResult::p99, thresholdPercent)
+                        .ifPresent(regressions::add);
+            }
+        }
+        return regressions;
+    }
+
+    private static Optional<Regression> checkForRegression(
+            PerformanceResult current,
+            PerformanceResult baseline,
+            String statistic,
+            ToDoubleFunction<PerformanceResult> extractor,
+            double thresholdPercent) {
+        double currentValue = extractor.applyAsDouble(current);
+        double baselineValue = extractor.applyAsDouble(baseline)
+                * baseline.units().toNanos(1) / current.units().toNanos(1);
+        if (baselineValue <= 0 || currentValue <= baselineValue * (1 + thresholdPercent / 100)) {
+            return Optional.empty();
+        }
+        return Optional.of(ImmutableRegression.builder()
+                .benchmark(current.benchmark())
+                .statistic(statistic)
+                .baseline(baselineValue)
+                .current(currentValue)
+                .units(current.units())
+                .build());
+    }
+
     private static List<ImmutablePerformanceResult> getPerformanceResults(Collection<RunResult> results) {
         long date = System.currentTimeMillis();
         return results.stream().map(rs ->
@@ -162,6 +217,21 @@ public class PerformanceResults {
         }
     }
 
+    @Value.Immutable
+    public abstract static class Regression {
+        public abstract String benchmark();
+        public abstract String statistic();
+        public abstract double baseline();
+        public abstract double current();
+        public abstract TimeUnit units();
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s went from %.3f to %.3f %s (%+.1f%%)", benchmark(), statistic(), baseline(),
+                    current(), units(), 100 * (current() - baseline()) / baseline());
+        }
+    }
+
     @JsonDeserialize(as = ImmutablePerformanceResult.class)
     @JsonSerialize(as = ImmutablePerformanceResult.class)
     @Value.Immutable
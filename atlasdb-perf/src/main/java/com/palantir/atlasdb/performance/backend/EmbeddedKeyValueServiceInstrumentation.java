@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import java.net.InetSocketAddress;
+
+/**
+ * A backend that runs inside the benchmark JVM, so needs neither Docker nor any other external service. The address
+ * of its {@link DockerizedDatabaseUri} is a placeholder and is ignored.
+ */
+public abstract class EmbeddedKeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
+    private static final InetSocketAddress PLACEHOLDER_ADDRESS = InetSocketAddress.createUnresolved("localhost", 0);
+
+    EmbeddedKeyValueServiceInstrumentation() {
+        super(0, null);
+    }
+
+    public DockerizedDatabaseUri getUri() {
+        return new DockerizedDatabaseUri(this, PLACEHOLDER_ADDRESS);
+    }
+
+    @Override
+    public boolean requiresDocker() {
+        return false;
+    }
+
+    @Override
+    public boolean canConnect(InetSocketAddress addr) {
+        return true;
+    }
+}
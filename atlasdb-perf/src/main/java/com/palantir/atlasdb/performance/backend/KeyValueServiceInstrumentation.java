@@ -36,6 +36,8 @@ public abstract class KeyValueServiceInstrumentation {
     static {
         addNewBackendType(new CassandraKeyValueServiceInstrumentation());
         addNewBackendType(new PostgresKeyValueServiceInstrumentation());
+        addNewBackendType(new InMemoryKeyValueServiceInstrumentation());
+        addNewBackendType(new H2KeyValueServiceInstrumentation());
     }
 
     KeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
@@ -51,6 +53,13 @@ public abstract class KeyValueServiceInstrumentation {
         return kvsPort;
     }
 
+    /**
+     * Whether this backend has to be started in a docker container before benchmarks can connect to it.
+     */
+    public boolean requiresDocker() {
+        return true;
+    }
+
     public abstract KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr);
     public abstract boolean canConnect(InetSocketAddress addr);
 
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.paxos.PaxosStateLog;
+import com.palantir.paxos.PaxosStateLogImpl;
+import com.palantir.paxos.PaxosValue;
+import com.palantir.paxos.SegmentedPaxosStateLog;
+
+/**
+ * Compares the write latency of the file-per-round paxos state log against the segmented append-only log, with
+ * several threads writing concurrently as the acceptor and learner of a busy TimeLock node would.
+ */
+@State(Scope.Benchmark)
+public class PaxosStateLogBenchmarks {
+
+    private static final String LEADER = UUID.randomUUID().toString();
+
+    @Param({"FILE_PER_ROUND", "SEGMENTED"})
+    public String logType;
+
+    private final AtomicLong nextSeq = new AtomicLong();
+
+    private File directory;
+    private PaxosStateLog<PaxosValue> log;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("paxos-state-log-benchmark").toFile();
+        log = logType.equals("SEGMENTED")
+                ? new SegmentedPaxosStateLog<>(directory.getPath())
+                : new PaxosStateLogImpl<>(directory.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        if (log instanceof Closeable) {
+            ((Closeable) log).close();
+        }
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public long writeRound() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public long writeRoundConcurrently() {
+        return write();
+    }
+
+    private long write() {
+        long seq = nextSeq.getAndIncrement();
+        log.writeRound(seq, new PaxosValue(LEADER, seq, new byte[Long.BYTES]));
+        return seq;
+    }
+}
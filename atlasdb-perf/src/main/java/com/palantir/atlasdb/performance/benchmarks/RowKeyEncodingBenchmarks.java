@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamValueTable.ValueStreamValueRow;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+
+/**
+ * Compares building a multi-component row key from one array per component against encoding every component into
+ * a single pre-sized array, as generated row classes now do. Run with {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Thread)
+public class RowKeyEncodingBenchmarks {
+
+    private final long id = 1234567L;
+    private final long blockId = 42L;
+    private final long timestamp = -98765432109L;
+    private final String name = "some-reasonably-long-component-name";
+    private final byte[] blob = PtBytes.toBytes("opaque-blob-component");
+    private final UUID uuid = UUID.randomUUID();
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public byte[] generatedRowPersistToBytes() {
+        return ValueStreamValueRow.of(id, blockId).persistToBytes();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public byte[] fiveComponentKeyWithArrayPerComponent() {
+        byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
+        byte[] timestampBytes = EncodingUtils.encodeSignedVarLong(timestamp);
+        byte[] nameBytes = EncodingUtils.encodeVarString(name);
+        byte[] blobBytes = EncodingUtils.encodeSizedBytes(blob);
+        byte[] uuidBytes = EncodingUtils.encodeUUID(uuid);
+        return EncodingUtils.add(idBytes, timestampBytes, nameBytes, blobBytes, uuidBytes);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    public byte[] fiveComponentKeyIntoSingleArray() {
+        byte[] output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id)
+                + EncodingUtils.sizeOfSignedVarLong(timestamp)
+                + EncodingUtils.sizeOfVarString(name)
+                + EncodingUtils.sizeOfSizedBytes(blob)
+                + 16];
+        int index = 0;
+        index = EncodingUtils.encodeUnsignedVarLong(id, output, index);
+        index = EncodingUtils.encodeSignedVarLong(timestamp, output, index);
+        index = EncodingUtils.encodeVarString(name, output, index);
+        index = EncodingUtils.encodeSizedBytes(blob, output, index);
+        EncodingUtils.encodeUUID(uuid, output, index);
+        return output;
+    }
+}
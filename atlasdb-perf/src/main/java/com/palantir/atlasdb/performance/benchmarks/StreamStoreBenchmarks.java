@@ -34,13 +34,21 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
+import com.google.common.io.ByteStreams;
 import com.palantir.atlasdb.performance.benchmarks.table.StreamingTable;
 import com.palantir.atlasdb.performance.schema.generated.StreamTestTableFactory;
 import com.palantir.atlasdb.performance.schema.generated.ValueStreamStore;
+import com.palantir.atlasdb.stream.ImmutableStreamStorePersistenceConfiguration;
+import com.palantir.atlasdb.stream.StreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 
 @State(Scope.Benchmark)
 public class StreamStoreBenchmarks {
+    private static final long VERY_LARGE_STREAM_LENGTH = 60_000_000L;
+    private static final StreamStorePersistenceConfiguration PREFETCHING_CONFIG =
+            ImmutableStreamStorePersistenceConfiguration.builder()
+                    .numBlockBatchesToPrefetch(8)
+                    .build();
 
     @Benchmark
     @Threads(1)
@@ -93,4 +101,33 @@ public class StreamStoreBenchmarks {
             assertArrayEquals(table.getVeryLargeStreamFirstBytes(), firstBytes);
         }
     }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 30, timeUnit = TimeUnit.SECONDS)
+    public long readVeryLargeStream(StreamingTable table) throws IOException {
+        return readVeryLargeStream(table, StreamStorePersistenceConfiguration.DEFAULT_CONFIG);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 30, timeUnit = TimeUnit.SECONDS)
+    public long readVeryLargeStreamWithPrefetching(StreamingTable table) throws IOException {
+        return readVeryLargeStream(table, PREFETCHING_CONFIG);
+    }
+
+    private static long readVeryLargeStream(StreamingTable table, StreamStorePersistenceConfiguration config)
+            throws IOException {
+        long id = table.getVeryLargeStreamId();
+        TransactionManager transactionManager = table.getTransactionManager();
+        StreamTestTableFactory tables = StreamTestTableFactory.of();
+        ValueStreamStore store = ValueStreamStore.of(transactionManager, tables, () -> config);
+        try (InputStream inputStream = transactionManager.runTaskThrowOnConflict(txn -> store.loadStream(txn, id))) {
+            long bytesRead = ByteStreams.exhaust(inputStream);
+            assertThat(bytesRead, is(VERY_LARGE_STREAM_LENGTH));
+            return bytesRead;
+        }
+    }
 }
@@ -26,11 +26,13 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
+import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.performance.benchmarks.table.EmptyTables;
+import com.palantir.atlasdb.performance.benchmarks.table.TransactionTable;
 
 /**
- * Performance benchmarks for KVS put operations.
+ * Performance benchmarks for KVS put operations, and for the writes to the transactions table made when committing.
  *
  * @author mwakerman
  */
@@ -38,6 +40,7 @@ import com.palantir.atlasdb.performance.benchmarks.table.EmptyTables;
 public class TransactionPutBenchmarks {
 
     private static final int BATCH_SIZE = 250;
+    private static final int CONCURRENT_COMMITTERS = 64;
 
     @Benchmark
     @Threads(1)
@@ -63,4 +66,26 @@ public class TransactionPutBenchmarks {
         });
     }
 
+    @Benchmark
+    @Threads(CONCURRENT_COMMITTERS)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 15, timeUnit = TimeUnit.SECONDS)
+    public long concurrentCommitTimestampPuts(TransactionTable table) {
+        long startTimestamp = table.nextStartTimestamp();
+        table.getTransactionService().putUnlessExists(startTimestamp, startTimestamp + 1);
+        return startTimestamp;
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_COMMITTERS)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 15, timeUnit = TimeUnit.SECONDS)
+    public Object concurrentCommitTimestampPutsAndGets(TransactionTable table) {
+        long startTimestamp = table.nextStartTimestamp();
+        table.getTransactionService().putUnlessExists(startTimestamp, startTimestamp + 1);
+        return table.getTransactionService().get(ImmutableList.of(
+                table.randomWrittenStartTimestamp(),
+                table.randomWrittenStartTimestamp()));
+    }
+
 }
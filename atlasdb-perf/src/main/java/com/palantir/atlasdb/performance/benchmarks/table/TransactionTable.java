@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks.table;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.palantir.atlasdb.performance.backend.AtlasDbServicesConnector;
+import com.palantir.atlasdb.transaction.service.CoalescingTransactionService;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.atlasdb.transaction.service.TransactionServices;
+
+/**
+ * State class for writing and reading commit timestamps through a {@link TransactionService}, either directly or
+ * through a {@link CoalescingTransactionService}.
+ */
+@State(Scope.Benchmark)
+public class TransactionTable {
+
+    @Param({"SIMPLE", "COALESCING"})
+    public String transactionServiceType;
+
+    private final AtomicLong nextStartTimestamp = new AtomicLong(1L);
+
+    private AtlasDbServicesConnector connector;
+    private TransactionService transactionService;
+
+    public TransactionService getTransactionService() {
+        return transactionService;
+    }
+
+    public long nextStartTimestamp() {
+        return nextStartTimestamp.getAndIncrement();
+    }
+
+    /**
+     * Returns a start timestamp that has already been written, or is about to be.
+     */
+    public long randomWrittenStartTimestamp() {
+        return ThreadLocalRandom.current().nextLong(1L, nextStartTimestamp.get() + 1);
+    }
+
+    @Setup(Level.Trial)
+    public void setup(AtlasDbServicesConnector conn) {
+        this.connector = conn;
+        TransactionService simple = TransactionServices.createTransactionService(conn.connect().getKeyValueService());
+        this.transactionService = transactionServiceType.equals("COALESCING")
+                ? CoalescingTransactionService.create(simple)
+                : simple;
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws Exception {
+        this.connector.close();
+    }
+}
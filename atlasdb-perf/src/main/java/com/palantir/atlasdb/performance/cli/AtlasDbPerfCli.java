@@ -36,12 +36,13 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.reflections.Reflections;
 import org.reflections.scanners.MethodAnnotationsScanner;
 
+import com.google.common.collect.Lists;
 import com.palantir.atlasdb.performance.BenchmarkParam;
 import com.palantir.atlasdb.performance.MinimalReportFormatForTest;
 import com.palantir.atlasdb.performance.PerformanceResults;
 import com.palantir.atlasdb.performance.backend.DatabasesContainer;
-import com.palantir.atlasdb.performance.backend.DockerizedDatabase;
 import com.palantir.atlasdb.performance.backend.DockerizedDatabaseUri;
+import com.palantir.atlasdb.performance.backend.EmbeddedKeyValueServiceInstrumentation;
 import com.palantir.atlasdb.performance.backend.KeyValueServiceInstrumentation;
 
 import io.airlift.airline.Arguments;
@@ -53,7 +54,8 @@ import io.airlift.airline.SingleCommand;
 /**
  * The Atlas Perf(ormance) CLI is a tool for making and running AtlasDB performance tests.
  *
- * This requires you to have a docker-machine running and configured correctly.
+ * This requires you to have a docker-machine running and configured correctly, unless only embedded backends
+ * (MEMORY or H2) are used.
  *
  * @author mwakerman, bullman
  */
@@ -66,8 +68,8 @@ public class AtlasDbPerfCli {
     @Arguments(description = "The performance benchmarks to run. Leave blank to run all performance benchmarks.")
     private Set<String> tests;
 
-    @Option(name = {"-b", "--backend"}, description = "Backing KVS stores to use. (e.g. POSTGRES or CASSANDRA)"
-            + " Defaults to all backends if not specified.")
+    @Option(name = {"-b", "--backend"}, description = "Backing KVS stores to use."
+            + " (e.g. POSTGRES, CASSANDRA, MEMORY or H2) Defaults to all backends if not specified.")
     private Set<String> backends;
 
     @Option(name = {"--db-uri"}, description = "Docker uri (e.g. POSTGRES@[phost:pport] or CASSANDRA@[chost:cport])."
@@ -82,6 +84,16 @@ public class AtlasDbPerfCli {
                     + "Leave blank to only write results to the console.")
     private String outputFile;
 
+    @Option(name = {"--baseline"},
+            description = "A file of results previously written with --output to compare the test results against. "
+                    + "Exits with a non-zero status if any benchmark regressed.")
+    private String baselineFile;
+
+    @Option(name = {"--regression-threshold"},
+            description = "The percentage by which the mean or 99th percentile latency of a benchmark may exceed "
+                    + "the baseline before it is flagged as a regression. Defaults to 10.")
+    private double regressionThresholdPercent = 10.0;
+
     @Option(name = {"--test-run"}, description = "Run a single iteration of the benchmarks for testing purposes.")
     private boolean testRun;
 
@@ -98,30 +110,39 @@ public class AtlasDbPerfCli {
         }
 
         if (hasValidArgs(cli)) {
-            run(cli);
+            if (!run(cli)) {
+                System.exit(1);
+            }
         } else {
             System.exit(1);
         }
     }
 
-    private static void run(AtlasDbPerfCli cli) throws Exception {
+    /**
+     * Returns false if any benchmark regressed relative to the baseline.
+     */
+    private static boolean run(AtlasDbPerfCli cli) throws Exception {
         if (cli.dbUris != null) {
-            runJmh(cli, getDockerUris(cli));
+            return runJmh(cli, getDockerUris(cli));
         } else {
             Set<String> backends = cli.backends != null
                     ? cli.backends
                     : KeyValueServiceInstrumentation.getBackends();
-            try (DatabasesContainer container = startupDatabase(backends)) {
-                runJmh(cli,
-                        container.getDockerizedDatabases()
-                                .stream()
-                                .map(DockerizedDatabase::getUri)
-                                .collect(Collectors.toList()));
+            List<KeyValueServiceInstrumentation> instrumentations = backends.stream()
+                    .map(KeyValueServiceInstrumentation::forDatabase)
+                    .collect(Collectors.toList());
+            try (DatabasesContainer container = startupDatabase(instrumentations)) {
+                List<DockerizedDatabaseUri> uris = Lists.newArrayList();
+                container.getDockerizedDatabases().forEach(db -> uris.add(db.getUri()));
+                instrumentations.stream()
+                        .filter(backend -> backend instanceof EmbeddedKeyValueServiceInstrumentation)
+                        .forEach(backend -> uris.add(((EmbeddedKeyValueServiceInstrumentation) backend).getUri()));
+                return runJmh(cli, uris);
             }
         }
     }
 
-    private static void runJmh(AtlasDbPerfCli cli, List<DockerizedDatabaseUri> uris) throws Exception {
+    private static boolean runJmh(AtlasDbPerfCli cli, List<DockerizedDatabaseUri> uris) throws Exception {
         ChainedOptionsBuilder optBuilder = new OptionsBuilder()
                 .forks(1)
                 .measurementIterations(1)
@@ -140,21 +161,34 @@ public class AtlasDbPerfCli {
         }
 
         if (!cli.testRun) {
-            runCli(cli, optBuilder);
+            return runCli(cli, optBuilder);
         } else {
             runCliInTestMode(optBuilder);
+            return true;
         }
     }
 
-    private static void runCli(AtlasDbPerfCli cli, ChainedOptionsBuilder optBuilder) throws Exception {
+    private static boolean runCli(AtlasDbPerfCli cli, ChainedOptionsBuilder optBuilder) throws Exception {
         optBuilder.warmupIterations(1)
                 .mode(Mode.SampleTime);
 
         Collection<RunResult> results = new Runner(optBuilder.build()).run();
+        PerformanceResults performanceResults = new PerformanceResults(results);
 
         if (cli.outputFile != null) {
-            new PerformanceResults(results).writeToFile(new File(cli.outputFile));
+            performanceResults.writeToFile(new File(cli.outputFile));
+        }
+
+        if (cli.baselineFile != null) {
+            List<PerformanceResults.Regression> regressions = performanceResults.findRegressions(
+                    new File(cli.baselineFile), cli.regressionThresholdPercent);
+            if (!regressions.isEmpty()) {
+                System.out.println("Benchmarks that regressed relative to " + cli.baselineFile + ":");
+                regressions.forEach(regression -> System.out.println("\t" + regression));
+                return false;
+            }
         }
+        return true;
     }
 
     private static void runCliInTestMode(ChainedOptionsBuilder optBuilder) throws RunnerException {
@@ -163,10 +197,10 @@ public class AtlasDbPerfCli {
         new Runner(optBuilder.build(), MinimalReportFormatForTest.get()).run();
     }
 
-    private static DatabasesContainer startupDatabase(Set<String> backends) {
+    private static DatabasesContainer startupDatabase(List<KeyValueServiceInstrumentation> backends) {
         return DatabasesContainer.startup(
                 backends.stream()
-                        .map(KeyValueServiceInstrumentation::forDatabase)
+                        .filter(KeyValueServiceInstrumentation::requiresDocker)
                         .collect(Collectors.toList()));
     }
 
@@ -188,6 +222,9 @@ public class AtlasDbPerfCli {
                 }
             });
         }
+        if (cli.baselineFile != null && !new File(cli.baselineFile).isFile()) {
+            throw new RuntimeException("Baseline file " + cli.baselineFile + " does not exist");
+        }
         if (cli.dbUris != null) {
             try {
                 getDockerUris(cli);
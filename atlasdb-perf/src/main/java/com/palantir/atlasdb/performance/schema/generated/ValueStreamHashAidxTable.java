@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Generated;
@@ -170,8 +171,10 @@ public final class ValueStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] hashBytes = hash.getBytes();
-            return EncodingUtils.add(hashBytes);
+            byte[] __output = new byte[32];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(hash.getBytes(), __output, __index);
+            return __output;
         }
 
         public static final Hydrator<ValueStreamHashAidxRow> BYTES_HYDRATOR = new Hydrator<ValueStreamHashAidxRow>() {
@@ -261,8 +264,10 @@ public final class ValueStreamHashAidxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] streamIdBytes = EncodingUtils.encodeUnsignedVarLong(streamId);
-            return EncodingUtils.add(streamIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(streamId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(streamId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<ValueStreamHashAidxColumn> BYTES_HYDRATOR = new Hydrator<ValueStreamHashAidxColumn>() {
@@ -678,6 +683,7 @@ public final class ValueStreamHashAidxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -731,5 +737,5 @@ public final class ValueStreamHashAidxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "6fowX/ukMQ6UNoGKcOPGFg==";
+    static String __CLASS_HASH = "+1iWCd8Gp08UOWy+3hPsdA==";
 }
@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Generated;
@@ -172,8 +173,10 @@ public final class ValueStreamMetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<ValueStreamMetadataRow> BYTES_HYDRATOR = new Hydrator<ValueStreamMetadataRow>() {
@@ -520,6 +523,20 @@ public final class ValueStreamMetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<ValueStreamMetadataRowResult>> getRowsAsync(Iterable<ValueStreamMetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<ValueStreamMetadataRowResult>> getRowsAsync(Iterable<ValueStreamMetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<ValueStreamMetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(ValueStreamMetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<ValueStreamMetadataNamedColumnValue<?>> getRowColumns(ValueStreamMetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -648,6 +665,7 @@ public final class ValueStreamMetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -701,5 +719,5 @@ public final class ValueStreamMetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "kEK3lzUCQ/RYFvGU6Ry0oQ==";
+    static String __CLASS_HASH = "k5ILnERjH3JqWVEk8qhkOA==";
 }
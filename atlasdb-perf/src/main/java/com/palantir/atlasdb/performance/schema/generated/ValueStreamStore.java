@@ -19,6 +19,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Generated;
@@ -53,6 +54,7 @@ import com.palantir.atlasdb.stream.BlockGetter;
 import com.palantir.atlasdb.stream.BlockLoader;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
 import com.palantir.atlasdb.stream.StreamCleanedException;
+import com.palantir.atlasdb.stream.StreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
@@ -83,7 +85,11 @@ public final class ValueStreamStore extends AbstractPersistentStreamStore {
     private final StreamTestTableFactory tables;
 
     private ValueStreamStore(TransactionManager txManager, StreamTestTableFactory tables) {
-        super(txManager);
+        this(txManager, tables, () -> StreamStorePersistenceConfiguration.DEFAULT_CONFIG);
+    }
+
+    private ValueStreamStore(TransactionManager txManager, StreamTestTableFactory tables, Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
+        super(txManager, persistenceConfiguration);
         this.tables = tables;
     }
 
@@ -91,6 +97,10 @@ public final class ValueStreamStore extends AbstractPersistentStreamStore {
         return new ValueStreamStore(txManager, tables);
     }
 
+    public static ValueStreamStore of(TransactionManager txManager, StreamTestTableFactory tables,  Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
+        return new ValueStreamStore(txManager, tables, persistenceConfiguration);
+    }
+
     /**
      * This should only be used by test code or as a performance optimization.
      */
@@ -426,6 +436,8 @@ public final class ValueStreamStore extends AbstractPersistentStreamStore {
      * {@link Status}
      * {@link StreamCleanedException}
      * {@link StreamMetadata}
+     * {@link StreamStorePersistenceConfiguration}
+     * {@link Supplier}
      * {@link TempFileUtils}
      * {@link Throwables}
      * {@link TimeUnit}
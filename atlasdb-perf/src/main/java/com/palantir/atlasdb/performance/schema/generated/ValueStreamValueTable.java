@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Generated;
@@ -179,9 +180,11 @@ public final class ValueStreamValueTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            byte[] blockIdBytes = EncodingUtils.encodeUnsignedVarLong(blockId);
-            return EncodingUtils.add(idBytes, blockIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id) + EncodingUtils.sizeOfUnsignedVarLong(blockId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(blockId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<ValueStreamValueRow> BYTES_HYDRATOR = new Hydrator<ValueStreamValueRow>() {
@@ -508,6 +511,20 @@ public final class ValueStreamValueTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<ValueStreamValueRowResult>> getRowsAsync(Iterable<ValueStreamValueRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<ValueStreamValueRowResult>> getRowsAsync(Iterable<ValueStreamValueRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<ValueStreamValueRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(ValueStreamValueRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<ValueStreamValueNamedColumnValue<?>> getRowColumns(ValueStreamValueRow row) {
         return getRowColumns(row, allColumns);
@@ -636,6 +653,7 @@ public final class ValueStreamValueTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -689,5 +707,5 @@ public final class ValueStreamValueTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "Vrl1mvElEunj4YBz1rGRHA==";
+    static String __CLASS_HASH = "L7vz0LKoazxAlMhatgG2Ow==";
 }
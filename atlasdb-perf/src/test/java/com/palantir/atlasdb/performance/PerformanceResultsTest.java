@@ -18,6 +18,7 @@ package com.palantir.atlasdb.performance;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.math3.stat.inference.TestUtils;
 import org.assertj.core.util.Lists;
@@ -132,6 +133,53 @@ public class PerformanceResultsTest {
         assertThat(TestUtils.homoscedasticTTest(stats, downSampledStats)).isGreaterThan(0.5d);
     }
 
+    @Test
+    public void flagsBenchmarksSlowerThanBaselineByMoreThanThreshold() {
+        List<ImmutablePerformanceResult> baseline = ImmutableList.of(
+                createResult("Suite#fast-MEMORY", 100.0, 200.0, TimeUnit.MICROSECONDS),
+                createResult("Suite#slow-MEMORY", 100.0, 200.0, TimeUnit.MICROSECONDS));
+        List<ImmutablePerformanceResult> current = ImmutableList.of(
+                createResult("Suite#fast-MEMORY", 105.0, 210.0, TimeUnit.MICROSECONDS),
+                createResult("Suite#slow-MEMORY", 150.0, 210.0, TimeUnit.MICROSECONDS),
+                createResult("Suite#new-MEMORY", 1000.0, 2000.0, TimeUnit.MICROSECONDS));
+
+        List<PerformanceResults.Regression> regressions = PerformanceResults.findRegressions(current, baseline, 10.0);
+
+        assertThat(regressions).containsExactly(ImmutableRegression.builder()
+                .benchmark("Suite#slow-MEMORY")
+                .statistic("mean")
+                .baseline(100.0)
+                .current(150.0)
+                .units(TimeUnit.MICROSECONDS)
+                .build());
+    }
+
+    @Test
+    public void comparesAgainstBaselineRecordedInDifferentUnits() {
+        List<ImmutablePerformanceResult> baseline = ImmutableList.of(
+                createResult("Suite#bench-H2", 1.0, 2.0, TimeUnit.MILLISECONDS));
+        List<ImmutablePerformanceResult> current = ImmutableList.of(
+                createResult("Suite#bench-H2", 1050.0, 2500.0, TimeUnit.MICROSECONDS));
+
+        assertThat(PerformanceResults.findRegressions(current, baseline, 10.0))
+                .extracting(PerformanceResults.Regression::statistic)
+                .containsExactly("p99");
+    }
+
+    private static ImmutablePerformanceResult createResult(String benchmark, double mean, double p99, TimeUnit units) {
+        return ImmutablePerformanceResult.builder()
+                .date(0L)
+                .benchmark(benchmark)
+                .samples(1L)
+                .std(0.0)
+                .mean(mean)
+                .units(units)
+                .p50(mean)
+                .p90(mean)
+                .p99(p99)
+                .build();
+    }
+
     private static BenchmarkParams createBenchmarkParams(String benchmarkName, String paramKey, String paramValue) {
         WorkloadParams workloadParams = new WorkloadParams();
         workloadParams.put(paramKey, paramValue, 0);
@@ -68,6 +68,16 @@ public class TrackingKeyValueService extends ForwardingKeyValueService {
         return super.getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            int parallelism,
+            boolean ordered) {
+        tablesReadFrom.add(tableRef);
+        return super.getRangeInParallel(tableRef, rangeRequest, timestamp, parallelism, ordered);
+    }
+
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) {
         tablesWrittenTo.add(tableRef);
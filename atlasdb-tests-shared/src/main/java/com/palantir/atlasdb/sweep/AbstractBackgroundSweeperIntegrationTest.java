@@ -49,7 +49,6 @@ import com.palantir.atlasdb.transaction.impl.SweepStrategyManagers;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.common.base.ClosableIterator;
-import com.palantir.lock.SingleLockService;
 import com.palantir.timestamp.InMemoryTimestampService;
 import com.palantir.timestamp.TimestampService;
 
@@ -120,7 +119,7 @@ public abstract class AbstractBackgroundSweeperIntegrationTest {
         putManyCells(TABLE_2, 104, 114);
         putManyCells(TABLE_3, 120, 130);
         sweepTimestamp.set(150);
-        try (SingleLockService sweepLocks = backgroundSweeper.createSweepLocks()) {
+        try (SweepLocks sweepLocks = backgroundSweeper.createSweepLocks(0)) {
             for (int i = 0; i < 50; ++i) {
                 backgroundSweeper.checkConfigAndRunSweep(sweepLocks);
             }
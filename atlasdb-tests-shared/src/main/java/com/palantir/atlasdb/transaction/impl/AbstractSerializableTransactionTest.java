@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -31,9 +32,11 @@ import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -82,6 +85,13 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                 MultiTableSweepQueueWriter.NO_OP);
     }
 
+    /**
+     * The executor on which transactions run independent phases of their commit concurrently, if any.
+     */
+    protected Optional<ExecutorService> getCommitPipelineExecutor() {
+        return Optional.empty();
+    }
+
     @Override
     protected Transaction startTransaction() {
         ImmutableMap<TableReference, ConflictHandler> tablesToWriteWrite = ImmutableMap.of(
@@ -108,7 +118,8 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
                 AtlasDbConstants.DEFAULT_TRANSACTION_LOCK_ACQUIRE_TIMEOUT_MS,
                 AbstractTransactionTest.GET_RANGES_EXECUTOR,
                 AbstractTransactionTest.DEFAULT_GET_RANGES_CONCURRENCY,
-                MultiTableSweepQueueWriter.NO_OP) {
+                MultiTableSweepQueueWriter.NO_OP,
+                getCommitPipelineExecutor()) {
             @Override
             protected Map<Cell, byte[]> transformGetsForTesting(Map<Cell, byte[]> map) {
                 return Maps.transformValues(map, input -> input.clone());
@@ -175,6 +186,36 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
         }
     }
 
+    @Test
+    public void testWriteSkewWithAsyncReads() {
+        Transaction t0 = startTransaction();
+        put(t0, "row1", "col1", "100");
+        put(t0, "row2", "col1", "100");
+        t0.commit();
+
+        Transaction t1 = startTransaction();
+        Transaction t2 = startTransaction();
+        withdrawMoney(t1, true, false);
+        CompletableFuture<Map<Cell, byte[]>> account1 = t2.getAsync(TEST_TABLE, ImmutableSet.of(cell("row1")));
+        CompletableFuture<Map<Cell, byte[]>> account2 = t2.getAsync(TEST_TABLE, ImmutableSet.of(cell("row2")));
+        long balance = Long.valueOf(PtBytes.toString(account1.join().get(cell("row1"))))
+                + Long.valueOf(PtBytes.toString(account2.join().get(cell("row2"))));
+        Assert.assertEquals(200L, balance);
+        put(t2, "row2", "col1", "-50");
+
+        t1.commit();
+        try {
+            t2.commit();
+            fail();
+        } catch (TransactionSerializableConflictException e) {
+            // this is expected to throw because it is a write skew
+        }
+    }
+
+    private static Cell cell(String rowName) {
+        return Cell.create(PtBytes.toBytes(rowName), PtBytes.toBytes("col1"));
+    }
+
     @Test(expected = TransactionFailedRetriableException.class)
     public void testConcurrentWriteSkew() throws InterruptedException, BrokenBarrierException {
         Transaction t0 = startTransaction();
@@ -642,6 +683,81 @@ public abstract class AbstractSerializableTransactionTest extends AbstractTransa
         t1.commit();
     }
 
+    @Test
+    public void testChangeToLargeValueReadIsConflict() {
+        String initialValue = Strings.repeat("a", 100) + "0";
+        Transaction t0 = startTransaction();
+        put(t0, "row1", "col1", initialValue);
+        t0.commit();
+
+        Transaction t1 = startTransaction();
+        assertEquals(initialValue, get(t1, "row1", "col1"));
+        put(t1, "row2", "col1", "100");
+
+        Transaction t2 = startTransaction();
+        put(t2, "row1", "col1", Strings.repeat("a", 100) + "1");
+        t2.commit();
+
+        try {
+            t1.commit();
+            fail();
+        } catch (TransactionSerializableConflictException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testOverlappingRangeReadsNoConflict() {
+        writeRows("row1", "row2", "row3", "row4");
+
+        Transaction t1 = startTransaction();
+        readRange(t1, "row1", "row3");
+        readRange(t1, "row2", "row4");
+        put(t1, "row9", "col1", "100");
+
+        Transaction t2 = startTransaction();
+        put(t2, "row5", "col1", "100");
+        t2.commit();
+
+        t1.commit();
+    }
+
+    @Test
+    public void testOverlappingRangeReadsPhantomReadFail() {
+        writeRows("row1", "row2", "row3", "row4");
+
+        Transaction t1 = startTransaction();
+        readRange(t1, "row1", "row3");
+        readRange(t1, "row2", "row4");
+        put(t1, "row9", "col1", "100");
+
+        Transaction t2 = startTransaction();
+        put(t2, "row35", "col1", "100");
+        t2.commit();
+
+        try {
+            t1.commit();
+            fail();
+        } catch (TransactionSerializableConflictException e) {
+            // expected
+        }
+    }
+
+    private void writeRows(String... rows) {
+        Transaction t0 = startTransaction();
+        for (String row : rows) {
+            put(t0, row, "col1", "100");
+        }
+        t0.commit();
+    }
+
+    private void readRange(Transaction txn, String startRowInclusive, String endRowExclusive) {
+        BatchingVisitables.copyToList(txn.getRange(TEST_TABLE, RangeRequest.builder()
+                .startRowInclusive(PtBytes.toBytes(startRowInclusive))
+                .endRowExclusive(PtBytes.toBytes(endRowExclusive))
+                .build()));
+    }
+
     private void writeColumns() {
         Transaction t1 = startTransaction();
         int totalPuts = 101;
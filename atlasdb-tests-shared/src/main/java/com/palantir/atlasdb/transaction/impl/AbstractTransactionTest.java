@@ -29,6 +29,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -856,6 +858,30 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
         assertEquals("v3", get(t, "row2", "col1"));
     }
 
+    @Test
+    public void testAsyncReadsSeeSameDataAsBlockingReads() {
+        Transaction t = startTransaction();
+        put(t, "row1", "col1", "v1");
+        put(t, "row2", "col1", "v2");
+        t.commit();
+
+        t = startTransaction();
+        put(t, "row2", "col1", "v3");
+        byte[] row1 = PtBytes.toBytes("row1");
+        byte[] row2 = PtBytes.toBytes("row2");
+        Cell cell1 = Cell.create(row1, PtBytes.toBytes("col1"));
+        Cell cell2 = Cell.create(row2, PtBytes.toBytes("col1"));
+        CompletableFuture<Map<Cell, byte[]>> cells = t.getAsync(TEST_TABLE, ImmutableSet.of(cell1, cell2));
+        CompletableFuture<SortedMap<byte[], RowResult<byte[]>>> rows =
+                t.getRowsAsync(TEST_TABLE, ImmutableList.of(row1, row2), ColumnSelection.all());
+
+        assertEquals("v1", PtBytes.toString(cells.join().get(cell1)));
+        assertEquals("v3", PtBytes.toString(cells.join().get(cell2)));
+        assertEquals("v1", PtBytes.toString(rows.join().get(row1).getOnlyColumnValue()));
+        assertEquals("v3", PtBytes.toString(rows.join().get(row2).getOnlyColumnValue()));
+        t.commit();
+    }
+
     @Test
     public void testReadMyWritesRange() {
         Transaction t = startTransaction();
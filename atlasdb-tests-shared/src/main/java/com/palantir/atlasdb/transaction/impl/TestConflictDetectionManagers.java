@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.transaction.impl;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheLoader;
@@ -28,6 +29,13 @@ public final class TestConflictDetectionManagers {
     @VisibleForTesting
     static ConflictDetectionManager createWithStaticConflictDetection(
             Map<TableReference, ConflictHandler> staticMap) {
+        return createWithStaticConflictDetection(staticMap, tableReference -> false);
+    }
+
+    @VisibleForTesting
+    static ConflictDetectionManager createWithStaticConflictDetection(
+            Map<TableReference, ConflictHandler> staticMap,
+            Predicate<TableReference> isCachedAcrossTransactions) {
         return new ConflictDetectionManager(
                 new CacheLoader<TableReference, ConflictHandler>() {
                     @Override
@@ -35,6 +43,7 @@ public final class TestConflictDetectionManagers {
                         return staticMap.getOrDefault(
                                 tableReference, ConflictHandler.RETRY_ON_WRITE_WRITE);
                     }
-                });
+                },
+                CacheLoader.from(isCachedAcrossTransactions::test));
     }
 }
@@ -126,7 +126,8 @@ public class TestTransactionManagerImpl extends SerializableTransactionManager i
 
     @Override
     ConflictDetectionManager getConflictDetectionManager() {
-        return TestConflictDetectionManagers.createWithStaticConflictDetection(getConflictHandlerWithOverrides());
+        return TestConflictDetectionManagers.createWithStaticConflictDetection(
+                getConflictHandlerWithOverrides(), conflictDetectionManager::isCachedAcrossTransactions);
     }
 
     @Override
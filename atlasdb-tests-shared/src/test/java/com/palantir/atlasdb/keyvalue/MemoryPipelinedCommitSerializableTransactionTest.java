@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.api.TransactionConflictException;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Runs the serializable transaction tests with the phases of each commit run concurrently.
+ */
+public class MemoryPipelinedCommitSerializableTransactionTest extends MemorySerializableTransactionTest {
+    private static final ExecutorService COMMIT_PIPELINE_EXECUTOR = PTExecutors.newCachedThreadPool(
+            PTExecutors.newNamedThreadFactory(true));
+
+    @Override
+    protected Optional<ExecutorService> getCommitPipelineExecutor() {
+        return Optional.of(COMMIT_PIPELINE_EXECUTOR);
+    }
+
+    @Test
+    public void commitSucceedsIfOwnWritesLandBeforeConflictCheck() {
+        Transaction t1 = startTransaction();
+        put(t1, "row1", "col1", "v1");
+        putDirect("row1", "col1", "v1", t1.getTimestamp());
+        t1.commit();
+
+        assertThat(get(startTransaction(), "row1", "col1")).isEqualTo("v1");
+    }
+
+    @Test
+    public void conflictIsDetectedBeneathOwnWrites() {
+        Transaction t0 = startTransaction();
+        Transaction t1 = startTransaction();
+        put(t0, "row1", "col1", "v0");
+        t0.commit();
+
+        put(t1, "row1", "col1", "v1");
+        putDirect("row1", "col1", "v1", t1.getTimestamp());
+        assertThatThrownBy(t1::commit).isInstanceOf(TransactionConflictException.class);
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.SortedMap;
+import java.util.UUID;
 
 import org.junit.Test;
 
@@ -246,6 +247,78 @@ public class EncodingUtilsTest {
         }
     }
 
+    @Test
+    public void testEncodeIntoMatchesAllocatingEncoders() {
+        for (int i = 0; i < 1000; i++) {
+            long value = rand.nextLong() >> rand.nextInt(64);
+            long unsigned = value & Long.MAX_VALUE;
+            byte[] blob = new byte[rand.nextInt(300)];
+            rand.nextBytes(blob);
+            UUID uuid = new UUID(rand.nextLong(), rand.nextLong());
+            Long nullable = rand.nextBoolean() ? null : value;
+
+            byte[] expected = EncodingUtils.add(
+                    EncodingUtils.encodeVarLong(unsigned),
+                    EncodingUtils.encodeUnsignedVarLong(unsigned),
+                    EncodingUtils.encodeSignedVarLong(value),
+                    PtBytes.toBytes(value),
+                    EncodingUtils.encodeLittleEndian(value),
+                    EncodingUtils.encodeSizedBytes(blob),
+                    blob,
+                    EncodingUtils.encodeUUID(uuid),
+                    EncodingUtils.encodeNullableFixedLong(nullable));
+
+            int offset = rand.nextInt(8);
+            byte[] output = new byte[offset + expected.length];
+            int index = offset;
+            index = EncodingUtils.encodeVarLong(unsigned, output, index);
+            index = EncodingUtils.encodeUnsignedVarLong(unsigned, output, index);
+            index = EncodingUtils.encodeSignedVarLong(value, output, index);
+            index = EncodingUtils.encodeLong(value, output, index);
+            index = EncodingUtils.encodeLittleEndian(value, output, index);
+            index = EncodingUtils.encodeSizedBytes(blob, output, index);
+            index = EncodingUtils.encodeBytes(blob, output, index);
+            index = EncodingUtils.encodeUUID(uuid, output, index);
+            index = EncodingUtils.encodeNullableFixedLong(nullable, output, index);
+
+            assertEquals(output.length, index);
+            assertArrayEquals(expected, Arrays.copyOfRange(output, offset, index));
+        }
+    }
+
+    @Test
+    public void testEncodeStringsIntoMatchesAllocatingEncoders() {
+        List<String> strings = Lists.newArrayList(
+                "",
+                "ascii",
+                "caf\u00e9 \u20ac",
+                "\ud83d\ude00 surrogate pair",
+                "unpaired \ud83d high",
+                "unpaired \ude00 low",
+                "trailing high \ud83d");
+        for (int i = 0; i < 100; i++) {
+            char[] chars = new char[rand.nextInt(50)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) rand.nextInt(Character.MAX_VALUE + 1);
+            }
+            strings.add(new String(chars));
+        }
+
+        for (String str : strings) {
+            byte[] utf8 = PtBytes.toBytes(str);
+            assertEquals(utf8.length, EncodingUtils.sizeOfUtf8(str));
+            byte[] output = new byte[utf8.length + 1];
+            assertEquals(output.length, EncodingUtils.encodeUtf8(str, output, 1));
+            assertArrayEquals(utf8, Arrays.copyOfRange(output, 1, output.length));
+
+            byte[] varString = EncodingUtils.encodeVarString(str);
+            assertEquals(varString.length, EncodingUtils.sizeOfVarString(str));
+            output = new byte[varString.length];
+            assertEquals(output.length, EncodingUtils.encodeVarString(str, output, 0));
+            assertArrayEquals(varString, output);
+        }
+    }
+
     @Test
     public void testMulti() {
         List<ValueType> valueTypes = ImmutableList.of(
@@ -17,6 +17,7 @@ package com.palantir.atlasdb.schema;
 
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.Assert;
@@ -25,6 +26,8 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbTestCase;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -32,6 +35,7 @@ import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.TableMappingNotFoundException;
 import com.palantir.atlasdb.sweep.queue.MultiTableSweepQueueWriter;
@@ -46,6 +50,7 @@ import com.palantir.atlasdb.transaction.impl.TestTransactionManagerImpl;
 import com.palantir.common.base.AbortingVisitor;
 import com.palantir.common.base.AbortingVisitors;
 import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.concurrent.PTExecutors;
 
 public class TableMigratorTest extends AtlasDbTestCase {
@@ -155,4 +160,73 @@ public class TableMigratorTest extends AtlasDbTestCase {
         }
         Assert.assertEquals(2L, count.longValue());
     }
+
+    @Test
+    public void testKvsMigrationWithConcurrentWrites() {
+        final TableReference tableRef = TableReference.create(Namespace.DEFAULT_NAMESPACE, "table");
+        keyValueService.createTable(tableRef, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        final int numRows = 200;
+        final Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = 0; i < numRows; i++) {
+            values.put(Cell.create(PtBytes.toBytes("row" + i), PtBytes.toBytes("c")), PtBytes.toBytes("value" + i));
+        }
+        txManager.runTaskWithRetry((TransactionTask<Void, RuntimeException>) txn -> {
+            txn.put(tableRef, values);
+            return null;
+        });
+
+        final InMemoryKeyValueService kvs2 = new InMemoryKeyValueService(false);
+        final TestTransactionManagerImpl txManager2 = new TestTransactionManagerImpl(
+                kvs2,
+                timestampService,
+                lockClient,
+                lockService,
+                transactionService,
+                ConflictDetectionManagers.createWithNoConflictDetection(),
+                SweepStrategyManagers.completelyConservative(kvs2),
+                MultiTableSweepQueueWriter.NO_OP);
+        kvs2.createTable(tableRef, AtlasDbConstants.GENERIC_TABLE_METADATA);
+
+        TableReference checkpointTable = TableReference.create(Namespace.DEFAULT_NAMESPACE, "checkpoint");
+        GeneralTaskCheckpointer checkpointer = new GeneralTaskCheckpointer(checkpointTable, kvs2, txManager2);
+        MigrationThroughput throughput = new MigrationThroughput();
+        ExecutorService writeExecutor = PTExecutors.newFixedThreadPool(4);
+        long migrationTimestamp = timestampService.getFreshTimestamp();
+        try {
+            KvsRangeMigrator rangeMigrator = new KvsRangeMigratorBuilder()
+                    .srcTable(tableRef)
+                    .readBatchSize(7)
+                    .readTxManager(txManager)
+                    .txManager(txManager2)
+                    .writeKvs(kvs2)
+                    .migrationTimestamp(migrationTimestamp)
+                    .checkpointer(checkpointer)
+                    .writeExecutor(writeExecutor)
+                    .writeBatchSizeBytes(100)
+                    .maxWritesInFlight(2)
+                    .throughput(throughput)
+                    .build();
+            new TableMigratorBuilder()
+                    .srcTable(tableRef)
+                    .partitions(4)
+                    .executor(PTExecutors.newFixedThreadPool(2))
+                    .checkpointer(checkpointer)
+                    .rangeMigrator(rangeMigrator)
+                    .build()
+                    .migrate();
+        } finally {
+            writeExecutor.shutdown();
+        }
+        checkpointer.deleteCheckpoints();
+
+        Map<Cell, byte[]> copied = Maps.newHashMap();
+        try (ClosableIterator<RowResult<Value>> it =
+                kvs2.getRange(tableRef, RangeRequest.all(), migrationTimestamp + 1)) {
+            it.forEachRemaining(row -> row.getCells().forEach(
+                    cell -> copied.put(cell.getKey(), cell.getValue().getContents())));
+        }
+        Assert.assertEquals(values.keySet(), copied.keySet());
+        values.forEach((cell, value) -> Assert.assertArrayEquals(value, copied.get(cell)));
+        Assert.assertEquals(numRows, throughput.getRowsCopied());
+    }
 }
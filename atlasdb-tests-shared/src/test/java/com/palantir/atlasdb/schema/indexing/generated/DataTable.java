@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class DataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[8];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<DataRow> BYTES_HYDRATOR = new Hydrator<DataRow>() {
@@ -641,6 +644,20 @@ public final class DataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<DataRowResult>> getRowsAsync(Iterable<DataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<DataRowResult>> getRowsAsync(Iterable<DataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<DataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(DataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<DataNamedColumnValue<?>> getRowColumns(DataRow row) {
         return getRowColumns(row, allColumns);
@@ -917,8 +934,10 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] valueBytes = PtBytes.toBytes(Long.MIN_VALUE ^ value);
-                return EncodingUtils.add(valueBytes);
+                byte[] __output = new byte[8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ value, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index1IdxRow> BYTES_HYDRATOR = new Hydrator<Index1IdxRow>() {
@@ -1032,10 +1051,12 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes, idBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName) + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index1IdxColumn> BYTES_HYDRATOR = new Hydrator<Index1IdxColumn>() {
@@ -1610,9 +1631,11 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] valueBytes = PtBytes.toBytes(Long.MIN_VALUE ^ value);
-                byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-                return EncodingUtils.add(valueBytes, idBytes);
+                byte[] __output = new byte[8 + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ value, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index2IdxRow> BYTES_HYDRATOR = new Hydrator<Index2IdxRow>() {
@@ -1724,9 +1747,11 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName)];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index2IdxColumn> BYTES_HYDRATOR = new Hydrator<Index2IdxColumn>() {
@@ -2277,8 +2302,10 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] valueBytes = PtBytes.toBytes(Long.MIN_VALUE ^ value);
-                return EncodingUtils.add(valueBytes);
+                byte[] __output = new byte[8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ value, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index3IdxRow> BYTES_HYDRATOR = new Hydrator<Index3IdxRow>() {
@@ -2376,9 +2403,11 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName)];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index3IdxColumn> BYTES_HYDRATOR = new Hydrator<Index3IdxColumn>() {
@@ -2936,9 +2965,11 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] value1Bytes = PtBytes.toBytes(Long.MIN_VALUE ^ value1);
-                byte[] value2Bytes = PtBytes.toBytes(Long.MIN_VALUE ^ value2);
-                return EncodingUtils.add(value1Bytes, value2Bytes);
+                byte[] __output = new byte[8 + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ value1, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ value2, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index4IdxRow> BYTES_HYDRATOR = new Hydrator<Index4IdxRow>() {
@@ -3050,9 +3081,11 @@ public final class DataTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName)];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<Index4IdxColumn> BYTES_HYDRATOR = new Hydrator<Index4IdxColumn>() {
@@ -3543,6 +3576,7 @@ public final class DataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -3598,5 +3632,5 @@ public final class DataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "x1VLSlvGrbiHfQq/rupNww==";
+    static String __CLASS_HASH = "6aQxsnAELLKqi7zqCrzXew==";
 }
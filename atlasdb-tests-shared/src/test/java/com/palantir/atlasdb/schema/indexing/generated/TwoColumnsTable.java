@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class TwoColumnsTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[8];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<TwoColumnsRow> BYTES_HYDRATOR = new Hydrator<TwoColumnsRow>() {
@@ -709,6 +712,20 @@ public final class TwoColumnsTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<TwoColumnsRowResult>> getRowsAsync(Iterable<TwoColumnsRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<TwoColumnsRowResult>> getRowsAsync(Iterable<TwoColumnsRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<TwoColumnsRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(TwoColumnsRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<TwoColumnsNamedColumnValue<?>> getRowColumns(TwoColumnsRow row) {
         return getRowColumns(row, allColumns);
@@ -947,8 +964,10 @@ public final class TwoColumnsTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] fooBytes = PtBytes.toBytes(Long.MIN_VALUE ^ foo);
-                return EncodingUtils.add(fooBytes);
+                byte[] __output = new byte[8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ foo, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<FooToIdCondIdxRow> BYTES_HYDRATOR = new Hydrator<FooToIdCondIdxRow>() {
@@ -1062,10 +1081,12 @@ public final class TwoColumnsTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes, idBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName) + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<FooToIdCondIdxColumn> BYTES_HYDRATOR = new Hydrator<FooToIdCondIdxColumn>() {
@@ -1584,9 +1605,11 @@ public final class TwoColumnsTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] hashOfRowComponentsBytes = PtBytes.toBytes(Long.MIN_VALUE ^ hashOfRowComponents);
-                byte[] fooBytes = PtBytes.toBytes(Long.MIN_VALUE ^ foo);
-                return EncodingUtils.add(hashOfRowComponentsBytes, fooBytes);
+                byte[] __output = new byte[8 + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ hashOfRowComponents, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ foo, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<FooToIdIdxRow> BYTES_HYDRATOR = new Hydrator<FooToIdIdxRow>() {
@@ -1709,10 +1732,12 @@ public final class TwoColumnsTable implements
 
             @Override
             public byte[] persistToBytes() {
-                byte[] rowNameBytes = EncodingUtils.encodeSizedBytes(rowName);
-                byte[] columnNameBytes = EncodingUtils.encodeSizedBytes(columnName);
-                byte[] idBytes = PtBytes.toBytes(Long.MIN_VALUE ^ id);
-                return EncodingUtils.add(rowNameBytes, columnNameBytes, idBytes);
+                byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(rowName) + EncodingUtils.sizeOfSizedBytes(columnName) + 8];
+                int __index = 0;
+                __index = EncodingUtils.encodeSizedBytes(rowName, __output, __index);
+                __index = EncodingUtils.encodeSizedBytes(columnName, __output, __index);
+                __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ id, __output, __index);
+                return __output;
             }
 
             public static final Hydrator<FooToIdIdxColumn> BYTES_HYDRATOR = new Hydrator<FooToIdIdxColumn>() {
@@ -2167,6 +2192,7 @@ public final class TwoColumnsTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -2222,5 +2248,5 @@ public final class TwoColumnsTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "rbO2fCJIg3E2QBd6AuiYKg==";
+    static String __CLASS_HASH = "dkCONpnYAHqKedVSegUqig==";
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class KeyValueTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] keyBytes = PtBytes.toBytes(key);
-            return EncodingUtils.add(keyBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUtf8(key)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUtf8(key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<KeyValueRow> BYTES_HYDRATOR = new Hydrator<KeyValueRow>() {
@@ -502,6 +505,20 @@ public final class KeyValueTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<KeyValueRowResult>> getRowsAsync(Iterable<KeyValueRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<KeyValueRowResult>> getRowsAsync(Iterable<KeyValueRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<KeyValueRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(KeyValueRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<KeyValueNamedColumnValue<?>> getRowColumns(KeyValueRow row) {
         return getRowColumns(row, allColumns);
@@ -628,6 +645,7 @@ public final class KeyValueTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -683,5 +701,5 @@ public final class KeyValueTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "mALQAWLKy270UHPLbKi+4Q==";
+    static String __CLASS_HASH = "0yNbJuS50B0Lv+4rrRSiSg==";
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -173,8 +174,10 @@ public final class StreamTestMaxMemStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<StreamTestMaxMemStreamIdxRow> BYTES_HYDRATOR = new Hydrator<StreamTestMaxMemStreamIdxRow>() {
@@ -265,8 +268,10 @@ public final class StreamTestMaxMemStreamIdxTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] referenceBytes = EncodingUtils.encodeSizedBytes(reference);
-            return EncodingUtils.add(referenceBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfSizedBytes(reference)];
+            int __index = 0;
+            __index = EncodingUtils.encodeSizedBytes(reference, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<StreamTestMaxMemStreamIdxColumn> BYTES_HYDRATOR = new Hydrator<StreamTestMaxMemStreamIdxColumn>() {
@@ -687,6 +692,7 @@ public final class StreamTestMaxMemStreamIdxTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -742,5 +748,5 @@ public final class StreamTestMaxMemStreamIdxTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "2P9w/8T7vYym1uXqoKwZfQ==";
+    static String __CLASS_HASH = "vGU/9wB8aHslZhj8l1FxDQ==";
 }
@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -175,8 +176,10 @@ public final class StreamTestMaxMemStreamMetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            return EncodingUtils.add(idBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<StreamTestMaxMemStreamMetadataRow> BYTES_HYDRATOR = new Hydrator<StreamTestMaxMemStreamMetadataRow>() {
@@ -526,6 +529,20 @@ public final class StreamTestMaxMemStreamMetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<StreamTestMaxMemStreamMetadataRowResult>> getRowsAsync(Iterable<StreamTestMaxMemStreamMetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<StreamTestMaxMemStreamMetadataRowResult>> getRowsAsync(Iterable<StreamTestMaxMemStreamMetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<StreamTestMaxMemStreamMetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(StreamTestMaxMemStreamMetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<StreamTestMaxMemStreamMetadataNamedColumnValue<?>> getRowColumns(StreamTestMaxMemStreamMetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -652,6 +669,7 @@ public final class StreamTestMaxMemStreamMetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -707,5 +725,5 @@ public final class StreamTestMaxMemStreamMetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "03xEadEjE+VybfcowO9img==";
+    static String __CLASS_HASH = "dnvLOHgdPWZPldo7Ay5Maw==";
 }
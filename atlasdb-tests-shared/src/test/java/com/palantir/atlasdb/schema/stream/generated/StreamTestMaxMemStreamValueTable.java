@@ -13,6 +13,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -182,9 +183,11 @@ public final class StreamTestMaxMemStreamValueTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
-            byte[] blockIdBytes = EncodingUtils.encodeUnsignedVarLong(blockId);
-            return EncodingUtils.add(idBytes, blockIdBytes);
+            byte[] __output = new byte[EncodingUtils.sizeOfUnsignedVarLong(id) + EncodingUtils.sizeOfUnsignedVarLong(blockId)];
+            int __index = 0;
+            __index = EncodingUtils.encodeUnsignedVarLong(id, __output, __index);
+            __index = EncodingUtils.encodeUnsignedVarLong(blockId, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<StreamTestMaxMemStreamValueRow> BYTES_HYDRATOR = new Hydrator<StreamTestMaxMemStreamValueRow>() {
@@ -514,6 +517,20 @@ public final class StreamTestMaxMemStreamValueTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<StreamTestMaxMemStreamValueRowResult>> getRowsAsync(Iterable<StreamTestMaxMemStreamValueRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<StreamTestMaxMemStreamValueRowResult>> getRowsAsync(Iterable<StreamTestMaxMemStreamValueRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<StreamTestMaxMemStreamValueRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(StreamTestMaxMemStreamValueRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<StreamTestMaxMemStreamValueNamedColumnValue<?>> getRowColumns(StreamTestMaxMemStreamValueRow row) {
         return getRowColumns(row, allColumns);
@@ -640,6 +657,7 @@ public final class StreamTestMaxMemStreamValueTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -695,5 +713,5 @@ public final class StreamTestMaxMemStreamValueTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "bal2oiOBpr1av1T36Zsb4A==";
+    static String __CLASS_HASH = "+mv5LE5CpYw5trZRz/Q7wg==";
 }
@@ -72,27 +72,55 @@ public class SweepProgressStoreTest {
 
     @Test
     public void testLoadEmpty() {
-        Assert.assertFalse(progressStore.loadProgress().isPresent());
+        Assert.assertFalse(progressStore.loadProgress(0).isPresent());
     }
 
     @Test
     public void testSaveAndLoad() {
-        progressStore.saveProgress(PROGRESS);
-        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress());
+        progressStore.saveProgress(0, PROGRESS);
+        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress(0));
     }
 
     @Test
     public void testOverwrite() {
-        progressStore.saveProgress(PROGRESS);
-        progressStore.saveProgress(OTHER_PROGRESS);
-        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress());
+        progressStore.saveProgress(0, PROGRESS);
+        progressStore.saveProgress(0, OTHER_PROGRESS);
+        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress(0));
     }
 
     @Test
     public void testClear() {
-        progressStore.saveProgress(PROGRESS);
-        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress());
-        progressStore.clearProgress();
-        Assert.assertFalse(progressStore.loadProgress().isPresent());
+        progressStore.saveProgress(0, PROGRESS);
+        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress(0));
+        progressStore.clearProgress(0);
+        Assert.assertFalse(progressStore.loadProgress(0).isPresent());
+    }
+
+    @Test
+    public void testThreadsHaveIndependentProgress() {
+        progressStore.saveProgress(0, PROGRESS);
+        progressStore.saveProgress(1, OTHER_PROGRESS);
+        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress(0));
+        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress(1));
+        Assert.assertFalse(progressStore.loadProgress(10).isPresent());
+
+        progressStore.clearProgress(1);
+        Assert.assertEquals(Optional.of(PROGRESS), progressStore.loadProgress(0));
+        Assert.assertFalse(progressStore.loadProgress(1).isPresent());
+    }
+
+    @Test
+    public void testClearingFirstThreadKeepsOtherThreadsProgress() {
+        progressStore.saveProgress(0, PROGRESS);
+        progressStore.saveProgress(1, OTHER_PROGRESS);
+        progressStore.saveProgress(10, OTHER_PROGRESS);
+
+        progressStore.clearProgress(0);
+        Assert.assertFalse(progressStore.loadProgress(0).isPresent());
+        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress(1));
+        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress(10));
+
+        progressStore.clearProgress(1);
+        Assert.assertEquals(Optional.of(OTHER_PROGRESS), progressStore.loadProgress(10));
     }
 }
@@ -29,6 +29,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.CachedTableVersions;
+import com.palantir.atlasdb.cache.SharedCellCache;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -41,7 +44,8 @@ public class CachingTransactionTest {
     private static final byte[] COL_BYTES = "col".getBytes();
     private static final byte[] VALUE_BYTES = "value".getBytes();
 
-    private final TableReference table = TableReference.createWithEmptyNamespace("table");
+    private static final TableReference TABLE = TableReference.createWithEmptyNamespace("table");
+    private static final Set<Cell> VERSION_CELLS = ImmutableSet.of(CachedTableVersions.versionCell(TABLE));
     private final Mockery mockery = new Mockery();
     private final Transaction txn = mockery.mock(Transaction.class);
     private final CachingTransaction ct = new CachingTransaction(txn);
@@ -57,16 +61,16 @@ public class CachingTransactionTest {
             {
                 // the cache doesn't actually cache empty results in this case
                 // this is probably an oversight, but this has been the behavior for a long time
-                oneOf(txn).getRows(table, oneRow, oneColumn);
+                oneOf(txn).getRows(TABLE, oneRow, oneColumn);
                 will(returnValue(emptyResults));
 
-                oneOf(txn).getRows(table, oneRow, oneColumn);
+                oneOf(txn).getRows(TABLE, oneRow, oneColumn);
                 will(returnValue(emptyResults));
             }
         });
 
-        Assert.assertEquals(emptyResults, ct.getRows(table, oneRow, oneColumn));
-        Assert.assertEquals(emptyResults, ct.getRows(table, oneRow, oneColumn));
+        Assert.assertEquals(emptyResults, ct.getRows(TABLE, oneRow, oneColumn));
+        Assert.assertEquals(emptyResults, ct.getRows(TABLE, oneRow, oneColumn));
 
         mockery.assertIsSatisfied();
     }
@@ -89,16 +93,16 @@ public class CachingTransactionTest {
         mockery.checking(new Expectations() {
             {
                 // row result is cached after first call, so second call requests no rows
-                oneOf(txn).getRows(table, oneRow, oneColumn);
+                oneOf(txn).getRows(TABLE, oneRow, oneColumn);
                 will(returnValue(oneResult));
 
-                oneOf(txn).getRows(table, noRows, oneColumn);
+                oneOf(txn).getRows(TABLE, noRows, oneColumn);
                 will(returnValue(emptyResults));
             }
         });
 
-        Assert.assertEquals(oneResult, ct.getRows(table, oneRow, oneColumn));
-        Assert.assertEquals(oneResult, ct.getRows(table, oneRow, oneColumn));
+        Assert.assertEquals(oneResult, ct.getRows(TABLE, oneRow, oneColumn));
+        Assert.assertEquals(oneResult, ct.getRows(TABLE, oneRow, oneColumn));
 
         mockery.assertIsSatisfied();
     }
@@ -127,17 +131,105 @@ public class CachingTransactionTest {
         final Set<Cell> cellSet = ImmutableSet.of(cell);
         mockery.checking(new Expectations() {
             {
-                oneOf(txn).get(table, cellSet);
+                oneOf(txn).get(TABLE, cellSet);
                 will(returnValue(cellValueMap));
 
-                oneOf(txn).get(table, ImmutableSet.of());
+                oneOf(txn).get(TABLE, ImmutableSet.of());
                 will(returnValue(ImmutableMap.of()));
             }
         });
 
-        Assert.assertEquals(cellValueMap, ct.get(table, cellSet));
-        Assert.assertEquals(cellValueMap, ct.get(table, cellSet));
+        Assert.assertEquals(cellValueMap, ct.get(TABLE, cellSet));
+        Assert.assertEquals(cellValueMap, ct.get(TABLE, cellSet));
 
         mockery.assertIsSatisfied();
     }
+
+    @Test
+    public void testSharedCacheServesTransactionsReadingTheSameVersion() {
+        final Cell cell = Cell.create(ROW_BYTES, COL_BYTES);
+        final Set<Cell> cellSet = ImmutableSet.of(cell);
+        final Transaction laterTxn = mockery.mock(Transaction.class, "laterTxn");
+        SharedCellCache sharedCache = new SharedCellCache("sameVersion", TABLE::equals, 1_000_000);
+
+        mockery.checking(new Expectations() {
+            {
+                oneOf(txn).get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, VERSION_CELLS);
+                will(returnValue(versionIs(5L)));
+                oneOf(txn).get(TABLE, cellSet);
+                will(returnValue(ImmutableMap.of(cell, VALUE_BYTES)));
+
+                oneOf(laterTxn).get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, VERSION_CELLS);
+                will(returnValue(versionIs(5L)));
+                oneOf(laterTxn).get(TABLE, ImmutableSet.of());
+                will(returnValue(ImmutableMap.of()));
+            }
+        });
+
+        Assert.assertArrayEquals(VALUE_BYTES, new CachingTransaction(txn, sharedCache).get(TABLE, cellSet).get(cell));
+        Assert.assertArrayEquals(VALUE_BYTES,
+                new CachingTransaction(laterTxn, sharedCache).get(TABLE, cellSet).get(cell));
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void testSharedCacheNotServedOnceTableVersionChanges() {
+        final Cell cell = Cell.create(ROW_BYTES, COL_BYTES);
+        final Set<Cell> cellSet = ImmutableSet.of(cell);
+        final Transaction laterTxn = mockery.mock(Transaction.class, "laterTxn");
+        SharedCellCache sharedCache = new SharedCellCache("versionChanged", TABLE::equals, 1_000_000);
+
+        mockery.checking(new Expectations() {
+            {
+                oneOf(txn).get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, VERSION_CELLS);
+                will(returnValue(ImmutableMap.of()));
+                oneOf(txn).get(TABLE, cellSet);
+                will(returnValue(ImmutableMap.of(cell, VALUE_BYTES)));
+
+                oneOf(laterTxn).get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, VERSION_CELLS);
+                will(returnValue(versionIs(15L)));
+                oneOf(laterTxn).get(TABLE, cellSet);
+                will(returnValue(ImmutableMap.of()));
+            }
+        });
+
+        new CachingTransaction(txn, sharedCache).get(TABLE, cellSet);
+        Assert.assertNull(new CachingTransaction(laterTxn, sharedCache).get(TABLE, cellSet).get(cell));
+
+        mockery.assertIsSatisfied();
+    }
+
+    @Test
+    public void testSharedCacheNotUsedAfterWritingToTable() {
+        final Cell cell = Cell.create(ROW_BYTES, COL_BYTES);
+        final Cell otherCell = Cell.create(ROW_BYTES, "otherCol".getBytes());
+        final Set<Cell> cellSet = ImmutableSet.of(cell);
+        final Transaction laterTxn = mockery.mock(Transaction.class, "laterTxn");
+        SharedCellCache sharedCache = new SharedCellCache("afterWriting", TABLE::equals, 1_000_000);
+
+        mockery.checking(new Expectations() {
+            {
+                oneOf(txn).get(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE, VERSION_CELLS);
+                will(returnValue(versionIs(5L)));
+                oneOf(txn).get(TABLE, cellSet);
+                will(returnValue(ImmutableMap.of(cell, VALUE_BYTES)));
+
+                oneOf(laterTxn).put(TABLE, ImmutableMap.of(otherCell, VALUE_BYTES));
+                oneOf(laterTxn).get(TABLE, cellSet);
+                will(returnValue(ImmutableMap.of(cell, VALUE_BYTES)));
+            }
+        });
+
+        new CachingTransaction(txn, sharedCache).get(TABLE, cellSet);
+        CachingTransaction writer = new CachingTransaction(laterTxn, sharedCache);
+        writer.put(TABLE, ImmutableMap.of(otherCell, VALUE_BYTES));
+        Assert.assertArrayEquals(VALUE_BYTES, writer.get(TABLE, cellSet).get(cell));
+
+        mockery.assertIsSatisfied();
+    }
+
+    private static Map<Cell, byte[]> versionIs(long version) {
+        return ImmutableMap.of(CachedTableVersions.versionCell(TABLE), CachedTableVersions.versionValue(version));
+    }
 }
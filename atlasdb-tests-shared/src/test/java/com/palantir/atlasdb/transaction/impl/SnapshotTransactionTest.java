@@ -26,7 +26,10 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -65,6 +68,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Supplier;
@@ -80,6 +84,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbTestCase;
+import com.palantir.atlasdb.cache.CachedTableVersions;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.encoding.PtBytes;
@@ -94,6 +99,7 @@ import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.TrackingKeyValueService;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.CachePriority;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.LogSafety;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
 import com.palantir.atlasdb.ptobject.EncodingUtils;
 import com.palantir.atlasdb.sweep.queue.WriteInfo;
@@ -105,11 +111,13 @@ import com.palantir.atlasdb.transaction.api.ConflictHandler;
 import com.palantir.atlasdb.transaction.api.LockAwareTransactionTask;
 import com.palantir.atlasdb.transaction.api.PreCommitCondition;
 import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.api.TransactionCommitFailedException;
 import com.palantir.atlasdb.transaction.api.TransactionConflictException;
 import com.palantir.atlasdb.transaction.api.TransactionFailedNonRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionLockTimeoutNonRetriableException;
 import com.palantir.atlasdb.transaction.api.TransactionReadSentinelBehavior;
+import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.common.base.AbortingVisitor;
 import com.palantir.common.base.AbortingVisitors;
 import com.palantir.common.base.BatchingVisitable;
@@ -192,6 +200,7 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
     static final TableReference TABLE2 = TableReference.createFromFullyQualifiedName("default.table2");
 
     static final TableReference TABLE_SWEPT_THOROUGH = TableReference.createFromFullyQualifiedName("default.table2");
+    static final TableReference TABLE_CACHED = TableReference.createFromFullyQualifiedName("default.cached");
 
     private static final Cell TEST_CELL = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
 
@@ -288,6 +297,49 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         m.assertIsSatisfied();
     }
 
+    @Test
+    public void commitFailsIfAnAsyncReadFailed() throws Exception {
+        Mockery m = new Mockery();
+        final KeyValueService kvMock = m.mock(KeyValueService.class);
+        final Cell cell = Cell.create(PtBytes.toBytes("1"), PtBytes.toBytes("1"));
+        final long startTs = timestampService.getFreshTimestamp();
+
+        m.checking(new Expectations() {{
+            oneOf(kvMock).get(TABLE, ImmutableMap.of(cell, startTs));
+            will(throwException(new IllegalStateException("read failed")));
+        }});
+
+        SnapshotTransaction snapshot = new SnapshotTransaction(
+                kvMock,
+                new LegacyTimelockService(timestampService, lockService, lockClient),
+                transactionService,
+                NoOpCleaner.INSTANCE,
+                startTs,
+                TestConflictDetectionManagers.createWithStaticConflictDetection(
+                        ImmutableMap.of(TABLE, ConflictHandler.RETRY_ON_WRITE_WRITE)),
+                AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING,
+                TransactionReadSentinelBehavior.THROW_EXCEPTION,
+                timestampCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                sweepQueue);
+        Future<Map<Cell, byte[]>> read = snapshot.getAsync(TABLE, ImmutableSet.of(cell));
+        try {
+            read.get();
+            fail();
+        } catch (ExecutionException e) {
+            // expected
+        }
+
+        try {
+            snapshot.commit();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("read failed", e.getMessage());
+        }
+        m.assertIsSatisfied();
+    }
+
     @Ignore("Until we know what we want to do with GC this will be ignored.")
     // This tests that uncommitted values are deleted and cleaned up
     @SuppressWarnings("unchecked")
@@ -567,6 +619,48 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         t2.commit();
     }
 
+    @Test
+    public void writesToCachedTablesRecordTheirVersion() {
+        createCachedTable();
+        Transaction writer = txManager.createNewTransaction();
+        writer.put(TABLE_CACHED, ImmutableMap.of(TEST_CELL, PtBytes.toBytes("value")));
+        writer.commit();
+
+        long version = txManager.runTaskReadOnly(t -> CachedTableVersions.getVersion(t, TABLE_CACHED));
+        assertEquals(writer.getTimestamp(), version);
+        assertEquals(CachedTableVersions.NO_WRITES,
+                (long) txManager.runTaskReadOnly(t -> CachedTableVersions.getVersion(t, TABLE1)));
+    }
+
+    @Test
+    public void uncommittedVersionsOfCachedTablesAreNotRead() {
+        createCachedTable();
+        long uncommittedTs = timestampService.getFreshTimestamp();
+        keyValueService.put(AtlasDbConstants.CACHED_TABLE_VERSIONS_TABLE,
+                ImmutableMap.of(CachedTableVersions.versionCell(TABLE_CACHED),
+                        CachedTableVersions.versionValue(uncommittedTs)),
+                uncommittedTs);
+
+        assertEquals(CachedTableVersions.NO_WRITES,
+                (long) txManager.runTaskReadOnly(t -> CachedTableVersions.getVersion(t, TABLE_CACHED)));
+    }
+
+    @Test
+    public void concurrentWritersToCachedTableConflict() {
+        createCachedTable();
+        Transaction t1 = txManager.createNewTransaction();
+        Transaction t2 = txManager.createNewTransaction();
+        t1.put(TABLE_CACHED, ImmutableMap.of(row1Column1, PtBytes.toBytes("value")));
+        t2.put(TABLE_CACHED, ImmutableMap.of(row1Column2, PtBytes.toBytes("value")));
+        t1.commit();
+        try {
+            t2.commit();
+            fail();
+        } catch (TransactionConflictException e) {
+            // We expect to catch this exception
+        }
+    }
+
     @Test
     public void readsFromThoroughlySweptTableShouldFailWhenLocksAreInvalid() throws Exception {
         keyValueService.createTable(
@@ -960,6 +1054,41 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         verifyNoMoreInteractions(sweepQueue);
     }
 
+    @Test
+    public void writesAreAddedToSweepQueueBeforeCommitTimestampIsPut() throws Exception {
+        Cell cell = Cell.create("foo".getBytes(), "bar".getBytes());
+        TransactionService failingTransactionService = mock(TransactionService.class);
+        doThrow(new RuntimeException("failed")).when(failingTransactionService).putUnlessExists(anyLong(), anyLong());
+        long startTs = timestampService.getFreshTimestamp();
+
+        SnapshotTransaction snapshot = new SnapshotTransaction(
+                keyValueService,
+                new LegacyTimelockService(timestampService, lockService, lockClient),
+                failingTransactionService,
+                NoOpCleaner.INSTANCE,
+                startTs,
+                TestConflictDetectionManagers.createWithStaticConflictDetection(
+                        ImmutableMap.of(TABLE, ConflictHandler.RETRY_ON_WRITE_WRITE)),
+                AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING,
+                TransactionReadSentinelBehavior.THROW_EXCEPTION,
+                timestampCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                sweepQueue);
+        snapshot.put(TABLE, ImmutableMap.of(cell, new byte[1]));
+        try {
+            snapshot.commit();
+            fail();
+        } catch (TransactionCommitFailedException e) {
+            // expected
+        }
+
+        // The writes must be in the queue even if the transaction committed without this node finding out.
+        InOrder inOrder = inOrder(sweepQueue, failingTransactionService);
+        inOrder.verify(sweepQueue).enqueue(eq(TABLE), eq(ImmutableList.of(WriteInfo.of(cell, false, startTs))));
+        inOrder.verify(failingTransactionService).putUnlessExists(eq(startTs), anyLong());
+    }
+
     @Test
     public void noWritesAddedToSweepQueueOnException() {
         Cell cell = Cell.create("foo".getBytes(), "bar".getBytes());
@@ -997,6 +1126,22 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         return allRows.get(defaultRow);
     }
 
+    private void createCachedTable() {
+        keyValueService.createTable(TABLE_CACHED, new TableMetadata(
+                new NameMetadataDescription(),
+                new ColumnMetadataDescription(),
+                ConflictHandler.RETRY_ON_WRITE_WRITE,
+                CachePriority.WARM,
+                false,
+                0,
+                false,
+                SweepStrategy.CONSERVATIVE,
+                false,
+                LogSafety.UNSAFE,
+                true).persistToBytes());
+        CachedTableVersions.createTable(keyValueService);
+    }
+
     private TableMetadata getTableMetadataForSweepStrategy(SweepStrategy sweepStrategy) {
         return new TableMetadata(
                 new NameMetadataDescription(),
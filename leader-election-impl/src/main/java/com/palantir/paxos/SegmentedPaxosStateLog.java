@@ -0,0 +1,681 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.persist.Persistable;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.util.crypto.Sha256Hash;
+
+/**
+ * A {@link PaxosStateLog} that appends rounds to a small number of segment files, rather than writing one file per
+ * round as {@link PaxosStateLogImpl} does.
+ *
+ * The location of the latest record for each sequence number is kept in memory, so finding the least and greatest
+ * entries does not require listing a directory. Concurrent calls to {@link #writeRound} share a single fsync, and
+ * truncation deletes whole segments once every record in them has been truncated. Truncation points are themselves
+ * recorded in the log, so truncated rounds in partially truncated segments are not resurrected on restart.
+ *
+ * If the log directory contains rounds written by {@link PaxosStateLogImpl}, they are copied into segments when the
+ * log is first opened, after which the per-round files are deleted. Note that the migration is one-way: rounds written
+ * after the migration are not visible to {@link PaxosStateLogImpl}.
+ *
+ * Interrupting a thread that is blocked on a {@link FileChannel} closes the channel for every thread. Segment I/O is
+ * therefore started with the caller's interrupt deferred, and if a channel is closed by an interrupt anyway, the
+ * segment is reopened; the operation that was interrupted fails, and any other operation is retried.
+ */
+public class SegmentedPaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V>, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedPaxosStateLog.class);
+
+    @VisibleForTesting
+    static final String SEGMENT_DIRECTORY = "segments";
+    private static final String MIGRATION_DIRECTORY = "segments.migrating";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long DEFAULT_MAX_SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    private static final byte ROUND_RECORD = 1;
+    private static final byte TRUNCATE_RECORD = 2;
+    private static final int CHECKSUM_BYTES = 32;
+    // record type, sequence number, version, payload length, payload checksum
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Long.BYTES + Integer.BYTES + CHECKSUM_BYTES;
+
+    private static final long NOT_TRUNCATED = Long.MIN_VALUE;
+    private static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    private final String path;
+    private final File segmentDirectory;
+    private final long maxSegmentBytes;
+
+    private final ConcurrentSkipListMap<Long, Segment> segmentsById = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Entry> entriesBySeq = new ConcurrentSkipListMap<>();
+
+    // Held for reading while reading from a segment, and for writing while deleting segments
+    private final ReentrantReadWriteLock segmentDeletionLock = new ReentrantReadWriteLock();
+
+    private final Object appendLock = new Object();
+    @GuardedBy("appendLock") private Segment activeSegment;
+    @GuardedBy("appendLock") private long appendedRecords = 0;
+
+    private final Object syncLock = new Object();
+    @GuardedBy("syncLock") private long durableRecords = 0;
+    @GuardedBy("syncLock") private boolean syncInProgress = false;
+
+    private volatile long truncatedThrough = NOT_TRUNCATED;
+    private volatile boolean closed = false;
+
+    public SegmentedPaxosStateLog(String path) {
+        this(path, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    @VisibleForTesting
+    SegmentedPaxosStateLog(String path, long maxSegmentBytes) {
+        this.path = path;
+        this.segmentDirectory = new File(path, SEGMENT_DIRECTORY);
+        this.maxSegmentBytes = maxSegmentBytes;
+        try {
+            FileUtils.forceMkdir(new File(path));
+            migrateLegacyLogIfNecessary();
+            FileUtils.forceMkdir(segmentDirectory);
+            loadSegments();
+            if (segmentsById.isEmpty()) {
+                segmentsById.put(0L, openSegment(segmentDirectory, 0));
+            }
+            synchronized (appendLock) {
+                activeSegment = segmentsById.lastEntry().getValue();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("IO problem related to the path " + new File(path).getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void writeRound(long seq, V round) {
+        long version = round.getVersion();
+
+        try {
+            Entry entry;
+            long ticket;
+            synchronized (appendLock) {
+                // reject old state
+                Entry existing = entriesBySeq.get(seq);
+                if (existing != null && version < existing.version) {
+                    return;
+                }
+                entry = append(ROUND_RECORD, seq, version, round.persistToBytes());
+                ticket = appendedRecords;
+            }
+            awaitDurable(ticket);
+            addEntry(seq, entry);
+        } catch (IOException e) {
+            log.error("problem writing paxos state", e);
+            throw Throwables.throwUncheckedException(e);
+        }
+    }
+
+    @Override
+    public byte[] readRound(long seq) throws IOException {
+        Entry entry = entriesBySeq.get(seq);
+        if (entry == null) {
+            return null;
+        }
+
+        segmentDeletionLock.readLock().lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BYTES + entry.length);
+            withChannel(entry.segment, channel -> {
+                buffer.clear();
+                readFully(channel, buffer, entry.payloadOffset - CHECKSUM_BYTES);
+                return null;
+            });
+            byte[] checksum = Arrays.copyOfRange(buffer.array(), 0, CHECKSUM_BYTES);
+            byte[] bytes = Arrays.copyOfRange(buffer.array(), CHECKSUM_BYTES, buffer.capacity());
+            if (!Arrays.equals(checksum, computeChecksum(bytes))) {
+                throw new CorruptLogFileException();
+            }
+            return bytes;
+        } catch (ClosedChannelException e) {
+            if (entry.segment.deleted) {
+                // The segment was deleted by a concurrent truncation
+                return null;
+            }
+            log.error("Interrupted while reading round {} from paxos state segment {}",
+                    SafeArg.of("round", seq),
+                    UnsafeArg.of("segment", entry.segment.file.getAbsolutePath()));
+            throw Throwables.rewrap(e);
+        } catch (IOException e) {
+            log.error("Problem reading paxos state, specifically when reading round {} from segment {}",
+                    SafeArg.of("round", seq),
+                    UnsafeArg.of("segment", entry.segment.file.getAbsolutePath()));
+            throw Throwables.rewrap(e);
+        } finally {
+            segmentDeletionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getLeastLogEntry() {
+        // Like PaxosStateLogImpl, a log that has never been truncated reports NO_LOG_ENTRY as its least entry,
+        // so that we never ignore rounds below the first one we happened to accept.
+        if (truncatedThrough == NOT_TRUNCATED) {
+            return PaxosAcceptor.NO_LOG_ENTRY;
+        }
+        Map.Entry<Long, Entry> least = entriesBySeq.firstEntry();
+        return least == null ? PaxosAcceptor.NO_LOG_ENTRY : least.getKey();
+    }
+
+    @Override
+    public long getGreatestLogEntry() {
+        Map.Entry<Long, Entry> greatest = entriesBySeq.lastEntry();
+        return greatest == null ? PaxosAcceptor.NO_LOG_ENTRY : greatest.getKey();
+    }
+
+    @Override
+    public void truncate(long toDeleteInclusive) {
+        long greatestLogEntry = getGreatestLogEntry();
+        if (greatestLogEntry >= 0) {
+            // We never want to remove our most recent entry
+            toDeleteInclusive = Math.min(greatestLogEntry - 1, toDeleteInclusive);
+        }
+        if (toDeleteInclusive <= truncatedThrough) {
+            return;
+        }
+
+        try {
+            long ticket;
+            long activeSegmentId;
+            synchronized (appendLock) {
+                append(TRUNCATE_RECORD, toDeleteInclusive, UNKNOWN_VERSION, EMPTY_PAYLOAD);
+                ticket = appendedRecords;
+                activeSegmentId = activeSegment.id;
+                truncatedThrough = Math.max(truncatedThrough, toDeleteInclusive);
+            }
+            awaitDurable(ticket);
+            entriesBySeq.headMap(toDeleteInclusive, true).clear();
+            deleteSegments(toDeleteInclusive, activeSegmentId);
+        } catch (IOException e) {
+            log.error("problem truncating paxos state", e);
+            throw Throwables.throwUncheckedException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        segmentDeletionLock.writeLock().lock();
+        try {
+            closed = true;
+            for (Segment segment : segmentsById.values()) {
+                synchronized (segment) {
+                    segment.channel.close();
+                }
+            }
+        } finally {
+            segmentDeletionLock.writeLock().unlock();
+        }
+    }
+
+    private void addEntry(long seq, Entry entry) {
+        segmentDeletionLock.readLock().lock();
+        try {
+            if (!entry.segment.deleted) {
+                entriesBySeq.merge(seq, entry, (oldEntry, newEntry) ->
+                        newEntry.version >= oldEntry.version ? newEntry : oldEntry);
+            }
+        } finally {
+            segmentDeletionLock.readLock().unlock();
+        }
+    }
+
+    @GuardedBy("appendLock")
+    private Entry append(byte type, long seq, long version, byte[] payload) throws IOException {
+        if (activeSegment.size >= maxSegmentBytes) {
+            rollOver();
+        }
+        Segment segment = activeSegment;
+        long recordOffset = segment.size;
+        try {
+            segment.size += withChannel(segment,
+                    channel -> writeRecord(channel, recordOffset, type, seq, version, payload));
+        } catch (IOException e) {
+            discardPartialRecord(segment, recordOffset);
+            throw e;
+        }
+        activeSegment.maxSeq = Math.max(activeSegment.maxSeq, seq);
+        appendedRecords++;
+        return new Entry(activeSegment, recordOffset + HEADER_BYTES, payload.length, version);
+    }
+
+    @GuardedBy("appendLock")
+    private void rollOver() throws IOException {
+        // Everything in the old segment is made durable here, so that syncs only ever need the active segment.
+        withChannel(activeSegment, channel -> {
+            channel.force(false);
+            return null;
+        });
+        synchronized (syncLock) {
+            durableRecords = Math.max(durableRecords, appendedRecords);
+            syncLock.notifyAll();
+        }
+        activeSegment = openSegment(segmentDirectory, activeSegment.id + 1);
+        segmentsById.put(activeSegment.id, activeSegment);
+        syncDirectory(segmentDirectory);
+    }
+
+    /**
+     * Blocks until the first {@code ticket} appended records are durable. Only one thread syncs at a time; threads
+     * that append while a sync is in progress wait for it to finish, and are then covered by a single further sync.
+     */
+    private void awaitDurable(long ticket) throws IOException {
+        while (true) {
+            synchronized (syncLock) {
+                if (durableRecords >= ticket) {
+                    return;
+                }
+                if (syncInProgress) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw Throwables.throwUncheckedException(e);
+                    }
+                    continue;
+                }
+                syncInProgress = true;
+            }
+
+            long syncedRecords = 0;
+            try {
+                syncedRecords = syncActiveSegment();
+            } finally {
+                synchronized (syncLock) {
+                    syncInProgress = false;
+                    durableRecords = Math.max(durableRecords, syncedRecords);
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private long syncActiveSegment() throws IOException {
+        Segment segment;
+        long records;
+        synchronized (appendLock) {
+            segment = activeSegment;
+            records = appendedRecords;
+        }
+        try {
+            withChannel(segment, channel -> {
+                channel.force(false);
+                return null;
+            });
+        } catch (ClosedChannelException e) {
+            if (!segment.deleted) {
+                throw e;
+            }
+            // The segment was rolled over, and so forced, and then deleted by a truncation since we read it
+        }
+        return records;
+    }
+
+    @GuardedBy("appendLock")
+    private void discardPartialRecord(Segment segment, long recordOffset) {
+        try {
+            withChannel(segment, channel -> channel.truncate(recordOffset));
+        } catch (IOException e) {
+            // The next append overwrites the partial record anyway, and recovery discards an incomplete tail.
+            log.warn("Could not discard a partially written record from paxos state segment {}",
+                    UnsafeArg.of("segment", segment.file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Runs an operation against the current channel of a segment, with this thread's interrupt deferred until it
+     * completes. If the channel is found closed and the segment is still live, the segment is reopened; the
+     * operation is then retried, unless this thread's own interrupt closed the channel, in which case it fails.
+     */
+    private <T> T withChannel(Segment segment, ChannelOperation<T> operation) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (true) {
+                FileChannel channel = segment.channel;
+                try {
+                    return operation.run(channel);
+                } catch (ClosedChannelException e) {
+                    if (segment.deleted || closed) {
+                        throw e;
+                    }
+                    reopen(segment, channel);
+                    if (e instanceof ClosedByInterruptException) {
+                        interrupted = true;
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void reopen(Segment segment, FileChannel closedChannel) throws IOException {
+        synchronized (segment) {
+            if (segment.channel == closedChannel && !segment.deleted && !closed) {
+                log.warn("Reopening paxos state segment {} after its channel was closed by an interrupt",
+                        UnsafeArg.of("segment", segment.file.getAbsolutePath()));
+                segment.channel = openChannel(segment.file);
+            }
+        }
+    }
+
+    private void deleteSegments(long toDeleteInclusive, long activeSegmentId) {
+        segmentDeletionLock.writeLock().lock();
+        try {
+            for (Segment segment : Lists.newArrayList(segmentsById.headMap(activeSegmentId, false).values())) {
+                if (segment.maxSeq <= toDeleteInclusive) {
+                    synchronized (segment) {
+                        segment.deleted = true;
+                        closeQuietly(segment);
+                    }
+                    segmentsById.remove(segment.id);
+                    if (!segment.file.delete()) {
+                        log.warn("failed to delete log segment {}", UnsafeArg.of("segment", segment.file));
+                    }
+                }
+            }
+        } finally {
+            segmentDeletionLock.writeLock().unlock();
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        List<Long> segmentIds = Lists.newArrayList();
+        File[] files = segmentDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segmentIds.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        segmentIds.sort(Long::compare);
+
+        for (int i = 0; i < segmentIds.size(); i++) {
+            Segment segment = openSegment(segmentDirectory, segmentIds.get(i));
+            segmentsById.put(segment.id, segment);
+            recoverSegment(segment, i == segmentIds.size() - 1);
+        }
+    }
+
+    private void recoverSegment(Segment segment, boolean isLastSegment) throws IOException {
+        long fileLength = segment.channel.size();
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (offset < fileLength) {
+                if (fileLength - offset < HEADER_BYTES) {
+                    break;
+                }
+                byte type = in.readByte();
+                long seq = in.readLong();
+                long version = in.readLong();
+                int length = in.readInt();
+                if (length < 0 || length > fileLength - offset - HEADER_BYTES) {
+                    break;
+                }
+                byte[] checksum = new byte[CHECKSUM_BYTES];
+                in.readFully(checksum);
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (!Arrays.equals(checksum, computeChecksum(payload))) {
+                    break;
+                }
+
+                if (type == ROUND_RECORD) {
+                    Entry entry = new Entry(segment, offset + HEADER_BYTES, length, version);
+                    entriesBySeq.merge(seq, entry, (oldEntry, newEntry) ->
+                            newEntry.version >= oldEntry.version ? newEntry : oldEntry);
+                } else if (type == TRUNCATE_RECORD) {
+                    truncatedThrough = Math.max(truncatedThrough, seq);
+                    entriesBySeq.headMap(seq, true).clear();
+                } else {
+                    break;
+                }
+                segment.maxSeq = Math.max(segment.maxSeq, seq);
+                offset += HEADER_BYTES + length;
+            }
+        } catch (EOFException e) {
+            // handled below, as for any other incomplete record
+        }
+
+        if (offset < fileLength) {
+            if (isLastSegment) {
+                // A write was interrupted by a crash before it was acknowledged, so it is safe to discard it.
+                log.warn("Discarding {} bytes of incomplete paxos state at the end of segment {}",
+                        SafeArg.of("bytes", fileLength - offset),
+                        UnsafeArg.of("segment", segment.file.getAbsolutePath()));
+                segment.channel.truncate(offset);
+            } else {
+                log.error("Paxos state segment {} is corrupt after offset {}; ignoring the remainder of the segment",
+                        UnsafeArg.of("segment", segment.file.getAbsolutePath()),
+                        SafeArg.of("offset", offset));
+            }
+        }
+        segment.size = offset;
+    }
+
+    private void migrateLegacyLogIfNecessary() throws IOException {
+        File migrationDirectory = new File(path, MIGRATION_DIRECTORY);
+        if (segmentDirectory.exists()) {
+            // A previous migration completed, but may not have finished cleaning up.
+            deleteLegacyRounds();
+            return;
+        }
+        FileUtils.deleteDirectory(migrationDirectory);
+
+        List<Long> legacySeqs = getLegacyRoundSeqs();
+        if (legacySeqs.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrating {} paxos rounds in {} to a segmented log",
+                SafeArg.of("rounds", legacySeqs.size()),
+                UnsafeArg.of("path", new File(path).getAbsolutePath()));
+        PaxosStateLogImpl<V> legacyLog = new PaxosStateLogImpl<>(path);
+        FileUtils.forceMkdir(migrationDirectory);
+        Segment segment = openSegment(migrationDirectory, 0);
+        try {
+            long legacyLeast = legacyLog.getLeastLogEntry();
+            if (legacyLeast != PaxosAcceptor.NO_LOG_ENTRY) {
+                segment.size += writeRecord(segment.channel, segment.size,
+                        TRUNCATE_RECORD, legacyLeast - 1, UNKNOWN_VERSION, EMPTY_PAYLOAD);
+            }
+            for (long seq : legacySeqs) {
+                if (seq == PaxosAcceptor.NO_LOG_ENTRY) {
+                    continue;
+                }
+                byte[] bytes = readLegacyRound(legacyLog, seq);
+                if (bytes != null) {
+                    segment.size += writeRecord(segment.channel, segment.size,
+                            ROUND_RECORD, seq, UNKNOWN_VERSION, bytes);
+                }
+            }
+            segment.channel.force(true);
+        } finally {
+            closeQuietly(segment);
+        }
+        syncDirectory(migrationDirectory);
+
+        Files.move(migrationDirectory.toPath(), segmentDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(new File(path));
+        deleteLegacyRounds();
+    }
+
+    private static byte[] readLegacyRound(PaxosStateLogImpl<?> legacyLog, long seq) {
+        try {
+            return legacyLog.readRound(seq);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read paxos round {} while migrating to a segmented log; skipping it",
+                    SafeArg.of("round", seq), e);
+            return null;
+        }
+    }
+
+    private List<Long> getLegacyRoundSeqs() {
+        List<Long> seqs = Lists.newArrayList();
+        File[] files = new File(path).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    seqs.add(Long.parseLong(file.getName()));
+                } catch (NumberFormatException e) {
+                    // not a round
+                }
+            }
+        }
+        seqs.sort(Long::compare);
+        return seqs;
+    }
+
+    private void deleteLegacyRounds() {
+        for (long seq : getLegacyRoundSeqs()) {
+            File file = new File(path, Long.toString(seq));
+            if (!file.delete()) {
+                log.warn("failed to delete migrated log file {}", UnsafeArg.of("file", file.getAbsolutePath()));
+            }
+        }
+    }
+
+    private static int writeRecord(FileChannel channel, long position, byte type, long seq, long version,
+            byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.put(type)
+                .putLong(seq)
+                .putLong(version)
+                .putInt(payload.length)
+                .put(computeChecksum(payload))
+                .put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        return buffer.limit();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new CorruptLogFileException();
+            }
+        }
+    }
+
+    private static byte[] computeChecksum(byte[] bytes) {
+        return Sha256Hash.computeHash(bytes).getBytes();
+    }
+
+    private static Segment openSegment(File directory, long id) throws IOException {
+        File file = new File(directory, id + SEGMENT_SUFFIX);
+        return new Segment(id, file, openChannel(file));
+    }
+
+    private static FileChannel openChannel(File file) throws IOException {
+        return FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void syncDirectory(File directory) {
+        // Makes the creation or renaming of files in the directory durable. Not all platforms support this.
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync directory {}", UnsafeArg.of("directory", directory.getAbsolutePath()), e);
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("failed to close log segment {}", UnsafeArg.of("segment", segment.file), e);
+        }
+    }
+
+    private interface ChannelOperation<T> {
+        T run(FileChannel channel) throws IOException;
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        // Only replaced while holding the segment's monitor, when the channel has been closed by an interrupt.
+        private volatile FileChannel channel;
+        // Only modified while holding the append lock, or during recovery.
+        private long size = 0;
+        private volatile long maxSeq = Long.MIN_VALUE;
+        private volatile boolean deleted = false;
+
+        private Segment(long id, File file, FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Entry {
+        private final Segment segment;
+        private final long payloadOffset;
+        private final int length;
+        private final long version;
+
+        private Entry(Segment segment, long payloadOffset, int length, long version) {
+            this.segment = segment;
+            this.payloadOffset = payloadOffset;
+            this.length = length;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+public class SegmentedPaxosStateLogTest {
+    private static final String LEADER = "leader";
+    private static final long SMALL_SEGMENT_BYTES = 512;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String path;
+    private SegmentedPaxosStateLog<PaxosValue> log;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.newFolder().getPath();
+        log = new SegmentedPaxosStateLog<>(path, SMALL_SEGMENT_BYTES);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+    }
+
+    @Test
+    public void newLogHasNoEntries() {
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+    }
+
+    @Test
+    public void canReadWrittenRounds() throws IOException {
+        writeRounds(0, 10);
+
+        for (long seq = 0; seq < 10; seq++) {
+            assertThat(readRound(log, seq).getRound()).isEqualTo(seq);
+        }
+        assertThat(log.readRound(10)).isNull();
+        assertThat(log.getGreatestLogEntry()).isEqualTo(9L);
+    }
+
+    @Test
+    public void rewritingARoundReturnsTheLatestValue() throws IOException {
+        log.writeRound(1, new PaxosValue(LEADER, 1, new byte[] { 1 }));
+        log.writeRound(1, new PaxosValue(LEADER, 1, new byte[] { 2 }));
+
+        assertThat(readRound(log, 1).getData()).containsExactly(2);
+    }
+
+    @Test
+    public void roundsSurviveRestart() throws IOException {
+        writeRounds(0, 50);
+        reopen();
+
+        assertThat(log.getGreatestLogEntry()).isEqualTo(49L);
+        assertThat(readRound(log, 25).getRound()).isEqualTo(25L);
+    }
+
+    @Test
+    public void truncationKeepsGreatestEntryAndSurvivesRestart() throws IOException {
+        writeRounds(0, 50);
+        log.truncate(100);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(49L);
+        assertThat(log.readRound(10)).isNull();
+
+        reopen();
+        assertThat(log.getLeastLogEntry()).isEqualTo(49L);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(49L);
+        assertThat(log.readRound(10)).isNull();
+    }
+
+    @Test
+    public void truncationDeletesWholeSegments() throws IOException {
+        writeRounds(0, 50);
+        int segmentsBefore = segmentFiles().length;
+
+        log.truncate(40);
+
+        assertThat(segmentFiles().length).isLessThan(segmentsBefore);
+        assertThat(readRound(log, 45).getRound()).isEqualTo(45L);
+    }
+
+    @Test
+    public void incompleteTrailingRecordIsDiscardedOnRestart() throws IOException {
+        writeRounds(0, 3);
+        log.close();
+
+        File[] segments = segmentFiles();
+        File lastSegment = segments[segments.length - 1];
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        log = new SegmentedPaxosStateLog<>(path, SMALL_SEGMENT_BYTES);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(1L);
+        writeRounds(2, 3);
+        assertThat(readRound(log, 2).getRound()).isEqualTo(2L);
+    }
+
+    @Test
+    public void migratesRoundsFromPerRoundFiles() throws IOException {
+        log.close();
+        String legacyPath = folder.newFolder().getPath();
+        PaxosStateLogImpl<PaxosValue> legacyLog = new PaxosStateLogImpl<>(legacyPath);
+        for (long seq = 0; seq < 5; seq++) {
+            legacyLog.writeRound(seq, new PaxosValue(LEADER, seq, null));
+        }
+        legacyLog.truncate(1);
+
+        log = new SegmentedPaxosStateLog<>(legacyPath, SMALL_SEGMENT_BYTES);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(2L);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(4L);
+        assertThat(readRound(log, 3).getRound()).isEqualTo(3L);
+        assertThat(new File(legacyPath, "3")).doesNotExist();
+    }
+
+    @Test
+    public void interruptedThreadsDoNotCloseTheLog() throws IOException {
+        writeRounds(0, 5);
+
+        Thread.currentThread().interrupt();
+        try {
+            writeRounds(5, 10);
+            assertThat(readRound(log, 2).getRound()).isEqualTo(2L);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        writeRounds(10, 15);
+        for (long seq = 0; seq < 15; seq++) {
+            assertThat(readRound(log, seq).getRound()).isEqualTo(seq);
+        }
+        reopen();
+        assertThat(log.getGreatestLogEntry()).isEqualTo(14L);
+        assertThat(readRound(log, 7).getRound()).isEqualTo(7L);
+    }
+
+    @Test
+    public void concurrentWritesAreAllDurable() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            long seq = i;
+            futures.add(executor.submit(() -> log.writeRound(seq, new PaxosValue(LEADER, seq, null))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        reopen();
+        for (long seq = 0; seq < 100; seq++) {
+            assertThat(readRound(log, seq).getRound()).isEqualTo(seq);
+        }
+    }
+
+    private void writeRounds(long fromInclusive, long toExclusive) {
+        for (long seq = fromInclusive; seq < toExclusive; seq++) {
+            log.writeRound(seq, new PaxosValue(LEADER, seq, null));
+        }
+    }
+
+    private void reopen() throws IOException {
+        log.close();
+        log = new SegmentedPaxosStateLog<>(path, SMALL_SEGMENT_BYTES);
+    }
+
+    private File[] segmentFiles() {
+        File[] files = new File(path, SegmentedPaxosStateLog.SEGMENT_DIRECTORY).listFiles();
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static PaxosValue readRound(PaxosStateLog<PaxosValue> log, long seq) throws IOException {
+        return PaxosValue.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(seq));
+    }
+}
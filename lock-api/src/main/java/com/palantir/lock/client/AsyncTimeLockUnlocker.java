@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Sets;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Releases locks in the background. Tokens passed to {@link #enqueue} are collected for batchWindowMillis and then
+ * released with a single call to {@link TimelockService#unlock}, so callers do not wait for a round trip to the lock
+ * service and concurrent callers share one. Failed unlocks are not retried, since the locks expire with their leases.
+ * Once the unlocker is closed, tokens are released on the caller's thread.
+ */
+public class AsyncTimeLockUnlocker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTimeLockUnlocker.class);
+
+    private final ScheduledExecutorService executor;
+    private final TimelockService timelockService;
+    private final long batchWindowMillis;
+    private final Set<LockToken> pendingTokens = Sets.newConcurrentHashSet();
+    private final AtomicBoolean unlockScheduled = new AtomicBoolean();
+    private volatile boolean closed = false;
+
+    private final Timer unlockTimer;
+    private final Histogram batchSizes;
+    private final Meter failures;
+
+    public AsyncTimeLockUnlocker(
+            ScheduledExecutorService executor,
+            TimelockService timelockService,
+            long batchWindowMillis,
+            MetricRegistry metricRegistry) {
+        this.executor = executor;
+        this.timelockService = timelockService;
+        this.batchWindowMillis = batchWindowMillis;
+
+        Gauge<Integer> pendingTokenCount = pendingTokens::size;
+        metricRegistry.gauge(metricName("pendingTokens"), () -> pendingTokenCount);
+        this.unlockTimer = metricRegistry.timer(metricName("unlock"));
+        this.batchSizes = metricRegistry.histogram(metricName("batchSize"));
+        this.failures = metricRegistry.meter(metricName("failures"));
+    }
+
+    public void enqueue(Set<LockToken> tokens) {
+        pendingTokens.addAll(tokens);
+        if (closed) {
+            unlockPendingTokens();
+            return;
+        }
+        if (unlockScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::unlockPendingTokens, batchWindowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // We were closed concurrently, so nothing will run on the executor any more.
+                unlockPendingTokens();
+            }
+        }
+    }
+
+    private void unlockPendingTokens() {
+        // Clear the flag before draining, so that tokens enqueued after the drain schedule another unlock.
+        unlockScheduled.set(false);
+        Set<LockToken> toUnlock = drainPendingTokens();
+        if (toUnlock.isEmpty()) {
+            return;
+        }
+
+        batchSizes.update(toUnlock.size());
+        try (Timer.Context timer = unlockTimer.time()) {
+            timelockService.unlock(toUnlock);
+        } catch (Throwable error) {
+            failures.mark();
+            log.warn("Error while unlocking {} locks. They will be released when their leases expire.",
+                    SafeArg.of("numLocks", toUnlock.size()),
+                    error);
+        }
+    }
+
+    private Set<LockToken> drainPendingTokens() {
+        Set<LockToken> drained = Sets.newHashSet();
+        for (Iterator<LockToken> iterator = pendingTokens.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    private static String metricName(String name) {
+        return MetricRegistry.name(AsyncTimeLockUnlocker.class, name);
+    }
+
+    /**
+     * Releases any locks that are still waiting to be unlocked, and stops the executor. Locks enqueued afterwards are
+     * released synchronously.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        unlockPendingTokens();
+        executor.shutdown();
+    }
+}
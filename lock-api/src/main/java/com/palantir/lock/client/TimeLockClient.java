@@ -18,10 +18,12 @@ package com.palantir.lock.client;
 
 import java.net.ConnectException;
 import java.net.UnknownHostException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.concurrent.PTExecutors;
@@ -31,6 +33,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -39,22 +43,44 @@ import com.palantir.timestamp.TimestampRange;
 public class TimeLockClient implements AutoCloseable, TimelockService {
 
     private static final long REFRESH_INTERVAL_MILLIS = 5_000;
+    private static final long UNLOCK_BATCH_WINDOW_MILLIS = 5;
 
     private final TimelockService delegate;
     private final LockRefresher lockRefresher;
+    private final Optional<AsyncTimeLockUnlocker> unlocker;
 
     public static TimeLockClient createDefault(TimelockService timelockService) {
-        ScheduledExecutorService executor = PTExecutors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
-                .setNameFormat(TimeLockClient.class.getSimpleName() + "-%d")
+        return createDefault(timelockService, new MetricRegistry());
+    }
+
+    public static TimeLockClient createDefault(TimelockService timelockService, MetricRegistry metricRegistry) {
+        LockRefresher lockRefresher = new LockRefresher(
+                createSingleThreadScheduledExecutor("refresh"), timelockService, REFRESH_INTERVAL_MILLIS);
+        AsyncTimeLockUnlocker unlocker = new AsyncTimeLockUnlocker(
+                createSingleThreadScheduledExecutor("unlock"),
+                timelockService,
+                UNLOCK_BATCH_WINDOW_MILLIS,
+                metricRegistry);
+        return new TimeLockClient(timelockService, lockRefresher, unlocker);
+    }
+
+    private static ScheduledExecutorService createSingleThreadScheduledExecutor(String operation) {
+        return PTExecutors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(TimeLockClient.class.getSimpleName() + "-" + operation + "-%d")
                 .setDaemon(true)
                 .build());
-        LockRefresher lockRefresher = new LockRefresher(executor, timelockService, REFRESH_INTERVAL_MILLIS);
-        return new TimeLockClient(timelockService, lockRefresher);
     }
 
     public TimeLockClient(TimelockService delegate, LockRefresher lockRefresher) {
         this.delegate = delegate;
         this.lockRefresher = lockRefresher;
+        this.unlocker = Optional.empty();
+    }
+
+    public TimeLockClient(TimelockService delegate, LockRefresher lockRefresher, AsyncTimeLockUnlocker unlocker) {
+        this.delegate = delegate;
+        this.lockRefresher = lockRefresher;
+        this.unlocker = Optional.of(unlocker);
     }
 
     @Override
@@ -79,6 +105,13 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return response;
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        StartTransactionsResponse response = executeOnTimeLock(() -> delegate.startTransactions(request));
+        lockRefresher.registerLock(response.getImmutableTimestamp().getLock());
+        return response;
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return executeOnTimeLock(delegate::getImmutableTimestamp);
@@ -109,6 +142,16 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return executeOnTimeLock(() -> delegate.unlock(tokens));
     }
 
+    @Override
+    public void tryUnlock(Set<LockToken> tokens) {
+        if (unlocker.isPresent()) {
+            lockRefresher.unregisterLocks(tokens);
+            unlocker.get().enqueue(tokens);
+        } else {
+            unlock(tokens);
+        }
+    }
+
     @Override
     public long currentTimeMillis() {
         return executeOnTimeLock(delegate::currentTimeMillis);
@@ -131,5 +174,6 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
     @Override
     public void close() {
         lockRefresher.close();
+        unlocker.ifPresent(AsyncTimeLockUnlocker::close);
     }
 }
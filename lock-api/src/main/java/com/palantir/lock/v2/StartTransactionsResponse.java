@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.v2;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.timestamp.TimestampRange;
+
+/**
+ * A single immutable timestamp lock shared by a batch of transactions, together with their start timestamps. The
+ * range may contain fewer timestamps than were requested, in which case the caller should ask again for the rest.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableStartTransactionsResponse.class)
+@JsonDeserialize(as = ImmutableStartTransactionsResponse.class)
+public interface StartTransactionsResponse {
+
+    @Value.Parameter
+    LockImmutableTimestampResponse getImmutableTimestamp();
+
+    @Value.Parameter
+    TimestampRange getStartTimestamps();
+
+    static StartTransactionsResponse of(LockImmutableTimestampResponse immutableTimestamp,
+            TimestampRange startTimestamps) {
+        return ImmutableStartTransactionsResponse.of(immutableTimestamp, startTimestamps);
+    }
+
+}
@@ -55,6 +55,15 @@ public interface TimelockService {
     @Path("lock-immutable-timestamp")
     LockImmutableTimestampResponse lockImmutableTimestamp(LockImmutableTimestampRequest request);
 
+    /**
+     * Starts a batch of transactions with a single call, returning one immutable timestamp lock that is shared by
+     * all of them, and a contiguous range of start timestamps. The lock must only be released once every transaction
+     * in the batch has finished. The range may be smaller than the number of transactions requested.
+     */
+    @POST
+    @Path("start-transactions")
+    StartTransactionsResponse startTransactions(StartTransactionsRequest request);
+
     @POST
     @Path("immutable-timestamp")
     long getImmutableTimestamp();
@@ -75,6 +84,15 @@ public interface TimelockService {
     @Path("unlock")
     Set<LockToken> unlock(Set<LockToken> tokens);
 
+    /**
+     * Releases the given locks when the caller does not need to know whether they were still held, for example
+     * after a transaction has already committed or aborted. Implementations may return before the locks have been
+     * released, and may batch the release with other calls; locks that are never released expire with their leases.
+     */
+    default void tryUnlock(Set<LockToken> tokens) {
+        unlock(tokens);
+    }
+
     @POST
     @Path("current-time-millis")
     long currentTimeMillis();
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.TimelockService;
+
+public class AsyncTimeLockUnlockerTest {
+
+    private static final long BATCH_WINDOW_MILLIS = 5L;
+
+    private static final LockToken TOKEN_1 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_2 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_3 = LockToken.of(UUID.randomUUID());
+
+    private final DeterministicScheduler executor = new DeterministicScheduler();
+    private final TimelockService timelock = mock(TimelockService.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final AsyncTimeLockUnlocker unlocker =
+            new AsyncTimeLockUnlocker(executor, timelock, BATCH_WINDOW_MILLIS, metricRegistry);
+
+    @Test
+    public void doesNotUnlockBeforeBatchWindowHasPassed() {
+        unlocker.enqueue(ImmutableSet.of(TOKEN_1));
+
+        executor.tick(BATCH_WINDOW_MILLIS - 1, TimeUnit.MILLISECONDS);
+        verifyNoMoreInteractions(timelock);
+    }
+
+    @Test
+    public void coalescesUnlocksWithinBatchWindow() {
+        unlocker.enqueue(ImmutableSet.of(TOKEN_1));
+        unlocker.enqueue(ImmutableSet.of(TOKEN_2, TOKEN_3));
+
+        tick();
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_1, TOKEN_2, TOKEN_3));
+        verifyNoMoreInteractions(timelock);
+    }
+
+    @Test
+    public void unlocksLaterTokensInNextBatch() {
+        unlocker.enqueue(ImmutableSet.of(TOKEN_1));
+        tick();
+        unlocker.enqueue(ImmutableSet.of(TOKEN_2));
+        tick();
+
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_1));
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_2));
+    }
+
+    @Test
+    public void doesNotRetryFailedUnlocks() {
+        when(timelock.unlock(any())).thenThrow(new RuntimeException("test"));
+        unlocker.enqueue(ImmutableSet.of(TOKEN_1));
+
+        tick();
+        tick();
+        verify(timelock, times(1)).unlock(ImmutableSet.of(TOKEN_1));
+        assertThat(metricRegistry.meter(MetricRegistry.name(AsyncTimeLockUnlocker.class, "failures")).getCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void reportsPendingTokens() {
+        Gauge<?> pendingTokens = metricRegistry.getGauges()
+                .get(MetricRegistry.name(AsyncTimeLockUnlocker.class, "pendingTokens"));
+        unlocker.enqueue(ImmutableSet.of(TOKEN_1, TOKEN_2));
+        assertThat(pendingTokens.getValue()).isEqualTo(2);
+
+        tick();
+        assertThat(pendingTokens.getValue()).isEqualTo(0);
+    }
+
+    @Test
+    public void unlocksPendingTokensOnClose() {
+        ScheduledExecutorService closeableExecutor = mock(ScheduledExecutorService.class);
+        AsyncTimeLockUnlocker closeableUnlocker =
+                new AsyncTimeLockUnlocker(closeableExecutor, timelock, BATCH_WINDOW_MILLIS, metricRegistry);
+        closeableUnlocker.enqueue(ImmutableSet.of(TOKEN_1));
+
+        closeableUnlocker.close();
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_1));
+        verify(closeableExecutor).shutdown();
+    }
+
+    @Test
+    public void unlocksSynchronouslyAfterClose() {
+        ScheduledExecutorService closeableExecutor = mock(ScheduledExecutorService.class);
+        AsyncTimeLockUnlocker closeableUnlocker =
+                new AsyncTimeLockUnlocker(closeableExecutor, timelock, BATCH_WINDOW_MILLIS, metricRegistry);
+        closeableUnlocker.close();
+
+        closeableUnlocker.enqueue(ImmutableSet.of(TOKEN_1));
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_1));
+    }
+
+    @Test
+    public void unlocksSynchronouslyIfExecutorRejectsUnlock() {
+        ScheduledExecutorService shutDownExecutor = mock(ScheduledExecutorService.class);
+        when(shutDownExecutor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new RejectedExecutionException("shut down"));
+        AsyncTimeLockUnlocker rejectingUnlocker =
+                new AsyncTimeLockUnlocker(shutDownExecutor, timelock, BATCH_WINDOW_MILLIS, metricRegistry);
+
+        rejectingUnlocker.enqueue(ImmutableSet.of(TOKEN_1));
+        verify(timelock).unlock(ImmutableSet.of(TOKEN_1));
+    }
+
+    private void tick() {
+        executor.tick(BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -101,6 +101,27 @@ public class TimeLockClientTest {
         inOrder.verify(delegate).unlock(TOKENS);
     }
 
+    @Test
+    public void tryUnlockUnregistersLocksAndHandsThemToUnlocker() {
+        AsyncTimeLockUnlocker unlocker = mock(AsyncTimeLockUnlocker.class);
+        TimelockService asyncTimelock = new TimeLockClient(delegate, refresher, unlocker);
+        InOrder inOrder = Mockito.inOrder(refresher, unlocker);
+
+        asyncTimelock.tryUnlock(TOKENS);
+
+        inOrder.verify(refresher).unregisterLocks(TOKENS);
+        inOrder.verify(unlocker).enqueue(TOKENS);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void tryUnlockUnlocksSynchronouslyWithoutUnlocker() {
+        timelock.tryUnlock(TOKENS);
+
+        verify(refresher).unregisterLocks(TOKENS);
+        verify(delegate).unlock(TOKENS);
+    }
+
     @Test
     public void refreshDelegates() {
         timelock.refreshLockLeases(TOKENS);
@@ -37,6 +37,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -101,6 +103,15 @@ public class LegacyTimelockService implements TimelockService {
         }
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        LockImmutableTimestampResponse immutableTimestamp = lockImmutableTimestamp(
+                LockImmutableTimestampRequest.create());
+        return StartTransactionsResponse.of(
+                immutableTimestamp,
+                timestampService.getFreshTimestamps(request.getNumTransactions()));
+    }
+
     @Override
     public long getImmutableTimestamp() {
         long ts = timestampService.getFreshTimestamp();
@@ -27,6 +27,17 @@ public interface PaxosInstallConfiguration {
         return new File("var/data/paxos");
     }
 
+    /**
+     * If true, paxos rounds are written to segmented append-only log files instead of one file per round.
+     * Existing per-round files are migrated on startup; note that this migration cannot be undone by setting this
+     * back to false.
+     */
+    @JsonProperty("use-segmented-state-log")
+    @Value.Default
+    default boolean useSegmentedStateLog() {
+        return false;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkArgument(dataDirectory().mkdirs() || dataDirectory().isDirectory(),
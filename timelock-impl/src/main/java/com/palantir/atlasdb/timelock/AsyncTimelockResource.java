@@ -34,6 +34,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.logsafe.Safe;
@@ -68,6 +70,12 @@ public class AsyncTimelockResource {
         return timelock.lockImmutableTimestamp(request);
     }
 
+    @POST
+    @Path("start-transactions")
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        return timelock.startTransactions(request);
+    }
+
     @POST
     @Path("immutable-timestamp")
     public long getImmutableTimestamp() {
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock;
 
 import java.io.IOException;
 import java.util.Set;
+import java.util.UUID;
 
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.AsyncResult;
@@ -27,6 +28,8 @@ import com.palantir.lock.v2.LockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
 
@@ -57,10 +60,23 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
 
     @Override
     public LockImmutableTimestampResponse lockImmutableTimestamp(LockImmutableTimestampRequest request) {
+        return lockImmutableTimestamp(request.getRequestId());
+    }
+
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        // The lock is taken at a timestamp below every start timestamp in the range, so it protects the whole batch.
+        LockImmutableTimestampResponse immutableTimestamp = lockImmutableTimestamp(request.getRequestId());
+        TimestampRange startTimestamps = timestampService.getFreshTimestamps(request.getNumTransactions());
+
+        return StartTransactionsResponse.of(immutableTimestamp, startTimestamps);
+    }
+
+    private LockImmutableTimestampResponse lockImmutableTimestamp(UUID requestId) {
         long timestamp = timestampService.getFreshTimestamp();
 
         // this will always return synchronously
-        LockToken token = lockService.lockImmutableTimestamp(request.getRequestId(), timestamp).get();
+        LockToken token = lockService.lockImmutableTimestamp(requestId, timestamp).get();
         long immutableTs = lockService.getImmutableTimestamp().orElse(timestamp);
 
         return LockImmutableTimestampResponse.of(immutableTs, token);
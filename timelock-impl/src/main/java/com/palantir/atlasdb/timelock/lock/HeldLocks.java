@@ -81,6 +81,10 @@ public class HeldLocks {
         return true;
     }
 
+    public long getLeaseExpirationTimeMillis() {
+        return expirationTimer.getExpirationTimeMillis();
+    }
+
     public LockToken getToken() {
         return token;
     }
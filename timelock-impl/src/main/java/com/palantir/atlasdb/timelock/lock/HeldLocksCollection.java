@@ -16,50 +16,100 @@
 
 package com.palantir.atlasdb.timelock.lock;
 
-import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.palantir.common.time.Clock;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.lock.v2.LockToken;
 
+/**
+ * Tracks held locks by request id. To avoid scanning every held lock when reaping, requests are also indexed by the
+ * time at which their leases expire, and requests that fail or time out while acquiring are queued for removal.
+ */
 public class HeldLocksCollection {
 
     @VisibleForTesting
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = Maps.newConcurrentMap();
 
+    private final LeaseExpirationBuckets expirationBuckets = new LeaseExpirationBuckets();
+    private final Queue<UUID> requestsWithoutLocks = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+
+    public HeldLocksCollection() {
+        this(System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    HeldLocksCollection(Clock clock) {
+        this.clock = clock;
+    }
+
     public AsyncResult<LockToken> getExistingOrAcquire(
             UUID requestId,
             Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
+        AtomicBoolean isNewRequest = new AtomicBoolean(false);
         AsyncResult<HeldLocks> locksFuture = heldLocksById.computeIfAbsent(
-                requestId, ignored -> lockAcquirer.get());
+                requestId, ignored -> {
+                    isNewRequest.set(true);
+                    return lockAcquirer.get();
+                });
+        if (isNewRequest.get()) {
+            // registered only once the request is in the map, so that the reaper can always find it
+            locksFuture.onComplete(() -> trackCompletedRequest(requestId, locksFuture));
+        }
         return locksFuture.map(HeldLocks::getToken);
     }
 
     public Set<LockToken> unlock(Set<LockToken> tokens) {
-        Set<LockToken> unlocked = filter(tokens, HeldLocks::unlock);
-        for (LockToken token : unlocked) {
-            heldLocksById.remove(token.getRequestId());
+        Set<LockToken> unlocked = Sets.newHashSetWithExpectedSize(tokens.size());
+        for (LockToken token : tokens) {
+            AsyncResult<HeldLocks> lockResult = heldLocksById.get(token.getRequestId());
+            if (lockResult != null && lockResult.test(HeldLocks::unlock)) {
+                unlocked.add(token);
+                heldLocksById.remove(token.getRequestId());
+                expirationBuckets.remove(token.getRequestId(), lockResult.get().getLeaseExpirationTimeMillis());
+            }
         }
         return unlocked;
     }
 
     public Set<LockToken> refresh(Set<LockToken> tokens) {
-        return filter(tokens, HeldLocks::refresh);
+        Set<LockToken> refreshed = Sets.newHashSetWithExpectedSize(tokens.size());
+        for (LockToken token : tokens) {
+            AsyncResult<HeldLocks> lockResult = heldLocksById.get(token.getRequestId());
+            if (lockResult != null && lockResult.test(heldLocks -> refresh(token.getRequestId(), heldLocks))) {
+                refreshed.add(token);
+            }
+        }
+        return refreshed;
     }
 
+    /**
+     * Removes requests that failed or timed out, and unlocks and removes requests whose leases have expired. Only
+     * requests whose leases may have expired since the last call are examined.
+     */
     public void removeExpired() {
-        Iterator<AsyncResult<HeldLocks>> iterator = heldLocksById.values().iterator();
-        while (iterator.hasNext()) {
-            AsyncResult<HeldLocks> lockResult = iterator.next();
-            if (shouldRemove(lockResult)) {
-                iterator.remove();
+        UUID requestId;
+        while ((requestId = requestsWithoutLocks.poll()) != null) {
+            removeIfExpired(requestId);
+        }
+
+        long now = clock.getTimeMillis();
+        for (UUID expiredRequestId : expirationBuckets.pollExpired(now)) {
+            AsyncResult<HeldLocks> lockResult = removeIfExpired(expiredRequestId);
+            if (lockResult != null && lockResult.isCompletedSuccessfully()) {
+                // refreshed since it was bucketed, so check it again when its new lease runs out
+                long expirationTime = lockResult.get().getLeaseExpirationTimeMillis();
+                expirationBuckets.add(expiredRequestId, Math.max(now, expirationTime));
             }
         }
     }
@@ -69,23 +119,42 @@ public class HeldLocksCollection {
         heldLocksById.values().forEach(result -> result.failIfNotCompleted(ex));
     }
 
-    private boolean shouldRemove(AsyncResult<HeldLocks> lockResult) {
-        return lockResult.isFailed()
-                || lockResult.isTimedOut()
-                || lockResult.test(HeldLocks::unlockIfExpired);
+    private void trackCompletedRequest(UUID requestId, AsyncResult<HeldLocks> lockResult) {
+        if (lockResult.isCompletedSuccessfully()) {
+            expirationBuckets.add(requestId, lockResult.get().getLeaseExpirationTimeMillis());
+        } else {
+            requestsWithoutLocks.add(requestId);
+        }
     }
 
-    private Set<LockToken> filter(Set<LockToken> tokens, Predicate<HeldLocks> predicate) {
-        Set<LockToken> filtered = Sets.newHashSetWithExpectedSize(tokens.size());
+    private boolean refresh(UUID requestId, HeldLocks heldLocks) {
+        long previousExpirationTime = heldLocks.getLeaseExpirationTimeMillis();
+        if (!heldLocks.refresh()) {
+            return false;
+        }
+        expirationBuckets.move(requestId, previousExpirationTime, heldLocks.getLeaseExpirationTimeMillis());
+        return true;
+    }
 
-        for (LockToken token : tokens) {
-            AsyncResult<HeldLocks> lockResult = heldLocksById.get(token.getRequestId());
-            if (lockResult != null && lockResult.test(predicate)) {
-                filtered.add(token);
-            }
+    /**
+     * Returns the result that is still held under the request id, or null if there is none or it was removed.
+     */
+    private AsyncResult<HeldLocks> removeIfExpired(UUID requestId) {
+        AsyncResult<HeldLocks> lockResult = heldLocksById.get(requestId);
+        if (lockResult == null) {
+            return null;
         }
+        if (shouldRemove(lockResult)) {
+            heldLocksById.remove(requestId, lockResult);
+            return null;
+        }
+        return lockResult;
+    }
 
-        return filtered;
+    private boolean shouldRemove(AsyncResult<HeldLocks> lockResult) {
+        return lockResult.isFailed()
+                || lockResult.isTimedOut()
+                || lockResult.test(HeldLocks::unlockIfExpired);
     }
 
 }
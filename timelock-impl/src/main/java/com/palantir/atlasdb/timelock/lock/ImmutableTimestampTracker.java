@@ -16,33 +16,47 @@
 
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.SortedMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
 
-import com.google.common.collect.Maps;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.logsafe.SafeArg;
 
-import net.jcip.annotations.GuardedBy;
-
+/**
+ * Tracks the timestamps held by immutable timestamp locks. Every transaction start and end goes through here, so
+ * there is no global monitor: holders are kept in a concurrent skip list, and the least held timestamp is cached so
+ * that {@link #getImmutableTimestamp()} is a single volatile read.
+ *
+ * Every lock and unlock publishes a new {@link Minimum} by compare-and-set, even if the value does not change. An
+ * unlock that recomputes the minimum from the skip list can therefore never overwrite the minimum with a value that
+ * missed a concurrently locked timestamp, as the lock will have replaced the object the unlock expected to see.
+ */
 public class ImmutableTimestampTracker {
 
-    @GuardedBy("this")
-    private final SortedMap<Long, UUID> holdersByTimestamp = Maps.newTreeMap();
+    private final ConcurrentNavigableMap<Long, UUID> holdersByTimestamp = new ConcurrentSkipListMap<>();
+    private final AtomicReference<Minimum> minimum = new AtomicReference<>(Minimum.NONE);
 
-    public synchronized void lock(long timestamp, UUID requestId) {
-        boolean wasAdded = holdersByTimestamp.putIfAbsent(timestamp, requestId) == null;
-        if (!wasAdded) {
+    public void lock(long timestamp, UUID requestId) {
+        UUID currentHolder = holdersByTimestamp.putIfAbsent(timestamp, requestId);
+        if (currentHolder != null) {
             throw new LoggableIllegalStateException(
                     "A request attempted to lock a timestamp that was already locked",
                     SafeArg.of("timestamp", timestamp),
                     SafeArg.of("requestId", requestId),
-                    SafeArg.of("currentHolder", holdersByTimestamp.get(timestamp)));
+                    SafeArg.of("currentHolder", currentHolder));
         }
+
+        Minimum current;
+        do {
+            current = minimum.get();
+        } while (!minimum.compareAndSet(current, Minimum.of(Math.min(current.timestamp, timestamp))));
     }
 
-    public synchronized void unlock(long timestamp, UUID requestId) {
+    public void unlock(long timestamp, UUID requestId) {
         boolean wasRemoved = holdersByTimestamp.remove(timestamp, requestId);
         if (!wasRemoved) {
             throw new LoggableIllegalStateException(
@@ -51,13 +65,17 @@ public class ImmutableTimestampTracker {
                     SafeArg.of("requestId", requestId),
                     SafeArg.of("currentHolder", holdersByTimestamp.get(timestamp)));
         }
+
+        Minimum current;
+        Minimum recomputed;
+        do {
+            current = minimum.get();
+            recomputed = Minimum.of(leastHeldTimestamp());
+        } while (!minimum.compareAndSet(current, recomputed));
     }
 
-    public synchronized Optional<Long> getImmutableTimestamp() {
-        if (holdersByTimestamp.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(holdersByTimestamp.firstKey());
+    public Optional<Long> getImmutableTimestamp() {
+        return minimum.get().asOptional;
     }
 
     // TODO(nziebart): should these locks should be created by LockCollection for consistency?
@@ -65,4 +83,29 @@ public class ImmutableTimestampTracker {
         return new ImmutableTimestampLock(timestamp, this);
     }
 
+    private long leastHeldTimestamp() {
+        Map.Entry<Long, UUID> first = holdersByTimestamp.firstEntry();
+        return first == null ? Minimum.NO_TIMESTAMP : first.getKey();
+    }
+
+    /**
+     * A new instance is created on every update, so that compare-and-set on the reference detects any intervening
+     * update, not just a change of value.
+     */
+    private static final class Minimum {
+        private static final long NO_TIMESTAMP = Long.MAX_VALUE;
+        private static final Minimum NONE = new Minimum(NO_TIMESTAMP);
+
+        private final long timestamp;
+        private final Optional<Long> asOptional;
+
+        private Minimum(long timestamp) {
+            this.timestamp = timestamp;
+            this.asOptional = timestamp == NO_TIMESTAMP ? Optional.empty() : Optional.of(timestamp);
+        }
+
+        private static Minimum of(long timestamp) {
+            return new Minimum(timestamp);
+        }
+    }
 }
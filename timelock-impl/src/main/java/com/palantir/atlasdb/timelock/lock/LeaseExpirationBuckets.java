@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Groups requests into buckets by the time at which their leases expire, so that finding the requests whose leases
+ * may have expired only needs to look at the buckets that are already in the past.
+ *
+ * A request is always in the bucket for its current expiration time, but may also remain in an earlier bucket, for
+ * example if it was refreshed while that bucket was being polled. Callers must therefore check whether a polled
+ * request has really expired, and add it back if it has not.
+ */
+class LeaseExpirationBuckets {
+    @VisibleForTesting
+    static final long BUCKET_MILLIS = 1_000;
+
+    private final ConcurrentNavigableMap<Long, Set<UUID>> requestsByBucket = new ConcurrentSkipListMap<>();
+
+    void add(UUID requestId, long expirationTimeMillis) {
+        requestsByBucket.compute(bucketFor(expirationTimeMillis), (bucket, requests) -> {
+            Set<UUID> result = requests == null ? Sets.newConcurrentHashSet() : requests;
+            result.add(requestId);
+            return result;
+        });
+    }
+
+    void remove(UUID requestId, long expirationTimeMillis) {
+        Set<UUID> requests = requestsByBucket.get(bucketFor(expirationTimeMillis));
+        if (requests != null) {
+            requests.remove(requestId);
+        }
+    }
+
+    void move(UUID requestId, long previousExpirationTimeMillis, long expirationTimeMillis) {
+        if (bucketFor(previousExpirationTimeMillis) != bucketFor(expirationTimeMillis)) {
+            // Add before removing, so the request is never missing from the bucket for its current expiration time.
+            add(requestId, expirationTimeMillis);
+            remove(requestId, previousExpirationTimeMillis);
+        }
+    }
+
+    /**
+     * Removes and returns the requests in all buckets that end before the bucket containing {@code nowMillis}.
+     * Requests added back with an expiration time of at least {@code nowMillis} will not be returned again by the
+     * same call.
+     */
+    List<UUID> pollExpired(long nowMillis) {
+        long currentBucket = bucketFor(nowMillis);
+        List<UUID> expired = Lists.newArrayList();
+        Map.Entry<Long, Set<UUID>> first;
+        while ((first = requestsByBucket.firstEntry()) != null && first.getKey() < currentBucket) {
+            if (requestsByBucket.remove(first.getKey(), first.getValue())) {
+                expired.addAll(first.getValue());
+            }
+        }
+        return expired;
+    }
+
+    @VisibleForTesting
+    int numBuckets() {
+        return requestsByBucket.size();
+    }
+
+    private static long bucketFor(long timeMillis) {
+        return Math.floorDiv(timeMillis, BUCKET_MILLIS);
+    }
+}
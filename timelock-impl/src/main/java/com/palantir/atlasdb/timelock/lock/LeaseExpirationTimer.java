@@ -35,7 +35,14 @@ public class LeaseExpirationTimer {
     }
 
     public boolean isExpired() {
-        return clock.getTimeMillis() > lastRefreshTimeMillis + LEASE_TIMEOUT_MILLIS;
+        return clock.getTimeMillis() > getExpirationTimeMillis();
+    }
+
+    /**
+     * Returns the time after which the lease will have expired, unless it is refreshed before then.
+     */
+    public long getExpirationTimeMillis() {
+        return lastRefreshTimeMillis + LEASE_TIMEOUT_MILLIS;
     }
 
 }
@@ -26,20 +26,28 @@ import org.immutables.value.Value;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.common.persist.Persistable;
+import com.palantir.leader.PaxosKnowledgeEventRecorder;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptorImpl;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosLearnerImpl;
+import com.palantir.paxos.PaxosStateLog;
+import com.palantir.paxos.PaxosStateLogImpl;
+import com.palantir.paxos.SegmentedPaxosStateLog;
+import com.palantir.paxos.Versionable;
 
 @Path("/" + PaxosTimeLockConstants.INTERNAL_NAMESPACE
         + "/" + PaxosTimeLockConstants.CLIENT_PAXOS_NAMESPACE
         + "/{client: [a-zA-Z0-9_-]+}")
 public final class PaxosResource {
     private final String logDirectory;
+    private final boolean useSegmentedStateLog;
     private final Map<String, PaxosComponents> paxosComponentsByClient = Maps.newConcurrentMap();
 
-    private PaxosResource(String logDirectory) {
+    private PaxosResource(String logDirectory, boolean useSegmentedStateLog) {
         this.logDirectory = logDirectory;
+        this.useSegmentedStateLog = useSegmentedStateLog;
     }
 
     public static PaxosResource create() {
@@ -47,7 +55,11 @@ public final class PaxosResource {
     }
 
     public static PaxosResource create(String logDirectory) {
-        return new PaxosResource(logDirectory);
+        return create(logDirectory, false);
+    }
+
+    public static PaxosResource create(String logDirectory, boolean useSegmentedStateLog) {
+        return new PaxosResource(logDirectory, useSegmentedStateLog);
     }
 
     public PaxosComponents createInstrumentedComponents(String client) {
@@ -55,14 +67,14 @@ public final class PaxosResource {
                 .toString();
         PaxosLearner learner = instrument(
                 PaxosLearner.class,
-                PaxosLearnerImpl.newLearner(learnerLogDir),
+                PaxosLearnerImpl.newLearner(createLog(learnerLogDir), PaxosKnowledgeEventRecorder.NO_OP),
                 client);
 
         String acceptorLogDir = Paths.get(logDirectory, client, PaxosTimeLockConstants.ACCEPTOR_SUBDIRECTORY_PATH)
                 .toString();
         PaxosAcceptor acceptor = instrument(
                 PaxosAcceptor.class,
-                PaxosAcceptorImpl.newAcceptor(acceptorLogDir),
+                PaxosAcceptorImpl.newAcceptor(createLog(acceptorLogDir)),
                 client);
 
         return ImmutablePaxosComponents.builder()
@@ -71,6 +83,10 @@ public final class PaxosResource {
                 .build();
     }
 
+    private <V extends Persistable & Versionable> PaxosStateLog<V> createLog(String logDir) {
+        return useSegmentedStateLog ? new SegmentedPaxosStateLog<>(logDir) : new PaxosStateLogImpl<>(logDir);
+    }
+
     private static <T> T instrument(Class<T> serviceClass, T service, String client) {
         // TODO(nziebart): tag with the client name, when tritium supports it
         return AtlasDbMetrics.instrument(serviceClass, service, MetricRegistry.name(serviceClass));
@@ -26,6 +26,7 @@ import com.palantir.atlasdb.timelock.benchmarks.benchmarks.KvsPutUnlessExistsBen
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.KvsReadBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.KvsWriteBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockContendedBenchmark;
+import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockImmutableTimestampBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockUncontendedBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanDynamicColumnsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanRowsBenchmark;
@@ -82,6 +83,11 @@ public class BenchmarksResource implements BenchmarksService {
         return LockAndUnlockContendedBenchmark.execute(txnManager, numClients, numRequestsPerClient, numDistinctLocks);
     }
 
+    @Override
+    public Map<String, Object> lockAndUnlockImmutableTimestamp(int numClients, int numRequestsPerClient) {
+        return LockAndUnlockImmutableTimestampBenchmark.execute(txnManager, numClients, numRequestsPerClient);
+    }
+
     @Override
     public Map<String, Object> transactionReadRows(int numClients, int numRequestsPerClient, int numRows,
             int dataSize) {
@@ -66,6 +66,12 @@ public interface BenchmarksService {
             @QueryParam("numRequestsPerClient") int numRequestsPerClient,
             @QueryParam("numDistinctLocks") int numDistinctLocks);
 
+    @GET
+    @Path("/lock-unlock-immutable-timestamp")
+    Map<String, Object> lockAndUnlockImmutableTimestamp(
+            @QueryParam("numClients") int numClients,
+            @QueryParam("numRequestsPerClient") int numRequestsPerClient);
+
     @GET
     @Path("/read-txn-rows")
     Map<String, Object> transactionReadRows(
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.benchmarks.benchmarks;
+
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.transaction.impl.SerializableTransactionManager;
+import com.palantir.lock.v2.LockImmutableTimestampRequest;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.TimelockService;
+
+/**
+ * Locks and unlocks the immutable timestamp as every write transaction does when it starts and finishes, which
+ * exercises the server's immutable timestamp tracker. Run with increasing numbers of clients to see how throughput
+ * scales with the cores available to the server.
+ */
+public final class LockAndUnlockImmutableTimestampBenchmark extends AbstractBenchmark {
+
+    private final TimelockService timelock;
+
+    public static Map<String, Object> execute(SerializableTransactionManager txnManager, int numClients,
+            int requestsPerClient) {
+        return new LockAndUnlockImmutableTimestampBenchmark(txnManager.getTimelockService(), numClients,
+                requestsPerClient).execute();
+    }
+
+    private LockAndUnlockImmutableTimestampBenchmark(TimelockService timelock, int numClients,
+            int numRequestsPerClient) {
+        super(numClients, numRequestsPerClient);
+        this.timelock = timelock;
+    }
+
+    @Override
+    protected void performOneCall() {
+        LockImmutableTimestampResponse response = timelock.lockImmutableTimestamp(
+                LockImmutableTimestampRequest.create());
+        boolean wasUnlocked = timelock.unlock(ImmutableSet.of(response.getLock())).contains(response.getLock());
+        Preconditions.checkState(wasUnlocked, "unlock returned false");
+    }
+}
@@ -39,6 +39,13 @@ public class BenchmarksRunner extends BenchmarkRunnerBase {
         runAndPrintResults(() -> client.lockAndUnlockContended(8, 1000, 2));
     }
 
+    @Test
+    public void lockAndUnlockImmutableTimestamp() {
+        for (int numClients : new int[] { 1, 2, 4, 8, 16, 32 }) {
+            runAndPrintResults(client::lockAndUnlockImmutableTimestamp, numClients, 1000);
+        }
+    }
+
     @Test
     public void writeTransactionRows() {
         runAndPrintResults(() -> client.transactionWriteRows(1, 20, 1000, 200));
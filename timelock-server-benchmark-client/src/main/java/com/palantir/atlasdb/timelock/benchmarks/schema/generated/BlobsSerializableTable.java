@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -174,8 +175,10 @@ public final class BlobsSerializableTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] keyBytes = key;
-            return EncodingUtils.add(keyBytes);
+            byte[] __output = new byte[key.length];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<BlobsSerializableRow> BYTES_HYDRATOR = new Hydrator<BlobsSerializableRow>() {
@@ -501,6 +504,20 @@ public final class BlobsSerializableTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<BlobsSerializableRowResult>> getRowsAsync(Iterable<BlobsSerializableRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<BlobsSerializableRowResult>> getRowsAsync(Iterable<BlobsSerializableRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<BlobsSerializableRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(BlobsSerializableRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<BlobsSerializableNamedColumnValue<?>> getRowColumns(BlobsSerializableRow row) {
         return getRowColumns(row, allColumns);
@@ -630,6 +647,7 @@ public final class BlobsSerializableTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -684,5 +702,5 @@ public final class BlobsSerializableTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "yLyE7LWp3HCpLg4wfAKk+w==";
+    static String __CLASS_HASH = "Jn6Tn4nWsePPEFnsuKoGVA==";
 }
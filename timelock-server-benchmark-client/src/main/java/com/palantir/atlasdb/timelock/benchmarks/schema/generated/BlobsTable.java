@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -174,8 +175,10 @@ public final class BlobsTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] keyBytes = key;
-            return EncodingUtils.add(keyBytes);
+            byte[] __output = new byte[key.length];
+            int __index = 0;
+            __index = EncodingUtils.encodeBytes(key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<BlobsRow> BYTES_HYDRATOR = new Hydrator<BlobsRow>() {
@@ -501,6 +504,20 @@ public final class BlobsTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<BlobsRowResult>> getRowsAsync(Iterable<BlobsRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<BlobsRowResult>> getRowsAsync(Iterable<BlobsRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<BlobsRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(BlobsRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<BlobsNamedColumnValue<?>> getRowColumns(BlobsRow row) {
         return getRowColumns(row, allColumns);
@@ -630,6 +647,7 @@ public final class BlobsTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -684,5 +702,5 @@ public final class BlobsTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "tG3SDjMN1T6Qg84GKbWJ+Q==";
+    static String __CLASS_HASH = "BhdpscTEBVweK4yDiF8MJA==";
 }
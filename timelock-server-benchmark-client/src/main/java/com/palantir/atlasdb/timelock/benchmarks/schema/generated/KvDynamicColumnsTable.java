@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -176,9 +177,11 @@ public final class KvDynamicColumnsTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] firstComponentHashBytes = PtBytes.toBytes(Long.MIN_VALUE ^ firstComponentHash);
-            byte[] bucketBytes = EncodingUtils.encodeVarString(bucket);
-            return EncodingUtils.add(firstComponentHashBytes, bucketBytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfVarString(bucket)];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ firstComponentHash, __output, __index);
+            __index = EncodingUtils.encodeVarString(bucket, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<KvDynamicColumnsRow> BYTES_HYDRATOR = new Hydrator<KvDynamicColumnsRow>() {
@@ -287,8 +290,10 @@ public final class KvDynamicColumnsTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] keyBytes = PtBytes.toBytes(Long.MIN_VALUE ^ key);
-            return EncodingUtils.add(keyBytes);
+            byte[] __output = new byte[8];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<KvDynamicColumnsColumn> BYTES_HYDRATOR = new Hydrator<KvDynamicColumnsColumn>() {
@@ -759,6 +764,7 @@ public final class KvDynamicColumnsTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -813,5 +819,5 @@ public final class KvDynamicColumnsTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "nQHx3iYjQLTbuP6/sgUjKg==";
+    static String __CLASS_HASH = "P/Qj1QSeCHiy4iXh53h2GQ==";
 }
@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -185,10 +186,12 @@ public final class KvRowsTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] firstComponentHashBytes = PtBytes.toBytes(Long.MIN_VALUE ^ firstComponentHash);
-            byte[] bucketBytes = EncodingUtils.encodeVarString(bucket);
-            byte[] keyBytes = PtBytes.toBytes(Long.MIN_VALUE ^ key);
-            return EncodingUtils.add(firstComponentHashBytes, bucketBytes, keyBytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfVarString(bucket) + 8];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ firstComponentHash, __output, __index);
+            __index = EncodingUtils.encodeVarString(bucket, __output, __index);
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<KvRowsRow> BYTES_HYDRATOR = new Hydrator<KvRowsRow>() {
@@ -552,6 +555,20 @@ public final class KvRowsTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<KvRowsRowResult>> getRowsAsync(Iterable<KvRowsRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<KvRowsRowResult>> getRowsAsync(Iterable<KvRowsRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<KvRowsRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(KvRowsRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<KvRowsNamedColumnValue<?>> getRowColumns(KvRowsRow row) {
         return getRowColumns(row, allColumns);
@@ -724,6 +741,7 @@ public final class KvRowsTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -778,5 +796,5 @@ public final class KvRowsTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "8IM1VFFyEfQZuXiplEiPdg==";
+    static String __CLASS_HASH = "tgZ9aOtwdyFslTwHy/vkiA==";
 }
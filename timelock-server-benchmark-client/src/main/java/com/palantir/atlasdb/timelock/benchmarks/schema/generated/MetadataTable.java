@@ -12,6 +12,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
@@ -178,9 +179,11 @@ public final class MetadataTable implements
 
         @Override
         public byte[] persistToBytes() {
-            byte[] firstComponentHashBytes = PtBytes.toBytes(Long.MIN_VALUE ^ firstComponentHash);
-            byte[] keyBytes = EncodingUtils.encodeVarString(key);
-            return EncodingUtils.add(firstComponentHashBytes, keyBytes);
+            byte[] __output = new byte[8 + EncodingUtils.sizeOfVarString(key)];
+            int __index = 0;
+            __index = EncodingUtils.encodeLong(Long.MIN_VALUE ^ firstComponentHash, __output, __index);
+            __index = EncodingUtils.encodeVarString(key, __output, __index);
+            return __output;
         }
 
         public static final Hydrator<MetadataRow> BYTES_HYDRATOR = new Hydrator<MetadataRow>() {
@@ -524,6 +527,20 @@ public final class MetadataTable implements
         return rowResults;
     }
 
+    public CompletableFuture<List<MetadataRowResult>> getRowsAsync(Iterable<MetadataRow> rows) {
+        return getRowsAsync(rows, allColumns);
+    }
+
+    public CompletableFuture<List<MetadataRowResult>> getRowsAsync(Iterable<MetadataRow> rows, ColumnSelection columns) {
+        return t.getRowsAsync(tableRef, Persistables.persistAll(rows), columns).thenApply(results -> {
+            List<MetadataRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+            for (RowResult<byte[]> row : results.values()) {
+                rowResults.add(MetadataRowResult.of(row));
+            }
+            return rowResults;
+        });
+    }
+
     @Override
     public List<MetadataNamedColumnValue<?>> getRowColumns(MetadataRow row) {
         return getRowColumns(row, allColumns);
@@ -696,6 +713,7 @@ public final class MetadataTable implements
      * {@link ColumnValue}
      * {@link ColumnValues}
      * {@link ComparisonChain}
+     * {@link CompletableFuture}
      * {@link Compression}
      * {@link CompressionUtils}
      * {@link ConstraintCheckingTransaction}
@@ -750,5 +768,5 @@ public final class MetadataTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "DV1gh2O9rwXDJ5TvONBWVg==";
+    static String __CLASS_HASH = "XzYufCn01ddRgt8BOp04rQ==";
 }
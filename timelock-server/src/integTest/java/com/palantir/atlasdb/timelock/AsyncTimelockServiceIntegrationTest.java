@@ -55,6 +55,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.timestamp.TimestampRange;
@@ -114,6 +116,21 @@ public class AsyncTimelockServiceIntegrationTest extends AbstractAsyncTimelockSe
         cluster.unlock(response2.getLock());
     }
 
+    @Test
+    public void startTransactionsHoldsImmutableTimestampBelowAllStartTimestamps() {
+        StartTransactionsResponse response = cluster.timelockService()
+                .startTransactions(StartTransactionsRequest.create(10));
+        TimestampRange startTimestamps = response.getStartTimestamps();
+
+        assertThat(startTimestamps.size()).isBetween(1L, 10L);
+        assertThat(response.getImmutableTimestamp().getImmutableTimestamp())
+                .isLessThan(startTimestamps.getLowerBound());
+        assertThat(cluster.timelockService().getImmutableTimestamp())
+                .isLessThanOrEqualTo(response.getImmutableTimestamp().getImmutableTimestamp());
+
+        assertTrue(cluster.unlock(response.getImmutableTimestamp().getLock()));
+    }
+
     @Test
     public void immutableTimestampIsGreaterThanFreshTimestampWhenNotLocked() {
         long freshTs = cluster.getFreshTimestamp();
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -27,16 +28,26 @@ import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.palantir.common.time.Clock;
 import com.palantir.lock.v2.LockToken;
 
 public class HeldLocksCollectionTest {
 
     private static final UUID REQUEST_ID = UUID.randomUUID();
+    private static final long START_TIME_MILLIS = 123_456L;
 
     private final HeldLocksCollection heldLocksCollection = new HeldLocksCollection();
+    private final Clock clock = mock(Clock.class);
+
+    @Before
+    public void before() {
+        when(clock.getTimeMillis()).thenReturn(START_TIME_MILLIS);
+    }
 
     @Test
     public void callsSupplierForNewRequest() {
@@ -121,6 +132,44 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById.isEmpty()).isTrue();
     }
 
+    @Test
+    public void doesNotExamineRequestsWhoseLeasesHaveNotRunOut() {
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        when(heldLocks.getLeaseExpirationTimeMillis()).thenReturn(
+                System.currentTimeMillis() + LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS);
+        addCompletedRequest(heldLocks);
+
+        heldLocksCollection.removeExpired();
+
+        verify(heldLocks, never()).unlockIfExpired();
+        assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void refreshedLocksAreOnlyRemovedOnceTheirNewLeaseRunsOut() {
+        HeldLocksCollection collection = new HeldLocksCollection(clock);
+        HeldLocks heldLocks = new HeldLocks(ImmutableList.of(), REQUEST_ID, new LeaseExpirationTimer(clock));
+        AsyncResult<HeldLocks> result = new AsyncResult<>();
+        result.complete(heldLocks);
+        LockToken token = collection.getExistingOrAcquire(REQUEST_ID, () -> result).get();
+
+        advanceClock(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS / 2);
+        assertThat(collection.refresh(ImmutableSet.of(token))).containsExactly(token);
+
+        advanceClock(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS);
+        collection.removeExpired();
+        assertThat(collection.heldLocksById).containsKey(REQUEST_ID);
+
+        advanceClock(LeaseExpirationTimer.LEASE_TIMEOUT_MILLIS);
+        collection.removeExpired();
+        assertThat(collection.heldLocksById).isEmpty();
+    }
+
+    private void advanceClock(long millis) {
+        long newTime = clock.getTimeMillis() + millis;
+        when(clock.getTimeMillis()).thenReturn(newTime);
+    }
+
     private LockToken mockExpiredRequest() {
         return mockHeldLocksForNewRequest(
                 heldLocks -> when(heldLocks.unlockIfExpired()).thenReturn(true));
@@ -168,10 +217,13 @@ public class HeldLocksCollectionTest {
     }
 
     private LockToken mockHeldLocksForNewRequest(Consumer<HeldLocks> mockApplier) {
-        LockToken request = LockToken.of(UUID.randomUUID());
         HeldLocks heldLocks = mock(HeldLocks.class);
         mockApplier.accept(heldLocks);
+        return addCompletedRequest(heldLocks);
+    }
 
+    private LockToken addCompletedRequest(HeldLocks heldLocks) {
+        LockToken request = LockToken.of(UUID.randomUUID());
         AsyncResult<HeldLocks> completedResult = new AsyncResult<>();
         completedResult.complete(heldLocks);
         heldLocksCollection.getExistingOrAcquire(request.getRequestId(),
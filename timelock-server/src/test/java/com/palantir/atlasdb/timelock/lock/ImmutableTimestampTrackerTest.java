@@ -19,11 +19,18 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 public class ImmutableTimestampTrackerTest {
 
     private static final UUID REQUEST_1 = UUID.randomUUID();
@@ -32,6 +39,8 @@ public class ImmutableTimestampTrackerTest {
     private static final long TIMESTAMP_1 = 1L;
     private static final long TIMESTAMP_2 = 2L;
 
+    private static final int NUM_THREADS = 8;
+
     private final ImmutableTimestampTracker tracker = new ImmutableTimestampTracker();
 
     @Test
@@ -81,6 +90,30 @@ public class ImmutableTimestampTrackerTest {
         assertThatThrownBy(() -> unlock(TIMESTAMP_1, REQUEST_1)).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void immutableTimestampNeverExceedsAHeldTimestampUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        AtomicLong nextTimestamp = new AtomicLong();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    long timestamp = nextTimestamp.incrementAndGet();
+                    UUID requestId = UUID.randomUUID();
+                    lock(timestamp, requestId);
+                    assertThat(tracker.getImmutableTimestamp().get()).isLessThanOrEqualTo(timestamp);
+                    unlock(timestamp, requestId);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(tracker.getImmutableTimestamp()).isEqualTo(Optional.empty());
+    }
+
     private AsyncResult<Void> lock(long timestamp, UUID requestId) {
         return tracker.getLockFor(timestamp).lock(requestId);
     }
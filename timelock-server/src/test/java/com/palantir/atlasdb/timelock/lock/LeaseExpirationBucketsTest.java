@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class LeaseExpirationBucketsTest {
+
+    private static final UUID REQUEST_1 = UUID.randomUUID();
+    private static final UUID REQUEST_2 = UUID.randomUUID();
+
+    private static final long NOW = 100_000L;
+    private static final long BUCKET = LeaseExpirationBuckets.BUCKET_MILLIS;
+
+    private final LeaseExpirationBuckets buckets = new LeaseExpirationBuckets();
+
+    @Test
+    public void pollsOnlyRequestsInBucketsBeforeTheCurrentOne() {
+        buckets.add(REQUEST_1, NOW - BUCKET);
+        buckets.add(REQUEST_2, NOW + BUCKET);
+
+        assertThat(buckets.pollExpired(NOW)).containsExactly(REQUEST_1);
+        assertThat(buckets.pollExpired(NOW)).isEmpty();
+        assertThat(buckets.pollExpired(NOW + 2 * BUCKET)).containsExactly(REQUEST_2);
+    }
+
+    @Test
+    public void doesNotPollRequestsWhoseExpirationIsInTheCurrentBucket() {
+        buckets.add(REQUEST_1, NOW);
+
+        assertThat(buckets.pollExpired(NOW + 1)).isEmpty();
+    }
+
+    @Test
+    public void movedRequestsAreOnlyPolledAtTheirNewExpirationTime() {
+        buckets.add(REQUEST_1, NOW);
+        buckets.move(REQUEST_1, NOW, NOW + 10 * BUCKET);
+
+        assertThat(buckets.pollExpired(NOW + 2 * BUCKET)).isEmpty();
+        assertThat(buckets.pollExpired(NOW + 11 * BUCKET)).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void removedRequestsAreNotPolled() {
+        buckets.add(REQUEST_1, NOW);
+        buckets.remove(REQUEST_1, NOW);
+
+        assertThat(buckets.pollExpired(NOW + 2 * BUCKET)).isEmpty();
+    }
+
+    @Test
+    public void polledBucketsAreDiscarded() {
+        buckets.add(REQUEST_1, NOW);
+        buckets.add(REQUEST_2, NOW + BUCKET);
+
+        buckets.pollExpired(NOW + 5 * BUCKET);
+
+        assertThat(buckets.numBuckets()).isEqualTo(0);
+    }
+}